@@ -0,0 +1,111 @@
+package com.ai.infrastructure.cache;
+
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
+
+/**
+ * Compact value of the {@code embeddings} cache.
+ *
+ * Holds the vector and model only; the response DTO, with its request id and timing, is rebuilt on
+ * every hit. Vectors are kept as the immutable {@link Embedding} (shared, not copied), or, when
+ * quantization is enabled, as one signed byte per dimension plus a per-vector scale (symmetric int8).
+ * Quantized vectors are a quarter of the size; the reconstruction error per component is at most
+ * {@code scale / 2}, which leaves cosine similarity practically unchanged for normalized sentence
+ * embeddings.
+ */
+public final class CachedEmbedding {
+
+    private final String model;
+    private final Embedding embedding;
+    private final byte[] quantized;
+    private final float scale;
+
+    private CachedEmbedding(String model, Embedding embedding, byte[] quantized, float scale) {
+        this.model = model;
+        this.embedding = embedding;
+        this.quantized = quantized;
+        this.scale = scale;
+    }
+
+    /**
+     * @param response provider response to cache
+     * @param quantize store the vector as int8
+     * @return the compact value, or {@code null} when the response has no vector
+     */
+    public static CachedEmbedding from(AIEmbeddingResponse response, boolean quantize) {
+        if (response == null || response.getVector() == null) {
+            return null;
+        }
+        return quantize
+            ? quantized(response.getModel(), response.getVector().values())
+            : full(response.getModel(), response.getVector());
+    }
+
+    static CachedEmbedding full(String model, Embedding embedding) {
+        return new CachedEmbedding(model, embedding, null, 0f);
+    }
+
+    static CachedEmbedding quantized(String model, float[] vector) {
+        float maxAbs = 0f;
+        for (float value : vector) {
+            maxAbs = Math.max(maxAbs, Math.abs(value));
+        }
+        float scale = maxAbs > 0f ? maxAbs / 127f : 1f;
+        byte[] bytes = new byte[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            bytes[i] = (byte) Math.round(vector[i] / scale);
+        }
+        return new CachedEmbedding(model, null, bytes, scale);
+    }
+
+    static CachedEmbedding restore(String model, byte[] quantized, float scale) {
+        return new CachedEmbedding(model, null, quantized, scale);
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public boolean isQuantized() {
+        return quantized != null;
+    }
+
+    public int dimension() {
+        return quantized != null ? quantized.length : embedding.dimension();
+    }
+
+    byte[] quantizedValues() {
+        return quantized;
+    }
+
+    float scale() {
+        return scale;
+    }
+
+    /**
+     * @return the vector, dequantized into a new embedding if needed
+     */
+    public Embedding embedding() {
+        if (quantized == null) {
+            return embedding;
+        }
+        float[] vector = new float[quantized.length];
+        for (int i = 0; i < quantized.length; i++) {
+            vector[i] = quantized[i] * scale;
+        }
+        return Embedding.wrap(vector);
+    }
+
+    /**
+     * Rebuild the response DTO for a cache hit.
+     */
+    public AIEmbeddingResponse toResponse() {
+        Embedding embedding = embedding();
+        return AIEmbeddingResponse.builder()
+            .vector(embedding)
+            .model(model)
+            .dimensions(embedding.dimension())
+            .processingTimeMs(0L)
+            .build();
+    }
+}
@@ -0,0 +1,479 @@
+package com.ai.infrastructure.cache;
+
+import com.ai.infrastructure.embedding.Embedding;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Second-level embedding cache persisted to local disk, so embeddings survive restarts.
+ *
+ * Entries are appended to memory-mapped segment files of a fixed size; a full segment is sealed and a
+ * new one started. An in-memory index maps each {@link EmbeddingCacheKey} to its record and is kept in
+ * access order, bounded by {@code maxEntries}: the least recently used entries are dropped from the
+ * index and their records become dead space. When a new segment is started, sealed segments whose live
+ * bytes have fallen below {@code minLiveRatio} are compacted (live records copied forward, file
+ * deleted), and the oldest segments are dropped once there are more than {@code maxSegments}.
+ *
+ * Each record is {@code [payload length][CRC32][payload]}. On open, segments are scanned in order and
+ * the index is rebuilt; a segment is read up to its first torn or corrupt record, so a crash loses at
+ * most the records written since the OS last flushed the mapping. A lock file keeps a second process
+ * from opening the same directory.
+ *
+ * All operations hold the instance monitor. A hit is an index lookup and a copy out of the mapping,
+ * which takes microseconds.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+@Slf4j
+public class DiskEmbeddingCache implements AutoCloseable {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String LOCK_FILE = "cache.lock";
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final byte FLAG_QUANTIZED = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int maxEntries;
+    private final double minLiveRatio;
+
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private final LinkedHashMap<EmbeddingCacheKey, Location> index;
+    private Segment active;
+    private boolean compacting;
+    private boolean closed;
+
+    private long hits;
+    private long misses;
+    private long writes;
+    private long evictions;
+    private long compactions;
+
+    /**
+     * @param directory directory holding the segment files; created if missing
+     * @param segmentSize size of each segment file in bytes
+     * @param maxSegments segments kept before the oldest is dropped
+     * @param maxEntries entries kept in the index before the least recently used is dropped
+     * @param minLiveRatio live fraction below which a sealed segment is compacted
+     * @throws IOException if the directory cannot be opened or is in use by another process
+     */
+    public DiskEmbeddingCache(Path directory, int segmentSize, int maxSegments, int maxEntries,
+                              double minLiveRatio) throws IOException {
+        if (segmentSize < 4096 || maxSegments < 2 || maxEntries < 1 || minLiveRatio < 0 || minLiveRatio > 1) {
+            throw new IllegalArgumentException("segmentSize must be at least 4096 bytes, maxSegments at least 2, "
+                + "maxEntries positive and minLiveRatio between 0 and 1");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.maxEntries = maxEntries;
+        this.minLiveRatio = minLiveRatio;
+        this.index = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EmbeddingCacheKey, Location> eldest) {
+                if (size() <= DiskEmbeddingCache.this.maxEntries) {
+                    return false;
+                }
+                eldest.getValue().release();
+                evictions++;
+                return true;
+            }
+        };
+
+        Files.createDirectories(directory);
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = tryLock(lockChannel);
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Embedding cache directory " + directory + " is in use by another process");
+        }
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            closeQuietly();
+            throw e;
+        }
+        // Records dropped while rebuilding the index were dead already
+        evictions = 0;
+        log.info("Opened disk embedding cache at {} with {} entries in {} segments",
+            directory, index.size(), segments.size());
+    }
+
+    /**
+     * @return the cached embedding, or {@code null} if absent
+     */
+    public synchronized CachedEmbedding get(EmbeddingCacheKey key) {
+        if (closed) {
+            return null;
+        }
+        Location location = index.get(key);
+        if (location == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return decode(location.segment.buffer, location.offset + RECORD_HEADER_BYTES);
+    }
+
+    /**
+     * @return the cached embeddings for the keys that are present
+     */
+    public synchronized Map<EmbeddingCacheKey, CachedEmbedding> getAll(Collection<EmbeddingCacheKey> keys) {
+        Map<EmbeddingCacheKey, CachedEmbedding> found = new HashMap<>();
+        for (EmbeddingCacheKey key : keys) {
+            CachedEmbedding value = get(key);
+            if (value != null) {
+                found.put(key, value);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Append an entry. Keys are content hashes, so an entry that is already present is left as is.
+     */
+    public synchronized void put(EmbeddingCacheKey key, CachedEmbedding value) {
+        if (closed || value == null || index.containsKey(key)) {
+            return;
+        }
+        byte[] payload = encode(key, value);
+        if (RECORD_HEADER_BYTES + payload.length > segmentSize) {
+            log.debug("Embedding of dimension {} does not fit a disk cache segment", value.dimension());
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        try {
+            Location location = append(payload, (int) crc.getValue());
+            index.put(key, location);
+            writes++;
+        } catch (IOException | RuntimeException e) {
+            // A failed write is a cache miss, never a failure of the caller
+            log.warn("Failed to write embedding to disk cache at {}: {}", directory, e.getMessage());
+        }
+    }
+
+    public synchronized void putAll(Map<EmbeddingCacheKey, CachedEmbedding> entries) {
+        entries.forEach(this::put);
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        long diskBytes = 0;
+        long liveBytes = 0;
+        for (Segment segment : segments.values()) {
+            diskBytes += segment.writePosition;
+            liveBytes += segment.liveBytes;
+        }
+        return Map.of(
+            "entries", index.size(),
+            "segments", segments.size(),
+            "diskBytes", diskBytes,
+            "liveBytes", liveBytes,
+            "hits", hits,
+            "misses", misses,
+            "writes", writes,
+            "evictions", evictions,
+            "compactions", compactions
+        );
+    }
+
+    /**
+     * Flush the mapped segments to disk and release the directory lock.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        for (Segment segment : segments.values()) {
+            segment.buffer.force();
+        }
+        closeQuietly();
+    }
+
+    private static FileLock tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Held by another instance in this JVM
+            return null;
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                .forEach(name -> {
+                    try {
+                        ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException ignored) {
+                        // Not one of ours
+                    }
+                });
+        }
+        ids.sort(null);
+
+        for (Long id : ids) {
+            Segment segment = openSegment(id);
+            segments.put(id, segment);
+            scan(segment);
+        }
+        active = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        if (active == null) {
+            active = openSegment(0);
+            segments.put(0L, active);
+        }
+    }
+
+    /**
+     * Index every valid record of a segment and position its write offset after the last one.
+     */
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int offset = 0;
+        while (offset + RECORD_HEADER_BYTES <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER_BYTES + length > segmentSize) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER_BYTES, payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+                log.warn("Disk embedding cache segment {} is truncated at offset {}", segment.path, offset);
+                break;
+            }
+            ByteBuffer record = ByteBuffer.wrap(payload);
+            EmbeddingCacheKey key = new EmbeddingCacheKey(record.getLong(), record.getLong());
+            Location previous = index.put(key, new Location(segment, offset, RECORD_HEADER_BYTES + length));
+            if (previous != null) {
+                previous.release();
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        segment.writePosition = offset;
+    }
+
+    private Location append(byte[] payload, int crc) throws IOException {
+        int length = RECORD_HEADER_BYTES + payload.length;
+        if (active.writePosition + length > segmentSize) {
+            roll(true);
+            if (active.writePosition + length > segmentSize) {
+                // Compaction filled the new segment; start another one without compacting again
+                roll(false);
+            }
+        }
+        int offset = active.writePosition;
+        MappedByteBuffer buffer = active.buffer;
+        buffer.put(offset + RECORD_HEADER_BYTES, payload);
+        buffer.putInt(offset + 4, crc);
+        buffer.putInt(offset, payload.length);
+        active.writePosition += length;
+        return new Location(active, offset, length);
+    }
+
+    /**
+     * Seal the active segment, start a new one, then optionally compact sparse segments, and drop the
+     * oldest ones beyond {@code maxSegments}.
+     */
+    private void roll(boolean compact) throws IOException {
+        long id = segments.lastKey() + 1;
+        active = openSegment(id);
+        segments.put(id, active);
+        if (compacting) {
+            return;
+        }
+
+        if (compact) {
+            compacting = true;
+            try {
+                for (Segment segment : new ArrayList<>(segments.values())) {
+                    if (segment != active && segment.liveBytes < segment.writePosition * minLiveRatio) {
+                        compact(segment);
+                    }
+                }
+            } finally {
+                compacting = false;
+            }
+        }
+        while (segments.size() > maxSegments) {
+            dropSegment(segments.firstEntry().getValue());
+        }
+    }
+
+    /**
+     * Copy the live records of a sealed segment to the active one and delete it.
+     */
+    private void compact(Segment segment) throws IOException {
+        List<Map.Entry<EmbeddingCacheKey, Location>> live = new ArrayList<>();
+        for (Map.Entry<EmbeddingCacheKey, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment == segment) {
+                live.add(entry);
+            }
+        }
+        for (Map.Entry<EmbeddingCacheKey, Location> entry : live) {
+            Location location = entry.getValue();
+            byte[] payload = new byte[location.length - RECORD_HEADER_BYTES];
+            segment.buffer.get(location.offset + RECORD_HEADER_BYTES, payload);
+            // Entry.setValue keeps the entry's place in the access order
+            entry.setValue(append(payload, segment.buffer.getInt(location.offset + 4)));
+        }
+        deleteSegment(segment);
+        compactions++;
+        log.debug("Compacted disk embedding cache segment {} ({} live records moved)", segment.path, live.size());
+    }
+
+    private void dropSegment(Segment segment) throws IOException {
+        int dropped = 0;
+        Iterator<Location> locations = index.values().iterator();
+        while (locations.hasNext()) {
+            if (locations.next().segment == segment) {
+                locations.remove();
+                dropped++;
+            }
+        }
+        evictions += dropped;
+        deleteSegment(segment);
+        log.debug("Dropped disk embedding cache segment {} with {} entries", segment.path, dropped);
+    }
+
+    private void deleteSegment(Segment segment) throws IOException {
+        segments.remove(segment.id);
+        segment.channel.close();
+        Files.deleteIfExists(segment.path);
+    }
+
+    private Segment openSegment(long id) throws IOException {
+        Path path = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new Segment(id, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void closeQuietly() {
+        closed = true;
+        for (Segment segment : segments.values()) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.debug("Failed to close disk embedding cache segment {}: {}", segment.path, e.getMessage());
+            }
+        }
+        try {
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.debug("Failed to release disk embedding cache lock: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Payload layout: key high, key low, flags, dimension, scale, model length, model (UTF-8), then
+     * {@code dimension} floats, or {@code dimension} bytes when quantized.
+     */
+    private static byte[] encode(EmbeddingCacheKey key, CachedEmbedding value) {
+        byte[] model = value.model() != null ? value.model().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int dimension = value.dimension();
+        boolean quantized = value.isQuantized();
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 + 1 + 4 + 4 + 2 + model.length
+            + (quantized ? dimension : dimension * Float.BYTES));
+        buffer.putLong(key.high()).putLong(key.low())
+            .put(quantized ? FLAG_QUANTIZED : 0)
+            .putInt(dimension)
+            .putFloat(value.scale())
+            .putShort((short) model.length)
+            .put(model);
+        if (quantized) {
+            buffer.put(value.quantizedValues());
+        } else {
+            buffer.asFloatBuffer().put(value.embedding().values());
+        }
+        return buffer.array();
+    }
+
+    private static CachedEmbedding decode(ByteBuffer segment, int offset) {
+        ByteBuffer buffer = segment.duplicate().position(offset + 16);
+        boolean quantized = (buffer.get() & FLAG_QUANTIZED) != 0;
+        int dimension = buffer.getInt();
+        float scale = buffer.getFloat();
+        byte[] modelBytes = new byte[buffer.getShort() & 0xffff];
+        buffer.get(modelBytes);
+        String model = modelBytes.length > 0 ? new String(modelBytes, StandardCharsets.UTF_8) : null;
+        if (quantized) {
+            byte[] values = new byte[dimension];
+            buffer.get(values);
+            return CachedEmbedding.restore(model, values, scale);
+        }
+        float[] values = new float[dimension];
+        buffer.asFloatBuffer().get(values);
+        return CachedEmbedding.full(model, Embedding.wrap(values));
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private long liveBytes;
+
+        private Segment(long id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    private static final class Location {
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        private Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            segment.liveBytes += length;
+        }
+
+        private void release() {
+            segment.liveBytes -= length;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ai.infrastructure.cache;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-size key of the {@code embeddings} cache: a 128-bit MurmurHash3 (x64 variant) of the
+ * normalized text together with model, provider and embedding dimension.
+ *
+ * Keys used to embed the full text (up to 8000 characters), so each one could cost more memory than
+ * the vector it pointed to. Two longs are enough to make collisions practically impossible at any
+ * realistic cache size.
+ */
+public record EmbeddingCacheKey(long high, long low) {
+
+    /**
+     * Part of the key derivation; change it when normalization or the input layout changes
+     */
+    static final long SEED = 0x5eed_0001L;
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    /**
+     * @param text text to embed; whitespace is normalized before hashing
+     * @param model requested model, or {@code null} for the provider default
+     * @param provider provider name
+     * @param dimension embedding dimension reported by the provider
+     */
+    public static EmbeddingCacheKey of(String text, String model, String provider, int dimension) {
+        StringBuilder input = new StringBuilder(text != null ? text.length() + 32 : 32);
+        appendNormalized(input, text);
+        input.append('\u0000').append(model != null ? model : "")
+            .append('\u0000').append(provider != null ? provider : "")
+            .append('\u0000').append(dimension);
+        return hash(input.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Trim and collapse whitespace runs to one space; tokenizers split on whitespace, so the
+     * embedding does not change.
+     */
+    static void appendNormalized(StringBuilder target, String text) {
+        if (text == null) {
+            return;
+        }
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                continue;
+            }
+            if (pendingSpace && target.length() > 0) {
+                target.append(' ');
+            }
+            pendingSpace = false;
+            target.append(c);
+        }
+    }
+
+    /**
+     * @return 32 hex characters, usable as a file or map key
+     */
+    public String toHex() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    static EmbeddingCacheKey hash(byte[] data) {
+        int length = data.length;
+        int blocks = length / 16;
+        long h1 = SEED;
+        long h2 = SEED;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xff) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xff;
+                h2 ^= mixK2(k2);
+            case 8: k1 ^= (long) (data[tail + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xff) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xff;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new EmbeddingCacheKey(h1, h2);
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+            | (data[offset + 1] & 0xffL) << 8
+            | (data[offset + 2] & 0xffL) << 16
+            | (data[offset + 3] & 0xffL) << 24
+            | (data[offset + 4] & 0xffL) << 32
+            | (data[offset + 5] & 0xffL) << 40
+            | (data[offset + 6] & 0xffL) << 48
+            | (data[offset + 7] & 0xffL) << 56;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
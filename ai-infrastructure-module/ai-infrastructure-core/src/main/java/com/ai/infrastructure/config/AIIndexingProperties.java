@@ -17,21 +17,39 @@ public class AIIndexingProperties {
     private WorkerProperties asyncWorker = WorkerProperties.builder()
         .enabled(true)
         .fixedDelay(Duration.ofMillis(1000))
+        .maxIdleDelay(Duration.ofSeconds(10))
+        .wakeOnEnqueue(true)
         .batchSize(50)
+        .concurrency(4)
         .strategy("ASYNC")
         .build();
     private WorkerProperties batchWorker = WorkerProperties.builder()
         .enabled(true)
         .fixedDelay(Duration.ofSeconds(15))
+        .maxIdleDelay(Duration.ofMinutes(1))
+        .wakeOnEnqueue(false)
         .batchSize(500)
+        .concurrency(4)
         .strategy("BATCH")
         .build();
     private CleanupProperties cleanup = new CleanupProperties();
+    private WakeupProperties wakeup = new WakeupProperties();
 
     @Data
     public static class QueueProperties {
         private int maxRetries = 5;
         private Duration visibilityTimeout = Duration.ofMinutes(2);
+        /**
+         * How leases are made safe across nodes. AUTO uses SKIP_LOCKED on PostgreSQL, MySQL 8+ and
+         * MariaDB 10.6+, and OPTIMISTIC everywhere else (e.g. H2).
+         */
+        private LeaseMode leaseMode = LeaseMode.AUTO;
+    }
+
+    public enum LeaseMode {
+        AUTO,
+        SKIP_LOCKED,
+        OPTIMISTIC
     }
 
     @Data
@@ -43,11 +61,36 @@ public class AIIndexingProperties {
         private Duration deadLetterRetention = Duration.ofDays(30);
     }
 
+    @Data
+    public static class WakeupProperties {
+        /**
+         * Also wake workers on other nodes through PostgreSQL LISTEN/NOTIFY. Holds one connection per node.
+         */
+        private boolean postgresNotify = false;
+        private String channel = "ai_indexing_queue";
+    }
+
     @Data
     public static class WorkerProperties {
         private boolean enabled = true;
+        /**
+         * Poll delay after a pass that found work; doubles on each idle pass up to {@code maxIdleDelay}.
+         */
         private Duration fixedDelay = Duration.ofSeconds(1);
+        private Duration maxIdleDelay = Duration.ofSeconds(10);
+        /**
+         * Start a pass as soon as an entry of this worker's strategy is enqueued.
+         */
+        private boolean wakeOnEnqueue = true;
         private int batchSize = 50;
+        /**
+         * Slices of a lease processed at the same time.
+         */
+        private int concurrency = 4;
+        /**
+         * Run slices on virtual threads instead of a fixed pool of {@code concurrency} platform threads.
+         */
+        private boolean virtualThreads = true;
         private String strategy = "ASYNC";
 
         public static Builder builder() {
@@ -67,11 +110,31 @@ public class AIIndexingProperties {
                 return this;
             }
 
+            public Builder maxIdleDelay(Duration delay) {
+                target.setMaxIdleDelay(delay);
+                return this;
+            }
+
+            public Builder wakeOnEnqueue(boolean wakeOnEnqueue) {
+                target.setWakeOnEnqueue(wakeOnEnqueue);
+                return this;
+            }
+
             public Builder batchSize(int size) {
                 target.setBatchSize(size);
                 return this;
             }
 
+            public Builder concurrency(int concurrency) {
+                target.setConcurrency(concurrency);
+                return this;
+            }
+
+            public Builder virtualThreads(boolean virtualThreads) {
+                target.setVirtualThreads(virtualThreads);
+                return this;
+            }
+
             public Builder strategy(String strategy) {
                 target.setStrategy(strategy);
                 return this;
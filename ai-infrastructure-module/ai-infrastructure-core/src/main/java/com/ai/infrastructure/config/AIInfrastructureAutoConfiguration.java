@@ -1,6 +1,7 @@
 package com.ai.infrastructure.config;
 
 import com.ai.infrastructure.aspect.AICapableAspect;
+import com.ai.infrastructure.cache.DiskEmbeddingCache;
 import com.ai.infrastructure.service.AICapabilityService;
 import com.ai.infrastructure.core.AICoreService;
 import com.ai.infrastructure.core.AIEmbeddingService;
@@ -17,6 +18,8 @@ import com.ai.infrastructure.cleanup.SearchableEntityCleanupScheduler;
 import com.ai.infrastructure.indexing.IndexingCoordinator;
 import com.ai.infrastructure.indexing.IndexingStrategyResolver;
 import com.ai.infrastructure.indexing.queue.IndexingQueueService;
+import com.ai.infrastructure.indexing.queue.IndexingWakeupSignal;
+import com.ai.infrastructure.indexing.queue.PostgresQueueNotifier;
 import com.ai.infrastructure.indexing.worker.AsyncIndexingWorker;
 import com.ai.infrastructure.indexing.worker.BatchIndexingWorker;
 import com.ai.infrastructure.indexing.worker.IndexingCleanupScheduler;
@@ -33,6 +36,7 @@ import com.ai.infrastructure.deletion.UserDataDeletionService;
 import com.ai.infrastructure.deletion.policy.UserDataDeletionProvider;
 import com.ai.infrastructure.deletion.port.BehaviorDeletionPort;
 import com.ai.infrastructure.search.VectorSearchService;
+import com.ai.infrastructure.embedding.CoalescingEmbeddingProvider;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.vector.VectorDatabase;
 import com.ai.infrastructure.vector.VectorDatabaseServiceAdapter;
@@ -57,6 +61,9 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.core.io.ResourceLoader;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.util.List;
 import java.util.Objects;
@@ -129,9 +136,32 @@ public class AIInfrastructureAutoConfiguration {
                     .collect(Collectors.joining(", ")));
         }
         
+        AIProviderConfig.EmbeddingBatchingConfig batching = config.getEmbeddingBatching();
+        if (selectedProvider != null && batching.isEnabled()) {
+            log.info("Coalescing single-text embedding requests into batches of up to {} (max wait {}us)",
+                batching.getMaxBatchSize(), batching.getMaxWaitMicros());
+            selectedProvider = new CoalescingEmbeddingProvider(selectedProvider, batching.getMaxBatchSize(),
+                batching.getMaxWaitMicros(), batching.getMaxConcurrentBatches());
+        }
+        
         CacheManager cacheManager = cacheManagerProvider.getIfAvailable(NoOpCacheManager::new);
         EmbeddingProvider fallbackEmbeddingProvider = fallbackProvider != null ? fallbackProvider.getIfAvailable() : null;
-        return new AIEmbeddingService(config, selectedProvider, cacheManager, fallbackEmbeddingProvider);
+        DiskEmbeddingCache diskCache = openDiskEmbeddingCache(config.getEmbeddingCache().getDisk());
+        return new AIEmbeddingService(config, selectedProvider, cacheManager, fallbackEmbeddingProvider, diskCache);
+    }
+
+    private DiskEmbeddingCache openDiskEmbeddingCache(AIProviderConfig.EmbeddingCacheConfig.DiskConfig disk) {
+        if (disk == null || !disk.isEnabled()) {
+            return null;
+        }
+        try {
+            return new DiskEmbeddingCache(Paths.get(disk.getDirectory()), disk.getSegmentSizeMb() * 1024 * 1024,
+                disk.getMaxSegments(), disk.getMaxEntries(), disk.getMinLiveRatio());
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Disk embedding cache at {} is unavailable; using the in-memory cache only: {}",
+                disk.getDirectory(), e.getMessage());
+            return null;
+        }
     }
     
     @Bean
@@ -251,14 +281,37 @@ public class AIInfrastructureAutoConfiguration {
         return new IndexingStrategyResolver();
     }
 
+    @Bean
+    @ConditionalOnMissingBean
+    public IndexingWakeupSignal indexingWakeupSignal() {
+        return new IndexingWakeupSignal();
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "ai.indexing.wakeup", name = "postgres-notify", havingValue = "true")
+    public PostgresQueueNotifier postgresQueueNotifier(
+        DataSource dataSource,
+        AIIndexingProperties indexingProperties,
+        IndexingWakeupSignal indexingWakeupSignal
+    ) {
+        PostgresQueueNotifier notifier = new PostgresQueueNotifier(
+            dataSource, indexingProperties.getWakeup().getChannel(), indexingWakeupSignal);
+        indexingWakeupSignal.setPublisher(notifier);
+        return notifier;
+    }
+
     @Bean
     @ConditionalOnMissingBean
     public IndexingQueueService indexingQueueService(
         IndexingQueueRepository repository,
         AIIndexingProperties indexingProperties,
-        Clock clock
+        Clock clock,
+        ObjectProvider<DataSource> dataSource,
+        IndexingWakeupSignal indexingWakeupSignal
     ) {
-        return new IndexingQueueService(repository, indexingProperties, clock);
+        return new IndexingQueueService(repository, indexingProperties, clock, dataSource.getIfAvailable(),
+            indexingWakeupSignal);
     }
 
     @Bean
@@ -295,18 +348,22 @@ public class AIInfrastructureAutoConfiguration {
     public AsyncIndexingWorker asyncIndexingWorker(
         IndexingQueueService indexingQueueService,
         IndexingWorkProcessor indexingWorkProcessor,
-        AIIndexingProperties indexingProperties
+        AIIndexingProperties indexingProperties,
+        IndexingWakeupSignal indexingWakeupSignal
     ) {
-        return new AsyncIndexingWorker(indexingQueueService, indexingWorkProcessor, indexingProperties);
+        return new AsyncIndexingWorker(indexingQueueService, indexingWorkProcessor, indexingProperties,
+            indexingWakeupSignal);
     }
 
     @Bean
     public BatchIndexingWorker batchIndexingWorker(
         IndexingQueueService indexingQueueService,
         IndexingWorkProcessor indexingWorkProcessor,
-        AIIndexingProperties indexingProperties
+        AIIndexingProperties indexingProperties,
+        IndexingWakeupSignal indexingWakeupSignal
     ) {
-        return new BatchIndexingWorker(indexingQueueService, indexingWorkProcessor, indexingProperties);
+        return new BatchIndexingWorker(indexingQueueService, indexingWorkProcessor, indexingProperties,
+            indexingWakeupSignal);
     }
 
     @Bean
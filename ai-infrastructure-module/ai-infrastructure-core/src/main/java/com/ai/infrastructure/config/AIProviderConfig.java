@@ -4,6 +4,9 @@ package com.ai.infrastructure.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for AI providers.
  *
@@ -42,6 +45,16 @@ public class AIProviderConfig {
      */
     private Boolean enableFallback = true;
 
+    /**
+     * Coalescing of concurrent single-text embedding requests into provider batch calls.
+     */
+    private final EmbeddingBatchingConfig embeddingBatching = new EmbeddingBatchingConfig();
+
+    /**
+     * Storage format of the embeddings cache.
+     */
+    private final EmbeddingCacheConfig embeddingCache = new EmbeddingCacheConfig();
+
     // Provider specific configuration blocks
     private final OpenAIConfig openai = new OpenAIConfig();
     private final AzureConfig azure = new AzureConfig();
@@ -122,6 +135,40 @@ public class AIProviderConfig {
         String model
     ) {}
 
+    @Data
+    public static class EmbeddingBatchingConfig {
+        private boolean enabled = true;
+        private Integer maxBatchSize = 32;
+        private Long maxWaitMicros = 1000L;
+        private Integer maxConcurrentBatches = 2;
+    }
+
+    @Data
+    public static class EmbeddingCacheConfig {
+        /**
+         * Store cached vectors as int8 with a per-vector scale (a quarter of the float size).
+         */
+        private boolean quantize = false;
+
+        /**
+         * Optional second-level cache on local disk behind the in-memory cache.
+         */
+        private final DiskConfig disk = new DiskConfig();
+
+        @Data
+        public static class DiskConfig {
+            private boolean enabled = false;
+            private String directory = "./data/embedding-cache";
+            private Integer segmentSizeMb = 64;
+            private Integer maxSegments = 16;
+            private Integer maxEntries = 500_000;
+            /**
+             * Sealed segments with a smaller share of live records are compacted.
+             */
+            private Double minLiveRatio = 0.5;
+        }
+    }
+
     @Data
     public static class OpenAIConfig {
         private boolean enabled = true;
@@ -237,9 +284,105 @@ public class AIProviderConfig {
         private Boolean useGpu = false;
         private String modelAlias = "all-MiniLM-L6-v2";
 
+        /**
+         * Scale pooled embeddings to unit length, as sentence-transformers models do.
+         */
+        private boolean normalizeEmbeddings = true;
+
+        /**
+         * Pool of inference sessions so CPU inference can run on several threads at once.
+         */
+        private final SessionPoolConfig sessionPool = new SessionPoolConfig();
+
+        /**
+         * Batches are padded to their longest text; larger batches are first split into buckets of similar length.
+         */
+        private final LengthBucketingConfig lengthBucketing = new LengthBucketingConfig();
+
+        /**
+         * Optional dynamically quantized INT8 variant of the model, checked against full precision at startup.
+         */
+        private final QuantizationConfig quantization = new QuantizationConfig();
+
+        /**
+         * Tokenization of texts before inference.
+         */
+        private final TokenizerConfig tokenizer = new TokenizerConfig();
+
         EmbeddingDefaults toEmbeddingDefaults(String providerName) {
             return new EmbeddingDefaults(providerName, modelAlias);
         }
+
+        @Data
+        public static class SessionPoolConfig {
+            /**
+             * Number of sessions; 0 sizes the pool from the available cores. GPU inference always uses one.
+             */
+            private Integer size = 0;
+            /**
+             * Intra-op threads per session; 0 splits the available cores evenly across the pool.
+             */
+            private Integer intraOpThreads = 0;
+            private Integer interOpThreads = 1;
+            /**
+             * SEQUENTIAL or PARALLEL operator scheduling.
+             */
+            private String executionMode = "SEQUENTIAL";
+            /**
+             * Let idle intra-op threads spin; turn off when sessions share cores with other work.
+             */
+            private Boolean allowSpinning = true;
+            /**
+             * Intra-op thread affinities, one ONNX Runtime affinity string (e.g. "1,2;3,4") per session.
+             */
+            private List<String> threadAffinities = new ArrayList<>();
+            private Long acquireTimeoutMs = 30_000L;
+        }
+
+        @Data
+        public static class LengthBucketingConfig {
+            private boolean enabled = true;
+            /**
+             * Batches larger than this are sorted by token count and run as buckets of this size.
+             */
+            private Integer maxBucketSize = 16;
+        }
+
+        @Data
+        public static class QuantizationConfig {
+            private boolean enabled = false;
+            private String modelPath = "classpath:/models/embeddings/all-MiniLM-L6-v2-int8.onnx";
+            /**
+             * Embed a calibration corpus with both models at startup and report their cosine agreement.
+             */
+            private boolean calibrationEnabled = true;
+            /**
+             * Text file with one calibration text per line; a built-in corpus is used when unset.
+             */
+            private String calibrationCorpusPath;
+            private Double minMeanCosine = 0.98;
+            /**
+             * Use the full-precision model when the mean cosine is below the threshold.
+             */
+            private boolean fallbackOnLowAgreement = true;
+        }
+
+        @Data
+        public static class TokenizerConfig {
+            /**
+             * Use the built-in WordPiece tokenizer for WordPiece tokenizer.json files instead of the
+             * Hugging Face library; other model types still go through the library.
+             */
+            private boolean nativeEnabled = true;
+            /**
+             * Recently tokenized texts kept in memory; 0 disables the cache.
+             */
+            private Integer cacheSize = 10_000;
+            /**
+             * Batches with at least this many texts are tokenized in parallel; 0 disables.
+             */
+            private Integer parallelThreshold = 32;
+        }
     }
 
     @Data
@@ -74,6 +74,36 @@ public class VectorDatabaseConfig {
          * Maximum number of documents to buffer in memory
          */
         private Integer maxBufferedDocs = 1000;
+        
+        /**
+         * Maximum staleness of the near-real-time searcher in milliseconds
+         */
+        private Long refreshIntervalMs = 1000L;
+        
+        /**
+         * Interval between group commits in milliseconds (0 disables timed commits)
+         */
+        private Long commitIntervalMs = 5000L;
+        
+        /**
+         * Uncommitted writes that trigger an early group commit (0 disables)
+         */
+        private Integer commitMaxPendingWrites = 1000;
+        
+        /**
+         * Whether each write waits until it is visible to searches
+         */
+        private Boolean waitForVisibility = true;
+        
+        /**
+         * Whether to rewrite documents written in an older index format on startup
+         */
+        private Boolean migrateLegacyDocuments = true;
+        
+        /**
+         * Whether to keep a separate index per entity type
+         */
+        private Boolean indexPerEntityType = false;
     }
     
     @Data
@@ -150,5 +180,40 @@ public class VectorDatabaseConfig {
          * Maximum age of vectors in minutes before cleanup
          */
         private Integer maxVectorAgeMinutes = 1440; // 24 hours
+        
+        /**
+         * Search index: flat (exact brute-force scan) or hnsw (approximate graph index)
+         */
+        private String indexType = "flat";
+        
+        /**
+         * Vector storage for exact scans: heap (per-record arrays) or off-heap (contiguous
+         * pre-normalized arena per entity type, scanned with the JDK Vector API when
+         * jdk.incubator.vector is enabled)
+         */
+        private String storage = "heap";
+        
+        /**
+         * HNSW graph settings, used when indexType is hnsw
+         */
+        private HnswConfig hnsw = new HnswConfig();
+    }
+    
+    @Data
+    public static class HnswConfig {
+        /**
+         * Maximum links per node on upper layers (layer 0 allows twice as many)
+         */
+        private Integer m = 16;
+        
+        /**
+         * Candidate list size while inserting; higher builds a better graph more slowly
+         */
+        private Integer efConstruction = 200;
+        
+        /**
+         * Candidate list size while searching; higher improves recall at the cost of latency
+         */
+        private Integer efSearch = 64;
     }
 }
\ No newline at end of file
@@ -109,7 +109,7 @@ public class AICoreService {
             AIEmbeddingResponse embedding = generateEmbedding(embeddingRequest);
             
             // Perform vector search
-            return searchService.search(embedding.getEmbedding(), request);
+            return searchService.search(embedding.getVector(), request);
             
         } catch (Exception e) {
             log.error("Error performing semantic search", e);
@@ -143,7 +143,7 @@ public class AICoreService {
                 .limit(limit)
                 .build();
             
-            AISearchResponse searchResponse = searchService.search(embedding.getEmbedding(), searchRequest);
+            AISearchResponse searchResponse = searchService.search(embedding.getVector(), searchRequest);
             
             log.debug("Generated {} recommendations", searchResponse.getResults().size());
             
@@ -1,8 +1,12 @@
 package com.ai.infrastructure.core;
 
+import com.ai.infrastructure.cache.CachedEmbedding;
+import com.ai.infrastructure.cache.DiskEmbeddingCache;
+import com.ai.infrastructure.cache.EmbeddingCacheKey;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
 import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.embedding.CoalescingEmbeddingProvider;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.exception.AIServiceException;
 import lombok.extern.slf4j.Slf4j;
@@ -12,7 +16,13 @@ import org.springframework.lang.Nullable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,6 +34,8 @@ import java.util.concurrent.atomic.AtomicLong;
  * This service handles the generation of vector embeddings for text content
  * using swappable embedding providers (ONNX, REST, OpenAI).
  * It provides caching and batch processing capabilities for efficient embedding generation.
+ * Embeddings are cached in the {@code embeddings} cache and, when configured, in a
+ * {@link DiskEmbeddingCache} behind it that survives restarts; disk hits are promoted to memory.
  * 
  * Uses EmbeddingProvider abstraction for easy swapping between providers:
  * - ONNX (default): Local, no API calls
@@ -41,11 +53,14 @@ public class AIEmbeddingService {
     private final EmbeddingProvider embeddingProvider;
     private final CacheManager cacheManager;
     private final EmbeddingProvider fallbackEmbeddingProvider;
+    private final DiskEmbeddingCache diskCache;
     private final boolean fallbackEnabled;
+    private final boolean quantizeCachedEmbeddings;
     
     // Performance metrics
     private final AtomicLong totalEmbeddingsGenerated = new AtomicLong(0);
     private final AtomicLong totalProcessingTime = new AtomicLong(0);
+    private final AtomicLong duplicateTextsSkipped = new AtomicLong(0);
     private final ConcurrentHashMap<String, Long> cacheHits = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<String, Long> cacheMisses = new ConcurrentHashMap<>();
 
@@ -53,11 +68,21 @@ public class AIEmbeddingService {
                               EmbeddingProvider embeddingProvider,
                               CacheManager cacheManager,
                               @Nullable EmbeddingProvider fallbackEmbeddingProvider) {
+        this(config, embeddingProvider, cacheManager, fallbackEmbeddingProvider, null);
+    }
+
+    public AIEmbeddingService(AIProviderConfig config,
+                              EmbeddingProvider embeddingProvider,
+                              CacheManager cacheManager,
+                              @Nullable EmbeddingProvider fallbackEmbeddingProvider,
+                              @Nullable DiskEmbeddingCache diskCache) {
         this.config = config;
         this.embeddingProvider = embeddingProvider;
         this.cacheManager = cacheManager;
         this.fallbackEmbeddingProvider = fallbackEmbeddingProvider;
+        this.diskCache = diskCache;
         this.fallbackEnabled = config.getEnableFallback() != null ? config.getEnableFallback() : true;
+        this.quantizeCachedEmbeddings = config.getEmbeddingCache() != null && config.getEmbeddingCache().isQuantize();
     }
     
     /**
@@ -70,7 +95,7 @@ public class AIEmbeddingService {
      */
     public AIEmbeddingResponse generateEmbedding(AIEmbeddingRequest request) {
         String providerName = embeddingProvider != null ? embeddingProvider.getProviderName() : "unknown";
-        String cacheKey = buildCacheKey(request, providerName);
+        EmbeddingCacheKey cacheKey = buildCacheKey(request, embeddingProvider);
         Cache cache = getEmbeddingCache();
 
         AIEmbeddingResponse cachedResponse = getFromCache(cache, cacheKey);
@@ -90,7 +115,7 @@ public class AIEmbeddingService {
             String fallbackName = fallbackEmbeddingProvider.getProviderName();
             log.info("Falling back to embedding provider: {}", fallbackName);
 
-            String fallbackCacheKey = buildCacheKey(request, fallbackName);
+            EmbeddingCacheKey fallbackCacheKey = buildCacheKey(request, fallbackEmbeddingProvider);
             AIEmbeddingResponse fallbackCached = getFromCache(cache, fallbackCacheKey);
             if (fallbackCached != null) {
                 recordCacheHit(fallbackName);
@@ -109,41 +134,83 @@ public class AIEmbeddingService {
     /**
      * Generate embeddings for multiple texts in batch with optimization
      * 
-     * Delegates to configured EmbeddingProvider for batch processing
+     * Identical texts in the batch are embedded once and their response is shared by every position.
+     * Looks up every unique text in the embedding cache with one bulk call, sends only the misses to the
+     * configured EmbeddingProvider as a single batch and writes the new embeddings through to the cache.
+     * Falls back to the fallback provider like {@link #generateEmbedding(AIEmbeddingRequest)}.
      * 
      * @param texts list of texts to embed
      * @param entityType type of entity for context
-     * @return list of embedding responses
+     * @return list of embedding responses, in input order
      */
     public List<AIEmbeddingResponse> generateEmbeddings(List<String> texts, String entityType) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, Integer> uniqueIndex = new HashMap<>();
+        List<String> uniqueTexts = new ArrayList<>();
+        int[] uniquePositions = new int[texts.size()];
+        for (int i = 0; i < texts.size(); i++) {
+            uniquePositions[i] = uniqueIndex.computeIfAbsent(texts.get(i), text -> {
+                uniqueTexts.add(text);
+                return uniqueTexts.size() - 1;
+            });
+        }
+        if (uniqueTexts.size() == texts.size()) {
+            return Arrays.asList(generateUniqueEmbeddings(texts));
+        }
+
+        duplicateTextsSkipped.addAndGet(texts.size() - uniqueTexts.size());
+        log.debug("Embedding {} unique texts for a batch of {}", uniqueTexts.size(), texts.size());
+        AIEmbeddingResponse[] uniqueResponses = generateUniqueEmbeddings(uniqueTexts);
+        List<AIEmbeddingResponse> responses = new ArrayList<>(texts.size());
+        for (int position : uniquePositions) {
+            responses.add(uniqueResponses[position]);
+        }
+        return responses;
+    }
+
+    private AIEmbeddingResponse[] generateUniqueEmbeddings(List<String> texts) {
+        String providerName = embeddingProvider != null ? embeddingProvider.getProviderName() : "unknown";
+        Cache cache = getEmbeddingCache();
+        AIEmbeddingResponse[] responses = new AIEmbeddingResponse[texts.size()];
+        List<Integer> allPositions = new ArrayList<>(texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            allPositions.add(i);
+        }
+
+        List<Integer> misses = fillFromCache(cache, texts, allPositions, embeddingProvider, responses);
+        if (misses.isEmpty()) {
+            log.debug("Served all {} embeddings from cache", texts.size());
+            return responses;
+        }
+
         try {
-            if (embeddingProvider == null || !embeddingProvider.isAvailable()) {
-                throw new AIServiceException("Embedding provider is not available");
+            generateAndCacheBatch(texts, misses, embeddingProvider, cache, responses);
+        } catch (RuntimeException primaryException) {
+            log.warn("Primary embedding provider {} failed for a batch of {}: {}", providerName, misses.size(),
+                primaryException.getMessage());
+            if (!fallbackEnabled || fallbackEmbeddingProvider == null || !fallbackEmbeddingProvider.isAvailable()) {
+                log.error("Error generating batch embeddings", primaryException);
+                throw new AIServiceException("Failed to generate batch embeddings", primaryException);
+            }
+
+            String fallbackName = fallbackEmbeddingProvider.getProviderName();
+            log.info("Falling back to embedding provider: {}", fallbackName);
+
+            List<Integer> fallbackMisses = fillFromCache(cache, texts, misses, fallbackEmbeddingProvider, responses);
+            if (!fallbackMisses.isEmpty()) {
+                try {
+                    generateAndCacheBatch(texts, fallbackMisses, fallbackEmbeddingProvider, cache, responses);
+                } catch (RuntimeException fallbackException) {
+                    log.error("Fallback embedding provider {} also failed", fallbackName, fallbackException);
+                    throw new AIServiceException("Failed to generate batch embeddings", fallbackException);
+                }
             }
-            
-            log.debug("Generating {} embeddings using {} provider", 
-                     texts.size(), embeddingProvider.getProviderName());
-            
-            long startTime = System.currentTimeMillis();
-            
-            // Delegate to embedding provider for batch processing
-            List<AIEmbeddingResponse> responses = embeddingProvider.generateEmbeddings(texts);
-            
-            long processingTime = System.currentTimeMillis() - startTime;
-            
-            // Update metrics
-            totalEmbeddingsGenerated.addAndGet(texts.size());
-            totalProcessingTime.addAndGet(processingTime);
-            
-            log.debug("Successfully generated {} embeddings in {}ms using {} provider", 
-                responses.size(), processingTime, embeddingProvider.getProviderName());
-            
-            return responses;
-                
-        } catch (Exception e) {
-            log.error("Error generating batch embeddings", e);
-            throw new AIServiceException("Failed to generate batch embeddings", e);
         }
+
+        return responses;
     }
     
     /**
@@ -251,13 +318,18 @@ public class AIEmbeddingService {
         long totalTime = totalProcessingTime.get();
         double avgProcessingTime = totalEmbeddings > 0 ? (double) totalTime / totalEmbeddings : 0.0;
         
-        return java.util.Map.of(
+        Map<String, Object> metrics = new HashMap<>(Map.of(
             "totalEmbeddingsGenerated", totalEmbeddings,
             "totalProcessingTimeMs", totalTime,
             "averageProcessingTimeMs", avgProcessingTime,
             "cacheHits", cacheHits,
-            "cacheMisses", cacheMisses
-        );
+            "cacheMisses", cacheMisses,
+            "duplicateTextsSkipped", duplicateTextsSkipped.get()
+        ));
+        if (diskCache != null) {
+            metrics.put("diskCache", diskCache.getStatistics());
+        }
+        return metrics;
     }
     
     /**
@@ -266,25 +338,207 @@ public class AIEmbeddingService {
     public void clearMetrics() {
         totalEmbeddingsGenerated.set(0);
         totalProcessingTime.set(0);
+        duplicateTextsSkipped.set(0);
         cacheHits.clear();
         cacheMisses.clear();
     }
 
+    /**
+     * Stop the request coalescer wrapped around the embedding provider, if any, and flush the disk
+     * cache. Invoked by Spring as the inferred destroy method of the bean.
+     */
+    public void close() {
+        if (embeddingProvider instanceof CoalescingEmbeddingProvider coalescer) {
+            coalescer.close();
+        }
+        if (diskCache != null) {
+            diskCache.close();
+        }
+    }
+
     private Cache getEmbeddingCache() {
         return cacheManager != null ? cacheManager.getCache("embeddings") : null;
     }
 
-    private AIEmbeddingResponse getFromCache(Cache cache, String cacheKey) {
-        if (cache == null) {
-            return null;
+    private AIEmbeddingResponse getFromCache(Cache cache, EmbeddingCacheKey cacheKey) {
+        CachedEmbedding cached = cache != null ? cache.get(cacheKey, CachedEmbedding.class) : null;
+        if (cached == null && diskCache != null) {
+            cached = diskCache.get(cacheKey);
+            if (cached != null && cache != null) {
+                cache.put(cacheKey, cached);
+            }
         }
-        return cache.get(cacheKey, AIEmbeddingResponse.class);
+        return cached != null ? cached.toResponse() : null;
+    }
+
+    private void putInCache(Cache cache, EmbeddingCacheKey cacheKey, AIEmbeddingResponse response) {
+        CachedEmbedding value = CachedEmbedding.from(response, quantizeCachedEmbeddings);
+        if (value == null) {
+            return;
+        }
+        if (cache != null) {
+            cache.put(cacheKey, value);
+        }
+        if (diskCache != null) {
+            diskCache.put(cacheKey, value);
+        }
+    }
+
+    /**
+     * Look up the texts at {@code positions} with one bulk cache call and place the hits into
+     * {@code responses}.
+     *
+     * @return positions still missing, in order
+     */
+    private List<Integer> fillFromCache(Cache cache, List<String> texts, List<Integer> positions,
+                                        EmbeddingProvider provider, AIEmbeddingResponse[] responses) {
+        String providerName = provider != null ? provider.getProviderName() : "unknown";
+        Map<Integer, EmbeddingCacheKey> keys = new LinkedHashMap<>();
+        for (Integer position : positions) {
+            keys.put(position, buildCacheKey(texts.get(position), null, provider));
+        }
+        Map<EmbeddingCacheKey, CachedEmbedding> cached = getAllFromCache(cache, keys.values());
+
+        List<Integer> misses = new ArrayList<>();
+        for (Map.Entry<Integer, EmbeddingCacheKey> entry : keys.entrySet()) {
+            CachedEmbedding hit = cached.get(entry.getValue());
+            if (hit != null) {
+                responses[entry.getKey()] = hit.toResponse();
+            } else {
+                misses.add(entry.getKey());
+            }
+        }
+        if (misses.size() < positions.size()) {
+            cacheHits.merge(providerName, (long) (positions.size() - misses.size()), Long::sum);
+        }
+        return misses;
+    }
+
+    private Map<EmbeddingCacheKey, CachedEmbedding> getAllFromCache(Cache cache,
+                                                                    Collection<EmbeddingCacheKey> cacheKeys) {
+        Map<EmbeddingCacheKey, CachedEmbedding> found = getAllFromMemory(cache, cacheKeys);
+        if (diskCache == null || found.size() == cacheKeys.size()) {
+            return found;
+        }
+        List<EmbeddingCacheKey> missing = new ArrayList<>();
+        for (EmbeddingCacheKey cacheKey : cacheKeys) {
+            if (!found.containsKey(cacheKey)) {
+                missing.add(cacheKey);
+            }
+        }
+        Map<EmbeddingCacheKey, CachedEmbedding> fromDisk = diskCache.getAll(missing);
+        if (!fromDisk.isEmpty()) {
+            putAllInMemory(cache, fromDisk);
+            found.putAll(fromDisk);
+        }
+        return found;
+    }
+
+    private Map<EmbeddingCacheKey, CachedEmbedding> getAllFromMemory(Cache cache,
+                                                                     Collection<EmbeddingCacheKey> cacheKeys) {
+        Map<EmbeddingCacheKey, CachedEmbedding> found = new HashMap<>();
+        if (cache == null || cacheKeys.isEmpty()) {
+            return found;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            @SuppressWarnings("unchecked")
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+            caffeine.getAllPresent(cacheKeys).forEach((key, value) -> {
+                if (value instanceof CachedEmbedding embedding) {
+                    found.put((EmbeddingCacheKey) key, embedding);
+                }
+            });
+            return found;
+        }
+        for (EmbeddingCacheKey cacheKey : cacheKeys) {
+            CachedEmbedding embedding = cache.get(cacheKey, CachedEmbedding.class);
+            if (embedding != null) {
+                found.put(cacheKey, embedding);
+            }
+        }
+        return found;
+    }
+
+    private void putAllInCache(Cache cache, Map<EmbeddingCacheKey, AIEmbeddingResponse> entries) {
+        Map<EmbeddingCacheKey, CachedEmbedding> values = new HashMap<>();
+        entries.forEach((key, response) -> {
+            CachedEmbedding value = CachedEmbedding.from(response, quantizeCachedEmbeddings);
+            if (value != null) {
+                values.put(key, value);
+            }
+        });
+        putAllInMemory(cache, values);
+        if (diskCache != null && !values.isEmpty()) {
+            diskCache.putAll(values);
+        }
+    }
+
+    private void putAllInMemory(Cache cache, Map<EmbeddingCacheKey, CachedEmbedding> values) {
+        if (cache == null || values.isEmpty()) {
+            return;
+        }
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            @SuppressWarnings("unchecked")
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>) nativeCache;
+            caffeine.putAll(values);
+            return;
+        }
+        values.forEach(cache::put);
+    }
+
+    /**
+     * Embed the texts at {@code positions} with one provider batch call, place the results into
+     * {@code responses} and write them through to the cache.
+     */
+    private void generateAndCacheBatch(List<String> texts,
+                                       List<Integer> positions,
+                                       EmbeddingProvider provider,
+                                       Cache cache,
+                                       AIEmbeddingResponse[] responses) {
+        if (provider == null || !provider.isAvailable()) {
+            throw new AIServiceException("Embedding provider is not available. Provider: " +
+                (provider != null ? provider.getProviderName() : "null"));
+        }
+
+        String providerName = provider.getProviderName();
+        List<String> batch = new ArrayList<>(positions.size());
+        for (Integer position : positions) {
+            batch.add(texts.get(position));
+        }
+        log.debug("Generating {} embeddings using {} provider", batch.size(), providerName);
+
+        long startTime = System.currentTimeMillis();
+        List<AIEmbeddingResponse> generated = provider.generateEmbeddings(batch);
+        long processingTime = System.currentTimeMillis() - startTime;
+
+        if (generated == null || generated.size() != batch.size()) {
+            throw new AIServiceException("Embedding provider " + providerName + " returned "
+                + (generated == null ? 0 : generated.size()) + " embeddings for " + batch.size() + " texts");
+        }
+
+        totalEmbeddingsGenerated.addAndGet(batch.size());
+        totalProcessingTime.addAndGet(processingTime);
+        cacheMisses.merge(providerName, (long) batch.size(), Long::sum);
+
+        Map<EmbeddingCacheKey, AIEmbeddingResponse> newEntries = new HashMap<>();
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            AIEmbeddingResponse response = generated.get(i);
+            responses[position] = response;
+            newEntries.put(buildCacheKey(texts.get(position), null, provider), response);
+        }
+        putAllInCache(cache, newEntries);
+
+        log.debug("Successfully generated {} embeddings in {}ms using {} provider",
+            batch.size(), processingTime, providerName);
     }
 
     private AIEmbeddingResponse generateAndCache(AIEmbeddingRequest request,
                                                  EmbeddingProvider provider,
                                                  Cache cache,
-                                                 String cacheKey) {
+                                                 EmbeddingCacheKey cacheKey) {
         if (provider == null || !provider.isAvailable()) {
             throw new AIServiceException("Embedding provider is not available. Provider: " +
                 (provider != null ? provider.getProviderName() : "null"));
@@ -301,9 +555,7 @@ public class AIEmbeddingService {
         totalProcessingTime.addAndGet(processingTime);
         recordCacheMiss(providerName);
 
-        if (cache != null) {
-            cache.put(cacheKey, response);
-        }
+        putInCache(cache, cacheKey, response);
 
         log.debug("Successfully generated embedding with {} dimensions in {}ms using {} provider",
             response.getDimensions(), processingTime, providerName);
@@ -319,8 +571,13 @@ public class AIEmbeddingService {
         cacheMisses.merge(providerName, 1L, Long::sum);
     }
 
-    private String buildCacheKey(AIEmbeddingRequest request, String providerName) {
-        String model = request.getModel() != null ? request.getModel() : (providerName != null ? providerName : "default");
-        return request.getText() + "_" + model + "_" + providerName;
+    private EmbeddingCacheKey buildCacheKey(AIEmbeddingRequest request, EmbeddingProvider provider) {
+        return buildCacheKey(request.getText(), request.getModel(), provider);
+    }
+
+    private EmbeddingCacheKey buildCacheKey(String text, String requestedModel, EmbeddingProvider provider) {
+        String providerName = provider != null ? provider.getProviderName() : "unknown";
+        int dimension = provider != null ? provider.getEmbeddingDimension() : 0;
+        return EmbeddingCacheKey.of(text, requestedModel, providerName, dimension);
     }
 }
@@ -3,6 +3,7 @@ package com.ai.infrastructure.core;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.search.VectorSearchService;
 import com.ai.infrastructure.service.VectorManagementService;
@@ -46,7 +47,7 @@ public class AISearchService {
      * @param request the search request
      * @return search results with relevance scores
      */
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         try {
             log.debug("Performing semantic search for query: {}", request.getQuery());
             
@@ -59,6 +60,14 @@ public class AISearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #search(Embedding, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        return search(Embedding.fromList(queryVector), request);
+    }
+    
     /**
      * Perform hybrid search combining vector and text similarity
      * 
@@ -67,7 +76,7 @@ public class AISearchService {
      * @param request the search request
      * @return hybrid search results
      */
-    public AISearchResponse hybridSearch(List<Double> queryVector, String queryText, AISearchRequest request) {
+    public AISearchResponse hybridSearch(Embedding queryVector, String queryText, AISearchRequest request) {
         try {
             log.debug("Performing hybrid search for query: {}", queryText);
             
@@ -79,6 +88,14 @@ public class AISearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #hybridSearch(Embedding, String, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse hybridSearch(List<Double> queryVector, String queryText, AISearchRequest request) {
+        return hybridSearch(Embedding.fromList(queryVector), queryText, request);
+    }
+    
     /**
      * Perform contextual search with additional context
      * 
@@ -87,7 +104,7 @@ public class AISearchService {
      * @param request the search request
      * @return context-aware search results
      */
-    public AISearchResponse contextualSearch(List<Double> queryVector, String context, AISearchRequest request) {
+    public AISearchResponse contextualSearch(Embedding queryVector, String context, AISearchRequest request) {
         try {
             log.debug("Performing contextual search with context: {}", context);
             
@@ -99,6 +116,14 @@ public class AISearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #contextualSearch(Embedding, String, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse contextualSearch(List<Double> queryVector, String context, AISearchRequest request) {
+        return contextualSearch(Embedding.fromList(queryVector), context, request);
+    }
+    
     /**
      * Index an entity with its embedding
      * 
@@ -109,7 +134,7 @@ public class AISearchService {
      * @param metadata additional metadata
      */
     public void indexEntity(String entityType, String entityId, String content, 
-                           List<Double> embedding, Map<String, Object> metadata) {
+                           Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Indexing entity {} of type {}", entityId, entityType);
             
@@ -123,6 +148,15 @@ public class AISearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #indexEntity(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    public void indexEntity(String entityType, String entityId, String content,
+                            List<Double> embedding, Map<String, Object> metadata) {
+        indexEntity(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
+    
     /**
      * Remove an entity from the index
      * 
@@ -1,5 +1,8 @@
 package com.ai.infrastructure.dto;
 
+import com.ai.infrastructure.embedding.Embedding;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
 
@@ -7,21 +10,54 @@ import java.util.List;
 
 /**
  * Response DTO for AI embedding generation
- * 
+ *
  * @author AI Infrastructure Team
  * @version 1.0.0
  */
 @Data
 @Builder
 public class AIEmbeddingResponse {
-    
-    private List<Double> embedding;
-    
+
+    @JsonProperty("embedding")
+    private Embedding vector;
+
     private String model;
-    
+
     private Integer dimensions;
-    
+
     private Long processingTimeMs;
-    
+
     private String requestId;
+
+    /**
+     * Boxed view of the embedding vector.
+     *
+     * @deprecated use {@link #getVector()}; this boxes every component on access
+     */
+    @Deprecated
+    @JsonIgnore
+    public List<Double> getEmbedding() {
+        return vector != null ? vector.toList() : null;
+    }
+
+    /**
+     * @deprecated use {@link #setVector(Embedding)}
+     */
+    @Deprecated
+    @JsonIgnore
+    public void setEmbedding(List<Double> embedding) {
+        this.vector = Embedding.fromList(embedding);
+    }
+
+    public static class AIEmbeddingResponseBuilder {
+
+        /**
+         * @deprecated use {@link #vector(Embedding)}
+         */
+        @Deprecated
+        public AIEmbeddingResponseBuilder embedding(List<Double> embedding) {
+            this.vector = Embedding.fromList(embedding);
+            return this;
+        }
+    }
 }
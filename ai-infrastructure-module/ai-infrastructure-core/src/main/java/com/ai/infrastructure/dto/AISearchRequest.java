@@ -34,6 +34,12 @@ public class AISearchRequest {
     
     private String filters;
     
+    /**
+     * Structured metadata filters (field name to expected value, list of accepted values, or
+     * {@code min}/{@code max} range). Backends that support it apply them inside the vector search.
+     */
+    private Map<String, Object> metadataFilters;
+    
     private String sortBy;
     
     private String context;
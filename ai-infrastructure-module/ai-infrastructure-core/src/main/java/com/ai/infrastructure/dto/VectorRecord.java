@@ -1,5 +1,8 @@
 package com.ai.infrastructure.dto;
 
+import com.ai.infrastructure.embedding.Embedding;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -45,9 +48,10 @@ public class VectorRecord {
     private String content;
     
     /**
-     * Vector embedding
+     * Vector embedding, serialized as {@code embedding} like the former {@code List<Double>} field
      */
-    private List<Double> embedding;
+    @JsonProperty("embedding")
+    private Embedding vector;
     
     /**
      * Additional metadata
@@ -90,4 +94,36 @@ public class VectorRecord {
      */
     @Builder.Default
     private Integer version = 1;
-}
\ No newline at end of file
+
+    /**
+     * Boxed view of the embedding vector.
+     *
+     * @deprecated use {@link #getVector()}; this boxes every component on access
+     */
+    @Deprecated
+    @JsonIgnore
+    public List<Double> getEmbedding() {
+        return vector != null ? vector.toList() : null;
+    }
+
+    /**
+     * @deprecated use {@link #setVector(Embedding)}
+     */
+    @Deprecated
+    @JsonIgnore
+    public void setEmbedding(List<Double> embedding) {
+        this.vector = Embedding.fromList(embedding);
+    }
+
+    public static class VectorRecordBuilder {
+
+        /**
+         * @deprecated use {@link #vector(Embedding)}
+         */
+        @Deprecated
+        public VectorRecordBuilder embedding(List<Double> embedding) {
+            this.vector = Embedding.fromList(embedding);
+            return this;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.ai.infrastructure.embedding;
+
+import com.ai.infrastructure.dto.AIEmbeddingRequest;
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.exception.AIServiceException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedding provider decorator that coalesces concurrent single-text requests into batch calls.
+ *
+ * Callers of {@link #generateEmbedding(AIEmbeddingRequest)} enqueue their text and block on a future.
+ * A dispatcher thread hands queued texts to the delegate's {@link EmbeddingProvider#generateEmbeddings(List)}
+ * in one call and completes every future. When no batch is in flight, whatever is queued is sent at once, so
+ * an idle provider adds no latency. Otherwise the dispatcher collects texts until {@code maxBatchSize} are
+ * waiting, {@code maxWaitMicros} have passed since the first one, or the in-flight batches finish. At most
+ * {@code maxConcurrentBatches} batches run at once; while they are busy, new requests keep queueing, so
+ * batches grow with load. If a batch fails, its texts are retried one by one so a single bad input only
+ * fails its own caller.
+ *
+ * Requests that name a model bypass the queue, since the batch API always uses the configured model.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+@Slf4j
+public class CoalescingEmbeddingProvider implements EmbeddingProvider, AutoCloseable {
+
+    private static final long IN_FLIGHT_CHECK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final EmbeddingProvider delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final int maxConcurrentBatches;
+
+    private final BlockingQueue<PendingRequest> queue = new LinkedBlockingQueue<>();
+    private final Semaphore batchPermits;
+    private final AtomicInteger batchesInFlight = new AtomicInteger();
+    private final ExecutorService batchExecutor;
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+
+    private final AtomicLong batchesIssued = new AtomicLong();
+    private final AtomicLong requestsCoalesced = new AtomicLong();
+    private final AtomicLong batchFailures = new AtomicLong();
+
+    /**
+     * @param delegate provider that executes the batches
+     * @param maxBatchSize maximum texts per batch
+     * @param maxWaitMicros how long the first queued text waits for company while another batch is in flight
+     * @param maxConcurrentBatches batches allowed in flight at once
+     */
+    public CoalescingEmbeddingProvider(EmbeddingProvider delegate, int maxBatchSize, long maxWaitMicros,
+                                       int maxConcurrentBatches) {
+        if (maxBatchSize < 1 || maxConcurrentBatches < 1 || maxWaitMicros < 0) {
+            throw new IllegalArgumentException("maxBatchSize and maxConcurrentBatches must be positive and "
+                + "maxWaitMicros must not be negative");
+        }
+        this.delegate = delegate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+        this.maxConcurrentBatches = maxConcurrentBatches;
+        this.batchPermits = new Semaphore(maxConcurrentBatches);
+
+        AtomicInteger workerCount = new AtomicInteger();
+        this.batchExecutor = Executors.newFixedThreadPool(maxConcurrentBatches, runnable -> {
+            Thread thread = new Thread(runnable, "embedding-batch-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatchLoop, "embedding-coalescer");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    @Override
+    public String getProviderName() {
+        return delegate.getProviderName();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+
+    @Override
+    public AIEmbeddingResponse generateEmbedding(AIEmbeddingRequest request) {
+        if (request.getModel() != null || !running) {
+            return delegate.generateEmbedding(request);
+        }
+
+        PendingRequest pending = new PendingRequest(request);
+        queue.add(pending);
+        if (!running && queue.remove(pending)) {
+            // Closed concurrently; nobody will drain the queue any more
+            return delegate.generateEmbedding(request);
+        }
+        try {
+            return pending.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof AIServiceException serviceException) {
+                throw serviceException;
+            }
+            throw new AIServiceException("Failed to generate embedding", e.getCause());
+        }
+    }
+
+    @Override
+    public List<AIEmbeddingResponse> generateEmbeddings(List<String> texts) {
+        // Already a batch; no reason to queue it behind single requests
+        return delegate.generateEmbeddings(texts);
+    }
+
+    @Override
+    public int getEmbeddingDimension() {
+        return delegate.getEmbeddingDimension();
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>(delegate.getStatus());
+        long batches = batchesIssued.get();
+        status.put("coalescing", Map.of(
+            "maxBatchSize", maxBatchSize,
+            "maxWaitMicros", TimeUnit.NANOSECONDS.toMicros(maxWaitNanos),
+            "maxConcurrentBatches", maxConcurrentBatches,
+            "batchesIssued", batches,
+            "requestsCoalesced", requestsCoalesced.get(),
+            "averageBatchSize", batches > 0 ? (double) requestsCoalesced.get() / batches : 0.0,
+            "batchFailures", batchFailures.get(),
+            "queued", queue.size()
+        ));
+        return status;
+    }
+
+    /**
+     * Stop dispatching. Requests still queued fail; later requests go straight to the delegate.
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        batchExecutor.shutdown();
+        List<PendingRequest> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.future.completeExceptionally(
+            new AIServiceException("Embedding coalescer closed before the request was processed")));
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            List<PendingRequest> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+                // Waiting for a permit while earlier batches run lets the next batch fill up
+                batchPermits.acquire();
+                fillBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                    new AIServiceException("Embedding coalescer closed before the request was processed")));
+                return;
+            }
+
+            batchesInFlight.incrementAndGet();
+            try {
+                batchExecutor.execute(() -> {
+                    try {
+                        runBatch(batch);
+                    } finally {
+                        batchesInFlight.decrementAndGet();
+                        batchPermits.release();
+                    }
+                });
+            } catch (RuntimeException rejected) {
+                batchesInFlight.decrementAndGet();
+                batchPermits.release();
+                batch.forEach(pending -> pending.future.completeExceptionally(
+                    new AIServiceException("Embedding coalescer is shut down", rejected)));
+            }
+        }
+    }
+
+    /**
+     * Add queued requests to {@code batch} until it is full or the first request has waited
+     * {@code maxWaitNanos}. Waiting only pays off while another batch is in flight, so with none the batch
+     * takes what is already queued and goes.
+     */
+    private void fillBatch(List<PendingRequest> batch) throws InterruptedException {
+        long deadline = batch.get(0).enqueuedAt + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0 || batchesInFlight.get() == 0) {
+                break;
+            }
+            // Re-check the in-flight count at least this often, so the batch leaves once they finish
+            PendingRequest next = queue.poll(Math.min(remaining, IN_FLIGHT_CHECK_NANOS), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void runBatch(List<PendingRequest> batch) {
+        batchesIssued.incrementAndGet();
+        requestsCoalesced.addAndGet(batch.size());
+
+        if (batch.size() == 1) {
+            runSingle(batch.get(0));
+            return;
+        }
+
+        List<String> texts = new ArrayList<>(batch.size());
+        for (PendingRequest pending : batch) {
+            texts.add(pending.request.getText());
+        }
+        List<AIEmbeddingResponse> responses;
+        try {
+            responses = delegate.generateEmbeddings(texts);
+            if (responses == null || responses.size() != batch.size()) {
+                throw new AIServiceException("Embedding provider returned "
+                    + (responses == null ? 0 : responses.size()) + " embeddings for " + batch.size() + " texts");
+            }
+        } catch (RuntimeException e) {
+            batchFailures.incrementAndGet();
+            log.warn("Coalesced embedding batch of {} failed; retrying texts individually: {}",
+                batch.size(), e.getMessage());
+            batch.forEach(this::runSingle);
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(responses.get(i));
+        }
+        log.debug("Completed coalesced embedding batch of {}", batch.size());
+    }
+
+    private void runSingle(PendingRequest pending) {
+        try {
+            pending.future.complete(delegate.generateEmbedding(pending.request));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static final class PendingRequest {
+        private final AIEmbeddingRequest request;
+        private final CompletableFuture<AIEmbeddingResponse> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+
+        private PendingRequest(AIEmbeddingRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.ai.infrastructure.embedding;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable embedding vector backed by a primitive {@code float[]}.
+ *
+ * This is the canonical in-process representation of an embedding. It avoids the
+ * boxing overhead of {@code List<Double>} (roughly 24 bytes per dimension) and can be
+ * handed to vector stores that work on {@code float[]} (Lucene, Milvus, in-memory)
+ * without a per-call conversion loop.
+ *
+ * Serialized as a plain JSON number array so existing payloads stay compatible.
+ */
+public final class Embedding implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Embedding EMPTY = new Embedding(new float[0]);
+
+    private final float[] values;
+
+    private Embedding(float[] values) {
+        this.values = values;
+    }
+
+    /**
+     * Create an embedding from a copy of the given values.
+     *
+     * @param values vector components
+     * @return embedding
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Embedding of(float[] values) {
+        if (values == null || values.length == 0) {
+            return EMPTY;
+        }
+        return new Embedding(values.clone());
+    }
+
+    /**
+     * Create an embedding that takes ownership of the given array without copying.
+     * The caller must not modify the array afterwards.
+     *
+     * @param values vector components
+     * @return embedding
+     */
+    public static Embedding wrap(float[] values) {
+        if (values == null || values.length == 0) {
+            return EMPTY;
+        }
+        return new Embedding(values);
+    }
+
+    /**
+     * Create an embedding from a boxed list (legacy representation).
+     *
+     * @param values vector components, may be {@code null}
+     * @return embedding, or {@code null} when {@code values} is {@code null}
+     */
+    public static Embedding fromList(List<? extends Number> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values instanceof BoxedView view) {
+            return view.owner();
+        }
+        float[] array = new float[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            Number value = values.get(i);
+            array[i] = value != null ? value.floatValue() : 0f;
+        }
+        return wrap(array);
+    }
+
+    /**
+     * @return an empty (zero-dimension) embedding
+     */
+    public static Embedding empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return number of dimensions
+     */
+    public int dimension() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public float get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Return the backing array without copying. Callers must treat it as read-only;
+     * this exists so vector stores can index the vector without an extra copy.
+     *
+     * @return backing array
+     */
+    @JsonValue
+    public float[] values() {
+        return values;
+    }
+
+    /**
+     * @return a defensive copy of the vector components
+     */
+    public float[] toArray() {
+        return values.clone();
+    }
+
+    /**
+     * Return a read-only {@code List<Double>} view over this embedding. Values are boxed
+     * lazily on access; prefer {@link #values()} on hot paths.
+     *
+     * @return boxed list view
+     */
+    public List<Double> toList() {
+        return new BoxedView(this);
+    }
+
+    /**
+     * @param other other embedding
+     * @return dot product, or {@code 0.0} when dimensions differ
+     */
+    public double dot(Embedding other) {
+        if (other == null || other.values.length != values.length) {
+            return 0.0;
+        }
+        float[] b = other.values;
+        double sum = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * @return Euclidean (L2) norm
+     */
+    public double norm() {
+        double sum = 0.0;
+        for (float value : values) {
+            sum += value * value;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Cosine similarity between two embeddings.
+     *
+     * @param other other embedding
+     * @return cosine similarity, or {@code 0.0} when dimensions differ or either vector is zero
+     */
+    public double cosineSimilarity(Embedding other) {
+        if (other == null || other.values.length != values.length) {
+            return 0.0;
+        }
+        float[] b = other.values;
+        double dot = 0.0;
+        double normA = 0.0;
+        double normB = 0.0;
+        for (int i = 0; i < values.length; i++) {
+            float a = values[i];
+            float bi = b[i];
+            dot += a * bi;
+            normA += a * a;
+            normB += bi * bi;
+        }
+        if (normA == 0.0 || normB == 0.0) {
+            return 0.0;
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    /**
+     * @return a unit-length copy of this embedding (or this instance when the norm is zero or one)
+     */
+    public Embedding normalize() {
+        double norm = norm();
+        if (norm == 0.0 || Math.abs(norm - 1.0) < 1e-6) {
+            return this;
+        }
+        float[] normalized = new float[values.length];
+        float inverse = (float) (1.0 / norm);
+        for (int i = 0; i < values.length; i++) {
+            normalized[i] = values[i] * inverse;
+        }
+        return new Embedding(normalized);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Embedding other)) {
+            return false;
+        }
+        return Arrays.equals(values, other.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        return "Embedding[dimension=" + values.length + "]";
+    }
+
+    private static final class BoxedView extends AbstractList<Double> implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Embedding owner;
+
+        private BoxedView(Embedding owner) {
+            this.owner = owner;
+        }
+
+        private Embedding owner() {
+            return owner;
+        }
+
+        @Override
+        public Double get(int index) {
+            return (double) owner.values[index];
+        }
+
+        @Override
+        public int size() {
+            return owner.values.length;
+        }
+    }
+}
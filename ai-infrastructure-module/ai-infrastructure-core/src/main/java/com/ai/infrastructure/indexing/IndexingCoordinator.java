@@ -82,11 +82,11 @@ public class IndexingCoordinator {
             return;
         }
 
-        if (plan.generateEmbedding()) {
+        if (plan.generateEmbedding() && plan.indexForSearch()) {
+            capabilityService.generateEmbeddingsAndIndex(entity, config);
+        } else if (plan.generateEmbedding()) {
             capabilityService.generateEmbeddings(entity, config);
-        }
-
-        if (plan.indexForSearch()) {
+        } else if (plan.indexForSearch()) {
             capabilityService.indexForSearch(entity, config);
         }
 
@@ -11,12 +11,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Durable queue gateway used by the indexing orchestration components.
+ *
+ * Leasing is safe when several nodes poll the same queue: candidates are selected with
+ * {@code FOR UPDATE SKIP LOCKED} where the database supports it, and are then claimed with a single conditional
+ * update that only succeeds for rows still pending. Each node gets back only the rows it claimed. Enqueues are
+ * announced through the {@link IndexingWakeupSignal} so idle workers start without waiting for their next poll.
  */
 @Slf4j
 @Transactional
@@ -25,15 +39,39 @@ public class IndexingQueueService {
     private final IndexingQueueRepository repository;
     private final AIIndexingProperties properties;
     private final Clock clock;
+    private final DataSource dataSource;
+    private final IndexingWakeupSignal wakeupSignal;
+    private volatile Boolean skipLocked;
 
     public IndexingQueueService(
         IndexingQueueRepository repository,
         AIIndexingProperties properties,
         Clock clock
+    ) {
+        this(repository, properties, clock, null);
+    }
+
+    public IndexingQueueService(
+        IndexingQueueRepository repository,
+        AIIndexingProperties properties,
+        Clock clock,
+        DataSource dataSource
+    ) {
+        this(repository, properties, clock, dataSource, null);
+    }
+
+    public IndexingQueueService(
+        IndexingQueueRepository repository,
+        AIIndexingProperties properties,
+        Clock clock,
+        DataSource dataSource,
+        IndexingWakeupSignal wakeupSignal
     ) {
         this.repository = repository;
         this.properties = properties;
         this.clock = clock;
+        this.dataSource = dataSource;
+        this.wakeupSignal = wakeupSignal;
     }
 
     public IndexingQueueEntry enqueue(IndexingRequest request) {
@@ -51,28 +89,47 @@ public class IndexingQueueService {
         IndexingPriority priority = IndexingPriority.fromStrategy(request.strategy());
         entry.initialize(request.strategy(), priority, now);
         entry.setUpdatedAt(now);
-        return repository.save(entry);
+        IndexingQueueEntry saved = repository.save(entry);
+        if (wakeupSignal != null) {
+            wakeupSignal.announce(saved.getStrategy());
+        }
+        return saved;
     }
 
     public List<IndexingQueueEntry> lease(IndexingStrategy strategy, int batchSize) {
         LocalDateTime now = now();
-        List<IndexingQueueEntry> pending = repository
-            .findByStatusAndStrategyAndScheduledForLessThanEqualOrderByPriorityWeightAscRequestedAtAsc(
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<IndexingQueueEntry> candidates = useSkipLocked()
+            ? repository.lockPendingSkipLocked(IndexingStatus.PENDING, strategy, now, page)
+            : repository.findByStatusAndStrategyAndScheduledForLessThanEqualOrderByPriorityWeightAscRequestedAtAsc(
                 IndexingStatus.PENDING,
                 strategy,
                 now,
-                PageRequest.of(0, batchSize)
+                page
             );
-
-        for (IndexingQueueEntry entry : pending) {
-            entry.setStatus(IndexingStatus.PROCESSING);
-            entry.setStartedAt(now);
-            entry.setUpdatedAt(now);
-            entry.setProcessingNode(entry.assignProcessingNode());
-            entry.setVisibilityTimeoutUntil(now.plus(properties.getQueue().getVisibilityTimeout()));
+        if (candidates.isEmpty()) {
+            return List.of();
         }
 
-        return pending;
+        String leaseToken = UUID.randomUUID().toString();
+        List<String> ids = candidates.stream().map(IndexingQueueEntry::getId).toList();
+        int claimed = repository.claimEntries(
+            ids,
+            IndexingStatus.PENDING,
+            IndexingStatus.PROCESSING,
+            leaseToken,
+            now,
+            now.plus(properties.getQueue().getVisibilityTimeout())
+        );
+        if (claimed == 0) {
+            log.debug("All {} {} indexing candidates were leased by another node", candidates.size(), strategy);
+            return List.of();
+        }
+        if (claimed < candidates.size()) {
+            log.debug("Leased {} of {} {} indexing candidates; the rest went to another node",
+                claimed, candidates.size(), strategy);
+        }
+        return repository.findLeasedEntries(ids, leaseToken);
     }
 
     public void markCompleted(IndexingQueueEntry entry) {
@@ -85,6 +142,43 @@ public class IndexingQueueService {
         repository.save(entry);
     }
 
+    /**
+     * Mark many entries completed with one update per lease. Entries no longer held by the lease they were
+     * processed under, e.g. because its visibility timeout expired and they were reset or leased again, are
+     * left alone.
+     *
+     * @return number of entries completed
+     */
+    public int markCompletedBatch(List<IndexingQueueEntry> entries) {
+        if (entries.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = now();
+        Map<String, List<String>> idsByLease = new LinkedHashMap<>();
+        for (IndexingQueueEntry entry : entries) {
+            if (entry.getProcessingNode() != null) {
+                idsByLease.computeIfAbsent(entry.getProcessingNode(), token -> new ArrayList<>()).add(entry.getId());
+            }
+        }
+        int updated = 0;
+        for (Map.Entry<String, List<String>> lease : idsByLease.entrySet()) {
+            updated += repository.completeEntries(
+                lease.getValue(), lease.getKey(), IndexingStatus.PROCESSING, IndexingStatus.COMPLETED, now);
+        }
+        for (IndexingQueueEntry entry : entries) {
+            entry.setStatus(IndexingStatus.COMPLETED);
+            entry.setProcessingNode(null);
+            entry.setCompletedAt(now);
+            entry.setUpdatedAt(now);
+            entry.setVisibilityTimeoutUntil(null);
+        }
+        if (updated < entries.size()) {
+            log.warn("Completed {} of {} indexing entries; the rest were no longer held by their lease",
+                updated, entries.size());
+        }
+        return updated;
+    }
+
     public void markFailure(IndexingQueueEntry entry, String errorMessage) {
         LocalDateTime now = now();
         entry.setErrorMessage(errorMessage);
@@ -132,6 +226,62 @@ public class IndexingQueueService {
         return repository.deleteByStatusAndUpdatedAtBefore(IndexingStatus.DEAD_LETTER, olderThan);
     }
 
+    private boolean useSkipLocked() {
+        Boolean resolved = skipLocked;
+        if (resolved == null) {
+            resolved = resolveSkipLocked();
+            skipLocked = resolved;
+        }
+        return resolved;
+    }
+
+    private boolean resolveSkipLocked() {
+        AIIndexingProperties.LeaseMode mode = properties.getQueue().getLeaseMode();
+        if (mode == AIIndexingProperties.LeaseMode.SKIP_LOCKED) {
+            return true;
+        }
+        if (mode == AIIndexingProperties.LeaseMode.OPTIMISTIC || dataSource == null) {
+            return false;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean supported = supportsSkipLocked(
+                metaData.getDatabaseProductName(),
+                metaData.getDatabaseProductVersion(),
+                metaData.getDatabaseMajorVersion(),
+                metaData.getDatabaseMinorVersion()
+            );
+            log.info("Indexing queue leases use {} on {} {}",
+                supported ? "SKIP LOCKED" : "optimistic claims",
+                metaData.getDatabaseProductName(),
+                metaData.getDatabaseProductVersion());
+            return supported;
+        } catch (SQLException ex) {
+            log.warn("Could not detect database for indexing queue leases; using optimistic claims", ex);
+            return false;
+        }
+    }
+
+    static boolean supportsSkipLocked(String productName, String productVersion, int major, int minor) {
+        if (productName == null) {
+            return false;
+        }
+        String product = productName.toUpperCase(Locale.ROOT);
+        if (product.contains("POSTGRES")) {
+            return major > 9 || (major == 9 && minor >= 5);
+        }
+        // MariaDB servers can report themselves as MySQL through the MySQL driver
+        boolean mariaDb = product.contains("MARIADB")
+            || (productVersion != null && productVersion.toUpperCase(Locale.ROOT).contains("MARIADB"));
+        if (mariaDb) {
+            return major > 10 || (major == 10 && minor >= 6);
+        }
+        if (product.contains("MYSQL")) {
+            return major >= 8;
+        }
+        return false;
+    }
+
     private LocalDateTime now() {
         return LocalDateTime.now(clock);
     }
@@ -0,0 +1,108 @@
+package com.ai.infrastructure.indexing.queue;
+
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes indexing workers as soon as work is enqueued instead of leaving them to their next poll.
+ *
+ * Enqueues announce their strategy here. Local workers are signalled once the enqueuing transaction commits,
+ * so they never wake up before the new row is visible. When a {@link Publisher} is configured, the
+ * announcement is also sent to other nodes, which feed it back in through {@link #signal}. A signal that
+ * arrives while a worker is busy is remembered, so the worker's next wait returns immediately.
+ */
+@Slf4j
+public class IndexingWakeupSignal {
+
+    /**
+     * Sends announcements to other nodes.
+     */
+    @FunctionalInterface
+    public interface Publisher {
+        void publish(IndexingStrategy strategy);
+    }
+
+    private final Map<IndexingStrategy, Channel> channels = new EnumMap<>(IndexingStrategy.class);
+    private volatile Publisher publisher;
+
+    public IndexingWakeupSignal() {
+        for (IndexingStrategy strategy : IndexingStrategy.values()) {
+            channels.put(strategy, new Channel());
+        }
+    }
+
+    public void setPublisher(Publisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Announce that an entry with the given strategy was enqueued.
+     */
+    public void announce(IndexingStrategy strategy) {
+        Publisher remote = publisher;
+        if (remote != null) {
+            try {
+                remote.publish(strategy);
+            } catch (RuntimeException ex) {
+                log.warn("Could not publish indexing wakeup for {}: {}", strategy, ex.getMessage());
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    signal(strategy);
+                }
+            });
+        } else {
+            signal(strategy);
+        }
+    }
+
+    /**
+     * Wake the local workers of a strategy.
+     */
+    public void signal(IndexingStrategy strategy) {
+        Channel channel = channels.get(strategy);
+        synchronized (channel) {
+            channel.pending = true;
+            channel.notifyAll();
+        }
+    }
+
+    /**
+     * Wait for a signal.
+     *
+     * @param strategy strategy to wait for
+     * @param timeout longest time to wait
+     * @return {@code true} if signalled, {@code false} if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(IndexingStrategy strategy, Duration timeout) throws InterruptedException {
+        Channel channel = channels.get(strategy);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (channel) {
+            while (!channel.pending) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    return false;
+                }
+                channel.wait(remainingMs);
+            }
+            channel.pending = false;
+            return true;
+        }
+    }
+
+    private static final class Channel {
+        private boolean pending;
+    }
+}
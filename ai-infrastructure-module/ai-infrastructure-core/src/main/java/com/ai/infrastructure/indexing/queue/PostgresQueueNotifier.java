@@ -0,0 +1,115 @@
+package com.ai.infrastructure.indexing.queue;
+
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node wakeup over PostgreSQL {@code LISTEN/NOTIFY}.
+ *
+ * Enqueues issue {@code pg_notify} inside their own transaction, so PostgreSQL delivers the notification only
+ * once the entry is committed. A daemon thread keeps one connection listening on the channel and turns every
+ * notification into a local {@link IndexingWakeupSignal#signal}. The PostgreSQL driver is accessed reflectively,
+ * so the module does not depend on it.
+ */
+@Slf4j
+public class PostgresQueueNotifier implements IndexingWakeupSignal.Publisher, AutoCloseable {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_TIMEOUT_MS = 5_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final IndexingWakeupSignal wakeupSignal;
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresQueueNotifier(DataSource dataSource, String channel, IndexingWakeupSignal wakeupSignal) {
+        if (channel == null || !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalArgumentException("Invalid notification channel name: " + channel);
+        }
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = channel;
+        this.wakeupSignal = wakeupSignal;
+    }
+
+    @Override
+    public void publish(IndexingStrategy strategy) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> null, channel, strategy.name());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "indexing-queue-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                Class<?> pgConnectionType = Class.forName("org.postgresql.PGConnection");
+                Object pgConnection = connection.unwrap(pgConnectionType);
+                Method getNotifications = pgConnectionType.getMethod("getNotifications", int.class);
+                Method getParameter = Class.forName("org.postgresql.PGNotification").getMethod("getParameter");
+                log.info("Listening for indexing queue notifications on channel {}", channel);
+
+                while (running) {
+                    Object[] notifications = (Object[]) getNotifications.invoke(pgConnection, POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (Object notification : notifications) {
+                        signal((String) getParameter.invoke(notification));
+                    }
+                }
+            } catch (Exception ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Indexing queue listener on channel {} failed; reconnecting in {}ms: {}",
+                    channel, RECONNECT_DELAY_MS, ex.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void signal(String parameter) {
+        try {
+            wakeupSignal.signal(IndexingStrategy.valueOf(parameter));
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            log.debug("Ignoring indexing queue notification with payload {}", parameter);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+}
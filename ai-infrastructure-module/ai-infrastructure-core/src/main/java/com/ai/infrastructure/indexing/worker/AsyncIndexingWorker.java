@@ -4,48 +4,75 @@ import com.ai.infrastructure.config.AIIndexingProperties;
 import com.ai.infrastructure.entity.IndexingQueueEntry;
 import com.ai.infrastructure.indexing.IndexingStrategy;
 import com.ai.infrastructure.indexing.queue.IndexingQueueService;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.ai.infrastructure.indexing.queue.IndexingWakeupSignal;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
 import java.util.List;
 
-@Slf4j
-public class AsyncIndexingWorker {
+public class AsyncIndexingWorker implements AutoCloseable {
 
     private final IndexingQueueService queueService;
-    private final IndexingWorkProcessor workProcessor;
     private final AIIndexingProperties properties;
+    private final IndexingWorkerPool workerPool;
+    private final IndexingWorkerLoop workerLoop;
 
     public AsyncIndexingWorker(
         IndexingQueueService queueService,
         IndexingWorkProcessor workProcessor,
         AIIndexingProperties properties
+    ) {
+        this(queueService, workProcessor, properties, null);
+    }
+
+    public AsyncIndexingWorker(
+        IndexingQueueService queueService,
+        IndexingWorkProcessor workProcessor,
+        AIIndexingProperties properties,
+        IndexingWakeupSignal wakeupSignal
     ) {
         this.queueService = queueService;
-        this.workProcessor = workProcessor;
         this.properties = properties;
+        this.workerPool = new IndexingWorkerPool("Async", queueService, workProcessor, properties.getAsyncWorker());
+        this.workerLoop = new IndexingWorkerLoop(
+            "Async", IndexingStrategy.ASYNC, wakeupSignal, properties.getAsyncWorker(), this::run);
     }
 
-    @Scheduled(fixedDelayString = "#{T(java.time.Duration).parse('${ai.indexing.async-worker.fixed-delay:PT1S}').toMillis()}")
-    public void run() {
-        if (!properties.isEnabled() || !properties.getAsyncWorker().isEnabled()) {
-            return;
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled() && properties.getAsyncWorker().isEnabled()) {
+            workerLoop.start();
         }
+    }
 
-        int batchSize = Math.max(1, properties.getAsyncWorker().getBatchSize());
-        List<IndexingQueueEntry> entries = queueService.lease(IndexingStrategy.ASYNC, batchSize);
-        if (entries.isEmpty()) {
-            return;
+    /**
+     * Lease and process ASYNC entries until less than a full lease is left.
+     *
+     * @return whether any entries were processed
+     */
+    public boolean run() {
+        if (!properties.isEnabled() || !properties.getAsyncWorker().isEnabled()) {
+            return false;
         }
 
-        for (IndexingQueueEntry entry : entries) {
-            try {
-                workProcessor.process(entry);
-                queueService.markCompleted(entry);
-            } catch (Exception ex) {
-                log.error("Async indexing failed for entry {}", entry.getId(), ex);
-                queueService.markFailure(entry, ex.getMessage());
+        int batchSize = Math.max(1, properties.getAsyncWorker().getBatchSize());
+        boolean processed = false;
+        List<IndexingQueueEntry> entries;
+        do {
+            entries = queueService.lease(IndexingStrategy.ASYNC, batchSize);
+            if (entries.isEmpty()) {
+                break;
             }
-        }
+
+            workerPool.run(entries);
+            processed = true;
+        } while (entries.size() == batchSize);
+        return processed;
+    }
+
+    @Override
+    public void close() {
+        workerLoop.close();
+        workerPool.close();
     }
 }
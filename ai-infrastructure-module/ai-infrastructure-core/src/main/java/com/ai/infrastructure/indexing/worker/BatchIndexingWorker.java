@@ -4,48 +4,83 @@ import com.ai.infrastructure.config.AIIndexingProperties;
 import com.ai.infrastructure.entity.IndexingQueueEntry;
 import com.ai.infrastructure.indexing.IndexingStrategy;
 import com.ai.infrastructure.indexing.queue.IndexingQueueService;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import com.ai.infrastructure.indexing.queue.IndexingWakeupSignal;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-@Slf4j
-public class BatchIndexingWorker {
+public class BatchIndexingWorker implements AutoCloseable {
 
     private final IndexingQueueService queueService;
-    private final IndexingWorkProcessor workProcessor;
     private final AIIndexingProperties properties;
+    private final IndexingWorkerPool workerPool;
+    private final IndexingWorkerLoop workerLoop;
 
     public BatchIndexingWorker(
         IndexingQueueService queueService,
         IndexingWorkProcessor workProcessor,
         AIIndexingProperties properties
+    ) {
+        this(queueService, workProcessor, properties, null);
+    }
+
+    public BatchIndexingWorker(
+        IndexingQueueService queueService,
+        IndexingWorkProcessor workProcessor,
+        AIIndexingProperties properties,
+        IndexingWakeupSignal wakeupSignal
     ) {
         this.queueService = queueService;
-        this.workProcessor = workProcessor;
         this.properties = properties;
+        this.workerPool = new IndexingWorkerPool("Batch", queueService, workProcessor, properties.getBatchWorker());
+        this.workerLoop = new IndexingWorkerLoop(
+            "Batch", IndexingStrategy.BATCH, wakeupSignal, properties.getBatchWorker(), this::run);
     }
 
-    @Scheduled(fixedDelayString = "#{T(java.time.Duration).parse('${ai.indexing.batch-worker.fixed-delay:PT15S}').toMillis()}")
-    public void run() {
-        if (!properties.isEnabled() || !properties.getBatchWorker().isEnabled()) {
-            return;
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (properties.isEnabled() && properties.getBatchWorker().isEnabled()) {
+            workerLoop.start();
         }
+    }
 
-        int batchSize = Math.max(1, properties.getBatchWorker().getBatchSize());
-        List<IndexingQueueEntry> entries = queueService.lease(IndexingStrategy.BATCH, batchSize);
-        if (entries.isEmpty()) {
-            return;
+    /**
+     * Lease and process BATCH entries until less than a full lease is left.
+     *
+     * The next lease is queried while the previous one is processing, but it is only processed once the
+     * previous one has finished, since both may hold versions of the same entity.
+     *
+     * @return whether any entries were processed
+     */
+    public boolean run() {
+        if (!properties.isEnabled() || !properties.getBatchWorker().isEnabled()) {
+            return false;
         }
 
-        for (IndexingQueueEntry entry : entries) {
-            try {
-                workProcessor.process(entry);
-                queueService.markCompleted(entry);
-            } catch (Exception ex) {
-                log.error("Batch indexing failed for entry {}", entry.getId(), ex);
-                queueService.markFailure(entry, ex.getMessage());
+        int batchSize = Math.max(1, properties.getBatchWorker().getBatchSize());
+        boolean processed = false;
+        CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+        List<IndexingQueueEntry> entries;
+        do {
+            entries = queueService.lease(IndexingStrategy.BATCH, batchSize);
+            inFlight.join();
+            if (entries.isEmpty()) {
+                break;
             }
-        }
+
+            inFlight = workerPool.submit(entries);
+            processed = true;
+            // A full lease means a backlog; keep draining instead of waiting for the next pass
+        } while (entries.size() == batchSize);
+        inFlight.join();
+        return processed;
+    }
+
+    @Override
+    public void close() {
+        workerLoop.close();
+        workerPool.close();
     }
 }
@@ -8,6 +8,12 @@ import com.ai.infrastructure.service.AICapabilityService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
 /**
  * Executes the actual indexing work for a leased queue entry.
  */
@@ -37,11 +43,11 @@ public class IndexingWorkProcessor {
         Object entity = deserialize(entry);
         IndexingActionPlan plan = entry.toActionPlan();
 
-        if (plan.generateEmbedding()) {
+        if (plan.generateEmbedding() && plan.indexForSearch()) {
+            capabilityService.generateEmbeddingsAndIndex(entity, config);
+        } else if (plan.generateEmbedding()) {
             capabilityService.generateEmbeddings(entity, config);
-        }
-
-        if (plan.indexForSearch()) {
+        } else if (plan.indexForSearch()) {
             capabilityService.indexForSearch(entity, config);
         }
 
@@ -58,6 +64,113 @@ public class IndexingWorkProcessor {
         }
     }
 
+    /**
+     * Process a leased batch. Entries that only embed and index are grouped by entity type; each group's
+     * contents are embedded with one batch call and written with one bulk vector store and one bulk upsert of
+     * the searchable rows. Any other entry goes through {@link #process}. When a bulk write fails, the group's
+     * entries are retried one by one so a bad entry only fails itself.
+     *
+     * Entries of one entity are applied in lease order: a pending group is written before a later entry of
+     * its type that cannot join it, or that touches an entity already in it, so an update followed by a
+     * delete never re-indexes the deleted entity.
+     *
+     * @param entries leased entries
+     * @return failures keyed by entry; entries not in the map succeeded
+     */
+    public Map<IndexingQueueEntry, Exception> processBatch(List<IndexingQueueEntry> entries) {
+        Map<IndexingQueueEntry, Exception> failures = new LinkedHashMap<>();
+        Map<String, List<IndexingQueueEntry>> bulkGroups = new LinkedHashMap<>();
+
+        for (IndexingQueueEntry entry : entries) {
+            String entityType = entry.getEntityType();
+            List<IndexingQueueEntry> pending = bulkGroups.get(entityType);
+            boolean bulkEligible = isBulkEligible(entry.toActionPlan());
+            if (pending != null && (!bulkEligible || containsEntity(pending, entry))) {
+                bulkGroups.remove(entityType);
+                processGroup(entityType, pending, failures);
+            }
+            if (bulkEligible) {
+                bulkGroups.computeIfAbsent(entityType, type -> new ArrayList<>()).add(entry);
+            } else {
+                processIsolated(entry, failures);
+            }
+        }
+
+        bulkGroups.forEach((entityType, group) -> processGroup(entityType, group, failures));
+        return failures;
+    }
+
+    private void processGroup(String entityType, List<IndexingQueueEntry> group,
+                              Map<IndexingQueueEntry, Exception> failures) {
+        AIEntityConfig config = configurationLoader.getEntityConfig(entityType);
+        if (config == null) {
+            IllegalStateException missing = new IllegalStateException("No AIEntityConfig registered for " + entityType);
+            group.forEach(entry -> failures.put(entry, missing));
+            return;
+        }
+
+        List<IndexingQueueEntry> deserialized = new ArrayList<>(group.size());
+        List<Object> toEmbedAndIndex = new ArrayList<>();
+        List<Object> toEmbed = new ArrayList<>();
+        List<Object> toIndex = new ArrayList<>();
+        for (IndexingQueueEntry entry : group) {
+            try {
+                Object entity = deserialize(entry);
+                IndexingActionPlan plan = entry.toActionPlan();
+                if (plan.generateEmbedding() && plan.indexForSearch()) {
+                    toEmbedAndIndex.add(entity);
+                } else if (plan.generateEmbedding()) {
+                    toEmbed.add(entity);
+                } else {
+                    toIndex.add(entity);
+                }
+                deserialized.add(entry);
+            } catch (Exception ex) {
+                failures.put(entry, ex);
+            }
+        }
+
+        try {
+            if (!toEmbedAndIndex.isEmpty()) {
+                capabilityService.generateEmbeddingsAndIndexBatch(toEmbedAndIndex, config);
+            }
+            if (!toEmbed.isEmpty()) {
+                capabilityService.generateEmbeddingsBatch(toEmbed, config);
+            }
+            if (!toIndex.isEmpty()) {
+                capabilityService.indexForSearchBatch(toIndex, config);
+            }
+        } catch (Exception ex) {
+            log.warn("Bulk indexing failed for {} entries of type {}; retrying individually",
+                deserialized.size(), entityType, ex);
+            deserialized.forEach(entry -> processIsolated(entry, failures));
+        }
+    }
+
+    private void processIsolated(IndexingQueueEntry entry, Map<IndexingQueueEntry, Exception> failures) {
+        try {
+            process(entry);
+        } catch (Exception ex) {
+            failures.put(entry, ex);
+        }
+    }
+
+    private boolean containsEntity(List<IndexingQueueEntry> group, IndexingQueueEntry entry) {
+        for (IndexingQueueEntry pending : group) {
+            if (Objects.equals(pending.getEntityId(), entry.getEntityId())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBulkEligible(IndexingActionPlan plan) {
+        return (plan.generateEmbedding() || plan.indexForSearch())
+            && !plan.enableAnalysis()
+            && !plan.removeFromSearch()
+            && !plan.cleanupEmbeddings();
+    }
+
     private Object deserialize(IndexingQueueEntry entry) throws Exception {
         Class<?> entityClass = Class.forName(entry.getEntityClass());
         return objectMapper.readValue(entry.getPayload(), entityClass);
@@ -0,0 +1,111 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import com.ai.infrastructure.indexing.queue.IndexingWakeupSignal;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Drives a worker's passes from a dedicated thread.
+ *
+ * After a pass that found work the loop waits {@code fixedDelay}; every idle pass doubles the wait up to
+ * {@code maxIdleDelay}, so an idle node queries the queue table less and less often. With
+ * {@code wakeOnEnqueue} the wait ends as soon as an entry of the worker's strategy is enqueued, and the delay
+ * resets.
+ */
+@Slf4j
+final class IndexingWorkerLoop implements AutoCloseable {
+
+    private final String name;
+    private final IndexingStrategy strategy;
+    private final IndexingWakeupSignal wakeupSignal;
+    private final AIIndexingProperties.WorkerProperties properties;
+    private final BooleanSupplier pass;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param pass one worker pass, returning whether it processed any entries
+     */
+    IndexingWorkerLoop(
+        String name,
+        IndexingStrategy strategy,
+        IndexingWakeupSignal wakeupSignal,
+        AIIndexingProperties.WorkerProperties properties,
+        BooleanSupplier pass
+    ) {
+        this.name = name;
+        this.strategy = strategy;
+        this.wakeupSignal = wakeupSignal;
+        this.properties = properties;
+        this.pass = pass;
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::loop, "indexing-" + name.toLowerCase() + "-dispatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void loop() {
+        Duration idleDelay = minDelay();
+        while (running) {
+            boolean processed = false;
+            try {
+                processed = pass.getAsBoolean();
+            } catch (RuntimeException ex) {
+                log.error("{} indexing pass failed", name, ex);
+            }
+            if (processed) {
+                idleDelay = minDelay();
+            }
+
+            try {
+                boolean signalled = awaitWork(idleDelay);
+                idleDelay = signalled || processed ? minDelay() : nextDelay(idleDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean awaitWork(Duration delay) throws InterruptedException {
+        if (wakeupSignal != null && properties.isWakeOnEnqueue()) {
+            return wakeupSignal.await(strategy, delay);
+        }
+        Thread.sleep(delay.toMillis());
+        return false;
+    }
+
+    private Duration nextDelay(Duration current) {
+        Duration doubled = current.multipliedBy(2);
+        Duration max = maxDelay();
+        return doubled.compareTo(max) > 0 ? max : doubled;
+    }
+
+    private Duration minDelay() {
+        Duration delay = properties.getFixedDelay();
+        return delay != null && !delay.isNegative() && !delay.isZero() ? delay : Duration.ofSeconds(1);
+    }
+
+    private Duration maxDelay() {
+        Duration max = properties.getMaxIdleDelay();
+        return max != null && max.compareTo(minDelay()) > 0 ? max : minDelay();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.indexing.queue.IndexingQueueService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs leased queue entries on a pool of worker threads.
+ *
+ * A lease is grouped by entity type and the groups are spread over up to {@code concurrency} slices, largest
+ * group first onto the least loaded slice. A type is never split across slices, so each type is still embedded
+ * and written in bulk once. Every slice goes through
+ * {@link IndexingWorkProcessor#processBatch} on its own thread, and its successful entries are marked completed
+ * with one bulk status update as soon as the slice finishes, while other slices are still embedding. Entries
+ * of one entity share a type, so they land in one slice and are applied in lease order.
+ */
+@Slf4j
+final class IndexingWorkerPool implements AutoCloseable {
+
+    private final String name;
+    private final IndexingQueueService queueService;
+    private final IndexingWorkProcessor workProcessor;
+    private final int concurrency;
+    private final ExecutorService executor;
+
+    IndexingWorkerPool(
+        String name,
+        IndexingQueueService queueService,
+        IndexingWorkProcessor workProcessor,
+        AIIndexingProperties.WorkerProperties properties
+    ) {
+        this.name = name;
+        this.queueService = queueService;
+        this.workProcessor = workProcessor;
+        this.concurrency = Math.max(1, properties.getConcurrency());
+        String threadPrefix = "indexing-" + name.toLowerCase() + "-";
+        if (properties.isVirtualThreads()) {
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadPrefix, 1).factory());
+        } else {
+            AtomicInteger workerCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, threadPrefix + workerCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Start processing a lease.
+     *
+     * @param entries leased entries
+     * @return future completing once every entry has been processed and its status recorded
+     */
+    CompletableFuture<Void> submit(List<IndexingQueueEntry> entries) {
+        CompletableFuture<?>[] slices = slice(entries).stream()
+            .map(slice -> CompletableFuture.runAsync(() -> processSlice(slice), executor))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(slices);
+    }
+
+    /**
+     * Process a lease and wait for it to finish.
+     */
+    void run(List<IndexingQueueEntry> entries) {
+        submit(entries).join();
+    }
+
+    List<List<IndexingQueueEntry>> slice(List<IndexingQueueEntry> entries) {
+        Map<String, List<IndexingQueueEntry>> byType = new LinkedHashMap<>();
+        for (IndexingQueueEntry entry : entries) {
+            byType.computeIfAbsent(entry.getEntityType(), type -> new ArrayList<>()).add(entry);
+        }
+        List<List<IndexingQueueEntry>> groups = new ArrayList<>(byType.values());
+        if (groups.size() <= concurrency) {
+            return groups;
+        }
+
+        List<List<IndexingQueueEntry>> slices = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            slices.add(new ArrayList<>());
+        }
+        groups.sort(Comparator.comparingInt((List<IndexingQueueEntry> group) -> group.size()).reversed());
+        for (List<IndexingQueueEntry> group : groups) {
+            slices.stream().min(Comparator.comparingInt(List::size)).orElseThrow().addAll(group);
+        }
+        return slices;
+    }
+
+    private void processSlice(List<IndexingQueueEntry> slice) {
+        Map<IndexingQueueEntry, Exception> failures;
+        try {
+            failures = workProcessor.processBatch(slice);
+        } catch (RuntimeException ex) {
+            failures = new LinkedHashMap<>();
+            for (IndexingQueueEntry entry : slice) {
+                failures.put(entry, ex);
+            }
+        }
+
+        List<IndexingQueueEntry> completed = new ArrayList<>(slice.size());
+        for (IndexingQueueEntry entry : slice) {
+            if (!failures.containsKey(entry)) {
+                completed.add(entry);
+            }
+        }
+
+        if (!completed.isEmpty()) {
+            try {
+                queueService.markCompletedBatch(completed);
+            } catch (RuntimeException ex) {
+                // Entries stay PROCESSING and are reclaimed once their visibility timeout expires
+                log.error("{} indexing could not mark {} entries completed", name, completed.size(), ex);
+            }
+        }
+        failures.forEach((entry, failure) -> {
+            log.error("{} indexing failed for entry {}", name, entry.getId(), failure);
+            try {
+                queueService.markFailure(entry, failure.getMessage());
+            } catch (RuntimeException ex) {
+                log.error("{} indexing could not record failure of entry {}", name, entry.getId(), ex);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -8,6 +8,8 @@ import com.ai.infrastructure.dto.RAGResponse;
 import com.ai.infrastructure.core.AISearchService;
 import com.ai.infrastructure.core.AIEmbeddingService;
 import com.ai.infrastructure.core.AICoreService;
+import com.ai.infrastructure.embedding.Embedding;
+import com.ai.infrastructure.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -221,26 +223,25 @@ public class AdvancedRAGService {
             AIEmbeddingRequest queryRequest = AIEmbeddingRequest.builder()
                 .text(query)
                 .build();
-            List<Double> queryEmbedding = aiEmbeddingService.generateEmbedding(queryRequest).getEmbedding();
+            Embedding queryEmbedding = aiEmbeddingService.generateEmbedding(queryRequest).getVector();
             
             // Calculate semantic similarity for each document
-            return documents.stream()
-                .map(doc -> {
-                    try {
-                        AIEmbeddingRequest docRequest = AIEmbeddingRequest.builder()
-                            .text(doc.getContent())
-                            .build();
-                        List<Double> docEmbedding = aiEmbeddingService.generateEmbedding(docRequest).getEmbedding();
-                        double similarity = calculateCosineSimilarity(queryEmbedding, docEmbedding);
-                        doc.setSimilarity(similarity);
-                        return doc;
-                    } catch (Exception e) {
-                        log.warn("Failed to calculate similarity for document: {}", doc.getId(), e);
-                        return doc;
-                    }
-                })
-                .sorted((d1, d2) -> Double.compare(d2.getSimilarity(), d1.getSimilarity()))
-                .collect(Collectors.toList());
+            double[] similarities = new double[documents.size()];
+            for (int i = 0; i < documents.size(); i++) {
+                RAGResponse.RAGDocument doc = documents.get(i);
+                try {
+                    AIEmbeddingRequest docRequest = AIEmbeddingRequest.builder()
+                        .text(doc.getContent())
+                        .build();
+                    Embedding docEmbedding = aiEmbeddingService.generateEmbedding(docRequest).getVector();
+                    double similarity = queryEmbedding.cosineSimilarity(docEmbedding);
+                    doc.setSimilarity(similarity);
+                } catch (Exception e) {
+                    log.warn("Failed to calculate similarity for document: {}", doc.getId(), e);
+                }
+                similarities[i] = scoreOrLowest(doc.getSimilarity());
+            }
+            return selectTopDocuments(documents, similarities, documents.size());
                 
         } catch (Exception e) {
             log.warn("Semantic re-ranking failed, using original order", e);
@@ -347,13 +348,34 @@ public class AdvancedRAGService {
      * Medium-level context optimization
      */
     private String optimizeContextMedium(List<RAGResponse.RAGDocument> documents) {
-        return documents.stream()
-            .sorted((d1, d2) -> Double.compare(d2.getScore(), d1.getScore()))
-            .limit(5) // Top 5 documents
+        double[] scores = new double[documents.size()];
+        for (int i = 0; i < documents.size(); i++) {
+            scores[i] = scoreOrLowest(documents.get(i).getScore());
+        }
+        return selectTopDocuments(documents, scores, 5).stream() // Top 5 documents
             .map(RAGResponse.RAGDocument::getContent)
             .collect(Collectors.joining("\n\n"));
     }
 
+    /**
+     * Select up to {@code limit} documents by descending score with a bounded heap; equal scores
+     * keep their original order.
+     */
+    private List<RAGResponse.RAGDocument> selectTopDocuments(
+        List<RAGResponse.RAGDocument> documents, double[] scores, int limit) {
+        
+        TopKSelector topK = TopKSelector.select(scores, documents.size(), limit, Double.NEGATIVE_INFINITY);
+        List<RAGResponse.RAGDocument> selected = new ArrayList<>(topK.size());
+        for (int rank = 0; rank < topK.size(); rank++) {
+            selected.add(documents.get(topK.index(rank)));
+        }
+        return selected;
+    }
+
+    private static double scoreOrLowest(Double score) {
+        return score != null ? score : Double.NEGATIVE_INFINITY;
+    }
+
     /**
      * Low-level context optimization
      */
@@ -383,31 +405,6 @@ public class AdvancedRAGService {
         }
     }
 
-    /**
-     * Calculate cosine similarity between two vectors
-     */
-    private double calculateCosineSimilarity(List<Double> vector1, List<Double> vector2) {
-        if (vector1.size() != vector2.size()) {
-            return 0.0;
-        }
-        
-        double dotProduct = 0.0;
-        double norm1 = 0.0;
-        double norm2 = 0.0;
-        
-        for (int i = 0; i < vector1.size(); i++) {
-            dotProduct += vector1.get(i) * vector2.get(i);
-            norm1 += vector1.get(i) * vector1.get(i);
-            norm2 += vector2.get(i) * vector2.get(i);
-        }
-        
-        if (norm1 == 0.0 || norm2 == 0.0) {
-            return 0.0;
-        }
-        
-        return dotProduct / (Math.sqrt(norm1) * Math.sqrt(norm2));
-    }
-
     /**
      * Calculate hybrid score combining multiple factors
      */
@@ -11,6 +11,7 @@ import com.ai.infrastructure.dto.RAGRequest;
 import com.ai.infrastructure.dto.RAGResponse;
 import com.ai.infrastructure.dto.PIIMode;
 import com.ai.infrastructure.dto.PIIDetectionResult;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.privacy.pii.PIIDetectionService;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.vector.VectorDatabase;
@@ -72,7 +73,7 @@ public class RAGService {
             
             // Store in vector database
             vectorDatabaseService.storeVector(entityType, entityId, content, 
-                embeddingResponse.getEmbedding(), metadata);
+                embeddingResponse.getVector(), metadata);
             
             log.debug("Successfully indexed content for entity {} of type {}", entityId, entityType);
             
@@ -114,7 +115,7 @@ public class RAGService {
                 .threshold(0.7)
                 .build();
             
-            AISearchResponse searchResponse = vectorDatabaseService.search(embeddingResponse.getEmbedding(), searchRequest);
+            AISearchResponse searchResponse = vectorDatabaseService.search(embeddingResponse.getVector(), searchRequest);
             
             log.debug("RAG query completed with {} results", searchResponse.getTotalResults());
             
@@ -207,7 +208,7 @@ public class RAGService {
                 .build();
             
             var embeddingResponse = embeddingService.generateEmbedding(embeddingRequest);
-            List<Double> queryVector = embeddingResponse.getEmbedding();
+            Embedding queryVector = embeddingResponse.getVector();
             
             // Create search request
             AISearchRequest searchRequest = AISearchRequest.builder()
@@ -293,7 +294,7 @@ public class RAGService {
     /**
      * Perform hybrid search combining vector and text search
      */
-    private AISearchResponse performHybridSearch(List<Double> queryVector, String queryText, AISearchRequest request) {
+    private AISearchResponse performHybridSearch(Embedding queryVector, String queryText, AISearchRequest request) {
         // This would integrate with the VectorSearchService for hybrid search
         // For now, fall back to regular vector search
         return vectorDatabase.search(queryVector, request);
@@ -302,7 +303,7 @@ public class RAGService {
     /**
      * Perform contextual search with additional context
      */
-    private AISearchResponse performContextualSearch(List<Double> queryVector, String context, AISearchRequest request) {
+    private AISearchResponse performContextualSearch(Embedding queryVector, String context, AISearchRequest request) {
         // This would integrate with the VectorSearchService for contextual search
         // For now, fall back to regular vector search
         return vectorDatabase.search(queryVector, request);
@@ -392,7 +393,7 @@ public class RAGService {
                 .build();
             
             AIEmbeddingResponse embeddingResponse = embeddingService.generateEmbedding(embeddingRequest);
-            List<Double> queryVector = embeddingResponse.getEmbedding();
+            Embedding queryVector = embeddingResponse.getVector();
             
             // Perform semantic search using the existing search method
             String contextString = null;
@@ -412,6 +413,7 @@ public class RAGService {
                 .threshold(request.getThreshold())
                 .context(contextString)
                 .filters(filtersString)
+                .metadataFilters(request.getFilters())
                 .metadata(request.getMetadata())
                 .build();
             
@@ -419,7 +421,8 @@ public class RAGService {
             
             Map<String, Object> filters = request.getFilters();
 
-            // Convert search results to RAG response applying metadata filters if provided
+            // Convert search results to RAG response applying metadata filters if provided. Backends that
+            // push the filters into the vector search return only matches; this keeps the others correct
             List<RAGResponse.RAGDocument> documents = searchResponse.getResults().stream()
                 .map(result -> {
                     Map<String, Object> normalizedMetadata = normalizeMetadata(result.get("metadata"));
@@ -5,6 +5,7 @@ import com.ai.infrastructure.dto.AIEntityConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.storage.strategy.AISearchableEntityStorageStrategy;
 import com.ai.infrastructure.util.MetadataJsonSerializer;
@@ -38,7 +39,7 @@ public class SearchableEntityVectorDatabaseService implements VectorDatabaseServ
 
     @Override
     public String storeVector(String entityType, String entityId, String content,
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         String vectorId = delegate.storeVector(entityType, entityId, content, embedding, metadata);
         registerRollbackCleanup(entityType, entityId, vectorId);
         upsertSearchableEntity(entityType, entityId, content, metadata, vectorId);
@@ -47,7 +48,7 @@ public class SearchableEntityVectorDatabaseService implements VectorDatabaseServ
 
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId,
-                                String content, List<Double> embedding, Map<String, Object> metadata) {
+                                String content, Embedding embedding, Map<String, Object> metadata) {
         boolean updated = delegate.updateVector(vectorId, entityType, entityId, content, embedding, metadata);
         if (updated) {
             upsertSearchableEntity(entityType, entityId, content, metadata, vectorId);
@@ -66,12 +67,12 @@ public class SearchableEntityVectorDatabaseService implements VectorDatabaseServ
     }
 
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         return delegate.search(queryVector, request);
     }
 
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
         return delegate.searchByEntityType(queryVector, entityType, limit, threshold);
     }
 
@@ -3,6 +3,7 @@ package com.ai.infrastructure.rag;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 
 import java.util.List;
 import java.util.Map;
@@ -31,7 +32,18 @@ public interface VectorDatabaseService {
      * @return the vector ID assigned by the database
      */
     String storeVector(String entityType, String entityId, String content, 
-                      List<Double> embedding, Map<String, Object> metadata);
+                      Embedding embedding, Map<String, Object> metadata);
+    
+    /**
+     * Store a vector in the database
+     * 
+     * @deprecated use {@link #storeVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    default String storeVector(String entityType, String entityId, String content,
+                               List<Double> embedding, Map<String, Object> metadata) {
+        return storeVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
     
     /**
      * Update an existing vector in the database
@@ -45,7 +57,18 @@ public interface VectorDatabaseService {
      * @return true if the vector was updated, false if not found
      */
     boolean updateVector(String vectorId, String entityType, String entityId, 
-                        String content, List<Double> embedding, Map<String, Object> metadata);
+                        String content, Embedding embedding, Map<String, Object> metadata);
+    
+    /**
+     * Update an existing vector in the database
+     * 
+     * @deprecated use {@link #updateVector(String, String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    default boolean updateVector(String vectorId, String entityType, String entityId,
+                                 String content, List<Double> embedding, Map<String, Object> metadata) {
+        return updateVector(vectorId, entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
     
     /**
      * Get a vector by its ID
@@ -71,7 +94,17 @@ public interface VectorDatabaseService {
      * @param request the search request
      * @return search results with similarity scores
      */
-    AISearchResponse search(List<Double> queryVector, AISearchRequest request);
+    AISearchResponse search(Embedding queryVector, AISearchRequest request);
+    
+    /**
+     * Search for similar vectors
+     * 
+     * @deprecated use {@link #search(Embedding, AISearchRequest)}
+     */
+    @Deprecated
+    default AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        return search(Embedding.fromList(queryVector), request);
+    }
     
     /**
      * Search for similar vectors by entity type
@@ -82,9 +115,20 @@ public interface VectorDatabaseService {
      * @param threshold minimum similarity threshold
      * @return search results with similarity scores
      */
-    AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, 
+    AISearchResponse searchByEntityType(Embedding queryVector, String entityType, 
                                        int limit, double threshold);
     
+    /**
+     * Search for similar vectors by entity type
+     * 
+     * @deprecated use {@link #searchByEntityType(Embedding, String, int, double)}
+     */
+    @Deprecated
+    default AISearchResponse searchByEntityType(List<Double> queryVector, String entityType,
+                                                int limit, double threshold) {
+        return searchByEntityType(Embedding.fromList(queryVector), entityType, limit, threshold);
+    }
+    
     /**
      * Remove a vector from the database
      * 
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,11 @@ public interface AISearchableEntityRepository extends JpaRepository<AISearchable
      * Find by entity type and entity ID
      */
     Optional<AISearchableEntity> findByEntityTypeAndEntityId(String entityType, String entityId);
+
+    /**
+     * Find by entity type and any of the given entity IDs
+     */
+    List<AISearchableEntity> findByEntityTypeAndEntityIdIn(String entityType, Collection<String> entityIds);
     
     /**
      * Find all by entity type
@@ -3,14 +3,19 @@ package com.ai.infrastructure.repository;
 import com.ai.infrastructure.entity.IndexingQueueEntry;
 import com.ai.infrastructure.indexing.IndexingStatus;
 import com.ai.infrastructure.indexing.IndexingStrategy;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,6 +28,93 @@ public interface IndexingQueueRepository extends JpaRepository<IndexingQueueEntr
         Pageable pageable
     );
 
+    /**
+     * Same selection as the derived finder, but row-locked with {@code FOR UPDATE SKIP LOCKED}: rows already
+     * locked by another node's lease are skipped instead of waited on. A lock timeout of -2 is Hibernate's
+     * skip-locked marker; dialects without skip-locked support fall back to a plain {@code FOR UPDATE}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+        SELECT e FROM IndexingQueueEntry e
+        WHERE e.status = :status
+          AND e.strategy = :strategy
+          AND e.scheduledFor <= :now
+        ORDER BY e.priorityWeight ASC, e.requestedAt ASC
+    """)
+    List<IndexingQueueEntry> lockPendingSkipLocked(
+        @Param("status") IndexingStatus status,
+        @Param("strategy") IndexingStrategy strategy,
+        @Param("now") LocalDateTime now,
+        Pageable pageable
+    );
+
+    /**
+     * Claim the given entries for one lease. Only rows still in {@code expectedStatus} are updated, so when two
+     * nodes race for the same candidates each row goes to exactly one of them. The version is bumped so that
+     * stale copies of a claimed entry fail their optimistic check.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        UPDATE IndexingQueueEntry e
+        SET e.status = :newStatus,
+            e.processingNode = :processingNode,
+            e.startedAt = :now,
+            e.updatedAt = :now,
+            e.visibilityTimeoutUntil = :visibilityTimeoutUntil,
+            e.version = e.version + 1
+        WHERE e.id IN :ids
+          AND e.status = :expectedStatus
+    """)
+    int claimEntries(
+        @Param("ids") Collection<String> ids,
+        @Param("expectedStatus") IndexingStatus expectedStatus,
+        @Param("newStatus") IndexingStatus newStatus,
+        @Param("processingNode") String processingNode,
+        @Param("now") LocalDateTime now,
+        @Param("visibilityTimeoutUntil") LocalDateTime visibilityTimeoutUntil
+    );
+
+    /**
+     * Re-read the claimed rows of one lease by primary key. The lease token narrows the candidates to the rows
+     * this lease actually won; {@code processing_node} itself is not indexed.
+     */
+    @Query("""
+        SELECT e FROM IndexingQueueEntry e
+        WHERE e.id IN :ids
+          AND e.processingNode = :processingNode
+        ORDER BY e.priorityWeight ASC, e.requestedAt ASC
+    """)
+    List<IndexingQueueEntry> findLeasedEntries(
+        @Param("ids") Collection<String> ids,
+        @Param("processingNode") String processingNode
+    );
+
+    /**
+     * Complete entries of one lease. Only rows still held by that lease are updated, so a lease whose
+     * visibility timeout expired cannot complete rows that were reset and leased again.
+     */
+    @Modifying
+    @Query("""
+        UPDATE IndexingQueueEntry e
+        SET e.status = :newStatus,
+            e.processingNode = NULL,
+            e.visibilityTimeoutUntil = NULL,
+            e.completedAt = :now,
+            e.updatedAt = :now,
+            e.version = e.version + 1
+        WHERE e.id IN :ids
+          AND e.status = :currentStatus
+          AND e.processingNode = :processingNode
+    """)
+    int completeEntries(
+        @Param("ids") Collection<String> ids,
+        @Param("processingNode") String processingNode,
+        @Param("currentStatus") IndexingStatus currentStatus,
+        @Param("newStatus") IndexingStatus newStatus,
+        @Param("now") LocalDateTime now
+    );
+
     long countByStatus(IndexingStatus status);
 
     @Modifying
@@ -3,6 +3,7 @@ package com.ai.infrastructure.search;
 import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import lombok.extern.slf4j.Slf4j;
@@ -64,7 +65,7 @@ public class VectorSearchService {
      * @param request the search request
      * @return search results with similarity scores calculated by the vector database
      */
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         totalSearches.incrementAndGet();
 
         String cacheKey = buildCacheKey(queryVector, request);
@@ -92,6 +93,14 @@ public class VectorSearchService {
         return response;
     }
     
+    /**
+     * @deprecated use {@link #search(Embedding, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        return search(Embedding.fromList(queryVector), request);
+    }
+    
     /**
      * Perform hybrid search combining vector similarity and text matching
      * 
@@ -103,7 +112,7 @@ public class VectorSearchService {
      * @param request the search request
      * @return hybrid search results
      */
-    public AISearchResponse hybridSearch(List<Double> queryVector, String queryText, AISearchRequest request) {
+    public AISearchResponse hybridSearch(Embedding queryVector, String queryText, AISearchRequest request) {
         try {
             log.debug("Performing hybrid search for query: {}", queryText);
             
@@ -139,6 +148,14 @@ public class VectorSearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #hybridSearch(Embedding, String, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse hybridSearch(List<Double> queryVector, String queryText, AISearchRequest request) {
+        return hybridSearch(Embedding.fromList(queryVector), queryText, request);
+    }
+    
     /**
      * Perform semantic search with context awareness
      * 
@@ -150,7 +167,7 @@ public class VectorSearchService {
      * @param request the search request
      * @return context-aware search results
      */
-    public AISearchResponse contextualSearch(List<Double> queryVector, String context, AISearchRequest request) {
+    public AISearchResponse contextualSearch(Embedding queryVector, String context, AISearchRequest request) {
         try {
             log.debug("Performing contextual search with context: {}", context);
             
@@ -180,6 +197,14 @@ public class VectorSearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #contextualSearch(Embedding, String, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse contextualSearch(List<Double> queryVector, String context, AISearchRequest request) {
+        return contextualSearch(Embedding.fromList(queryVector), context, request);
+    }
+    
     /**
      * Store vector with metadata - delegates to VectorDatabaseService
      * 
@@ -190,7 +215,7 @@ public class VectorSearchService {
      * @param metadata additional metadata
      */
     public void storeVector(String entityType, String entityId, String content, 
-                           List<Double> embedding, Map<String, Object> metadata) {
+                           Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Storing vector via VectorDatabaseService for entity {} of type {}", entityId, entityType);
             
@@ -205,6 +230,15 @@ public class VectorSearchService {
         }
     }
     
+    /**
+     * @deprecated use {@link #storeVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    public void storeVector(String entityType, String entityId, String content,
+                            List<Double> embedding, Map<String, Object> metadata) {
+        storeVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
+    
     /**
      * Get search statistics and performance metrics
      * 
@@ -248,7 +282,7 @@ public class VectorSearchService {
         cacheMisses.set(0);
     }
 
-    private AISearchResponse executeSearch(List<Double> queryVector, AISearchRequest request) {
+    private AISearchResponse executeSearch(Embedding queryVector, AISearchRequest request) {
         try {
             return vectorDatabaseService.search(queryVector, request);
         } catch (Exception e) {
@@ -265,7 +299,7 @@ public class VectorSearchService {
         return cache != null ? cache.get(cacheKey, AISearchResponse.class) : null;
     }
 
-    private String buildCacheKey(List<Double> queryVector, AISearchRequest request) {
+    private String buildCacheKey(Embedding queryVector, AISearchRequest request) {
         int vectorHash = queryVector != null ? queryVector.hashCode() : 0;
         int requestHash = request != null ? request.hashCode() : 0;
         return vectorHash + "_" + requestHash;
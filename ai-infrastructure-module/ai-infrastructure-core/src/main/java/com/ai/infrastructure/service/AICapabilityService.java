@@ -1,9 +1,12 @@
 package com.ai.infrastructure.service;
 
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
 import com.ai.infrastructure.dto.AIEntityConfig;
 import com.ai.infrastructure.dto.AISearchableField;
 import com.ai.infrastructure.dto.AIEmbeddableField;
 import com.ai.infrastructure.dto.AIMetadataField;
+import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.core.AIEmbeddingService;
 import com.ai.infrastructure.core.AICoreService;
@@ -18,6 +21,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.lang.reflect.Field;
 import java.util.*;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -113,11 +117,11 @@ public class AICapabilityService {
             }
             
             // Generate embeddings
-            List<Double> embeddings = embeddingService.generateEmbedding(
+            Embedding embeddings = embeddingService.generateEmbedding(
                 com.ai.infrastructure.dto.AIEmbeddingRequest.builder()
                     .text(embeddableContent)
                     .build()
-            ).getEmbedding();
+            ).getVector();
             
             // Store in searchable entity
             storeSearchableEntity(entity, config, embeddableContent, embeddings);
@@ -149,11 +153,11 @@ public class AICapabilityService {
             }
             
             // Generate embeddings if not already done
-            List<Double> embeddings = embeddingService.generateEmbedding(
+            Embedding embeddings = embeddingService.generateEmbedding(
                 com.ai.infrastructure.dto.AIEmbeddingRequest.builder()
                     .text(searchableContent)
                     .build()
-            ).getEmbedding();
+            ).getVector();
             
             // Store in searchable entity
             storeSearchableEntity(entity, config, searchableContent, embeddings);
@@ -163,6 +167,101 @@ public class AICapabilityService {
         }
     }
     
+    /**
+     * Run {@link #generateEmbeddings(Object, AIEntityConfig)} and {@link #indexForSearch(Object, AIEntityConfig)}
+     * as one operation. Both write the same vector and searchable row, so when the embeddable and searchable
+     * contents are the same text it is embedded and written once; otherwise both steps run as before.
+     */
+    @Transactional
+    public void generateEmbeddingsAndIndex(Object entity, AIEntityConfig config) {
+        String sharedContent = sharedContent(entity, config);
+        if (sharedContent == null) {
+            generateEmbeddings(entity, config);
+            indexForSearch(entity, config);
+            return;
+        }
+        
+        try {
+            log.debug("Embedding and indexing entity of type {} in one pass", config.getEntityType());
+            Embedding embeddings = embeddingService.generateEmbedding(
+                com.ai.infrastructure.dto.AIEmbeddingRequest.builder()
+                    .text(sharedContent)
+                    .build()
+            ).getVector();
+            
+            storeSearchableEntity(entity, config, sharedContent, embeddings);
+            
+        } catch (Exception e) {
+            log.error("Error indexing entity for search", e);
+        }
+    }
+    
+    /**
+     * Batch form of {@link #generateEmbeddingsAndIndex(Object, AIEntityConfig)}. Entities whose embeddable and
+     * searchable contents coincide are embedded and written once, in bulk; the rest go through
+     * {@link #generateEmbeddingsBatch} and {@link #indexForSearchBatch}. Failures are rethrown as in those methods.
+     */
+    @Transactional
+    public void generateEmbeddingsAndIndexBatch(List<Object> entities, AIEntityConfig config) {
+        Map<Object, String> shared = new IdentityHashMap<>();
+        List<Object> separate = new ArrayList<>();
+        for (Object entity : entities) {
+            String sharedContent = sharedContent(entity, config);
+            if (sharedContent != null) {
+                shared.put(entity, sharedContent);
+            } else {
+                separate.add(entity);
+            }
+        }
+        
+        if (!shared.isEmpty()) {
+            log.debug("Embedding and indexing {} entities of type {} in one pass", shared.size(), config.getEntityType());
+            storeSearchableEntities(new ArrayList<>(shared.keySet()), config, shared::get);
+        }
+        if (!separate.isEmpty()) {
+            generateEmbeddingsBatch(separate, config);
+            indexForSearchBatch(separate, config);
+        }
+    }
+    
+    /**
+     * Generate embeddings for a batch of entities of one type and store the vectors and searchable rows
+     * with one bulk write each. Entities without an id or embeddable content are skipped, as in
+     * {@link #generateEmbeddings(Object, AIEntityConfig)}. All contents are embedded with one batch call
+     * in which duplicate contents are embedded once; a failed batch embedding or bulk write is rethrown
+     * so callers can retry the entities individually.
+     */
+    @Transactional
+    public void generateEmbeddingsBatch(List<Object> entities, AIEntityConfig config) {
+        log.debug("Generating embeddings for {} entities of type: {}", entities.size(), config.getEntityType());
+        
+        if (!config.isAutoEmbedding()) {
+            log.debug("Auto-embedding disabled for entity type: {}", config.getEntityType());
+            return;
+        }
+        
+        storeSearchableEntities(entities, config, entity -> extractEmbeddableContent(entity, config));
+    }
+    
+    /**
+     * Index a batch of entities of one type for search with one bulk vector write and one bulk upsert of
+     * the searchable rows. Entities without an id or searchable content are skipped, as in
+     * {@link #indexForSearch(Object, AIEntityConfig)}. All contents are embedded with one batch call in which
+     * duplicate contents are embedded once; a failed batch embedding or bulk write is rethrown so callers can
+     * retry the entities individually.
+     */
+    @Transactional
+    public void indexForSearchBatch(List<Object> entities, AIEntityConfig config) {
+        log.debug("Indexing {} entities for search of type: {}", entities.size(), config.getEntityType());
+        
+        if (!config.isIndexable()) {
+            log.debug("Indexing disabled for entity type: {}", config.getEntityType());
+            return;
+        }
+        
+        storeSearchableEntities(entities, config, entity -> extractSearchableContent(entity, config));
+    }
+    
     /**
      * Analyze entity based on configuration
      */
@@ -243,6 +342,21 @@ public class AICapabilityService {
         }
     }
     
+    /**
+     * Content that both embedding and indexing would store for the entity, or {@code null} when only one of
+     * them applies or they would store different text.
+     */
+    private String sharedContent(Object entity, AIEntityConfig config) {
+        if (!config.isAutoEmbedding() || !config.isIndexable()) {
+            return null;
+        }
+        String searchable = extractSearchableContent(entity, config);
+        if (searchable == null || searchable.trim().isEmpty()) {
+            return null;
+        }
+        return searchable.equals(extractEmbeddableContent(entity, config)) ? searchable : null;
+    }
+    
     private String extractSearchableContent(Object entity, AIEntityConfig config) {
         try {
             List<String> contentParts = new ArrayList<>();
@@ -313,7 +427,7 @@ public class AICapabilityService {
         }
     }
     
-    private void storeSearchableEntity(Object entity, AIEntityConfig config, String content, List<Double> embeddings) {
+    private void storeSearchableEntity(Object entity, AIEntityConfig config, String content, Embedding embeddings) {
         try {
             String entityId = getEntityId(entity);
             if (entityId == null) {
@@ -336,28 +450,101 @@ public class AICapabilityService {
                 return;
             }
             
-            AISearchableEntity searchableEntity = storageStrategy
-                .findByEntityTypeAndEntityId(config.getEntityType(), entityId)
-                .orElseGet(() -> AISearchableEntity.builder()
-                    .entityType(config.getEntityType())
-                    .entityId(entityId)
-                    .createdAt(java.time.LocalDateTime.now())
-                    .build());
-
-            String metadataJson = MetadataJsonSerializer.serialize(metadata, config);
-            searchableEntity.setSearchableContent(content);
-            searchableEntity.setVectorId(vectorId);
-            searchableEntity.setVectorUpdatedAt(java.time.LocalDateTime.now());
-            searchableEntity.setMetadata(metadataJson);
-            searchableEntity.setUpdatedAt(java.time.LocalDateTime.now());
-
-            storageStrategy.save(searchableEntity);
+            saveSearchableEntity(config, entityId, content, metadata, vectorId);
             
         } catch (Exception e) {
             log.error("Error storing searchable entity", e);
         }
     }
     
+    private void storeSearchableEntities(List<Object> entities, AIEntityConfig config,
+                                         Function<Object, String> contentExtractor) {
+        List<Object> embeddable = new ArrayList<>(entities.size());
+        List<String> entityIds = new ArrayList<>(entities.size());
+        List<String> contents = new ArrayList<>(entities.size());
+        for (Object entity : entities) {
+            String entityId = getEntityId(entity);
+            if (entityId == null) {
+                log.warn("No entity ID found for storing searchable entity");
+                continue;
+            }
+            
+            String content = contentExtractor.apply(entity);
+            if (content == null || content.trim().isEmpty()) {
+                log.warn("No content found for entity {} of type {}", entityId, config.getEntityType());
+                continue;
+            }
+            embeddable.add(entity);
+            entityIds.add(entityId);
+            contents.add(content);
+        }
+        
+        if (embeddable.isEmpty()) {
+            return;
+        }
+        
+        // One embedding call for the batch; duplicate contents are embedded once
+        List<AIEmbeddingResponse> embeddings = embeddingService.generateEmbeddings(contents, config.getEntityType());
+        
+        List<VectorRecord> records = new ArrayList<>(embeddable.size());
+        for (int i = 0; i < embeddable.size(); i++) {
+            records.add(VectorRecord.builder()
+                .entityType(config.getEntityType())
+                .entityId(entityIds.get(i))
+                .content(contents.get(i))
+                .vector(embeddings.get(i).getVector())
+                .metadata(extractMetadata(embeddable.get(i), config))
+                .build());
+        }
+        
+        // One bulk write for the whole batch; failures propagate so the caller can isolate them
+        List<String> vectorIds = vectorManagementService.batchStoreVectors(records);
+        
+        // One lookup and one bulk upsert of the searchable rows; the last record wins for a repeated entity id
+        Map<String, AISearchableEntity> existing = storageStrategy
+            .findByEntityTypeAndEntityIdIn(config.getEntityType(), new LinkedHashSet<>(entityIds)).stream()
+            .collect(Collectors.toMap(AISearchableEntity::getEntityId, Function.identity(), (first, second) -> first));
+        Map<String, AISearchableEntity> rows = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            VectorRecord record = records.get(i);
+            AISearchableEntity searchableEntity = existing.containsKey(record.getEntityId())
+                ? existing.get(record.getEntityId())
+                : newSearchableEntity(config, record.getEntityId());
+            applySearchableState(searchableEntity, config, record.getContent(), record.getMetadata(), vectorIds.get(i));
+            rows.put(record.getEntityId(), searchableEntity);
+        }
+        storageStrategy.saveAll(new ArrayList<>(rows.values()));
+    }
+    
+    private void saveSearchableEntity(AIEntityConfig config, String entityId, String content,
+                                      Map<String, Object> metadata, String vectorId) {
+        AISearchableEntity searchableEntity = storageStrategy
+            .findByEntityTypeAndEntityId(config.getEntityType(), entityId)
+            .orElseGet(() -> newSearchableEntity(config, entityId));
+
+        applySearchableState(searchableEntity, config, content, metadata, vectorId);
+
+        storageStrategy.save(searchableEntity);
+    }
+    
+    private AISearchableEntity newSearchableEntity(AIEntityConfig config, String entityId) {
+        return AISearchableEntity.builder()
+            .entityType(config.getEntityType())
+            .entityId(entityId)
+            .createdAt(java.time.LocalDateTime.now())
+            .build();
+    }
+    
+    private void applySearchableState(AISearchableEntity searchableEntity, AIEntityConfig config, String content,
+                                      Map<String, Object> metadata, String vectorId) {
+        String metadataJson = MetadataJsonSerializer.serialize(metadata, config);
+        searchableEntity.setSearchableContent(content);
+        searchableEntity.setVectorId(vectorId);
+        searchableEntity.setVectorUpdatedAt(java.time.LocalDateTime.now());
+        searchableEntity.setMetadata(metadataJson);
+        searchableEntity.setUpdatedAt(java.time.LocalDateTime.now());
+    }
+    
     private Map<String, Object> extractMetadata(Object entity, AIEntityConfig config) {
         Map<String, Object> metadata = new LinkedHashMap<>();
         
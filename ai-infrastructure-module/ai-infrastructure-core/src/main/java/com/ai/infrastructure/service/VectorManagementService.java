@@ -3,6 +3,7 @@ package com.ai.infrastructure.service;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,7 +42,7 @@ public class VectorManagementService {
      */
     @Transactional
     public String storeVector(String entityType, String entityId, String content, 
-                             List<Double> embedding, Map<String, Object> metadata) {
+                             Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Storing vector for entity {} of type {}", entityId, entityType);
             
@@ -63,6 +64,16 @@ public class VectorManagementService {
         }
     }
     
+    /**
+     * @deprecated use {@link #storeVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    @Transactional
+    public String storeVector(String entityType, String entityId, String content,
+                              List<Double> embedding, Map<String, Object> metadata) {
+        return storeVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
+    
     /**
      * Update an existing vector for an entity
      * 
@@ -75,7 +86,7 @@ public class VectorManagementService {
      */
     @Transactional
     public String updateVector(String entityType, String entityId, String content, 
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Updating vector for entity {} of type {}", entityId, entityType);
             
@@ -109,6 +120,16 @@ public class VectorManagementService {
         }
     }
     
+    /**
+     * @deprecated use {@link #updateVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    @Transactional
+    public String updateVector(String entityType, String entityId, String content,
+                               List<Double> embedding, Map<String, Object> metadata) {
+        return updateVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
+    
     /**
      * Get a vector by entity type and entity ID
      * 
@@ -149,7 +170,7 @@ public class VectorManagementService {
      * @param request the search request
      * @return search results with similarity scores
      */
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         try {
             log.debug("Searching vectors with query: {}", request.getQuery());
             return vectorDatabaseService.search(queryVector, request);
@@ -159,6 +180,14 @@ public class VectorManagementService {
         }
     }
     
+    /**
+     * @deprecated use {@link #search(Embedding, AISearchRequest)}
+     */
+    @Deprecated
+    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        return search(Embedding.fromList(queryVector), request);
+    }
+    
     /**
      * Search for similar vectors by entity type
      * 
@@ -168,7 +197,7 @@ public class VectorManagementService {
      * @param threshold minimum similarity threshold
      * @return search results with similarity scores
      */
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, 
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, 
                                               int limit, double threshold) {
         try {
             log.debug("Searching vectors for entity type {} with limit {} and threshold {}", 
@@ -180,6 +209,15 @@ public class VectorManagementService {
         }
     }
     
+    /**
+     * @deprecated use {@link #searchByEntityType(Embedding, String, int, double)}
+     */
+    @Deprecated
+    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType,
+                                               int limit, double threshold) {
+        return searchByEntityType(Embedding.fromList(queryVector), entityType, limit, threshold);
+    }
+    
     /**
      * Remove a vector for an entity
      * 
@@ -1,6 +1,8 @@
 package com.ai.infrastructure.storage.strategy;
 
 import com.ai.infrastructure.entity.AISearchableEntity;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,8 +17,26 @@ public interface AISearchableEntityStorageStrategy {
         save(entity);
     }
 
+    /**
+     * Insert or update many entities. The default saves them one by one; built-in strategies write them in bulk.
+     */
+    default void saveAll(List<AISearchableEntity> entities) {
+        entities.forEach(this::save);
+    }
+
     Optional<AISearchableEntity> findByEntityTypeAndEntityId(String entityType, String entityId);
 
+    /**
+     * Look up many entities of one type. The default queries them one by one; built-in strategies use one query.
+     */
+    default List<AISearchableEntity> findByEntityTypeAndEntityIdIn(String entityType, Collection<String> entityIds) {
+        List<AISearchableEntity> found = new ArrayList<>(entityIds.size());
+        for (String entityId : entityIds) {
+            findByEntityTypeAndEntityId(entityType, entityId).ifPresent(found::add);
+        }
+        return found;
+    }
+
     List<AISearchableEntity> findByEntityType(String entityType);
 
     Optional<AISearchableEntity> findByVectorId(String vectorId);
@@ -3,6 +3,7 @@ package com.ai.infrastructure.storage.strategy;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.repository.AISearchableEntityRepository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
@@ -26,11 +27,34 @@ public class SingleTableStorageStrategy implements AISearchableEntityStorageStra
         repository.save(entity);
     }
 
+    @Override
+    public void saveAll(List<AISearchableEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (AISearchableEntity entity : entities) {
+            if (entity.getCreatedAt() == null) {
+                entity.setCreatedAt(now);
+            }
+            entity.setUpdatedAt(now);
+        }
+        repository.saveAll(entities);
+    }
+
     @Override
     public Optional<AISearchableEntity> findByEntityTypeAndEntityId(String entityType, String entityId) {
         return repository.findByEntityTypeAndEntityId(entityType, entityId);
     }
 
+    @Override
+    public List<AISearchableEntity> findByEntityTypeAndEntityIdIn(String entityType, Collection<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return List.of();
+        }
+        return repository.findByEntityTypeAndEntityIdIn(entityType, entityIds);
+    }
+
     @Override
     public List<AISearchableEntity> findByEntityType(String entityType) {
         return repository.findByEntityType(entityType);
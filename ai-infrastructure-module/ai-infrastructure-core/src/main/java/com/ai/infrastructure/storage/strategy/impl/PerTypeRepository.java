@@ -5,16 +5,21 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.util.StringUtils;
 
 @RequiredArgsConstructor
@@ -28,7 +33,51 @@ class PerTypeRepository {
         if (entity == null) {
             return;
         }
+        prepare(entity, LocalDateTime.now());
+
+        MapSqlParameterSource params = baseParams(entity);
+
+        int updated = jdbcTemplate.update(updateSql(), params);
+
+        if (updated == 0) {
+            jdbcTemplate.update(insertSql(), params);
+        }
+    }
+
+    /**
+     * Upsert many entities with one lookup of the existing ids, one batched UPDATE and one batched INSERT.
+     */
+    void saveAll(List<AISearchableEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
         LocalDateTime now = LocalDateTime.now();
+        List<String> entityIds = new ArrayList<>(entities.size());
+        for (AISearchableEntity entity : entities) {
+            prepare(entity, now);
+            entityIds.add(entity.getEntityId());
+        }
+
+        Set<String> existing = new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT entity_id FROM %s WHERE entity_id IN (:entityIds)".formatted(tableName),
+            Map.of("entityIds", entityIds),
+            String.class
+        ));
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        for (AISearchableEntity entity : entities) {
+            (existing.contains(entity.getEntityId()) ? updates : inserts).add(baseParams(entity));
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(updateSql(), updates.toArray(SqlParameterSource[]::new));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(insertSql(), inserts.toArray(SqlParameterSource[]::new));
+        }
+    }
+
+    private void prepare(AISearchableEntity entity, LocalDateTime now) {
         if (!StringUtils.hasText(entity.getId())) {
             entity.setId(UUID.randomUUID().toString());
         }
@@ -37,33 +86,27 @@ class PerTypeRepository {
         }
         entity.setUpdatedAt(now);
         entity.setEntityType(entityType);
+    }
 
-        MapSqlParameterSource params = baseParams(entity);
-
-        int updated = jdbcTemplate.update(
-            """
-                UPDATE %s SET searchable_content=:searchableContent,
-                    vector_id=:vectorId,
-                    vector_updated_at=:vectorUpdatedAt,
-                    metadata=:metadata,
-                    ai_analysis=:aiAnalysis,
-                    updated_at=:updatedAt
-                WHERE entity_id=:entityId
-                """.formatted(tableName),
-            params
-        );
+    private String updateSql() {
+        return """
+            UPDATE %s SET searchable_content=:searchableContent,
+                vector_id=:vectorId,
+                vector_updated_at=:vectorUpdatedAt,
+                metadata=:metadata,
+                ai_analysis=:aiAnalysis,
+                updated_at=:updatedAt
+            WHERE entity_id=:entityId
+            """.formatted(tableName);
+    }
 
-        if (updated == 0) {
-            jdbcTemplate.update(
-                """
-                    INSERT INTO %s (id, entity_type, entity_id, searchable_content, vector_id,
-                        vector_updated_at, metadata, ai_analysis, created_at, updated_at)
-                    VALUES (:id, :entityType, :entityId, :searchableContent, :vectorId,
-                        :vectorUpdatedAt, :metadata, :aiAnalysis, :createdAt, :updatedAt)
-                    """.formatted(tableName),
-                params
-            );
-        }
+    private String insertSql() {
+        return """
+            INSERT INTO %s (id, entity_type, entity_id, searchable_content, vector_id,
+                vector_updated_at, metadata, ai_analysis, created_at, updated_at)
+            VALUES (:id, :entityType, :entityId, :searchableContent, :vectorId,
+                :vectorUpdatedAt, :metadata, :aiAnalysis, :createdAt, :updatedAt)
+            """.formatted(tableName);
     }
 
     Optional<AISearchableEntity> findByEntityId(String entityId) {
@@ -81,6 +124,17 @@ class PerTypeRepository {
         }
     }
 
+    List<AISearchableEntity> findByEntityIdIn(Collection<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+            "SELECT * FROM %s WHERE entity_id IN (:entityIds)".formatted(tableName),
+            Map.of("entityIds", entityIds),
+            mapper()
+        );
+    }
+
     List<AISearchableEntity> findAll() {
         return jdbcTemplate.query("SELECT * FROM %s".formatted(tableName), mapper());
     }
@@ -3,8 +3,11 @@ package com.ai.infrastructure.storage.strategy.impl;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.storage.strategy.AISearchableEntityStorageStrategy;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -25,6 +28,17 @@ public class PerTypeTableStorageStrategy implements AISearchableEntityStorageStr
         repositoryFactory.getRepositoryForType(entity.getEntityType()).save(entity);
     }
 
+    @Override
+    public void saveAll(List<AISearchableEntity> entities) {
+        Map<String, List<AISearchableEntity>> byType = new LinkedHashMap<>();
+        for (AISearchableEntity entity : entities) {
+            if (entity != null && StringUtils.hasText(entity.getEntityType())) {
+                byType.computeIfAbsent(entity.getEntityType(), type -> new ArrayList<>()).add(entity);
+            }
+        }
+        byType.forEach((type, group) -> repositoryFactory.getRepositoryForType(type).saveAll(group));
+    }
+
     @Override
     public Optional<AISearchableEntity> findByEntityTypeAndEntityId(String entityType, String entityId) {
         if (!StringUtils.hasText(entityType)) {
@@ -33,6 +47,14 @@ public class PerTypeTableStorageStrategy implements AISearchableEntityStorageStr
         return repositoryFactory.getRepositoryForType(entityType).findByEntityId(entityId);
     }
 
+    @Override
+    public List<AISearchableEntity> findByEntityTypeAndEntityIdIn(String entityType, Collection<String> entityIds) {
+        if (!StringUtils.hasText(entityType)) {
+            return List.of();
+        }
+        return repositoryFactory.getRepositoryForType(entityType).findByEntityIdIn(entityIds);
+    }
+
     @Override
     public List<AISearchableEntity> findByEntityType(String entityType) {
         if (!StringUtils.hasText(entityType)) {
@@ -0,0 +1,286 @@
+package com.ai.infrastructure.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Bounded top-k selection over primitive (score, index) pairs.
+ *
+ * Keeps the best {@code k} candidates in a min-heap of parallel {@code double[]}/{@code int[]} arrays,
+ * so ranking {@code n} candidates costs O(n log k) with no allocation per candidate. Candidates below
+ * the threshold, or no better than the current k-th best once the heap is full, are rejected with a
+ * single comparison. Equal scores rank the lower index first, which keeps results deterministic.
+ *
+ * Typical use: offer every candidate, call {@link #sortDescending()}, then read
+ * {@link #index(int)}/{@link #score(int)} by rank. Instances are not thread-safe; use
+ * {@link #selectParallel} to rank large candidate sets on several threads.
+ */
+public final class TopKSelector {
+
+    /**
+     * Default number of candidates per partition for {@link #selectParallel}; smaller inputs are
+     * ranked on the calling thread because the fork/merge overhead outweighs the scan.
+     */
+    public static final int DEFAULT_MIN_PARTITION_SIZE = 32_768;
+
+    private final int k;
+    private final double threshold;
+    private final double[] scores;
+    private final int[] indices;
+    private int size;
+    private boolean sorted;
+
+    /**
+     * @param k maximum number of retained candidates
+     */
+    public TopKSelector(int k) {
+        this(k, Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * @param k maximum number of retained candidates
+     * @param threshold minimum accepted score (inclusive)
+     */
+    public TopKSelector(int k, double threshold) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative");
+        }
+        this.k = k;
+        this.threshold = threshold;
+        this.scores = new double[k];
+        this.indices = new int[k];
+    }
+
+    /**
+     * Offer a candidate.
+     *
+     * @param score candidate score; NaN is rejected
+     * @param index caller-defined candidate index
+     * @return {@code true} when the candidate is currently among the top k
+     */
+    public boolean offer(double score, int index) {
+        if (sorted) {
+            throw new IllegalStateException("Selector has already been sorted");
+        }
+        if (!(score >= threshold)) {
+            return false;
+        }
+        if (size < k) {
+            scores[size] = score;
+            indices[size] = index;
+            siftUp(size++);
+            return true;
+        }
+        if (k == 0 || !ranksBefore(score, index, scores[0], indices[0])) {
+            return false;
+        }
+        scores[0] = score;
+        indices[0] = index;
+        siftDown(size);
+        return true;
+    }
+
+    /**
+     * Lowest score a new candidate needs to be considered: the threshold until the heap is full, then
+     * the current k-th best score. Callers can skip expensive work for candidates below it.
+     *
+     * @return minimum competitive score
+     */
+    public double minCompetitiveScore() {
+        if (k == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return size < k ? threshold : Math.max(threshold, scores[0]);
+    }
+
+    /**
+     * Add every retained candidate of another selector to this one.
+     *
+     * @param other selector to merge; left unchanged unless it has been sorted
+     * @return this selector
+     */
+    public TopKSelector merge(TopKSelector other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.scores[i], other.indices[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Order the retained candidates by descending score. No further candidates can be offered.
+     *
+     * @return this selector
+     */
+    public TopKSelector sortDescending() {
+        if (!sorted) {
+            // Heap sort: popping the current minimum to the end leaves the best candidate at rank 0
+            for (int end = size - 1; end > 0; end--) {
+                double score = scores[0];
+                int index = indices[0];
+                scores[0] = scores[end];
+                indices[0] = indices[end];
+                scores[end] = score;
+                indices[end] = index;
+                siftDown(end);
+            }
+            sorted = true;
+        }
+        return this;
+    }
+
+    /**
+     * @return number of retained candidates
+     */
+    public int size() {
+        return size;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * @param rank position in descending score order, valid after {@link #sortDescending()}
+     * @return candidate index at that rank
+     */
+    public int index(int rank) {
+        checkRank(rank);
+        return indices[rank];
+    }
+
+    /**
+     * @param rank position in descending score order, valid after {@link #sortDescending()}
+     * @return candidate score at that rank
+     */
+    public double score(int rank) {
+        checkRank(rank);
+        return scores[rank];
+    }
+
+    /**
+     * Select the top k of a score array.
+     *
+     * @param candidateScores scores indexed by candidate
+     * @param count number of leading entries to consider
+     * @param k maximum number of results
+     * @param threshold minimum accepted score
+     * @return sorted selector
+     */
+    public static TopKSelector select(double[] candidateScores, int count, int k, double threshold) {
+        TopKSelector selector = new TopKSelector(k, threshold);
+        for (int i = 0; i < count; i++) {
+            selector.offer(candidateScores[i], i);
+        }
+        return selector.sortDescending();
+    }
+
+    /**
+     * Partition {@code [0, candidateCount)} into contiguous ranges, rank each range into its own
+     * selector on the common fork/join pool, and merge the partial results. Falls back to a single
+     * range on the calling thread when the input is small or the pool has one worker.
+     *
+     * @param candidateCount number of candidates
+     * @param k maximum number of results
+     * @param threshold minimum accepted score
+     * @param minPartitionSize minimum candidates per partition
+     * @param scorer scores a range of candidates into the given selector; must be safe to call
+     *               concurrently for disjoint ranges
+     * @return sorted selector with indices in {@code [0, candidateCount)}
+     */
+    public static TopKSelector selectParallel(int candidateCount, int k, double threshold,
+                                              int minPartitionSize, RangeScorer scorer) {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        int partitions = (int) Math.min(parallelism, Math.max(1L, (long) candidateCount / Math.max(1, minPartitionSize)));
+        if (partitions <= 1) {
+            TopKSelector selector = new TopKSelector(k, threshold);
+            scorer.score(0, candidateCount, selector);
+            return selector.sortDescending();
+        }
+        int partitionSize = (candidateCount + partitions - 1) / partitions;
+        return IntStream.range(0, partitions)
+            .parallel()
+            .mapToObj(partition -> {
+                TopKSelector selector = new TopKSelector(k, threshold);
+                int from = partition * partitionSize;
+                int to = Math.min(candidateCount, from + partitionSize);
+                if (from < to) {
+                    scorer.score(from, to, selector);
+                }
+                return selector;
+            })
+            .reduce(TopKSelector::merge)
+            .orElseGet(() -> new TopKSelector(k, threshold))
+            .sortDescending();
+    }
+
+    /**
+     * Scores the candidates of one range into a selector.
+     */
+    @FunctionalInterface
+    public interface RangeScorer {
+
+        /**
+         * @param from first candidate index (inclusive)
+         * @param to last candidate index (exclusive)
+         * @param sink selector to offer the range's candidates to
+         */
+        void score(int from, int to, TopKSelector sink);
+    }
+
+    private void checkRank(int rank) {
+        if (!sorted) {
+            throw new IllegalStateException("Call sortDescending() before reading results");
+        }
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("rank " + rank + " out of range for size " + size);
+        }
+    }
+
+    /**
+     * @return {@code true} when (scoreA, indexA) ranks ahead of (scoreB, indexB)
+     */
+    private static boolean ranksBefore(double scoreA, int indexA, double scoreB, int indexB) {
+        return scoreA > scoreB || (scoreA == scoreB && indexA < indexB);
+    }
+
+    private void siftUp(int position) {
+        double score = scores[position];
+        int index = indices[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!ranksBefore(scores[parent], indices[parent], score, index)) {
+                break;
+            }
+            scores[position] = scores[parent];
+            indices[position] = indices[parent];
+            position = parent;
+        }
+        scores[position] = score;
+        indices[position] = index;
+    }
+
+    private void siftDown(int heapSize) {
+        if (heapSize == 0) {
+            return;
+        }
+        double score = scores[0];
+        int index = indices[0];
+        int position = 0;
+        int half = heapSize >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < heapSize && ranksBefore(scores[child], indices[child], scores[right], indices[right])) {
+                child = right;
+            }
+            if (!ranksBefore(score, index, scores[child], indices[child])) {
+                break;
+            }
+            scores[position] = scores[child];
+            indices[position] = indices[child];
+            position = child;
+        }
+        scores[position] = score;
+        indices[position] = index;
+    }
+}
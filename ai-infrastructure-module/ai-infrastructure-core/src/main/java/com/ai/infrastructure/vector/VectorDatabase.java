@@ -2,6 +2,7 @@ package com.ai.infrastructure.vector;
 
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
+import com.ai.infrastructure.embedding.Embedding;
 
 import java.util.List;
 import java.util.Map;
@@ -27,7 +28,18 @@ public interface VectorDatabase {
      * @param metadata additional metadata
      */
     void storeVector(String entityType, String entityId, String content, 
-                    List<Double> embedding, Map<String, Object> metadata);
+                    Embedding embedding, Map<String, Object> metadata);
+    
+    /**
+     * Store a vector in the database
+     * 
+     * @deprecated use {@link #storeVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    default void storeVector(String entityType, String entityId, String content,
+                             List<Double> embedding, Map<String, Object> metadata) {
+        storeVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
     
     /**
      * Search for similar vectors
@@ -36,7 +48,17 @@ public interface VectorDatabase {
      * @param request the search request
      * @return search results
      */
-    AISearchResponse search(List<Double> queryVector, AISearchRequest request);
+    AISearchResponse search(Embedding queryVector, AISearchRequest request);
+    
+    /**
+     * Search for similar vectors
+     * 
+     * @deprecated use {@link #search(Embedding, AISearchRequest)}
+     */
+    @Deprecated
+    default AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        return search(Embedding.fromList(queryVector), request);
+    }
     
     /**
      * Remove a vector from the database
@@ -56,7 +78,18 @@ public interface VectorDatabase {
      * @param metadata additional metadata
      */
     void updateVector(String entityType, String entityId, String content, 
-                     List<Double> embedding, Map<String, Object> metadata);
+                     Embedding embedding, Map<String, Object> metadata);
+    
+    /**
+     * Update a vector in the database
+     * 
+     * @deprecated use {@link #updateVector(String, String, String, Embedding, Map)}
+     */
+    @Deprecated
+    default void updateVector(String entityType, String entityId, String content,
+                              List<Double> embedding, Map<String, Object> metadata) {
+        updateVector(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+    }
     
     /**
      * Get vector by ID
@@ -139,11 +172,11 @@ public interface VectorDatabase {
         private String entityType;
         private String entityId;
         private String content;
-        private List<Double> embedding;
+        private Embedding embedding;
         private Map<String, Object> metadata;
         
         public VectorData(String entityType, String entityId, String content, 
-                         List<Double> embedding, Map<String, Object> metadata) {
+                         Embedding embedding, Map<String, Object> metadata) {
             this.entityType = entityType;
             this.entityId = entityId;
             this.content = content;
@@ -151,6 +184,15 @@ public interface VectorDatabase {
             this.metadata = metadata;
         }
         
+        /**
+         * @deprecated use {@link #VectorData(String, String, String, Embedding, Map)}
+         */
+        @Deprecated
+        public VectorData(String entityType, String entityId, String content,
+                          List<Double> embedding, Map<String, Object> metadata) {
+            this(entityType, entityId, content, Embedding.fromList(embedding), metadata);
+        }
+        
         // Getters and setters
         public String getEntityType() { return entityType; }
         public void setEntityType(String entityType) { this.entityType = entityType; }
@@ -161,8 +203,15 @@ public interface VectorDatabase {
         public String getContent() { return content; }
         public void setContent(String content) { this.content = content; }
         
-        public List<Double> getEmbedding() { return embedding; }
-        public void setEmbedding(List<Double> embedding) { this.embedding = embedding; }
+        public Embedding getVector() { return embedding; }
+        public void setVector(Embedding embedding) { this.embedding = embedding; }
+        
+        /** @deprecated use {@link #getVector()} */
+        @Deprecated
+        public List<Double> getEmbedding() { return embedding != null ? embedding.toList() : null; }
+        /** @deprecated use {@link #setVector(Embedding)} */
+        @Deprecated
+        public void setEmbedding(List<Double> embedding) { this.embedding = Embedding.fromList(embedding); }
         
         public Map<String, Object> getMetadata() { return metadata; }
         public void setMetadata(Map<String, Object> metadata) { this.metadata = metadata; }
@@ -172,17 +221,25 @@ public interface VectorDatabase {
      * Vector search query class
      */
     class VectorSearchQuery {
-        private List<Double> queryVector;
+        private Embedding queryVector;
         private AISearchRequest request;
         
-        public VectorSearchQuery(List<Double> queryVector, AISearchRequest request) {
+        public VectorSearchQuery(Embedding queryVector, AISearchRequest request) {
             this.queryVector = queryVector;
             this.request = request;
         }
         
+        /**
+         * @deprecated use {@link #VectorSearchQuery(Embedding, AISearchRequest)}
+         */
+        @Deprecated
+        public VectorSearchQuery(List<Double> queryVector, AISearchRequest request) {
+            this(Embedding.fromList(queryVector), request);
+        }
+        
         // Getters and setters
-        public List<Double> getQueryVector() { return queryVector; }
-        public void setQueryVector(List<Double> queryVector) { this.queryVector = queryVector; }
+        public Embedding getQueryVector() { return queryVector; }
+        public void setQueryVector(Embedding queryVector) { this.queryVector = queryVector; }
         
         public AISearchRequest getRequest() { return request; }
         public void setRequest(AISearchRequest request) { this.request = request; }
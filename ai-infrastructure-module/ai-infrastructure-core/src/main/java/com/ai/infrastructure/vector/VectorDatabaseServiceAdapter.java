@@ -3,6 +3,7 @@ package com.ai.infrastructure.vector;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 
 import java.util.ArrayList;
@@ -23,12 +24,12 @@ public class VectorDatabaseServiceAdapter implements VectorDatabase {
 
     @Override
     public void storeVector(String entityType, String entityId, String content,
-                            List<Double> embedding, Map<String, Object> metadata) {
+                            Embedding embedding, Map<String, Object> metadata) {
         delegate.storeVector(entityType, entityId, content, embedding, metadata);
     }
 
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         return delegate.search(queryVector, request);
     }
 
@@ -39,7 +40,7 @@ public class VectorDatabaseServiceAdapter implements VectorDatabase {
 
     @Override
     public void updateVector(String entityType, String entityId, String content,
-                             List<Double> embedding, Map<String, Object> metadata) {
+                             Embedding embedding, Map<String, Object> metadata) {
         String vectorId = delegate.getVectorByEntity(entityType, entityId)
             .map(VectorRecord::getVectorId)
             .orElse(null);
@@ -106,7 +107,7 @@ public class VectorDatabaseServiceAdapter implements VectorDatabase {
                 .entityType(vector.getEntityType())
                 .entityId(vector.getEntityId())
                 .content(vector.getContent())
-                .embedding(vector.getEmbedding())
+                .vector(vector.getVector())
                 .metadata(vector.getMetadata())
                 .build());
         }
@@ -131,7 +132,7 @@ public class VectorDatabaseServiceAdapter implements VectorDatabase {
         map.put("entityType", record.getEntityType());
         map.put("entityId", record.getEntityId());
         map.put("content", record.getContent());
-        map.put("embedding", record.getEmbedding());
+        map.put("embedding", record.getVector());
         if (record.getMetadata() != null) {
             map.put("metadata", record.getMetadata());
         }
@@ -0,0 +1,111 @@
+package com.ai.infrastructure.cache;
+
+import com.ai.infrastructure.embedding.Embedding;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DiskEmbeddingCacheTest {
+
+    private static final int SEGMENT_SIZE = 16 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveReopen() throws IOException {
+        try (DiskEmbeddingCache cache = new DiskEmbeddingCache(directory, SEGMENT_SIZE, 4, 100, 0.5)) {
+            cache.put(key(1), CachedEmbedding.full("model", Embedding.wrap(new float[] {0.25f, -0.5f})));
+            cache.put(key(2), CachedEmbedding.quantized("model", new float[] {1f, -1f}));
+
+            assertThatThrownBy(() -> new DiskEmbeddingCache(directory, SEGMENT_SIZE, 4, 100, 0.5))
+                .isInstanceOf(IOException.class);
+        }
+
+        try (DiskEmbeddingCache reopened = new DiskEmbeddingCache(directory, SEGMENT_SIZE, 4, 100, 0.5)) {
+            CachedEmbedding full = reopened.get(key(1));
+            assertThat(full.model()).isEqualTo("model");
+            assertThat(full.embedding().values()).containsExactly(0.25f, -0.5f);
+            CachedEmbedding quantized = reopened.get(key(2));
+            assertThat(quantized.isQuantized()).isTrue();
+            assertThat(quantized.embedding().values()).containsExactly(1f, -1f);
+        }
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() throws IOException {
+        try (DiskEmbeddingCache cache = new DiskEmbeddingCache(directory, SEGMENT_SIZE, 4, 3, 0.5)) {
+            cache.put(key(1), vector(1));
+            cache.put(key(2), vector(2));
+            cache.put(key(3), vector(3));
+            cache.get(key(1));
+            cache.put(key(4), vector(4));
+
+            assertThat(cache.get(key(2))).isNull();
+            assertThat(cache.get(key(1))).isNotNull();
+            assertThat(cache.get(key(4))).isNotNull();
+        }
+    }
+
+    @Test
+    void compactionKeepsHotEntriesAndBoundsDiskUsage() throws IOException {
+        try (DiskEmbeddingCache cache = new DiskEmbeddingCache(directory, SEGMENT_SIZE, 3, 50, 0.5)) {
+            cache.put(key(0), vector(0));
+            for (int i = 1; i < 2_000; i++) {
+                cache.get(key(0));
+                cache.put(key(i), vector(i));
+            }
+
+            assertThat(cache.get(key(0)).embedding().values()[0]).isEqualTo(0f);
+            assertThat(cache.getStatistics()).containsEntry("entries", 50);
+            assertThat((Long) cache.getStatistics().get("compactions")).isPositive();
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files.filter(path -> path.toString().endsWith(".seg")).count()).isLessThanOrEqualTo(3);
+            }
+        }
+    }
+
+    @Test
+    void startsAnotherSegmentWhenCompactionFillsTheNewOne() throws IOException {
+        // Records of 840 and 3240 bytes in 4096-byte segments: compacting the first segment copies
+        // 2520 live bytes into the new one, which then has no room for the large record being written
+        try (DiskEmbeddingCache cache = new DiskEmbeddingCache(directory, 4096, 4, 4, 1.0)) {
+            for (int i = 0; i < 4; i++) {
+                cache.put(key(i), vector(i, 200));
+            }
+            cache.put(key(4), vector(4, 800));
+            cache.put(key(5), vector(5, 800));
+
+            assertThat((Long) cache.getStatistics().get("compactions")).isPositive();
+            assertThat(cache.getStatistics()).containsEntry("writes", 6L);
+            assertThat(cache.get(key(5)).embedding().values()).hasSize(800).startsWith(5f);
+            assertThat(cache.get(key(2)).embedding().values()).hasSize(200).startsWith(2f);
+        }
+
+        try (DiskEmbeddingCache reopened = new DiskEmbeddingCache(directory, 4096, 4, 4, 1.0)) {
+            assertThat(reopened.get(key(5)).embedding().values()).hasSize(800).startsWith(5f);
+            assertThat(reopened.get(key(2)).embedding().values()).hasSize(200).startsWith(2f);
+        }
+    }
+
+    private static EmbeddingCacheKey key(int i) {
+        return EmbeddingCacheKey.of("text " + i, null, "onnx", 64);
+    }
+
+    private static CachedEmbedding vector(int i) {
+        return vector(i, 64);
+    }
+
+    private static CachedEmbedding vector(int i, int dimension) {
+        float[] values = new float[dimension];
+        values[0] = i;
+        return CachedEmbedding.full("model", Embedding.wrap(values));
+    }
+}
@@ -0,0 +1,61 @@
+package com.ai.infrastructure.cache;
+
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingCacheKeyTest {
+
+    @Test
+    void whitespaceDifferencesMapToTheSameKey() {
+        EmbeddingCacheKey key = EmbeddingCacheKey.of("red  shoes\n for running", null, "onnx", 384);
+
+        assertThat(EmbeddingCacheKey.of("  red shoes for\trunning ", null, "onnx", 384)).isEqualTo(key);
+        assertThat(key.toHex()).hasSize(32);
+    }
+
+    @Test
+    void modelProviderAndDimensionArePartOfTheKey() {
+        EmbeddingCacheKey key = EmbeddingCacheKey.of("red shoes", null, "onnx", 384);
+
+        assertThat(EmbeddingCacheKey.of("red shoes", "other-model", "onnx", 384)).isNotEqualTo(key);
+        assertThat(EmbeddingCacheKey.of("red shoes", null, "openai", 384)).isNotEqualTo(key);
+        assertThat(EmbeddingCacheKey.of("red shoes", null, "onnx", 768)).isNotEqualTo(key);
+        assertThat(EmbeddingCacheKey.of("red shoe", null, "onnx", 384)).isNotEqualTo(key);
+    }
+
+    @Test
+    void quantizedValueKeepsCosineSimilarity() {
+        Random random = new Random(42);
+        float[] vector = new float[384];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        Embedding original = Embedding.wrap(vector);
+
+        CachedEmbedding cached = CachedEmbedding.from(
+            AIEmbeddingResponse.builder().vector(original).model("m").dimensions(384).build(), true);
+
+        assertThat(cached.isQuantized()).isTrue();
+        AIEmbeddingResponse restored = cached.toResponse();
+        assertThat(restored.getModel()).isEqualTo("m");
+        assertThat(restored.getDimensions()).isEqualTo(384);
+        assertThat(cosine(original.values(), restored.getVector().values())).isGreaterThan(0.999);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        return dot / Math.sqrt(normA * normB);
+    }
+}
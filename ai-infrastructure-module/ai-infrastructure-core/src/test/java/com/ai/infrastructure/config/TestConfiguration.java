@@ -5,6 +5,7 @@ import com.ai.infrastructure.dto.AIEmbeddingResponse;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.provider.AIProviderManager;
 import com.ai.infrastructure.rag.VectorDatabaseService;
@@ -69,7 +70,7 @@ public class TestConfiguration {
         @Override
         public AIEmbeddingResponse generateEmbedding(AIEmbeddingRequest request) {
             return AIEmbeddingResponse.builder()
-                .embedding(buildVector())
+                .vector(buildVector())
                 .model(request != null && request.getModel() != null ? request.getModel() : "onnx-test-model")
                 .dimensions(DIMENSION)
                 .processingTimeMs(5L)
@@ -100,12 +101,12 @@ public class TestConfiguration {
             );
         }
 
-        private List<Double> buildVector() {
-            List<Double> values = new ArrayList<>(DIMENSION);
+        private Embedding buildVector() {
+            float[] values = new float[DIMENSION];
             for (int i = 0; i < DIMENSION; i++) {
-                values.add(0.1 + (i % 7) * 0.01);
+                values[i] = 0.1f + (i % 7) * 0.01f;
             }
-            return values;
+            return Embedding.wrap(values);
         }
     }
 
@@ -115,14 +116,14 @@ public class TestConfiguration {
 
         @Override
         public String storeVector(String entityType, String entityId, String content,
-                                  List<Double> embedding, Map<String, Object> metadata) {
+                                  Embedding embedding, Map<String, Object> metadata) {
             String vectorId = buildVectorId(entityType, entityId);
             VectorRecord record = VectorRecord.builder()
                 .vectorId(vectorId)
                 .entityType(entityType)
                 .entityId(entityId)
                 .content(content)
-                .embedding(embedding != null ? List.copyOf(embedding) : Collections.emptyList())
+                .vector(embedding != null ? embedding : Embedding.empty())
                 .metadata(metadata != null ? new HashMap<>(metadata) : new HashMap<>())
                 .build();
             store.put(vectorId, record);
@@ -132,7 +133,7 @@ public class TestConfiguration {
 
         @Override
         public boolean updateVector(String vectorId, String entityType, String entityId,
-                                    String content, List<Double> embedding, Map<String, Object> metadata) {
+                                    String content, Embedding embedding, Map<String, Object> metadata) {
             String id = vectorId != null ? vectorId : buildVectorId(entityType, entityId);
             storeVector(entityType, entityId, content, embedding, metadata);
             return store.containsKey(id);
@@ -154,7 +155,7 @@ public class TestConfiguration {
         }
 
         @Override
-        public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+        public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
             List<VectorRecord> candidates;
             if (request != null && request.getEntityType() != null) {
                 candidates = getVectorsByEntityType(request.getEntityType());
@@ -185,7 +186,7 @@ public class TestConfiguration {
         }
 
         @Override
-        public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+        public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
             AISearchRequest request = AISearchRequest.builder()
                 .entityType(entityType)
                 .limit(limit)
@@ -226,7 +227,7 @@ public class TestConfiguration {
             List<String> ids = new ArrayList<>(vectors.size());
             for (VectorRecord record : vectors) {
                 ids.add(storeVector(record.getEntityType(), record.getEntityId(), record.getContent(),
-                    record.getEmbedding(), record.getMetadata()));
+                    record.getVector(), record.getMetadata()));
             }
             return ids;
         }
@@ -236,7 +237,7 @@ public class TestConfiguration {
             int updated = 0;
             for (VectorRecord record : vectors) {
                 if (updateVector(record.getVectorId(), record.getEntityType(), record.getEntityId(),
-                        record.getContent(), record.getEmbedding(), record.getMetadata())) {
+                        record.getContent(), record.getVector(), record.getMetadata())) {
                     updated++;
                 }
             }
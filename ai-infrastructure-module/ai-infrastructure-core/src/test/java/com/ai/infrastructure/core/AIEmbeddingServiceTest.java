@@ -0,0 +1,119 @@
+package com.ai.infrastructure.core;
+
+import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
+import com.ai.infrastructure.embedding.EmbeddingProvider;
+import com.ai.infrastructure.exception.AIServiceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AIEmbeddingServiceTest {
+
+    @Mock
+    private EmbeddingProvider primary;
+
+    @Mock
+    private EmbeddingProvider fallback;
+
+    private final CaffeineCacheManager cacheManager = new CaffeineCacheManager("embeddings");
+
+    @BeforeEach
+    void setUp() {
+        when(primary.getProviderName()).thenReturn("primary");
+    }
+
+    @Test
+    void sendsOnlyCacheMissesToProviderInInputOrder() {
+        when(primary.isAvailable()).thenReturn(true);
+        when(primary.generateEmbeddings(anyList())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        AIEmbeddingService service = new AIEmbeddingService(new AIProviderConfig(), primary, cacheManager, null);
+
+        service.generateEmbeddings(List.of("a", "b"), "demo");
+        List<AIEmbeddingResponse> responses = service.generateEmbeddings(List.of("b", "c", "a"), "demo");
+
+        assertThat(responses).extracting(AIEmbeddingResponse::getModel).containsExactly("b", "c", "a");
+        verify(primary).generateEmbeddings(List.of("a", "b"));
+        verify(primary).generateEmbeddings(List.of("c"));
+    }
+
+    @Test
+    void skipsProviderWhenEveryTextIsCached() {
+        when(primary.isAvailable()).thenReturn(true);
+        when(primary.generateEmbeddings(anyList())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        AIEmbeddingService service = new AIEmbeddingService(new AIProviderConfig(), primary, cacheManager, null);
+        service.generateEmbeddings(List.of("a", "b"), "demo");
+
+        List<AIEmbeddingResponse> responses = service.generateEmbeddings(List.of("b", "a"), "demo");
+
+        assertThat(responses).extracting(AIEmbeddingResponse::getModel).containsExactly("b", "a");
+        verify(primary, times(1)).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void embedsDuplicateTextsOnceAndFansOutResults() {
+        when(primary.isAvailable()).thenReturn(true);
+        when(primary.generateEmbeddings(anyList())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        AIEmbeddingService service = new AIEmbeddingService(new AIProviderConfig(), primary, cacheManager, null);
+
+        List<AIEmbeddingResponse> responses = service.generateEmbeddings(List.of("a", "b", "a", "a", "b"), "demo");
+
+        assertThat(responses).extracting(AIEmbeddingResponse::getModel).containsExactly("a", "b", "a", "a", "b");
+        verify(primary).generateEmbeddings(List.of("a", "b"));
+        assertThat(service.getPerformanceMetrics()).containsEntry("duplicateTextsSkipped", 3L);
+    }
+
+    @Test
+    void fallsBackForMissesWhenPrimaryFails() {
+        when(primary.isAvailable()).thenReturn(true);
+        when(primary.generateEmbeddings(anyList())).thenThrow(new AIServiceException("primary down"));
+        when(fallback.getProviderName()).thenReturn("fallback");
+        when(fallback.isAvailable()).thenReturn(true);
+        when(fallback.generateEmbeddings(anyList())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        AIEmbeddingService service = new AIEmbeddingService(new AIProviderConfig(), primary, cacheManager, fallback);
+
+        List<AIEmbeddingResponse> responses = service.generateEmbeddings(List.of("a", "b"), "demo");
+
+        assertThat(responses).extracting(AIEmbeddingResponse::getModel).containsExactly("a", "b");
+        verify(fallback).generateEmbeddings(List.of("a", "b"));
+    }
+
+    @Test
+    void failsWhenPrimaryFailsAndFallbackIsDisabled() {
+        AIProviderConfig config = new AIProviderConfig();
+        config.setEnableFallback(false);
+        when(primary.isAvailable()).thenReturn(true);
+        when(primary.generateEmbeddings(anyList())).thenThrow(new AIServiceException("primary down"));
+        AIEmbeddingService service = new AIEmbeddingService(config, primary, cacheManager, fallback);
+
+        assertThatThrownBy(() -> service.generateEmbeddings(List.of("a"), "demo"))
+            .isInstanceOf(AIServiceException.class);
+        verify(fallback, never()).generateEmbeddings(anyList());
+    }
+
+    private static List<AIEmbeddingResponse> echo(List<String> texts) {
+        return texts.stream()
+            .map(text -> AIEmbeddingResponse.builder()
+                .vector(Embedding.wrap(new float[] {text.length()}))
+                .model(text)
+                .dimensions(1)
+                .build())
+            .collect(Collectors.toList());
+    }
+}
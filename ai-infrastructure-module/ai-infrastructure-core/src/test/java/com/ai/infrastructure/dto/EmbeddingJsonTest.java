@@ -0,0 +1,63 @@
+package com.ai.infrastructure.dto;
+
+import com.ai.infrastructure.embedding.Embedding;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void embeddingResponseKeepsTheEmbeddingWireName() throws Exception {
+        AIEmbeddingResponse response = AIEmbeddingResponse.builder()
+            .vector(Embedding.of(new float[] {0.25f, -0.5f, 1f}))
+            .model("model")
+            .dimensions(3)
+            .build();
+
+        JsonNode tree = objectMapper.readTree(objectMapper.writeValueAsString(response));
+
+        assertThat(tree.has("vector")).isFalse();
+        assertThat(tree.get("embedding").isArray()).isTrue();
+        assertThat(objectMapper.treeToValue(tree.get("embedding"), Embedding.class)).isEqualTo(response.getVector());
+        assertThat(tree.get("model").asText()).isEqualTo("model");
+    }
+
+    @Test
+    void vectorRecordRoundTripsAndReadsLegacyPayloads() throws Exception {
+        VectorRecord record = VectorRecord.builder()
+            .vectorId("v1")
+            .entityType("product")
+            .entityId("42")
+            .vector(Embedding.of(new float[] {1f, 2f}))
+            .metadata(Map.of("color", "red"))
+            .build();
+
+        String json = objectMapper.writeValueAsString(record);
+
+        assertThat(objectMapper.readTree(json).get("embedding").get(1).floatValue()).isEqualTo(2f);
+        VectorRecord restored = objectMapper.readValue(json, VectorRecord.class);
+        assertThat(restored.getVector().values()).containsExactly(1f, 2f);
+        assertThat(restored.getEntityId()).isEqualTo("42");
+
+        VectorRecord legacy = objectMapper.readValue(
+            "{\"vectorId\":\"v2\",\"embedding\":[0.5,-1.5]}", VectorRecord.class);
+        assertThat(legacy.getVector().values()).containsExactly(0.5f, -1.5f);
+    }
+
+    @Test
+    void embeddingSerializesAsAPlainNumberArray() throws Exception {
+        Embedding embedding = Embedding.of(new float[] {0.125f, 3f});
+
+        String json = objectMapper.writeValueAsString(embedding);
+
+        assertThat(json).isEqualTo("[0.125,3.0]");
+        assertThat(objectMapper.readValue(json, Embedding.class)).isEqualTo(embedding);
+    }
+}
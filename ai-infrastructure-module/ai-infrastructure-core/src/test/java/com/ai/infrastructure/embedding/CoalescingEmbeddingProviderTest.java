@@ -0,0 +1,147 @@
+package com.ai.infrastructure.embedding;
+
+import com.ai.infrastructure.dto.AIEmbeddingRequest;
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.exception.AIServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingEmbeddingProviderTest {
+
+    @Mock
+    private EmbeddingProvider delegate;
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(8);
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CoalescingEmbeddingProvider coalescer;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (coalescer != null) {
+            coalescer.close();
+        }
+    }
+
+    @Test
+    void idleRequestIsSentWithoutWaitingForCompany() {
+        when(delegate.generateEmbedding(any())).thenAnswer(invocation -> single(invocation.getArgument(0)));
+        coalescer = new CoalescingEmbeddingProvider(delegate, 4, TimeUnit.SECONDS.toMicros(5), 2);
+
+        long start = System.nanoTime();
+        assertThat(coalescer.generateEmbedding(request("alone")).getModel()).isEqualTo("alone");
+
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+        verify(delegate, never()).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void requestsArrivingWhileABatchIsInFlightShareOneBatchCall() throws Exception {
+        when(delegate.generateEmbedding(any())).thenAnswer(invocation -> single(invocation.getArgument(0)));
+        when(delegate.generateEmbeddings(anyList())).thenAnswer(invocation -> echo(invocation.getArgument(0)));
+        // A full batch is dispatched at once, so the long wait only guarantees all four land together
+        coalescer = new CoalescingEmbeddingProvider(delegate, 4, TimeUnit.SECONDS.toMicros(5), 2);
+        CompletableFuture<AIEmbeddingResponse> blocker = startBlocker();
+
+        List<CompletableFuture<AIEmbeddingResponse>> futures = IntStream.range(0, 4)
+            .mapToObj(i -> CompletableFuture.supplyAsync(
+                () -> coalescer.generateEmbedding(request("text-" + i)), callers))
+            .collect(Collectors.toList());
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get(5, TimeUnit.SECONDS).getModel()).isEqualTo("text-" + i);
+        }
+        release.countDown();
+        assertThat(blocker.get(5, TimeUnit.SECONDS).getModel()).isEqualTo("blocker");
+        verify(delegate).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void failedBatchIsRetriedPerRequest() throws Exception {
+        when(delegate.generateEmbeddings(anyList())).thenThrow(new AIServiceException("batch failed"));
+        when(delegate.generateEmbedding(any())).thenAnswer(invocation -> {
+            AIEmbeddingRequest request = invocation.getArgument(0);
+            if (request.getText().equals("bad")) {
+                throw new AIServiceException("bad input");
+            }
+            return single(request);
+        });
+        coalescer = new CoalescingEmbeddingProvider(delegate, 2, TimeUnit.SECONDS.toMicros(5), 2);
+        startBlocker();
+
+        CompletableFuture<AIEmbeddingResponse> good = CompletableFuture.supplyAsync(
+            () -> coalescer.generateEmbedding(request("good")), callers);
+        CompletableFuture<AIEmbeddingResponse> bad = CompletableFuture.supplyAsync(
+            () -> coalescer.generateEmbedding(request("bad")), callers);
+
+        assertThat(good.get(5, TimeUnit.SECONDS).getModel()).isEqualTo("good");
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AIServiceException.class);
+        verify(delegate).generateEmbeddings(anyList());
+    }
+
+    @Test
+    void requestsWithExplicitModelBypassTheQueue() {
+        AIEmbeddingRequest request = AIEmbeddingRequest.builder().text("a").model("custom").build();
+        when(delegate.generateEmbedding(request)).thenReturn(echo(List.of("a")).get(0));
+        coalescer = new CoalescingEmbeddingProvider(delegate, 4, 1000, 1);
+
+        assertThat(coalescer.generateEmbedding(request).getModel()).isEqualTo("a");
+        verify(delegate, never()).generateEmbeddings(anyList());
+    }
+
+    /**
+     * Send a request that stays in flight as a batch of one until {@link #release} opens.
+     */
+    private CompletableFuture<AIEmbeddingResponse> startBlocker() throws InterruptedException {
+        CompletableFuture<AIEmbeddingResponse> blocker = CompletableFuture.supplyAsync(
+            () -> coalescer.generateEmbedding(request("blocker")), callers);
+        assertThat(blockerStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return blocker;
+    }
+
+    private AIEmbeddingResponse single(AIEmbeddingRequest request) throws InterruptedException {
+        if (request.getText().equals("blocker")) {
+            blockerStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+        return echo(List.of(request.getText())).get(0);
+    }
+
+    private static AIEmbeddingRequest request(String text) {
+        return AIEmbeddingRequest.builder().text(text).build();
+    }
+
+    private static List<AIEmbeddingResponse> echo(List<String> texts) {
+        return texts.stream()
+            .map(text -> AIEmbeddingResponse.builder()
+                .vector(Embedding.wrap(new float[] {text.length()}))
+                .model(text)
+                .dimensions(1)
+                .build())
+            .collect(Collectors.toList());
+    }
+}
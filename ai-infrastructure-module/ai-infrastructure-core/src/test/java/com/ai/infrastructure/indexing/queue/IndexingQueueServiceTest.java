@@ -0,0 +1,128 @@
+package com.ai.infrastructure.indexing.queue;
+
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.indexing.IndexingStatus;
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import com.ai.infrastructure.repository.IndexingQueueRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexingQueueServiceTest {
+
+    @Mock
+    private IndexingQueueRepository repository;
+
+    private final AIIndexingProperties properties = new AIIndexingProperties();
+    private final Clock clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void skipLockedModeSelectsWithRowLocksAndReturnsClaimedRows() {
+        properties.getQueue().setLeaseMode(AIIndexingProperties.LeaseMode.SKIP_LOCKED);
+        IndexingQueueService service = new IndexingQueueService(repository, properties, clock);
+        List<IndexingQueueEntry> candidates = List.of(entry("1"), entry("2"));
+        when(repository.lockPendingSkipLocked(eq(IndexingStatus.PENDING), eq(IndexingStrategy.ASYNC), any(), any()))
+            .thenReturn(candidates);
+        when(repository.claimEntries(eq(List.of("1", "2")), eq(IndexingStatus.PENDING), eq(IndexingStatus.PROCESSING),
+            anyString(), any(), any())).thenReturn(2);
+        when(repository.findLeasedEntries(eq(List.of("1", "2")), anyString())).thenReturn(candidates);
+
+        List<IndexingQueueEntry> leased = service.lease(IndexingStrategy.ASYNC, 10);
+
+        assertThat(leased).containsExactlyElementsOf(candidates);
+        verify(repository, never())
+            .findByStatusAndStrategyAndScheduledForLessThanEqualOrderByPriorityWeightAscRequestedAtAsc(
+                any(), any(), any(), any());
+    }
+
+    @Test
+    void optimisticModeReturnsNothingWhenAnotherNodeClaimedEveryCandidate() {
+        properties.getQueue().setLeaseMode(AIIndexingProperties.LeaseMode.OPTIMISTIC);
+        IndexingQueueService service = new IndexingQueueService(repository, properties, clock);
+        when(repository.findByStatusAndStrategyAndScheduledForLessThanEqualOrderByPriorityWeightAscRequestedAtAsc(
+            eq(IndexingStatus.PENDING), eq(IndexingStrategy.BATCH), any(), any()))
+            .thenReturn(List.of(entry("1")));
+        when(repository.claimEntries(anyCollection(), any(), any(), anyString(), any(), any())).thenReturn(0);
+
+        List<IndexingQueueEntry> leased = service.lease(IndexingStrategy.BATCH, 10);
+
+        assertThat(leased).isEmpty();
+        verify(repository, never()).lockPendingSkipLocked(any(), any(), any(), any());
+        verify(repository, never()).findLeasedEntries(anyCollection(), anyString());
+    }
+
+    @Test
+    void reReadsTheLeaseByIdUnderTheTokenItClaimedWith() {
+        properties.getQueue().setLeaseMode(AIIndexingProperties.LeaseMode.OPTIMISTIC);
+        IndexingQueueService service = new IndexingQueueService(repository, properties, clock);
+        when(repository.findByStatusAndStrategyAndScheduledForLessThanEqualOrderByPriorityWeightAscRequestedAtAsc(
+            any(), any(), any(), any())).thenReturn(List.of(entry("1"), entry("2")));
+        ArgumentCaptor<String> claimToken = ArgumentCaptor.forClass(String.class);
+        when(repository.claimEntries(anyCollection(), any(), any(), claimToken.capture(), any(), any())).thenReturn(1);
+        when(repository.findLeasedEntries(anyCollection(), anyString())).thenReturn(List.of(entry("2")));
+
+        List<IndexingQueueEntry> leased = service.lease(IndexingStrategy.BATCH, 10);
+
+        assertThat(leased).extracting(IndexingQueueEntry::getId).containsExactly("2");
+        verify(repository).findLeasedEntries(List.of("1", "2"), claimToken.getValue());
+    }
+
+    @Test
+    void completesEachLeaseOnlyUnderItsOwnToken() {
+        IndexingQueueService service = new IndexingQueueService(repository, properties, clock);
+        IndexingQueueEntry first = entry("1", "lease-a");
+        IndexingQueueEntry second = entry("2", "lease-b");
+        IndexingQueueEntry third = entry("3", "lease-a");
+        when(repository.completeEntries(List.of("1", "3"), "lease-a", IndexingStatus.PROCESSING,
+            IndexingStatus.COMPLETED, LocalDateTime.now(clock))).thenReturn(2);
+        when(repository.completeEntries(List.of("2"), "lease-b", IndexingStatus.PROCESSING,
+            IndexingStatus.COMPLETED, LocalDateTime.now(clock))).thenReturn(0);
+
+        int completed = service.markCompletedBatch(List.of(first, second, third));
+
+        assertThat(completed).isEqualTo(2);
+        assertThat(first.getProcessingNode()).isNull();
+    }
+
+    @Test
+    void detectsSkipLockedSupportFromDatabaseVersion() {
+        assertThat(IndexingQueueService.supportsSkipLocked("PostgreSQL", "16.2", 16, 2)).isTrue();
+        assertThat(IndexingQueueService.supportsSkipLocked("MySQL", "8.0.36", 8, 0)).isTrue();
+        assertThat(IndexingQueueService.supportsSkipLocked("MySQL", "5.7.44", 5, 7)).isFalse();
+        assertThat(IndexingQueueService.supportsSkipLocked("MySQL", "10.5.23-MariaDB", 10, 5)).isFalse();
+        assertThat(IndexingQueueService.supportsSkipLocked("MariaDB", "10.11.6-MariaDB", 10, 11)).isTrue();
+        assertThat(IndexingQueueService.supportsSkipLocked("H2", "2.2.224", 2, 2)).isFalse();
+    }
+
+    private IndexingQueueEntry entry(String id) {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setId(id);
+        return entry;
+    }
+
+    private IndexingQueueEntry entry(String id, String leaseToken) {
+        IndexingQueueEntry entry = entry(id);
+        entry.setStatus(IndexingStatus.PROCESSING);
+        entry.setProcessingNode(leaseToken);
+        return entry;
+    }
+}
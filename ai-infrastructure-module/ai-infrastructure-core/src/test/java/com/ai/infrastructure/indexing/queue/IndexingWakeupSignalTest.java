@@ -0,0 +1,46 @@
+package com.ai.infrastructure.indexing.queue;
+
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IndexingWakeupSignalTest {
+
+    private final IndexingWakeupSignal signal = new IndexingWakeupSignal();
+
+    @Test
+    void remembersSignalUntilTheNextWait() throws InterruptedException {
+        signal.signal(IndexingStrategy.ASYNC);
+
+        assertThat(signal.await(IndexingStrategy.ASYNC, Duration.ofSeconds(5))).isTrue();
+        assertThat(signal.await(IndexingStrategy.ASYNC, Duration.ofMillis(10))).isFalse();
+        assertThat(signal.await(IndexingStrategy.BATCH, Duration.ofMillis(10))).isFalse();
+    }
+
+    @Test
+    void signalsLocalWorkersOnlyAfterCommitAndPublishesImmediately() throws InterruptedException {
+        List<IndexingStrategy> published = new ArrayList<>();
+        signal.setPublisher(published::add);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            signal.announce(IndexingStrategy.ASYNC);
+
+            assertThat(published).containsExactly(IndexingStrategy.ASYNC);
+            assertThat(signal.await(IndexingStrategy.ASYNC, Duration.ofMillis(10))).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(signal.await(IndexingStrategy.ASYNC, Duration.ofSeconds(5))).isTrue();
+    }
+}
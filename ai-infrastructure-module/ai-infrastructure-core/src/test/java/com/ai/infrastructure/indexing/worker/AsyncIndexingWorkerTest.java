@@ -0,0 +1,70 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIEntityConfigurationLoader;
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.dto.AIEntityConfig;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import com.ai.infrastructure.indexing.queue.IndexingQueueService;
+import com.ai.infrastructure.service.AICapabilityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncIndexingWorkerTest {
+
+    @Mock
+    private IndexingQueueService queueService;
+
+    @Mock
+    private AIEntityConfigurationLoader configurationLoader;
+
+    @Mock
+    private AICapabilityService capabilityService;
+
+    @Test
+    void appliesAnUpdateAndALaterDeleteOfOneEntityInLeaseOrder() throws Exception {
+        AIIndexingProperties properties = new AIIndexingProperties();
+        IndexingQueueEntry update = entry("1");
+        update.setIndexForSearch(true);
+        IndexingQueueEntry delete = entry("2");
+        delete.setRemoveFromSearch(true);
+        when(queueService.lease(IndexingStrategy.ASYNC, properties.getAsyncWorker().getBatchSize()))
+            .thenReturn(List.of(update, delete));
+        when(configurationLoader.getEntityConfig("demo"))
+            .thenReturn(AIEntityConfig.builder().entityType("demo").build());
+
+        IndexingWorkProcessor workProcessor =
+            new IndexingWorkProcessor(new ObjectMapper(), configurationLoader, capabilityService);
+        try (AsyncIndexingWorker worker = new AsyncIndexingWorker(queueService, workProcessor, properties)) {
+            worker.run();
+        }
+
+        InOrder order = inOrder(capabilityService);
+        order.verify(capabilityService).indexForSearchBatch(anyList(), any());
+        order.verify(capabilityService).removeFromSearch(any(), any());
+        verify(queueService).markCompletedBatch(List.of(update, delete));
+    }
+
+    private IndexingQueueEntry entry(String id) {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setId(id);
+        entry.setEntityType("demo");
+        entry.setEntityId("42");
+        entry.setEntityClass(IndexingWorkProcessorTest.DemoEntity.class.getName());
+        entry.setPayload("{\"id\":\"42\"}");
+        return entry;
+    }
+}
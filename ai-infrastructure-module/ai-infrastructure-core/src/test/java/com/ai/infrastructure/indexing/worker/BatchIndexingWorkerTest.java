@@ -0,0 +1,66 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.indexing.IndexingStrategy;
+import com.ai.infrastructure.indexing.queue.IndexingQueueService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchIndexingWorkerTest {
+
+    @Mock
+    private IndexingQueueService queueService;
+
+    @Mock
+    private IndexingWorkProcessor workProcessor;
+
+    @Test
+    void processesTheNextLeaseOnlyAfterThePreviousOneFinished() throws Exception {
+        AIIndexingProperties properties = new AIIndexingProperties();
+        properties.getBatchWorker().setBatchSize(2);
+        List<IndexingQueueEntry> first = List.of(entry("1", "product"), entry("2", "order"));
+        List<IndexingQueueEntry> second = List.of(entry("3", "product"), entry("4", "order"));
+        when(queueService.lease(IndexingStrategy.BATCH, 2)).thenReturn(first, second, List.of());
+
+        AtomicInteger firstLeaseSlicesDone = new AtomicInteger();
+        List<String> overlapping = new CopyOnWriteArrayList<>();
+        when(workProcessor.processBatch(anyList())).thenAnswer(invocation -> {
+            List<IndexingQueueEntry> slice = invocation.getArgument(0);
+            if (first.containsAll(slice)) {
+                Thread.sleep(50);
+                firstLeaseSlicesDone.incrementAndGet();
+            } else if (firstLeaseSlicesDone.get() < 2) {
+                slice.forEach(entry -> overlapping.add(entry.getId()));
+            }
+            return Map.of();
+        });
+
+        try (BatchIndexingWorker worker = new BatchIndexingWorker(queueService, workProcessor, properties)) {
+            assertThat(worker.run()).isTrue();
+        }
+
+        assertThat(firstLeaseSlicesDone).hasValue(2);
+        assertThat(overlapping).isEmpty();
+    }
+
+    private IndexingQueueEntry entry(String id, String entityType) {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setId(id);
+        entry.setEntityType(entityType);
+        entry.setEntityId(id);
+        return entry;
+    }
+}
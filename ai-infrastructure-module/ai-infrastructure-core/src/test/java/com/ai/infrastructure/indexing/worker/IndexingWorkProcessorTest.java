@@ -0,0 +1,144 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIEntityConfigurationLoader;
+import com.ai.infrastructure.dto.AIEntityConfig;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.service.AICapabilityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexingWorkProcessorTest {
+
+    @Mock
+    private AIEntityConfigurationLoader configurationLoader;
+
+    @Mock
+    private AICapabilityService capabilityService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AIEntityConfig config = AIEntityConfig.builder().entityType("demo").build();
+
+    private IndexingWorkProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = new IndexingWorkProcessor(objectMapper, configurationLoader, capabilityService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void storesEntriesOfOneTypeWithSingleBulkCall() {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+
+        Map<IndexingQueueEntry, Exception> failures = processor.processBatch(List.of(entry("1"), entry("2")));
+
+        assertThat(failures).isEmpty();
+        ArgumentCaptor<List<Object>> entities = ArgumentCaptor.forClass(List.class);
+        verify(capabilityService).indexForSearchBatch(entities.capture(), any());
+        assertThat(entities.getValue()).extracting(entity -> ((DemoEntity) entity).id).containsExactly("1", "2");
+        verify(capabilityService, never()).indexForSearch(any(), any());
+    }
+
+    @Test
+    void embedsAndIndexesEntriesPlanningBothInOnePass() {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+        IndexingQueueEntry both = entry("1");
+        both.setGenerateEmbedding(true);
+
+        Map<IndexingQueueEntry, Exception> failures = processor.processBatch(List.of(both, entry("2")));
+
+        assertThat(failures).isEmpty();
+        verify(capabilityService).generateEmbeddingsAndIndexBatch(anyList(), any());
+        verify(capabilityService).indexForSearchBatch(anyList(), any());
+        verify(capabilityService, never()).generateEmbeddingsBatch(anyList(), any());
+    }
+
+    @Test
+    void retriesEntriesIndividuallyWhenBulkWriteFails() throws Exception {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+        doThrow(new RuntimeException("bulk failed")).when(capabilityService).indexForSearchBatch(anyList(), any());
+
+        Map<IndexingQueueEntry, Exception> failures = processor.processBatch(List.of(entry("1"), entry("2")));
+
+        assertThat(failures).isEmpty();
+        verify(capabilityService, times(2)).indexForSearch(any(), any());
+    }
+
+    @Test
+    void failsOnlyTheEntryThatCannotBeDeserialized() {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+        IndexingQueueEntry broken = entry("2");
+        broken.setPayload("{not json");
+
+        Map<IndexingQueueEntry, Exception> failures = processor.processBatch(List.of(entry("1"), broken));
+
+        assertThat(failures).containsOnlyKeys(broken);
+        verify(capabilityService).indexForSearchBatch(anyList(), any());
+    }
+
+    @Test
+    void writesPendingGroupBeforeALaterDeleteOfTheSameType() throws Exception {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+        IndexingQueueEntry delete = entry("1");
+        delete.setIndexForSearch(false);
+        delete.setRemoveFromSearch(true);
+        delete.setCleanupEmbeddings(true);
+
+        Map<IndexingQueueEntry, Exception> failures = processor.processBatch(List.of(entry("1"), entry("2"), delete));
+
+        assertThat(failures).isEmpty();
+        InOrder order = inOrder(capabilityService);
+        order.verify(capabilityService).indexForSearchBatch(anyList(), any());
+        order.verify(capabilityService).removeFromSearch(any(), any());
+        order.verify(capabilityService).cleanupEmbeddings(any(), any());
+        order.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startsANewGroupWhenAnEntityRepeatsInTheLease() {
+        when(configurationLoader.getEntityConfig("demo")).thenReturn(config);
+
+        processor.processBatch(List.of(entry("1"), entry("2"), entry("1"), entry("3")));
+
+        ArgumentCaptor<List<Object>> entities = ArgumentCaptor.forClass(List.class);
+        verify(capabilityService, times(2)).indexForSearchBatch(entities.capture(), any());
+        assertThat(entities.getAllValues()).extracting(group -> group.stream()
+                .map(entity -> ((DemoEntity) entity).id).toList())
+            .containsExactly(List.of("1", "2"), List.of("1", "3"));
+    }
+
+    private IndexingQueueEntry entry(String id) {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setEntityType("demo");
+        entry.setEntityId(id);
+        entry.setEntityClass(DemoEntity.class.getName());
+        entry.setPayload("{\"id\":\"" + id + "\"}");
+        entry.setIndexForSearch(true);
+        return entry;
+    }
+
+    static class DemoEntity {
+        public String id;
+    }
+}
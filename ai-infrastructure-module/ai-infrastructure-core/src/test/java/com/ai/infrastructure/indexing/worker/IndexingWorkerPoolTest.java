@@ -0,0 +1,107 @@
+package com.ai.infrastructure.indexing.worker;
+
+import com.ai.infrastructure.config.AIIndexingProperties;
+import com.ai.infrastructure.entity.IndexingQueueEntry;
+import com.ai.infrastructure.indexing.queue.IndexingQueueService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexingWorkerPoolTest {
+
+    @Mock
+    private IndexingQueueService queueService;
+
+    @Mock
+    private IndexingWorkProcessor workProcessor;
+
+    private IndexingWorkerPool pool;
+
+    @BeforeEach
+    void setUp() {
+        AIIndexingProperties.WorkerProperties properties = AIIndexingProperties.WorkerProperties.builder()
+            .concurrency(2)
+            .build();
+        pool = new IndexingWorkerPool("Test", queueService, workProcessor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void slicesKeepEntriesOfTheSameTypeTogether() {
+        List<IndexingQueueEntry> entries = List.of(
+            entry("1", "product"), entry("2", "order"), entry("3", "product"), entry("4", "order"));
+
+        List<List<IndexingQueueEntry>> slices = pool.slice(entries);
+
+        assertThat(slices).hasSize(2);
+        assertThat(slices.get(0)).extracting(IndexingQueueEntry::getId).containsExactly("1", "3");
+        assertThat(slices.get(1)).extracting(IndexingQueueEntry::getId).containsExactly("2", "4");
+    }
+
+    @Test
+    void neverSplitsATypeWhenThereAreMoreTypesThanSlices() {
+        List<IndexingQueueEntry> entries = List.of(
+            entry("1", "product"), entry("2", "order"), entry("3", "product"),
+            entry("4", "user"), entry("5", "product"), entry("6", "order"));
+
+        List<List<IndexingQueueEntry>> slices = pool.slice(entries);
+
+        assertThat(slices).hasSize(2);
+        assertThat(slices.get(0)).extracting(IndexingQueueEntry::getId).containsExactly("1", "3", "5");
+        assertThat(slices.get(1)).extracting(IndexingQueueEntry::getId).containsExactly("2", "6", "4");
+    }
+
+    @Test
+    void skipsBulkCompletionWhenEveryEntryOfASliceFailed() {
+        IndexingQueueEntry bad = entry("1", "product");
+        when(workProcessor.processBatch(anyList())).thenThrow(new IllegalStateException("boom"));
+
+        pool.run(List.of(bad));
+
+        verify(queueService, never()).markCompletedBatch(anyList());
+        verify(queueService).markFailure(bad, "boom");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void completesSuccessesInBulkAndFailsOnlyTheFailedEntry() {
+        IndexingQueueEntry ok = entry("1", "product");
+        IndexingQueueEntry bad = entry("2", "product");
+        IllegalStateException failure = new IllegalStateException("boom");
+        when(workProcessor.processBatch(anyList())).thenReturn(Map.of(bad, failure));
+
+        pool.run(List.of(ok, bad));
+
+        ArgumentCaptor<List<IndexingQueueEntry>> completed = ArgumentCaptor.forClass(List.class);
+        verify(queueService).markCompletedBatch(completed.capture());
+        assertThat(completed.getValue()).containsExactly(ok);
+        verify(queueService).markFailure(bad, "boom");
+        verify(queueService, never()).markFailure(ok, "boom");
+    }
+
+    private IndexingQueueEntry entry(String id, String entityType) {
+        IndexingQueueEntry entry = new IndexingQueueEntry();
+        entry.setId(id);
+        entry.setEntityType(entityType);
+        return entry;
+    }
+}
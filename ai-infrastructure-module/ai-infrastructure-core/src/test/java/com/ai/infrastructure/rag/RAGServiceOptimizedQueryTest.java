@@ -10,6 +10,7 @@ import com.ai.infrastructure.dto.PIIDetectionResult;
 import com.ai.infrastructure.dto.PIIMode;
 import com.ai.infrastructure.dto.RAGRequest;
 import com.ai.infrastructure.dto.RAGResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.privacy.pii.PIIDetectionService;
 import com.ai.infrastructure.vector.VectorDatabase;
 import org.junit.jupiter.api.BeforeEach;
@@ -59,7 +60,7 @@ class RAGServiceOptimizedQueryTest {
         when(config.resolveLlmDefaults()).thenReturn(new AIProviderConfig.GenerationDefaults("openai", "gpt-test", 1024, 0.0, 60, 1));
 
         when(embeddingService.generateEmbedding(any(AIEmbeddingRequest.class))).thenReturn(embeddingResponse);
-        when(embeddingResponse.getEmbedding()).thenReturn(List.of(0.1, 0.2));
+        when(embeddingResponse.getVector()).thenReturn(Embedding.of(new float[]{0.1f, 0.2f}));
 
         AISearchResponse searchResponse = AISearchResponse.builder()
             .results(List.of(Map.of(
@@ -75,7 +76,7 @@ class RAGServiceOptimizedQueryTest {
             .processingTimeMs(5L)
             .build();
 
-        when(searchService.search(any(), any())).thenReturn(searchResponse);
+        when(searchService.search(any(Embedding.class), any())).thenReturn(searchResponse);
 
         when(piiDetectionService.detectAndProcess(any(String.class))).thenAnswer(invocation ->
             PIIDetectionResult.builder()
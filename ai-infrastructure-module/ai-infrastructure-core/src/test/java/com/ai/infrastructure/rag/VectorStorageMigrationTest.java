@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.TestConfiguration;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.service.VectorManagementService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -53,7 +54,7 @@ public class VectorStorageMigrationTest {
         assertEquals(entityType, retrievedVector.getEntityType(), "Entity type should match");
         assertEquals(entityId, retrievedVector.getEntityId(), "Entity ID should match");
         assertEquals(content, retrievedVector.getContent(), "Content should match");
-        assertEquals(embedding, retrievedVector.getEmbedding(), "Embedding should match");
+        assertEquals(Embedding.fromList(embedding), retrievedVector.getVector(), "Embedding should match");
         assertEquals(metadata, retrievedVector.getMetadata(), "Metadata should match");
 
         // Test searching vectors
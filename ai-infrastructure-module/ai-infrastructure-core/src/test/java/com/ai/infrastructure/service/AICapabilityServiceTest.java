@@ -0,0 +1,122 @@
+package com.ai.infrastructure.service;
+
+import com.ai.infrastructure.config.AIEntityConfigurationLoader;
+import com.ai.infrastructure.core.AICoreService;
+import com.ai.infrastructure.core.AIEmbeddingService;
+import com.ai.infrastructure.dto.AIEmbeddableField;
+import com.ai.infrastructure.dto.AIEmbeddingRequest;
+import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.dto.AIEntityConfig;
+import com.ai.infrastructure.dto.AISearchableField;
+import com.ai.infrastructure.embedding.Embedding;
+import com.ai.infrastructure.entity.AISearchableEntity;
+import com.ai.infrastructure.storage.strategy.AISearchableEntityStorageStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AICapabilityServiceTest {
+
+    @Mock
+    private AIEmbeddingService embeddingService;
+
+    @Mock
+    private AICoreService aiCoreService;
+
+    @Mock
+    private AISearchableEntityStorageStrategy storageStrategy;
+
+    @Mock
+    private AIEntityConfigurationLoader configurationLoader;
+
+    @Mock
+    private VectorManagementService vectorManagementService;
+
+    private final AIEntityConfig config = AIEntityConfig.builder()
+        .entityType("product")
+        .indexable(true)
+        .searchableFields(List.of(AISearchableField.builder().name("name").build()))
+        .build();
+
+    private AICapabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AICapabilityService(embeddingService, aiCoreService, storageStrategy, configurationLoader,
+            vectorManagementService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void indexesBatchWithOneEmbeddingCallOneVectorWriteAndOneBulkUpsert() {
+        AISearchableEntity existing = AISearchableEntity.builder().id("row-1").entityType("product").entityId("1").build();
+        when(embeddingService.generateEmbeddings(List.of("Lamp", "Chair"), "product")).thenReturn(List.of(
+            AIEmbeddingResponse.builder().vector(Embedding.of(new float[]{1f, 0f})).build(),
+            AIEmbeddingResponse.builder().vector(Embedding.of(new float[]{0f, 1f})).build()));
+        when(vectorManagementService.batchStoreVectors(anyList())).thenReturn(List.of("v1", "v2"));
+        when(storageStrategy.findByEntityTypeAndEntityIdIn(eq("product"), anyCollection()))
+            .thenReturn(List.of(existing));
+
+        service.indexForSearchBatch(List.of(new Product("1", "Lamp"), new Product("2", "Chair")), config);
+
+        ArgumentCaptor<List<AISearchableEntity>> saved = ArgumentCaptor.forClass(List.class);
+        verify(storageStrategy).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(AISearchableEntity::getEntityId).containsExactly("1", "2");
+        assertThat(saved.getValue()).extracting(AISearchableEntity::getVectorId).containsExactly("v1", "v2");
+        assertThat(saved.getValue().get(0)).isSameAs(existing);
+        verify(storageStrategy, never()).save(any());
+        verify(vectorManagementService, never()).storeVector(anyString(), anyString(), anyString(), any(Embedding.class), anyMap());
+    }
+
+    @Test
+    void embedsAndWritesOnceWhenEmbeddableAndSearchableContentCoincide() {
+        AIEntityConfig bothConfig = AIEntityConfig.builder()
+            .entityType("product")
+            .autoEmbedding(true)
+            .indexable(true)
+            .searchableFields(List.of(AISearchableField.builder().name("name").build()))
+            .embeddableFields(List.of(AIEmbeddableField.builder().name("name").build()))
+            .build();
+        when(embeddingService.generateEmbedding(any(AIEmbeddingRequest.class))).thenReturn(
+            AIEmbeddingResponse.builder().vector(Embedding.of(new float[]{1f, 0f})).build());
+        when(vectorManagementService.storeVector(anyString(), anyString(), anyString(), any(Embedding.class), anyMap()))
+            .thenReturn("v1");
+        when(storageStrategy.findByEntityTypeAndEntityId("product", "1")).thenReturn(Optional.empty());
+
+        service.generateEmbeddingsAndIndex(new Product("1", "Lamp"), bothConfig);
+
+        verify(embeddingService, times(1)).generateEmbedding(any(AIEmbeddingRequest.class));
+        verify(vectorManagementService, times(1))
+            .storeVector(eq("product"), eq("1"), eq("Lamp"), any(Embedding.class), anyMap());
+        verify(storageStrategy, times(1)).save(any());
+    }
+
+    static class Product {
+        private final String id;
+        private final String name;
+
+        Product(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
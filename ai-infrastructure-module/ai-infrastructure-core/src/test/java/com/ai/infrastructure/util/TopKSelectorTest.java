@@ -0,0 +1,110 @@
+package com.ai.infrastructure.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKSelectorTest {
+
+    @Test
+    void shouldMatchFullSortForRandomScores() {
+        Random random = new Random(7);
+        double[] scores = new double[5_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextDouble() * 2 - 1;
+        }
+
+        TopKSelector selector = TopKSelector.select(scores, scores.length, 25, Double.NEGATIVE_INFINITY);
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+            .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+            .limit(25)
+            .mapToInt(Integer::intValue)
+            .toArray();
+        assertThat(selector.size()).isEqualTo(25);
+        for (int rank = 0; rank < expected.length; rank++) {
+            assertThat(selector.index(rank)).isEqualTo(expected[rank]);
+            assertThat(selector.score(rank)).isEqualTo(scores[expected[rank]]);
+        }
+    }
+
+    @Test
+    void shouldRejectScoresBelowThresholdAndNaN() {
+        double[] scores = {0.9, 0.2, Double.NaN, 0.75, 0.5, 0.49};
+
+        TopKSelector selector = TopKSelector.select(scores, scores.length, 10, 0.5);
+
+        assertThat(selector.size()).isEqualTo(3);
+        assertThat(new int[]{selector.index(0), selector.index(1), selector.index(2)}).containsExactly(0, 3, 4);
+    }
+
+    @Test
+    void shouldBreakTiesByLowerIndex() {
+        double[] scores = {0.5, 0.8, 0.5, 0.8, 0.5};
+
+        TopKSelector selector = TopKSelector.select(scores, scores.length, 3, Double.NEGATIVE_INFINITY);
+
+        assertThat(new int[]{selector.index(0), selector.index(1), selector.index(2)}).containsExactly(1, 3, 0);
+    }
+
+    @Test
+    void shouldReportMinCompetitiveScoreOnceFull() {
+        TopKSelector selector = new TopKSelector(2, 0.1);
+        assertThat(selector.minCompetitiveScore()).isEqualTo(0.1);
+
+        selector.offer(0.4, 0);
+        selector.offer(0.7, 1);
+        assertThat(selector.minCompetitiveScore()).isEqualTo(0.4);
+
+        assertThat(selector.offer(0.3, 2)).isFalse();
+        assertThat(selector.offer(0.6, 3)).isTrue();
+        assertThat(selector.minCompetitiveScore()).isEqualTo(0.6);
+    }
+
+    @Test
+    void shouldMergePartitionsLikeSequentialSelection() {
+        Random random = new Random(11);
+        double[] scores = new double[100_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextGaussian();
+        }
+
+        TopKSelector sequential = TopKSelector.select(scores, scores.length, 50, 0.0);
+        TopKSelector parallel = TopKSelector.selectParallel(scores.length, 50, 0.0, 1_000,
+            (from, to, sink) -> {
+                for (int i = from; i < to; i++) {
+                    sink.offer(scores[i], i);
+                }
+            });
+
+        assertThat(parallel.size()).isEqualTo(sequential.size());
+        for (int rank = 0; rank < sequential.size(); rank++) {
+            assertThat(parallel.index(rank)).isEqualTo(sequential.index(rank));
+        }
+    }
+
+    @Test
+    void shouldRequireSortBeforeReadingAndRejectOffersAfterSort() {
+        TopKSelector selector = new TopKSelector(3);
+        selector.offer(1.0, 0);
+
+        assertThatThrownBy(() -> selector.index(0)).isInstanceOf(IllegalStateException.class);
+
+        selector.sortDescending();
+        assertThat(selector.index(0)).isZero();
+        assertThatThrownBy(() -> selector.offer(2.0, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldHandleZeroK() {
+        TopKSelector selector = TopKSelector.select(new double[]{1.0, 2.0}, 2, 0, Double.NEGATIVE_INFINITY);
+
+        assertThat(selector.size()).isZero();
+        assertThat(selector.minCompetitiveScore()).isEqualTo(Double.POSITIVE_INFINITY);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ai.infrastructure.migration.config;
 
+import com.ai.infrastructure.indexing.IndexingStrategy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
@@ -35,6 +36,12 @@ public class MigrationProperties {
      */
     private int cleanupCompletedAfterDays = 30;
 
+    /**
+     * Queue strategy for migrated entities. BATCH routes them to the batch worker, which writes each
+     * lease to the vector store in bulk.
+     */
+    private IndexingStrategy indexingStrategy = IndexingStrategy.BATCH;
+
     /**
      * Per-entity field mapping used by the default migration filter when no custom policy is provided.
      * Key: entityType, Value: field configuration.
@@ -6,7 +6,6 @@ import com.ai.infrastructure.dto.AIEntityConfig;
 import com.ai.infrastructure.indexing.IndexingActionPlan;
 import com.ai.infrastructure.indexing.IndexingOperation;
 import com.ai.infrastructure.indexing.IndexingRequest;
-import com.ai.infrastructure.indexing.IndexingStrategy;
 import com.ai.infrastructure.indexing.queue.IndexingQueueService;
 import com.ai.infrastructure.migration.config.MigrationProperties;
 import com.ai.infrastructure.migration.config.MigrationFieldConfig;
@@ -366,7 +365,7 @@ public class DataMigrationService {
             .entityId(entityId)
             .entityClassName(entity.getClass().getName())
             .operation(IndexingOperation.CREATE)
-            .strategy(IndexingStrategy.ASYNC)
+            .strategy(migrationProperties.getIndexingStrategy())
             .actionPlan(new IndexingActionPlan(true, true, false, false, false))
             .payload(payload)
             .maxRetries(indexingProperties.getQueue().getMaxRetries())
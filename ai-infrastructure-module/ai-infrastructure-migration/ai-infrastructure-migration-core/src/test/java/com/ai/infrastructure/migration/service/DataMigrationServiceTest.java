@@ -294,7 +294,7 @@ class DataMigrationServiceTest {
         IndexingRequest req = requestCaptor.getValue();
         assertThat(req.entityType()).isEqualTo("demo");
         assertThat(req.entityId()).isEqualTo("e-1");
-        assertThat(req.strategy()).isEqualTo(IndexingStrategy.ASYNC);
+        assertThat(req.strategy()).isEqualTo(IndexingStrategy.BATCH);
         assertThat(req.operation()).isEqualTo(IndexingOperation.CREATE);
         assertThat(req.actionPlan().generateEmbedding()).isTrue();
         assertThat(req.actionPlan().indexForSearch()).isTrue();
@@ -241,7 +241,7 @@ public class ReliableRelationshipQueryService {
             }
         }
         AISearchResponse response = vectorDatabaseService.searchByEntityType(
-            embedding.getEmbedding(),
+            embedding.getVector(),
             plan.getPrimaryEntityType(),
             Optional.ofNullable(options.getLimit()).orElse(25),
             Optional.ofNullable(options.getSimilarityThreshold()).orElse(moduleMetadata.similarityThreshold())
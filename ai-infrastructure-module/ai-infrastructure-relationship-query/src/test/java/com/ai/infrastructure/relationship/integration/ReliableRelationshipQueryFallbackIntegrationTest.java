@@ -168,7 +168,7 @@ class ReliableRelationshipQueryFallbackIntegrationTest {
             .results(List.of(Map.of("entityId", activeDocumentId, "score", 0.92d, "source", "vector-fallback")))
             .totalResults(1)
             .build();
-        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), eq(5), anyDouble()))
+        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), eq(5), anyDouble()))
             .thenReturn(vectorResponse);
 
         long vectorBefore = queryMetrics.snapshot().getFallbackVectorCount();
@@ -179,7 +179,7 @@ class ReliableRelationshipQueryFallbackIntegrationTest {
         assertThat(response.getDocuments()).extracting(RAGResponse.RAGDocument::getId)
             .containsExactly(activeDocumentId);
         assertThat(queryMetrics.snapshot().getFallbackVectorCount()).isEqualTo(vectorBefore + 1);
-        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), eq(5), anyDouble());
+        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), eq(5), anyDouble());
     }
 
     @Test
@@ -198,7 +198,7 @@ class ReliableRelationshipQueryFallbackIntegrationTest {
             .results(List.of())
             .totalResults(0)
             .build();
-        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), eq(5), anyDouble()))
+        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), eq(5), anyDouble()))
             .thenReturn(emptyVectorResponse);
 
         long vectorBefore = queryMetrics.snapshot().getFallbackVectorCount();
@@ -211,7 +211,7 @@ class ReliableRelationshipQueryFallbackIntegrationTest {
         assertThat(response.getDocuments().get(0).getMetadata()).containsEntry("source", "simple-fallback");
         assertThat(queryMetrics.snapshot().getFallbackVectorCount()).isEqualTo(vectorBefore + 1);
         assertThat(queryMetrics.snapshot().getFallbackSimpleCount()).isEqualTo(simpleBefore + 1);
-        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), eq(5), anyDouble());
+        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), eq(5), anyDouble());
     }
 
     private void seedEntities() {
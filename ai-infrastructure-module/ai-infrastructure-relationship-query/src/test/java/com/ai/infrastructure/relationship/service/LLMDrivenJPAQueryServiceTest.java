@@ -176,7 +176,7 @@ class LLMDrivenJPAQueryServiceTest {
         AISearchResponse vectorResponse = AISearchResponse.builder()
             .results(List.of(Map.of("entityId", "vec-1")))
             .build();
-        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), anyInt(), anyDouble()))
+        when(vectorDatabaseService.searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), anyInt(), anyDouble()))
             .thenReturn(vectorResponse);
 
         when(entityRepository.findByEntityTypeAndEntityId("document", "vec-1"))
@@ -195,7 +195,7 @@ class LLMDrivenJPAQueryServiceTest {
         assertThat(response.getDocuments()).extracting(RAGResponse.RAGDocument::getId)
             .containsExactly("vec-1", "doc-1");
         verify(embeddingService).generateEmbedding(any(AIEmbeddingRequest.class));
-        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getEmbedding()), eq("document"), eq(5), anyDouble());
+        verify(vectorDatabaseService).searchByEntityType(eq(embeddingResponse.getVector()), eq("document"), eq(5), anyDouble());
         verify(queryCache).putEmbedding(anyString(), eq(embeddingResponse));
     }
 
@@ -4,6 +4,7 @@ import com.ai.infrastructure.core.AIEmbeddingService;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.RAGResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.relationship.cache.QueryCache;
 import com.ai.infrastructure.relationship.config.RelationshipModuleMetadata;
@@ -142,7 +143,7 @@ class ReliableRelationshipQueryServiceTest {
         AISearchResponse aisResponse = AISearchResponse.builder()
             .results(List.of(Map.of("entityId", "v1", "score", 0.92d)))
             .build();
-        when(vectorDatabaseService.searchByEntityType(any(), anyString(), anyInt(), anyDouble()))
+        when(vectorDatabaseService.searchByEntityType(any(Embedding.class), anyString(), anyInt(), anyDouble()))
             .thenReturn(aisResponse);
 
         RAGResponse response = service.execute("vector fallback", List.of("document"), QueryOptions.defaults());
@@ -1,5 +1,6 @@
 package com.ai.infrastructure.it;
 
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.entity.IndexingQueueEntry;
 import com.ai.infrastructure.indexing.IndexingOperation;
 import com.ai.infrastructure.indexing.IndexingPriority;
@@ -83,7 +84,7 @@ public class IndexingStrategyIntegrationTest {
         assertEquals(IndexingPriority.HIGH, entry.getPriority());
         assertEquals(IndexingStatus.PENDING, entry.getStatus());
 
-        verify(vectorManagementService, never()).storeVector(any(), any(), any(), any(), any());
+        verify(vectorManagementService, never()).storeVector(any(), any(), any(), any(Embedding.class), any());
     }
 
     @Test
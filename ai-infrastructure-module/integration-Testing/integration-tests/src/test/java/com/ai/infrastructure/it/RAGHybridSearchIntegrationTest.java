@@ -3,6 +3,7 @@ package com.ai.infrastructure.it;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.RAGRequest;
 import com.ai.infrastructure.dto.RAGResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.RAGService;
 import com.ai.infrastructure.service.VectorManagementService;
 import com.ai.infrastructure.rag.VectorDatabaseService;
@@ -59,8 +60,8 @@ class RAGHybridSearchIntegrationTest {
 
     @BeforeEach
     void setUp() {
-        when(vectorDatabase.search(any(), any())).thenAnswer(invocation -> {
-            AISearchResponse response = vectorDatabaseService.search(invocation.getArgument(0), invocation.getArgument(1));
+        when(vectorDatabase.search(any(Embedding.class), any())).thenAnswer(invocation -> {
+            AISearchResponse response = vectorDatabaseService.search(invocation.<Embedding>getArgument(0), invocation.getArgument(1));
 
             List<Map<String, Object>> normalizedResults = response.getResults().stream()
                 .map(result -> {
@@ -1,6 +1,7 @@
 package com.ai.infrastructure.it.disabledTests;
 
 import com.ai.infrastructure.it.TestApplication;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.entity.AISearchableEntity;
 import com.ai.infrastructure.it.entity.TestProduct;
 import com.ai.infrastructure.it.repository.TestProductRepository;
@@ -244,7 +245,7 @@ class AIProcessAnnotationIntegrationTest {
         reset(searchableEntityRepository, productRepository);
         doReturn(null)
             .when(vectorManagementService)
-            .storeVector(any(), any(), any(), any(), any());
+            .storeVector(any(), any(), any(), any(Embedding.class), any());
         try {
             TestProduct saved = productService.createProduct(TestProduct.builder()
                 .name("Echo Smart Display")
@@ -260,7 +261,7 @@ class AIProcessAnnotationIntegrationTest {
             assertTrue(productRepository.findById(saved.getId()).isPresent(),
                 "Entity should persist despite AI processing failure");
 
-            verify(vectorManagementService, atLeastOnce()).storeVector(any(), any(), any(), any(), any());
+            verify(vectorManagementService, atLeastOnce()).storeVector(any(), any(), any(), any(Embedding.class), any());
         } finally {
             reset(vectorManagementService);
         }
@@ -0,0 +1,73 @@
+package com.ai.infrastructure.provider.onnx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Length bucketing for batch inference.
+ *
+ * Items are sorted by length (stable, so equal lengths keep their input order) and cut into buckets of at
+ * most {@code bucketSize}, so each bucket is padded only to lengths close to its own. Results come back in
+ * input order.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+final class LengthBuckets {
+
+    private LengthBuckets() {
+    }
+
+    /**
+     * Inference over one bucket, returning one result per item in bucket order.
+     */
+    @FunctionalInterface
+    interface BucketInference<T, E extends Exception> {
+        float[][] run(List<T> bucket) throws E;
+    }
+
+    /**
+     * Run {@code inference} over length-sorted buckets.
+     *
+     * @param items items in input order
+     * @param length length of an item (e.g. its token count)
+     * @param bucketSize maximum number of items per bucket
+     * @param inference inference over one bucket
+     * @return one result per item, in input order
+     * @throws E if an inference call fails
+     */
+    static <T, E extends Exception> float[][] run(List<T> items, ToIntFunction<? super T> length, int bucketSize,
+                                                   BucketInference<T, E> inference) throws E {
+        if (bucketSize <= 0) {
+            throw new IllegalArgumentException("bucketSize must be positive: " + bucketSize);
+        }
+        int count = items.size();
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        // Arrays.sort on objects is stable
+        Arrays.sort(order, Comparator.comparingInt(i -> length.applyAsInt(items.get(i))));
+
+        float[][] results = new float[count][];
+        for (int from = 0; from < count; from += bucketSize) {
+            int to = Math.min(count, from + bucketSize);
+            List<T> bucket = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                bucket.add(items.get(order[i]));
+            }
+            float[][] bucketResults = inference.run(bucket);
+            if (bucketResults.length != bucket.size()) {
+                throw new IllegalStateException("Expected " + bucket.size() + " results for a bucket but got "
+                    + bucketResults.length);
+            }
+            for (int i = from; i < to; i++) {
+                results[order[i]] = bucketResults[i - from];
+            }
+        }
+        return results;
+    }
+}
@@ -3,8 +3,11 @@ package com.ai.infrastructure.provider.onnx;
 import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.exception.AIServiceException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,6 +18,7 @@ import jakarta.annotation.PreDestroy;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.FloatBuffer;
 import java.nio.LongBuffer;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
@@ -22,9 +26,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import java.lang.reflect.Method;
 
 /**
@@ -61,11 +62,15 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
     private boolean useGpu;
     
     private OrtEnvironment ortEnvironment;
-    private OrtSession ortSession;
+    private ONNXSessionPool sessionPool;
     private int embeddingDimension = 384; // Default for all-MiniLM-L6-v2
     private Path resolvedModelPath;
+    private Path activeModelPath;
+    private ONNXQuantizationCheck.Report quantizationReport;
     private Path resolvedTokenizerPath;
-    private boolean tokenizerReady = false;
+    private volatile boolean tokenizerReady = false;
+    private WordPieceTokenizer nativeTokenizer;
+    private Cache<String, TokenizationResult> tokenizationCache;
     private Object tokenizerInstance;
     private Method tokenizerEncodeMethod;
     private Method encodingGetIdsMethod;
@@ -73,10 +78,6 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
     private Method encodingGetTypeIdsMethod;
     private boolean tokenizerEncodeSupportsAddSpecialTokens = false;
     
-    // Thread safety: ONNX Runtime sessions are NOT thread-safe
-    // Using ReentrantLock to synchronize access to ortSession
-    private final ReentrantLock sessionLock = new ReentrantLock();
-    
     // Special token IDs for BERT-based models (all-MiniLM-L6-v2)
     private static final int TOKEN_CLS = 101;  // [CLS] token
     private static final int TOKEN_SEP = 102;  // [SEP] token
@@ -106,22 +107,11 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             log.info("Model file resolved to: {}", resolvedModelPath.toAbsolutePath());
 
             ortEnvironment = OrtEnvironment.getEnvironment();
-            OrtSession.SessionOptions sessionOptions = new OrtSession.SessionOptions();
-
-            if (useGpu) {
-                try {
-                    sessionOptions.addCUDA(0);
-                    log.info("Using GPU for ONNX inference");
-                } catch (Exception e) {
-                    log.warn("GPU not available, falling back to CPU: {}", e.getMessage());
-                    sessionOptions.addCPU(true);
-                }
-            } else {
-                sessionOptions.addCPU(true);
-                log.info("Using CPU for ONNX inference");
-            }
-
-            ortSession = ortEnvironment.createSession(resolvedModelPath.toString(), sessionOptions);
+            Path quantizedModelPath = resolveQuantizedModelPath();
+            activeModelPath = quantizedModelPath != null ? quantizedModelPath : resolvedModelPath;
+            sessionPool = ONNXSessionPool.create(ortEnvironment, activeModelPath.toString(), useGpu,
+                config.getOnnx().getSessionPool());
+            OrtSession ortSession = sessionPool.metadataSession();
 
             Map<String, NodeInfo> inputInfo = ortSession.getInputInfo();
             log.info("Model input names: {}", inputInfo.keySet());
@@ -144,8 +134,13 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
 
             resolvedTokenizerPath = resolvePath(tokenizerPath, "tokenizer");
             initializeTokenizer();
+            initializeTokenizationCache();
 
-            log.info("ONNX Embedding Provider initialized successfully with model: {}", resolvedModelPath);
+            if (quantizedModelPath != null) {
+                verifyQuantizedModel();
+            }
+
+            log.info("ONNX Embedding Provider initialized successfully with model: {}", activeModelPath);
 
         } catch (Exception e) {
             log.error("Failed to initialize ONNX Embedding Provider", e);
@@ -153,11 +148,67 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         }
     }
     
+    private Path resolveQuantizedModelPath() throws IOException {
+        AIProviderConfig.ONNXConfig.QuantizationConfig quantization = config.getOnnx().getQuantization();
+        if (!quantization.isEnabled()) {
+            return null;
+        }
+        Path quantizedPath = resolvePath(quantization.getModelPath(), "quantized-model");
+        if (quantizedPath == null || !Files.exists(quantizedPath)) {
+            log.warn("Quantized ONNX model not found (requested='{}'). Using the full-precision model.",
+                quantization.getModelPath());
+            return null;
+        }
+        log.info("Using INT8 quantized model: {}", quantizedPath.toAbsolutePath());
+        return quantizedPath;
+    }
+
+    /**
+     * Compare the quantized model with the full-precision one on the calibration corpus and, if configured,
+     * switch back to full precision when they disagree too much.
+     */
+    private void verifyQuantizedModel() throws IOException, OrtException {
+        AIProviderConfig.ONNXConfig.QuantizationConfig quantization = config.getOnnx().getQuantization();
+        if (!quantization.isCalibrationEnabled()) {
+            return;
+        }
+        List<String> corpus = ONNXQuantizationCheck.loadCorpus(
+            resolvePath(quantization.getCalibrationCorpusPath(), "calibration-corpus"));
+
+        AIProviderConfig.ONNXConfig.SessionPoolConfig referencePoolConfig =
+            new AIProviderConfig.ONNXConfig.SessionPoolConfig();
+        referencePoolConfig.setSize(1);
+        try (ONNXSessionPool referencePool = ONNXSessionPool.create(ortEnvironment, resolvedModelPath.toString(),
+                useGpu, referencePoolConfig)) {
+            quantizationReport = ONNXQuantizationCheck.compare(corpus,
+                texts -> runInference(referencePool, tokenizeAll(texts)),
+                texts -> runInference(sessionPool, tokenizeAll(texts)),
+                quantization.getMinMeanCosine());
+        }
+
+        if (quantizationReport.accepted()) {
+            log.info("INT8 model agrees with full precision on {} calibration texts (mean cosine {}, min {})",
+                quantizationReport.samples(), String.format("%.4f", quantizationReport.meanCosine()),
+                String.format("%.4f", quantizationReport.minCosine()));
+            return;
+        }
+        log.warn("INT8 model mean cosine {} (min {}) on {} calibration texts is below the threshold {}",
+            String.format("%.4f", quantizationReport.meanCosine()), String.format("%.4f", quantizationReport.minCosine()),
+            quantizationReport.samples(), quantizationReport.threshold());
+        if (quantization.isFallbackOnLowAgreement()) {
+            log.warn("Falling back to the full-precision model: {}", resolvedModelPath);
+            sessionPool.close();
+            sessionPool = ONNXSessionPool.create(ortEnvironment, resolvedModelPath.toString(), useGpu,
+                config.getOnnx().getSessionPool());
+            activeModelPath = resolvedModelPath;
+        }
+    }
+
     @PreDestroy
     public void cleanup() {
         try {
-            if (ortSession != null) {
-                ortSession.close();
+            if (sessionPool != null) {
+                sessionPool.close();
             }
             // Note: OrtEnvironment is a singleton and should not be closed
             log.debug("ONNX Embedding Provider cleaned up");
@@ -168,6 +219,7 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
 
     private void initializeTokenizer() {
         tokenizerReady = false;
+        nativeTokenizer = null;
         tokenizerInstance = null;
         tokenizerEncodeMethod = null;
         encodingGetIdsMethod = null;
@@ -187,6 +239,18 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
                 return;
             }
 
+            if (config.getOnnx().getTokenizer().isNativeEnabled()) {
+                try {
+                    nativeTokenizer = WordPieceTokenizer.load(tokenizerPathToUse);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Native tokenizer could not load {}: {}", tokenizerPathToUse, e.getMessage());
+                }
+                if (nativeTokenizer != null) {
+                    resolvedTokenizerPath = tokenizerPathToUse;
+                    return;
+                }
+            }
+
             Class<?> tokenizerClass = Class.forName("com.huggingface.tokenizers.Tokenizer");
             Class<?> encodingClass = Class.forName("com.huggingface.tokenizers.Encoding");
 
@@ -225,6 +289,13 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         }
     }
 
+    private void initializeTokenizationCache() {
+        Integer cacheSize = config.getOnnx().getTokenizer().getCacheSize();
+        tokenizationCache = cacheSize != null && cacheSize > 0
+            ? Caffeine.newBuilder().maximumSize(cacheSize).build()
+            : null;
+    }
+
     private Path resolvePath(String configuredPath, String descriptor) throws IOException {
         if (configuredPath == null || configuredPath.isBlank()) {
             return null;
@@ -269,12 +340,11 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
     
     @Override
     public boolean isAvailable() {
-        return ortSession != null && ortEnvironment != null;
+        return sessionPool != null && ortEnvironment != null;
     }
     
     @Override
     public AIEmbeddingResponse generateEmbedding(AIEmbeddingRequest request) {
-        sessionLock.lock();
         try {
             if (!isAvailable()) {
                 throw new AIServiceException("ONNX Embedding Provider is not available");
@@ -285,71 +355,24 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             long startTime = System.currentTimeMillis();
             
             TokenizationResult tokenization = tokenizeText(request.getText());
-            long[] inputIds = tokenization.getInputIds();
-            long[] attentionMask = tokenization.getAttentionMask();
-            long[] tokenTypeIds = tokenization.getTokenTypeIds();
-
-            long[] shape = new long[]{1, maxSequenceLength};
-            OnnxTensor inputIdsTensor = null;
-            OnnxTensor attentionMaskTensor = null;
-            OnnxTensor tokenTypeIdsTensor = null;
-            try {
-                inputIdsTensor = OnnxTensor.createTensor(ortEnvironment, LongBuffer.wrap(inputIds), shape);
-                attentionMaskTensor = OnnxTensor.createTensor(ortEnvironment, LongBuffer.wrap(attentionMask), shape);
-                tokenTypeIdsTensor = OnnxTensor.createTensor(ortEnvironment, LongBuffer.wrap(tokenTypeIds), shape);
+            Embedding embedding = Embedding.wrap(runInference(sessionPool, Collections.singletonList(tokenization))[0]);
 
-                Map<String, OnnxTensor> inputs = new HashMap<>();
-                inputs.put("input_ids", inputIdsTensor);
-                inputs.put("attention_mask", attentionMaskTensor);
-                inputs.put("token_type_ids", tokenTypeIdsTensor);
+            long processingTime = System.currentTimeMillis() - startTime;
 
-                OrtSession.Result output = ortSession.run(inputs);
-                try {
-                    OnnxValue embeddingValue = output.get(0);
-                    float[][] embeddings;
-                    try {
-                        embeddings = extractBatchEmbeddings(embeddingValue, Collections.singletonList(tokenization));
-                    } catch (OrtException ex) {
-                        throw new AIServiceException("Failed to extract ONNX embedding output", ex);
-                    }
-                    float[] embeddingVector = embeddings[0];
-
-                    List<Double> embedding = IntStream.range(0, embeddingVector.length)
-                        .mapToObj(i -> (double) embeddingVector[i])
-                        .collect(Collectors.toList());
-
-                    long processingTime = System.currentTimeMillis() - startTime;
-
-                    log.debug("Successfully generated ONNX embedding with {} dimensions in {}ms",
-                            embedding.size(), processingTime);
-
-                    return AIEmbeddingResponse.builder()
-                        .embedding(embedding)
-                        .model("onnx:" + resolveModelName())
-                        .dimensions(embedding.size())
-                        .processingTimeMs(processingTime)
-                        .requestId(UUID.randomUUID().toString())
-                        .build();
-                } finally {
-                    output.close();
-                }
-            } finally {
-                if (inputIdsTensor != null) {
-                    inputIdsTensor.close();
-                }
-                if (attentionMaskTensor != null) {
-                    attentionMaskTensor.close();
-                }
-                if (tokenTypeIdsTensor != null) {
-                    tokenTypeIdsTensor.close();
-                }
-            }
+            log.debug("Successfully generated ONNX embedding with {} dimensions over {} tokens in {}ms",
+                    embedding.dimension(), tokenization.getSequenceLength(), processingTime);
+
+            return AIEmbeddingResponse.builder()
+                .vector(embedding)
+                .model("onnx:" + resolveModelName())
+                .dimensions(embedding.dimension())
+                .processingTimeMs(processingTime)
+                .requestId(UUID.randomUUID().toString())
+                .build();
             
         } catch (Exception e) {
             log.error("Error generating ONNX embedding", e);
             throw new AIServiceException("Failed to generate ONNX embedding", e);
-        } finally {
-            sessionLock.unlock();
         }
     }
     
@@ -368,8 +391,6 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             return Collections.singletonList(generateEmbedding(request));
         }
         
-        // True batch processing: single ONNX inference call
-        sessionLock.lock();
         try {
             if (!isAvailable()) {
                 throw new AIServiceException("ONNX Embedding Provider is not available");
@@ -379,97 +400,186 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             
             long startTime = System.currentTimeMillis();
             
-            List<TokenizationResult> tokenizations = new ArrayList<>(texts.size());
-            for (String text : texts) {
-                tokenizations.add(tokenizeText(text));
-            }
+            List<TokenizationResult> tokenizations = tokenizeAll(texts);
 
             int batchSize = tokenizations.size();
-            int sequenceLength = this.maxSequenceLength;
-
-            long[] flatInputIds = new long[batchSize * sequenceLength];
-            long[] flatAttentionMasks = new long[batchSize * sequenceLength];
-            long[] flatTokenTypeIds = new long[batchSize * sequenceLength];
+            float[][] batchEmbeddings;
+            AIProviderConfig.ONNXConfig.LengthBucketingConfig bucketing = config.getOnnx().getLengthBucketing();
+            int bucketSize = bucketing.getMaxBucketSize() != null && bucketing.getMaxBucketSize() > 0
+                ? bucketing.getMaxBucketSize()
+                : batchSize;
+
+            if (bucketing.isEnabled() && batchSize > bucketSize) {
+                // Group by token count so each bucket is padded only to lengths close to its own
+                batchEmbeddings = LengthBuckets.run(tokenizations, TokenizationResult::getSequenceLength, bucketSize,
+                    bucket -> runInference(sessionPool, bucket));
+            } else {
+                // Single ONNX inference call for all texts
+                batchEmbeddings = runInference(sessionPool, tokenizations);
+            }
+            
+            // Convert to responses
+            List<AIEmbeddingResponse> responses = new ArrayList<>();
+            long processingTime = System.currentTimeMillis() - startTime;
+            
+            for (int i = 0; i < batchSize; i++) {
+                Embedding embedding = Embedding.wrap(batchEmbeddings[i]);
+                
+                responses.add(AIEmbeddingResponse.builder()
+                    .vector(embedding)
+                    .model("onnx:" + resolveModelName())
+                    .dimensions(embedding.dimension())
+                    .processingTimeMs(processingTime / batchSize)
+                    .requestId(UUID.randomUUID().toString())
+                    .build());
+            }
+            
+            log.debug("Successfully generated {} ONNX embeddings in batch in {}ms (avg {}ms per embedding)", 
+                     batchSize, processingTime, processingTime / batchSize);
+            
+            return responses;
+            
+        } catch (Exception e) {
+            log.error("Error generating batch ONNX embeddings", e);
+            throw new AIServiceException("Failed to generate batch ONNX embeddings", e);
+        }
+    }
 
-            for (int b = 0; b < batchSize; b++) {
-                TokenizationResult tokenization = tokenizations.get(b);
-                int offset = b * sequenceLength;
-                System.arraycopy(tokenization.getInputIds(), 0, flatInputIds, offset, sequenceLength);
-                System.arraycopy(tokenization.getAttentionMask(), 0, flatAttentionMasks, offset, sequenceLength);
-                System.arraycopy(tokenization.getTokenTypeIds(), 0, flatTokenTypeIds, offset, sequenceLength);
+    /**
+     * Run one inference over a batch, padded only to the longest sequence in it.
+     */
+    private float[][] runInference(ONNXSessionPool pool, List<TokenizationResult> tokenizations) throws OrtException {
+        int batchSize = tokenizations.size();
+        int maxLength = 1;
+        for (TokenizationResult tokenization : tokenizations) {
+            maxLength = Math.max(maxLength, tokenization.getSequenceLength());
+        }
+        int sequenceLength = maxLength;
+        long[] batchShape = new long[]{batchSize, sequenceLength};
+
+        return pool.execute((session, buffers) -> {
+            // Fill the session's direct buffers; tensors over direct native-order buffers are not copied
+            int length = batchSize * sequenceLength;
+            LongBuffer inputIds = buffers.inputIds(length);
+            LongBuffer attentionMask = buffers.attentionMask(length);
+            LongBuffer tokenTypeIds = buffers.tokenTypeIds(length);
+            for (TokenizationResult tokenization : tokenizations) {
+                int tokens = tokenization.getSequenceLength();
+                inputIds.put(tokenization.getInputIds(), 0, tokens);
+                attentionMask.put(tokenization.getAttentionMask(), 0, tokens);
+                tokenTypeIds.put(tokenization.getTokenTypeIds(), 0, tokens);
+                // The buffers are reused, so padding has to be written explicitly
+                for (int s = tokens; s < sequenceLength; s++) {
+                    inputIds.put(TOKEN_PAD);
+                    attentionMask.put(0L);
+                    tokenTypeIds.put(0L);
+                }
             }
+            inputIds.flip();
+            attentionMask.flip();
+            tokenTypeIds.flip();
 
-            long[] batchShape = new long[]{batchSize, sequenceLength};
-            LongBuffer inputIdsBuffer = LongBuffer.wrap(flatInputIds);
-            LongBuffer attentionMaskBuffer = LongBuffer.wrap(flatAttentionMasks);
-            LongBuffer tokenTypeIdsBuffer = LongBuffer.wrap(flatTokenTypeIds);
+            try (OnnxTensor inputIdsTensor = OnnxTensor.createTensor(ortEnvironment, inputIds, batchShape);
+                 OnnxTensor attentionMaskTensor = OnnxTensor.createTensor(ortEnvironment, attentionMask, batchShape);
+                 OnnxTensor tokenTypeIdsTensor = OnnxTensor.createTensor(ortEnvironment, tokenTypeIds, batchShape)) {
 
-            OnnxTensor inputIdsTensor = null;
-            OnnxTensor attentionMaskTensor = null;
-            OnnxTensor tokenTypeIdsTensor = null;
-            
-            try {
-                inputIdsTensor = OnnxTensor.createTensor(ortEnvironment, inputIdsBuffer, batchShape);
-                attentionMaskTensor = OnnxTensor.createTensor(ortEnvironment, attentionMaskBuffer, batchShape);
-                tokenTypeIdsTensor = OnnxTensor.createTensor(ortEnvironment, tokenTypeIdsBuffer, batchShape);
-                
-                // Prepare batch inputs
                 Map<String, OnnxTensor> batchInputs = new HashMap<>();
                 batchInputs.put("input_ids", inputIdsTensor);
                 batchInputs.put("attention_mask", attentionMaskTensor);
                 batchInputs.put("token_type_ids", tokenTypeIdsTensor);
-                
-                // Run batch inference (single call for all texts)
-                OrtSession.Result batchOutput = ortSession.run(batchInputs);
-                
-                // Extract batch embeddings
-                OnnxValue embeddingValue = batchOutput.get(0);
-                float[][] batchEmbeddings;
-                try {
-                    batchEmbeddings = extractBatchEmbeddings(embeddingValue, tokenizations);
-                } catch (OrtException ex) {
-                    throw new AIServiceException("Failed to extract ONNX batch embedding output", ex);
+
+                try (OrtSession.Result batchOutput = session.run(batchInputs)) {
+                    return poolOutput(batchOutput.get(0), tokenizations);
                 }
-                
-                // Convert to responses
-                List<AIEmbeddingResponse> responses = new ArrayList<>();
-                long processingTime = System.currentTimeMillis() - startTime;
-                
-                for (int i = 0; i < batchSize; i++) {
-                    final float[] embeddingArray = batchEmbeddings[i]; // Make final for lambda
-                    List<Double> embedding = IntStream.range(0, embeddingArray.length)
-                        .mapToObj(j -> (double) embeddingArray[j])
-                        .collect(Collectors.toList());
-                    
-                    responses.add(AIEmbeddingResponse.builder()
-                        .embedding(embedding)
-                        .model("onnx:" + resolveModelName())
-                        .dimensions(embedding.size())
-                        .processingTimeMs(processingTime / batchSize)
-                        .requestId(UUID.randomUUID().toString())
-                        .build());
+            }
+        });
+    }
+
+    /**
+     * Mean-pool (and optionally L2-normalize) a float output tensor in one pass over its flat buffer,
+     * without materializing it as nested Java arrays. Other output types use the array-based extraction.
+     */
+    private float[][] poolOutput(OnnxValue value, List<TokenizationResult> tokenizations) throws OrtException {
+        if (!(value instanceof OnnxTensor tensor) || tensor.getInfo().type != OnnxJavaType.FLOAT) {
+            float[][] embeddings = extractBatchEmbeddings(value, tokenizations);
+            if (normalizeEmbeddings()) {
+                for (float[] embedding : embeddings) {
+                    scale(embedding, l2Inverse(embedding));
                 }
-                
-                // Cleanup
-                batchOutput.close();
-                
-                log.debug("Successfully generated {} ONNX embeddings in batch in {}ms (avg {}ms per embedding)", 
-                         batchSize, processingTime, processingTime / batchSize);
-                
-                return responses;
-                
-            } finally {
-                // Cleanup tensors
-                if (inputIdsTensor != null) inputIdsTensor.close();
-                if (attentionMaskTensor != null) attentionMaskTensor.close();
-                if (tokenTypeIdsTensor != null) tokenTypeIdsTensor.close();
             }
-            
-        } catch (Exception e) {
-            log.error("Error generating batch ONNX embeddings", e);
-            throw new AIServiceException("Failed to generate batch ONNX embeddings", e);
-        } finally {
-            sessionLock.unlock();
+            return embeddings;
+        }
+
+        long[] shape = tensor.getInfo().getShape();
+        int batchSize = tokenizations.size();
+        if (shape.length < 2 || shape[0] != batchSize) {
+            throw new AIServiceException(String.format(
+                "Batch size mismatch: expected %d, got output shape %s", batchSize, Arrays.toString(shape)));
+        }
+        FloatBuffer output = tensor.getFloatBuffer();
+        int embeddingDim = (int) shape[shape.length - 1];
+        float[][] embeddings = new float[batchSize][embeddingDim];
+
+        if (shape.length == 2) {
+            // Already pooled by the model: [batch, embedding]
+            for (int b = 0; b < batchSize; b++) {
+                output.get(b * embeddingDim, embeddings[b]);
+                if (normalizeEmbeddings()) {
+                    scale(embeddings[b], l2Inverse(embeddings[b]));
+                }
+            }
+            return embeddings;
+        }
+
+        // Token embeddings: [batch, sequence, ..., embedding]; only the first vector of each token is used
+        int sequenceLength = (int) shape[1];
+        int tokenStride = 1;
+        for (int d = 2; d < shape.length; d++) {
+            tokenStride *= (int) shape[d];
+        }
+        for (int b = 0; b < batchSize; b++) {
+            TokenizationResult tokenization = tokenizations.get(b);
+            long[] mask = tokenization.getAttentionMask();
+            int validTokenCount = tokenization.getValidTokenCount();
+            float[] pooled = embeddings[b];
+            int included = 0;
+            for (int s = 0; s < sequenceLength; s++) {
+                boolean include = mask != null && s < mask.length ? mask[s] > 0 : s < validTokenCount;
+                if (!include) {
+                    continue;
+                }
+                int base = (b * sequenceLength + s) * tokenStride;
+                for (int e = 0; e < embeddingDim; e++) {
+                    pooled[e] += output.get(base + e);
+                }
+                included++;
+            }
+            // Normalizing the sum gives the same vector as normalizing the mean, so the divisor can be skipped
+            float divisor = included > 0 ? included : Math.max(1, Math.min(validTokenCount, sequenceLength));
+            scale(pooled, normalizeEmbeddings() ? l2Inverse(pooled) : 1f / divisor);
+        }
+        log.debug("Pooled batch embeddings from tensor {}", Arrays.toString(shape));
+        return embeddings;
+    }
+
+    private boolean normalizeEmbeddings() {
+        return config.getOnnx().isNormalizeEmbeddings();
+    }
+
+    private static float l2Inverse(float[] vector) {
+        double sumOfSquares = 0.0;
+        for (float v : vector) {
+            sumOfSquares += v * v;
+        }
+        return sumOfSquares == 0.0 ? 1f : (float) (1.0 / Math.sqrt(sumOfSquares));
+    }
+
+    private static void scale(float[] vector, float factor) {
+        if (factor == 1f) {
+            return;
+        }
+        for (int e = 0; e < vector.length; e++) {
+            vector[e] *= factor;
         }
     }
     
@@ -622,9 +732,20 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         status.put("embeddingDimension", embeddingDimension);
         status.put("maxSequenceLength", maxSequenceLength);
         status.put("useGpu", useGpu);
+        status.put("tokenizer", nativeTokenizer != null ? "native-wordpiece"
+            : tokenizerReady ? "huggingface" : "legacy");
+        if (tokenizationCache != null) {
+            status.put("tokenizationCacheSize", tokenizationCache.estimatedSize());
+        }
         
         if (isAvailable()) {
             status.put("status", "ready");
+            status.put("sessionPool", sessionPool.getStats());
+            status.put("activeModel", resolveModelName());
+            status.put("quantized", !resolvedModelPath.equals(activeModelPath));
+            if (quantizationReport != null) {
+                status.put("quantizationCheck", quantizationReport.toMap());
+            }
         } else {
             status.put("status", "not_initialized");
             status.put("message", "Model file not found or provider not initialized");
@@ -633,7 +754,28 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         return status;
     }
     
+    private List<TokenizationResult> tokenizeAll(List<String> texts) {
+        Integer parallelThreshold = config.getOnnx().getTokenizer().getParallelThreshold();
+        if (parallelThreshold != null && parallelThreshold > 0 && texts.size() >= parallelThreshold) {
+            return texts.parallelStream().map(this::tokenizeText).toList();
+        }
+        List<TokenizationResult> tokenizations = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            tokenizations.add(tokenizeText(text));
+        }
+        return tokenizations;
+    }
+
     private TokenizationResult tokenizeText(String text) {
+        String safeText = text == null ? "" : text;
+        Cache<String, TokenizationResult> cache = tokenizationCache;
+        return cache != null ? cache.get(safeText, this::tokenizeUncached) : tokenizeUncached(safeText);
+    }
+
+    private TokenizationResult tokenizeUncached(String text) {
+        if (nativeTokenizer != null) {
+            return fromTokenIds(nativeTokenizer.encode(text, maxSequenceLength));
+        }
         if (tokenizerReady && tokenizerInstance != null && tokenizerEncodeMethod != null) {
             try {
                 return tokenizeWithTokenizer(text);
@@ -662,11 +804,11 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             ? (long[]) encodingGetTypeIdsMethod.invoke(encoding)
             : null;
 
-        long[] inputIds = new long[maxSequenceLength];
-        long[] attentionMask = new long[maxSequenceLength];
-        long[] tokenTypeIds = new long[maxSequenceLength];
-
         int length = Math.min(ids.length, maxSequenceLength);
+        long[] inputIds = new long[Math.max(1, length)];
+        long[] attentionMask = new long[Math.max(1, length)];
+        long[] tokenTypeIds = new long[Math.max(1, length)];
+
         if (ids.length > 0) {
             System.arraycopy(ids, 0, inputIds, 0, length);
         }
@@ -691,7 +833,18 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             validTokenCount = Math.max(1, length);
         }
 
-        return new TokenizationResult(inputIds, attentionMask, tokenTypeIds, validTokenCount);
+        return new TokenizationResult(inputIds, attentionMask, tokenTypeIds, validTokenCount, Math.max(1, length));
+    }
+
+    private TokenizationResult fromTokenIds(int[] ids) {
+        int length = Math.max(1, Math.min(ids.length, maxSequenceLength));
+        long[] inputIds = new long[length];
+        long[] attentionMask = new long[length];
+        for (int i = 0; i < length && i < ids.length; i++) {
+            inputIds[i] = ids[i];
+        }
+        Arrays.fill(attentionMask, 1L);
+        return new TokenizationResult(inputIds, attentionMask, new long[length], length, length);
     }
 
     private TokenizationResult fallbackTokenize(String text) {
@@ -700,6 +853,7 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         long[] attentionMask = new long[maxSequenceLength];
         long[] tokenTypeIds = new long[maxSequenceLength];
         int validTokenCount = 0;
+        int sequenceLength = 1;
 
         for (int i = 0; i < maxSequenceLength; i++) {
             int token = i < legacyTokens.length ? legacyTokens[i] : TOKEN_PAD;
@@ -707,6 +861,7 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             if (token != TOKEN_PAD) {
                 attentionMask[i] = 1L;
                 validTokenCount++;
+                sequenceLength = i + 1;
             }
         }
 
@@ -715,7 +870,8 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
             validTokenCount = 1;
         }
 
-        return new TokenizationResult(inputIds, attentionMask, tokenTypeIds, validTokenCount);
+        return new TokenizationResult(Arrays.copyOf(inputIds, sequenceLength), Arrays.copyOf(attentionMask, sequenceLength),
+            Arrays.copyOf(tokenTypeIds, sequenceLength), validTokenCount, sequenceLength);
     }
 
     private int[] legacyTokenizeToInts(String text) {
@@ -897,8 +1053,8 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
 
     private String resolveModelName() {
         try {
-            if (resolvedModelPath != null) {
-                return resolvedModelPath.getFileName().toString();
+            if (activeModelPath != null) {
+                return activeModelPath.getFileName().toString();
             }
             return Paths.get(modelPath).getFileName().toString();
         } catch (Exception ex) {
@@ -906,17 +1062,24 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         }
     }
 
+    /**
+     * Token ids of one text, trimmed to its real length; callers pad when building a batch.
+     */
     private static final class TokenizationResult {
         private final long[] inputIds;
         private final long[] attentionMask;
         private final long[] tokenTypeIds;
         private final int validTokenCount;
+        // Positions up to and including the last real token; the rest is padding
+        private final int sequenceLength;
 
-        private TokenizationResult(long[] inputIds, long[] attentionMask, long[] tokenTypeIds, int validTokenCount) {
+        private TokenizationResult(long[] inputIds, long[] attentionMask, long[] tokenTypeIds, int validTokenCount,
+                                   int sequenceLength) {
             this.inputIds = inputIds;
             this.attentionMask = attentionMask;
             this.tokenTypeIds = tokenTypeIds;
             this.validTokenCount = validTokenCount;
+            this.sequenceLength = sequenceLength;
         }
 
         long[] getInputIds() {
@@ -934,6 +1097,10 @@ public class ONNXEmbeddingProvider implements EmbeddingProvider {
         int getValidTokenCount() {
             return validTokenCount;
         }
+
+        int getSequenceLength() {
+            return sequenceLength;
+        }
     }
 }
 
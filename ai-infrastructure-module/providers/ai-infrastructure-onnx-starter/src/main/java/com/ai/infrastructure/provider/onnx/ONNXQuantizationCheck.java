@@ -0,0 +1,137 @@
+package com.ai.infrastructure.provider.onnx;
+
+import ai.onnxruntime.OrtException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Startup agreement check between a full-precision model and its INT8 quantized variant.
+ *
+ * Both models embed the same calibration corpus and the cosine similarity of each pair of embeddings is
+ * measured. The quantized model is accepted when the mean cosine reaches the configured threshold.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+final class ONNXQuantizationCheck {
+
+    private static final int CHUNK_SIZE = 16;
+
+    /**
+     * Short, mixed-domain texts used when no calibration corpus is configured.
+     */
+    static final List<String> DEFAULT_CORPUS = List.of(
+        "Wireless noise cancelling headphones with 30 hour battery life",
+        "Stainless steel water bottle, 750ml, keeps drinks cold for 24 hours",
+        "How do I reset my password if I no longer have access to my email?",
+        "The quarterly report shows revenue growth of 12 percent year over year",
+        "Customer reported that the package arrived damaged and requested a refund",
+        "Lightweight running shoes for trail and road",
+        "Machine learning models can be quantized to reduce memory usage and latency",
+        "Please schedule a meeting with the design team for next Tuesday afternoon",
+        "Organic cotton t-shirt, relaxed fit, available in five colours",
+        "The patient was advised to rest and drink plenty of fluids",
+        "Error 503: the service is temporarily unavailable, retry later",
+        "A cozy two-bedroom apartment close to the city centre and public transport",
+        "Recipe: roast the vegetables at 200 degrees for 25 minutes",
+        "Contract renewal terms must be approved by the legal department",
+        "Kids' educational puzzle set with 100 wooden pieces",
+        "The train to the airport departs every fifteen minutes from platform 4"
+    );
+
+    @FunctionalInterface
+    interface Embedder {
+        float[][] embed(List<String> texts) throws OrtException;
+    }
+
+    /**
+     * Outcome of the agreement check.
+     *
+     * @param samples number of texts compared
+     * @param meanCosine mean cosine similarity between the two models' embeddings
+     * @param minCosine lowest cosine similarity of any single text
+     * @param threshold required mean cosine
+     * @param accepted whether the quantized model met the threshold
+     */
+    record Report(int samples, double meanCosine, double minCosine, double threshold, boolean accepted) {
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("samples", samples);
+            map.put("meanCosine", meanCosine);
+            map.put("minCosine", minCosine);
+            map.put("threshold", threshold);
+            map.put("accepted", accepted);
+            return map;
+        }
+    }
+
+    private ONNXQuantizationCheck() {
+    }
+
+    /**
+     * Load a corpus with one text per line, ignoring blank lines.
+     *
+     * @param corpusPath corpus file, or {@code null} for the built-in corpus
+     * @return texts to compare
+     * @throws IOException if the file cannot be read
+     */
+    static List<String> loadCorpus(Path corpusPath) throws IOException {
+        if (corpusPath == null || !Files.exists(corpusPath)) {
+            return DEFAULT_CORPUS;
+        }
+        List<String> texts = new ArrayList<>();
+        for (String line : Files.readAllLines(corpusPath, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                texts.add(line.trim());
+            }
+        }
+        return texts.isEmpty() ? DEFAULT_CORPUS : texts;
+    }
+
+    /**
+     * Embed the corpus with both models and compare the results.
+     */
+    static Report compare(List<String> corpus, Embedder reference, Embedder quantized, double threshold)
+            throws OrtException {
+        double sum = 0.0;
+        double min = 1.0;
+        for (int from = 0; from < corpus.size(); from += CHUNK_SIZE) {
+            List<String> chunk = corpus.subList(from, Math.min(corpus.size(), from + CHUNK_SIZE));
+            float[][] expected = reference.embed(chunk);
+            float[][] actual = quantized.embed(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                double cosine = cosine(expected[i], actual[i]);
+                sum += cosine;
+                min = Math.min(min, cosine);
+            }
+        }
+        double mean = corpus.isEmpty() ? 1.0 : sum / corpus.size();
+        return new Report(corpus.size(), mean, min, threshold, mean >= threshold);
+    }
+
+    static double cosine(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0.0;
+        }
+        double dot = 0.0;
+        double normA = 0.0;
+        double normB = 0.0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            normA += a[i] * a[i];
+            normB += b[i] * b[i];
+        }
+        if (normA == 0.0 || normB == 0.0) {
+            return 0.0;
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+}
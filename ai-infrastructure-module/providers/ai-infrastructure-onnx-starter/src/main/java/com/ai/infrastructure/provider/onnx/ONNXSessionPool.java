@@ -0,0 +1,297 @@
+package com.ai.infrastructure.provider.onnx;
+
+import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.exception.AIServiceException;
+import lombok.extern.slf4j.Slf4j;
+
+import ai.onnxruntime.OrtEnvironment;
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed pool of ONNX Runtime sessions over the same model.
+ *
+ * Each session gets its own intra-op thread pool, sized so that the whole pool together uses the available
+ * cores, and optionally pinned to its own cores. Callers borrow a session for the duration of a single
+ * {@link SessionTask}, so as many inferences run in parallel as there are sessions. Every session also owns
+ * direct input buffers that are reused across inferences, so input tensors are created without copying.
+ * Time spent waiting for a free session is tracked and reported through {@link #getStats()}.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+@Slf4j
+final class ONNXSessionPool implements AutoCloseable {
+
+    private static final int MAX_AUTO_POOL_SIZE = 8;
+    private static final int CORES_PER_AUTO_SESSION = 4;
+
+    private final List<OrtSession> sessions;
+    private final List<OrtSession.SessionOptions> sessionOptions;
+    private final BlockingQueue<OrtSession> idleSessions;
+    private final Map<OrtSession, InputBuffers> inputBuffers = new IdentityHashMap<>();
+    private final long acquireTimeoutMs;
+    private final int intraOpThreads;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contendedAcquisitions = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+    private final AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Pool over already created sessions; {@link #create} is the normal entry point.
+     */
+    ONNXSessionPool(List<OrtSession> sessions, List<OrtSession.SessionOptions> sessionOptions,
+                    long acquireTimeoutMs, int intraOpThreads) {
+        this.sessions = sessions;
+        this.sessionOptions = sessionOptions;
+        this.idleSessions = new ArrayBlockingQueue<>(sessions.size(), false, sessions);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.intraOpThreads = intraOpThreads;
+        for (OrtSession session : sessions) {
+            inputBuffers.put(session, new InputBuffers());
+        }
+    }
+
+    /**
+     * Create the sessions for a model.
+     *
+     * @param environment shared ONNX Runtime environment
+     * @param modelPath path of the model file
+     * @param useGpu run on CUDA device 0 (forces a single session)
+     * @param config pool settings
+     * @return pool with every session loaded
+     * @throws OrtException if a session cannot be created
+     */
+    static ONNXSessionPool create(OrtEnvironment environment, String modelPath, boolean useGpu,
+                                  AIProviderConfig.ONNXConfig.SessionPoolConfig config) throws OrtException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int poolSize = useGpu ? 1 : resolvePoolSize(config.getSize(), cores);
+        int intraOpThreads = config.getIntraOpThreads() != null && config.getIntraOpThreads() > 0
+            ? config.getIntraOpThreads()
+            : Math.max(1, cores / poolSize);
+        List<String> affinities = config.getThreadAffinities() != null ? config.getThreadAffinities() : List.of();
+
+        List<OrtSession> sessions = new ArrayList<>(poolSize);
+        List<OrtSession.SessionOptions> options = new ArrayList<>(poolSize);
+        try {
+            for (int i = 0; i < poolSize; i++) {
+                String affinity = i < affinities.size() ? affinities.get(i) : null;
+                OrtSession.SessionOptions sessionOptions = buildOptions(useGpu, intraOpThreads, config, affinity);
+                options.add(sessionOptions);
+                sessions.add(environment.createSession(modelPath, sessionOptions));
+            }
+        } catch (OrtException | RuntimeException e) {
+            closeAll(sessions, options);
+            throw e;
+        }
+
+        long acquireTimeoutMs = config.getAcquireTimeoutMs() != null && config.getAcquireTimeoutMs() > 0
+            ? config.getAcquireTimeoutMs()
+            : 30_000L;
+        log.info("Created ONNX session pool with {} session(s), {} intra-op thread(s) each, {} mode",
+            poolSize, intraOpThreads, executionMode(config));
+        return new ONNXSessionPool(sessions, options, acquireTimeoutMs, intraOpThreads);
+    }
+
+    private static int resolvePoolSize(Integer configured, int cores) {
+        if (configured != null && configured > 0) {
+            return configured;
+        }
+        return Math.max(1, Math.min(MAX_AUTO_POOL_SIZE, cores / CORES_PER_AUTO_SESSION));
+    }
+
+    private static OrtSession.SessionOptions buildOptions(boolean useGpu, int intraOpThreads,
+                                                          AIProviderConfig.ONNXConfig.SessionPoolConfig config,
+                                                          String affinity) throws OrtException {
+        OrtSession.SessionOptions options = new OrtSession.SessionOptions();
+        try {
+            if (useGpu) {
+                try {
+                    options.addCUDA(0);
+                    log.info("Using GPU for ONNX inference");
+                } catch (Exception e) {
+                    log.warn("GPU not available, falling back to CPU: {}", e.getMessage());
+                    options.addCPU(true);
+                }
+            } else {
+                options.addCPU(true);
+            }
+
+            options.setIntraOpNumThreads(intraOpThreads);
+            if (config.getInterOpThreads() != null && config.getInterOpThreads() > 0) {
+                options.setInterOpNumThreads(config.getInterOpThreads());
+            }
+            options.setExecutionMode(executionMode(config));
+            if (config.getAllowSpinning() != null) {
+                options.addConfigEntry("session.intra_op.allow_spinning", config.getAllowSpinning() ? "1" : "0");
+            }
+            if (affinity != null && !affinity.isBlank()) {
+                options.addConfigEntry("session.intra_op_thread_affinities", affinity.trim());
+            }
+            return options;
+        } catch (OrtException | RuntimeException e) {
+            options.close();
+            throw e;
+        }
+    }
+
+    private static OrtSession.SessionOptions.ExecutionMode executionMode(
+            AIProviderConfig.ONNXConfig.SessionPoolConfig config) {
+        String mode = config.getExecutionMode();
+        if (mode != null && "PARALLEL".equalsIgnoreCase(mode.trim())) {
+            return OrtSession.SessionOptions.ExecutionMode.PARALLEL;
+        }
+        return OrtSession.SessionOptions.ExecutionMode.SEQUENTIAL;
+    }
+
+    /**
+     * Any session of the pool, for reading model metadata. Must not be used to run inference.
+     */
+    OrtSession metadataSession() {
+        return sessions.get(0);
+    }
+
+    int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Run a task on a borrowed session. The session and its buffers must not escape the task.
+     *
+     * @param task work to run with exclusive use of the session
+     * @return the task's result
+     * @throws OrtException if inference fails
+     */
+    <T> T execute(SessionTask<T> task) throws OrtException {
+        OrtSession session = acquire();
+        try {
+            return task.run(session, inputBuffers.get(session));
+        } finally {
+            idleSessions.offer(session);
+        }
+    }
+
+    private OrtSession acquire() {
+        OrtSession session = idleSessions.poll();
+        if (session != null) {
+            acquisitions.increment();
+            return session;
+        }
+
+        long start = System.nanoTime();
+        try {
+            session = idleSessions.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while waiting for an ONNX session", e);
+        }
+        long waited = System.nanoTime() - start;
+        totalWaitNanos.add(waited);
+        maxWaitNanos.accumulate(waited);
+        contendedAcquisitions.increment();
+        if (session == null) {
+            timeouts.incrementAndGet();
+            throw new AIServiceException(
+                "Timed out after " + acquireTimeoutMs + "ms waiting for one of " + sessions.size() + " ONNX sessions");
+        }
+        acquisitions.increment();
+        return session;
+    }
+
+    /**
+     * Snapshot of pool usage and wait-time metrics.
+     */
+    Map<String, Object> getStats() {
+        long acquired = acquisitions.sum();
+        long waitNanos = totalWaitNanos.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", sessions.size());
+        stats.put("intraOpThreads", intraOpThreads);
+        stats.put("inUse", sessions.size() - idleSessions.size());
+        stats.put("acquisitions", acquired);
+        stats.put("contendedAcquisitions", contendedAcquisitions.sum());
+        stats.put("timeouts", timeouts.get());
+        stats.put("totalWaitMs", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        stats.put("avgWaitMicros", acquired > 0 ? TimeUnit.NANOSECONDS.toMicros(waitNanos) / acquired : 0L);
+        stats.put("maxWaitMs", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+        return stats;
+    }
+
+    /**
+     * Work done while holding a session.
+     */
+    @FunctionalInterface
+    interface SessionTask<T> {
+        T run(OrtSession session, InputBuffers buffers) throws OrtException;
+    }
+
+    /**
+     * Native-order direct buffers for the model's int64 inputs, grown on demand and reused by one session.
+     */
+    static final class InputBuffers {
+        private LongBuffer inputIds = allocate(0);
+        private LongBuffer attentionMask = allocate(0);
+        private LongBuffer tokenTypeIds = allocate(0);
+
+        LongBuffer inputIds(int length) {
+            inputIds = ensureCapacity(inputIds, length);
+            return inputIds;
+        }
+
+        LongBuffer attentionMask(int length) {
+            attentionMask = ensureCapacity(attentionMask, length);
+            return attentionMask;
+        }
+
+        LongBuffer tokenTypeIds(int length) {
+            tokenTypeIds = ensureCapacity(tokenTypeIds, length);
+            return tokenTypeIds;
+        }
+
+        private static LongBuffer ensureCapacity(LongBuffer buffer, int length) {
+            LongBuffer target = buffer.capacity() >= length ? buffer : allocate(Math.max(length, buffer.capacity() * 2));
+            target.clear();
+            target.limit(length);
+            return target;
+        }
+
+        private static LongBuffer allocate(int length) {
+            return ByteBuffer.allocateDirect(length * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+    }
+
+    @Override
+    public void close() {
+        closeAll(sessions, sessionOptions);
+    }
+
+    private static void closeAll(List<OrtSession> sessions, List<OrtSession.SessionOptions> options) {
+        for (OrtSession session : sessions) {
+            try {
+                session.close();
+            } catch (Exception e) {
+                log.warn("Error closing ONNX session", e);
+            }
+        }
+        for (OrtSession.SessionOptions option : options) {
+            option.close();
+        }
+    }
+}
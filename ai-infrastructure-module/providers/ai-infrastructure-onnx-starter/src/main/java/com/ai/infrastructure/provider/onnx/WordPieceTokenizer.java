@@ -0,0 +1,532 @@
+package com.ai.infrastructure.provider.onnx;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pure-Java BERT WordPiece tokenizer loaded from a Hugging Face {@code tokenizer.json}.
+ *
+ * Produces the same ids as the Hugging Face {@code tokenizers} library for BERT-style definitions. Added
+ * tokens that are matched on raw text (e.g. {@code [MASK]}) are split out first. The rest is normalized
+ * the way {@code BertNormalizer} does, per code point: control and format characters removed, Unicode
+ * whitespace turned into spaces, CJK characters isolated, accents stripped and lower-cased when configured.
+ * It is then split on whitespace and punctuation, and each word is matched greedily against the
+ * vocabulary. Vocabulary lookups walk a character trie, so finding the longest piece at a position costs
+ * one step per character instead of one hash lookup per candidate prefix. Instances are immutable and
+ * safe to share between threads.
+ *
+ * @author AI Infrastructure Team
+ * @version 2.0.0
+ */
+@Slf4j
+final class WordPieceTokenizer {
+
+    private static final int WORD_ROOT = 0;
+    private static final int CONTINUATION_ROOT = 1;
+
+    private final CharTrie trie;
+    private final int unkId;
+    private final int clsId;
+    private final int sepId;
+    private final int maxInputCharsPerWord;
+    private final boolean lowercase;
+    private final boolean stripAccents;
+    private final boolean cleanText;
+    private final boolean handleChineseChars;
+    /** Added tokens matched on raw text, longest first */
+    private final String[] addedTokens;
+    private final int[] addedTokenIds;
+    /** First characters of the added tokens, to skip positions quickly */
+    private final String addedTokenStarts;
+
+    private WordPieceTokenizer(CharTrie trie, int unkId, int clsId, int sepId, int maxInputCharsPerWord,
+                               boolean lowercase, boolean stripAccents, boolean cleanText, boolean handleChineseChars,
+                               List<Map.Entry<String, Integer>> addedTokens) {
+        this.trie = trie;
+        this.unkId = unkId;
+        this.clsId = clsId;
+        this.sepId = sepId;
+        this.maxInputCharsPerWord = maxInputCharsPerWord;
+        this.lowercase = lowercase;
+        this.stripAccents = stripAccents;
+        this.cleanText = cleanText;
+        this.handleChineseChars = handleChineseChars;
+        List<Map.Entry<String, Integer>> longestFirst = new ArrayList<>(addedTokens);
+        longestFirst.sort(Comparator.comparingInt((Map.Entry<String, Integer> token) -> token.getKey().length()).reversed());
+        this.addedTokens = new String[longestFirst.size()];
+        this.addedTokenIds = new int[longestFirst.size()];
+        StringBuilder starts = new StringBuilder();
+        for (int i = 0; i < longestFirst.size(); i++) {
+            this.addedTokens[i] = longestFirst.get(i).getKey();
+            this.addedTokenIds[i] = longestFirst.get(i).getValue();
+            if (starts.indexOf(this.addedTokens[i].substring(0, 1)) < 0) {
+                starts.append(this.addedTokens[i].charAt(0));
+            }
+        }
+        this.addedTokenStarts = starts.toString();
+    }
+
+    /**
+     * Load a WordPiece tokenizer definition.
+     *
+     * @param tokenizerJson path of a Hugging Face {@code tokenizer.json}
+     * @return the tokenizer, or {@code null} when the file describes another model type (e.g. BPE)
+     * @throws IOException if the file cannot be read or parsed
+     */
+    static WordPieceTokenizer load(Path tokenizerJson) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(tokenizerJson.toFile());
+        JsonNode model = root.path("model");
+        if (!"WordPiece".equals(model.path("type").asText())) {
+            log.info("Tokenizer model type '{}' is not WordPiece; native tokenizer not used",
+                model.path("type").asText());
+            return null;
+        }
+
+        JsonNode vocab = model.path("vocab");
+        if (!vocab.isObject() || vocab.isEmpty()) {
+            throw new IOException("WordPiece vocabulary missing in " + tokenizerJson);
+        }
+        String prefix = model.path("continuing_subword_prefix").asText("##");
+        CharTrie trie = new CharTrie(vocab.size() * 4);
+        Iterator<Map.Entry<String, JsonNode>> entries = vocab.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String token = entry.getKey();
+            int id = entry.getValue().asInt();
+            if (!prefix.isEmpty() && token.startsWith(prefix) && token.length() > prefix.length()) {
+                trie.insert(CONTINUATION_ROOT, token, prefix.length(), id);
+            } else {
+                trie.insert(WORD_ROOT, token, 0, id);
+            }
+        }
+
+        int unkId = vocab.path(model.path("unk_token").asText("[UNK]")).asInt(100);
+        int clsId = specialTokenId(root, vocab, "[CLS]", 101);
+        int sepId = specialTokenId(root, vocab, "[SEP]", 102);
+
+        JsonNode normalizer = root.path("normalizer");
+        boolean bert = "BertNormalizer".equals(normalizer.path("type").asText());
+        boolean lowercase = bert && normalizer.path("lowercase").asBoolean(true);
+        // strip_accents defaults to the lowercase setting when null
+        boolean stripAccents = bert && (normalizer.path("strip_accents").isNull() || normalizer.path("strip_accents").isMissingNode()
+            ? lowercase
+            : normalizer.path("strip_accents").asBoolean());
+        boolean cleanText = bert && normalizer.path("clean_text").asBoolean(true);
+        boolean handleChineseChars = bert && normalizer.path("handle_chinese_chars").asBoolean(true);
+
+        // Added tokens with normalized=true would be matched after normalization; BERT definitions have none
+        List<Map.Entry<String, Integer>> addedTokens = new ArrayList<>();
+        for (JsonNode added : root.path("added_tokens")) {
+            String content = added.path("content").asText("");
+            if (!content.isEmpty() && !added.path("normalized").asBoolean(true)) {
+                addedTokens.add(Map.entry(content, added.path("id").asInt()));
+            }
+        }
+
+        log.info("Loaded native WordPiece tokenizer with {} vocabulary entries from {}", vocab.size(), tokenizerJson);
+        return new WordPieceTokenizer(trie, unkId, clsId, sepId, model.path("max_input_chars_per_word").asInt(100),
+            lowercase, stripAccents, cleanText, handleChineseChars, addedTokens);
+    }
+
+    private static int specialTokenId(JsonNode root, JsonNode vocab, String token, int defaultId) {
+        JsonNode ids = root.path("post_processor").path("special_tokens").path(token).path("ids");
+        if (ids.isArray() && !ids.isEmpty()) {
+            return ids.get(0).asInt();
+        }
+        return vocab.path(token).asInt(defaultId);
+    }
+
+    /**
+     * Encode a text as {@code [CLS] pieces... [SEP]}.
+     *
+     * @param text text to encode ({@code null} is treated as empty)
+     * @param maxLength maximum number of ids including the special tokens
+     * @return token ids
+     */
+    int[] encode(String text, int maxLength) {
+        String input = text == null ? "" : text;
+        IdBuffer ids = new IdBuffer(Math.min(maxLength, 16), Math.max(0, maxLength - 2) + 1);
+        ids.add(clsId);
+
+        int segmentStart = 0;
+        int position = 0;
+        while (position < input.length() && !ids.isFull()) {
+            int added = addedTokenAt(input, position);
+            if (added < 0) {
+                position++;
+                continue;
+            }
+            appendSegment(input, segmentStart, position, ids);
+            ids.add(addedTokenIds[added]);
+            position += addedTokens[added].length();
+            segmentStart = position;
+        }
+        appendSegment(input, segmentStart, input.length(), ids);
+
+        ids.force(sepId);
+        return ids.toArray();
+    }
+
+    /**
+     * @return index of the longest added token starting at {@code position}, or -1
+     */
+    private int addedTokenAt(String text, int position) {
+        if (addedTokenStarts.indexOf(text.charAt(position)) < 0) {
+            return -1;
+        }
+        for (int i = 0; i < addedTokens.length; i++) {
+            if (text.startsWith(addedTokens[i], position)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void appendSegment(String text, int start, int end, IdBuffer ids) {
+        if (start >= end || ids.isFull()) {
+            return;
+        }
+        char[] chars = normalize(text.substring(start, end));
+        int position = 0;
+        while (position < chars.length && !ids.isFull()) {
+            int c = Character.codePointAt(chars, position);
+            int next = position + Character.charCount(c);
+            if (isWhitespace(c)) {
+                position = next;
+                continue;
+            }
+            int wordEnd = next;
+            if (!isPunctuation(c)) {
+                while (wordEnd < chars.length) {
+                    int following = Character.codePointAt(chars, wordEnd);
+                    if (isWhitespace(following) || isPunctuation(following)) {
+                        break;
+                    }
+                    wordEnd += Character.charCount(following);
+                }
+            }
+            appendWordPieces(chars, position, wordEnd, ids);
+            position = wordEnd;
+        }
+    }
+
+    private void appendWordPieces(char[] chars, int start, int end, IdBuffer ids) {
+        if (Character.codePointCount(chars, start, end - start) > maxInputCharsPerWord) {
+            ids.add(unkId);
+            return;
+        }
+        int wordStart = ids.size();
+        int position = start;
+        while (position < end) {
+            int root = position == start ? WORD_ROOT : CONTINUATION_ROOT;
+            long match = trie.longestMatch(root, chars, position, end);
+            if (match < 0) {
+                // No piece matches: the whole word is unknown
+                ids.truncate(wordStart);
+                ids.add(unkId);
+                return;
+            }
+            ids.add((int) match);
+            position = (int) (match >>> 32);
+        }
+    }
+
+    /**
+     * Same steps and order as {@code BertNormalizer}: clean text, isolate CJK characters, strip accents,
+     * lower-case. Works on code points, so characters outside the BMP are classified correctly.
+     */
+    private char[] normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 8);
+        boolean nonAscii = false;
+        for (int i = 0; i < text.length(); ) {
+            int c = text.codePointAt(i);
+            i += Character.charCount(c);
+            if (cleanText) {
+                if (c == 0 || c == 0xFFFD || isControl(c)) {
+                    continue;
+                }
+                if (isWhitespace(c)) {
+                    builder.append(' ');
+                    continue;
+                }
+            }
+            nonAscii |= c > 0x7F;
+            if (handleChineseChars && isChinese(c)) {
+                builder.append(' ').appendCodePoint(c).append(' ');
+            } else {
+                builder.appendCodePoint(c);
+            }
+        }
+        if (!nonAscii) {
+            if (lowercase) {
+                for (int i = 0; i < builder.length(); i++) {
+                    char c = builder.charAt(i);
+                    if (c >= 'A' && c <= 'Z') {
+                        builder.setCharAt(i, (char) (c + ('a' - 'A')));
+                    }
+                }
+            }
+            return toChars(builder);
+        }
+
+        CharSequence source = builder;
+        if (stripAccents) {
+            String decomposed = Normalizer.normalize(builder, Normalizer.Form.NFD);
+            StringBuilder stripped = new StringBuilder(decomposed.length());
+            for (int i = 0; i < decomposed.length(); ) {
+                int c = decomposed.codePointAt(i);
+                i += Character.charCount(c);
+                if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                    stripped.appendCodePoint(c);
+                }
+            }
+            source = stripped;
+        }
+        if (lowercase) {
+            // Per code point like Rust's char::to_lowercase, so a final sigma stays σ
+            StringBuilder lowered = new StringBuilder(source.length() + 4);
+            for (int i = 0; i < source.length(); ) {
+                int c = Character.codePointAt(source, i);
+                i += Character.charCount(c);
+                if (c == 0x0130) {
+                    // The one unconditional multi-character lower-case mapping: İ -> i + combining dot above
+                    lowered.append('i').append('\u0307');
+                } else {
+                    lowered.appendCodePoint(Character.toLowerCase(c));
+                }
+            }
+            source = lowered;
+        }
+        char[] chars = new char[source.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = source.charAt(i);
+        }
+        return chars;
+    }
+
+    private static char[] toChars(StringBuilder builder) {
+        char[] chars = new char[builder.length()];
+        builder.getChars(0, chars.length, chars, 0);
+        return chars;
+    }
+
+    /**
+     * Unicode {@code White_Space}, as tested by Rust's {@code char::is_whitespace}.
+     */
+    private static boolean isWhitespace(int c) {
+        return switch (c) {
+            case 0x09, 0x0A, 0x0B, 0x0C, 0x0D, 0x20, 0x85, 0xA0, 0x1680, 0x2028, 0x2029, 0x202F, 0x205F, 0x3000 -> true;
+            default -> c >= 0x2000 && c <= 0x200A;
+        };
+    }
+
+    /**
+     * Control, format, unassigned, private-use and surrogate code points, except tab and line breaks.
+     */
+    private static boolean isControl(int c) {
+        if (c == '\t' || c == '\n' || c == '\r') {
+            return false;
+        }
+        return switch (Character.getType(c)) {
+            case Character.CONTROL, Character.FORMAT, Character.UNASSIGNED, Character.PRIVATE_USE,
+                 Character.SURROGATE -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isPunctuation(int c) {
+        if ((c >= 33 && c <= 47) || (c >= 58 && c <= 64) || (c >= 91 && c <= 96) || (c >= 123 && c <= 126)) {
+            return true;
+        }
+        if (c < 0x80) {
+            return false;
+        }
+        return switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isChinese(int c) {
+        return (c >= 0x4E00 && c <= 0x9FFF) || (c >= 0x3400 && c <= 0x4DBF) || (c >= 0x20000 && c <= 0x2A6DF)
+            || (c >= 0x2A700 && c <= 0x2B73F) || (c >= 0x2B740 && c <= 0x2B81F) || (c >= 0x2B920 && c <= 0x2CEAF)
+            || (c >= 0xF900 && c <= 0xFAFF) || (c >= 0x2F800 && c <= 0x2FA1F);
+    }
+
+    /**
+     * Growable id list that silently drops ids beyond {@code limit}, which is how truncation works.
+     */
+    private static final class IdBuffer {
+        private int[] ids;
+        private int count;
+        private final int limit;
+
+        IdBuffer(int initialCapacity, int limit) {
+            this.ids = new int[Math.max(2, initialCapacity)];
+            this.limit = limit;
+        }
+
+        boolean isFull() {
+            return count >= limit;
+        }
+
+        int size() {
+            return count;
+        }
+
+        void add(int id) {
+            if (count < limit) {
+                force(id);
+            }
+        }
+
+        void force(int id) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            ids[count++] = id;
+        }
+
+        void truncate(int size) {
+            count = size;
+        }
+
+        int[] toArray() {
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        }
+    }
+
+    /**
+     * Character trie over the vocabulary with two roots (word-initial pieces and "##" continuations).
+     * Edges live in an open-addressing table keyed by (node, char), so lookups do not allocate.
+     */
+    private static final class CharTrie {
+        private long[] edgeKeys;
+        private int[] edgeTargets;
+        private int edgeCount;
+        private int[] tokenIds;
+        private int nodeCount = 2;
+
+        CharTrie(int expectedNodes) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedNodes * 2 - 1)) << 1;
+            edgeKeys = new long[capacity];
+            Arrays.fill(edgeKeys, -1L);
+            edgeTargets = new int[capacity];
+            tokenIds = new int[Math.max(16, expectedNodes)];
+            Arrays.fill(tokenIds, -1);
+        }
+
+        void insert(int root, String token, int from, int id) {
+            int node = root;
+            for (int i = from; i < token.length(); i++) {
+                int child = child(node, token.charAt(i));
+                if (child < 0) {
+                    child = addNode();
+                    putEdge(node, token.charAt(i), child);
+                }
+                node = child;
+            }
+            if (tokenIds[node] < 0) {
+                tokenIds[node] = id;
+            }
+        }
+
+        /**
+         * @return {@code (endPosition << 32) | tokenId} of the longest vocabulary piece starting at
+         *         {@code start}, or -1 when none matches
+         */
+        long longestMatch(int root, char[] chars, int start, int end) {
+            int node = root;
+            long best = -1L;
+            for (int i = start; i < end; i++) {
+                node = child(node, chars[i]);
+                if (node < 0) {
+                    break;
+                }
+                if (tokenIds[node] >= 0) {
+                    best = ((long) (i + 1) << 32) | tokenIds[node];
+                }
+            }
+            return best;
+        }
+
+        private int child(int node, char c) {
+            long key = edgeKey(node, c);
+            int mask = edgeKeys.length - 1;
+            for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+                long existing = edgeKeys[slot];
+                if (existing == key) {
+                    return edgeTargets[slot];
+                }
+                if (existing == -1L) {
+                    return -1;
+                }
+            }
+        }
+
+        private void putEdge(int node, char c, int target) {
+            if ((edgeCount + 1) * 2 > edgeKeys.length) {
+                rehash();
+            }
+            long key = edgeKey(node, c);
+            int mask = edgeKeys.length - 1;
+            int slot = mix(key) & mask;
+            while (edgeKeys[slot] != -1L) {
+                slot = (slot + 1) & mask;
+            }
+            edgeKeys[slot] = key;
+            edgeTargets[slot] = target;
+            edgeCount++;
+        }
+
+        private int addNode() {
+            if (nodeCount == tokenIds.length) {
+                int oldLength = tokenIds.length;
+                tokenIds = Arrays.copyOf(tokenIds, oldLength * 2);
+                Arrays.fill(tokenIds, oldLength, tokenIds.length, -1);
+            }
+            return nodeCount++;
+        }
+
+        private void rehash() {
+            long[] oldKeys = edgeKeys;
+            int[] oldTargets = edgeTargets;
+            edgeKeys = new long[oldKeys.length * 2];
+            Arrays.fill(edgeKeys, -1L);
+            edgeTargets = new int[oldTargets.length * 2];
+            int mask = edgeKeys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != -1L) {
+                    int slot = mix(oldKeys[i]) & mask;
+                    while (edgeKeys[slot] != -1L) {
+                        slot = (slot + 1) & mask;
+                    }
+                    edgeKeys[slot] = oldKeys[i];
+                    edgeTargets[slot] = oldTargets[i];
+                }
+            }
+        }
+
+        private static long edgeKey(int node, char c) {
+            return ((long) node << 16) | c;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
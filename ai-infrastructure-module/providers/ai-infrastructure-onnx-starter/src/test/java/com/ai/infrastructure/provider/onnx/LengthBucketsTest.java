@@ -0,0 +1,83 @@
+package com.ai.infrastructure.provider.onnx;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LengthBucketsTest {
+
+    private record Item(int position, int length) {
+    }
+
+    private static final List<Item> ITEMS = List.of(
+        new Item(0, 12), new Item(1, 3), new Item(2, 40), new Item(3, 3),
+        new Item(4, 7), new Item(5, 12), new Item(6, 1), new Item(7, 25));
+
+    @Test
+    void restoresInputOrder() {
+        float[][] results = LengthBuckets.run(ITEMS, Item::length, 3, LengthBucketsTest::infer);
+
+        assertThat(results).hasNumberOfRows(ITEMS.size());
+        for (int i = 0; i < ITEMS.size(); i++) {
+            assertThat(results[i]).containsExactly(ITEMS.get(i).length(), i);
+        }
+    }
+
+    @Test
+    void bucketsAreSortedByLengthAndStableForTies() {
+        List<List<Item>> buckets = new ArrayList<>();
+
+        LengthBuckets.run(ITEMS, Item::length, 3, bucket -> {
+            buckets.add(bucket);
+            return infer(bucket);
+        });
+
+        // Lengths 1,3,3 | 7,12,12 | 25,40 with ties kept in input order
+        assertThat(buckets).extracting(bucket -> bucket.stream().map(Item::position).toList())
+            .containsExactly(List.of(6, 1, 3), List.of(4, 0, 5), List.of(7, 2));
+    }
+
+    @Test
+    void singleBucketWhenItFits() {
+        List<Integer> bucketSizes = new ArrayList<>();
+
+        float[][] results = LengthBuckets.run(ITEMS, Item::length, ITEMS.size(), bucket -> {
+            bucketSizes.add(bucket.size());
+            return infer(bucket);
+        });
+
+        assertThat(bucketSizes).containsExactly(ITEMS.size());
+        assertThat(results[2]).containsExactly(40, 2);
+    }
+
+    @Test
+    void propagatesInferenceFailures() {
+        assertThatThrownBy(() -> LengthBuckets.run(ITEMS, Item::length, 4, bucket -> {
+            throw new IOException("inference failed");
+        })).isInstanceOf(IOException.class).hasMessage("inference failed");
+    }
+
+    @Test
+    void rejectsAWrongNumberOfResults() {
+        assertThatThrownBy(() -> LengthBuckets.run(ITEMS, Item::length, 4, bucket -> new float[1][]))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> LengthBuckets.run(ITEMS, Item::length, 0, LengthBucketsTest::infer))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Fake inference: each item's result is {@code [length, position in the input]}.
+     */
+    private static float[][] infer(List<Item> bucket) {
+        float[][] results = new float[bucket.size()][];
+        for (int i = 0; i < bucket.size(); i++) {
+            results[i] = new float[] {bucket.get(i).length(), bucket.get(i).position()};
+        }
+        return results;
+    }
+}
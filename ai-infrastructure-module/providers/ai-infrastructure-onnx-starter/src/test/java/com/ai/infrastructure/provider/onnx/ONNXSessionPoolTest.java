@@ -0,0 +1,163 @@
+package com.ai.infrastructure.provider.onnx;
+
+import ai.onnxruntime.OrtException;
+import ai.onnxruntime.OrtSession;
+import com.ai.infrastructure.exception.AIServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ONNXSessionPoolTest {
+
+    @Test
+    void eachSessionIsUsedByOneTaskAtATime() throws Exception {
+        List<OrtSession> sessions = List.of(mock(OrtSession.class), mock(OrtSession.class), mock(OrtSession.class));
+        ONNXSessionPool pool = new ONNXSessionPool(sessions, List.of(), 5_000L, 1);
+        Set<OrtSession> busy = ConcurrentHashMap.newKeySet();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OrtSession>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(() -> pool.execute((session, buffers) -> {
+                    assertThat(busy.add(session)).as("session borrowed twice").isTrue();
+                    maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    pause(new CountDownLatch(1), 2);
+                    running.decrementAndGet();
+                    busy.remove(session);
+                    return session;
+                })));
+            }
+            for (Future<OrtSession> result : results) {
+                assertThat(sessions).contains(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(sessions.size());
+        Map<String, Object> stats = pool.getStats();
+        assertThat(stats).containsEntry("size", 3).containsEntry("inUse", 0).containsEntry("acquisitions", 64L)
+            .containsEntry("timeouts", 0L);
+        assertThat((Long) stats.get("contendedAcquisitions")).isPositive();
+    }
+
+    @Test
+    void timesOutWhenNoSessionIsFree() throws Exception {
+        ONNXSessionPool pool = new ONNXSessionPool(List.of(mock(OrtSession.class)), List.of(), 50L, 1);
+        CountDownLatch borrowed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> {
+            try {
+                pool.execute((session, buffers) -> {
+                    borrowed.countDown();
+                    pause(release, 5_000);
+                    return null;
+                });
+            } catch (OrtException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        holder.start();
+        try {
+            assertThat(borrowed.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> pool.execute((session, buffers) -> null))
+                .isInstanceOf(AIServiceException.class)
+                .hasMessageContaining("Timed out after 50ms");
+            assertThat(pool.getStats()).containsEntry("timeouts", 1L).containsEntry("inUse", 1);
+            assertThat((Long) pool.getStats().get("maxWaitMs")).isGreaterThanOrEqualTo(50L);
+        } finally {
+            release.countDown();
+            holder.join(5_000);
+        }
+        assertThat(pool.getStats()).containsEntry("inUse", 0);
+    }
+
+    @Test
+    void sessionIsReturnedWhenTheTaskFails() throws Exception {
+        OrtSession session = mock(OrtSession.class);
+        ONNXSessionPool pool = new ONNXSessionPool(List.of(session), List.of(), 50L, 1);
+
+        assertThatThrownBy(() -> pool.execute((borrowed, buffers) -> {
+            throw new OrtException("inference failed");
+        })).isInstanceOf(OrtException.class);
+
+        assertThat(pool.<OrtSession>execute((borrowed, buffers) -> borrowed)).isSameAs(session);
+        assertThat(pool.getStats()).containsEntry("inUse", 0).containsEntry("timeouts", 0L);
+    }
+
+    @Test
+    void eachSessionKeepsItsOwnInputBuffers() throws Exception {
+        ONNXSessionPool pool = new ONNXSessionPool(List.of(mock(OrtSession.class)), List.of(), 50L, 1);
+
+        LongBuffer first = pool.execute((session, buffers) -> buffers.inputIds(8));
+        LongBuffer second = pool.execute((session, buffers) -> buffers.inputIds(4));
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void inputBuffersAreDirectNativeOrderAndGrowOnDemand() {
+        ONNXSessionPool.InputBuffers buffers = new ONNXSessionPool.InputBuffers();
+
+        LongBuffer small = buffers.attentionMask(16);
+        small.put(0, 7L);
+        assertThat(small.isDirect()).isTrue();
+        assertThat(small.order()).isEqualTo(ByteOrder.nativeOrder());
+        assertThat(small.position()).isZero();
+        assertThat(small.limit()).isEqualTo(16);
+
+        assertThat(buffers.attentionMask(10)).isSameAs(small);
+        assertThat(small.limit()).isEqualTo(10);
+
+        LongBuffer grown = buffers.attentionMask(20);
+        assertThat(grown).isNotSameAs(small);
+        assertThat(grown.capacity()).isGreaterThanOrEqualTo(32);
+        assertThat(grown.limit()).isEqualTo(20);
+        assertThat(buffers.tokenTypeIds(20)).isNotSameAs(grown);
+    }
+
+    @Test
+    void closeClosesEverySession() throws Exception {
+        OrtSession first = mock(OrtSession.class);
+        OrtSession second = mock(OrtSession.class);
+
+        new ONNXSessionPool(List.of(first, second), List.of(), 50L, 1).close();
+
+        verify(first).close();
+        verify(second).close();
+    }
+
+    /**
+     * Block inside a session task, which may only throw {@link OrtException}.
+     */
+    private static void pause(CountDownLatch latch, long millis) {
+        try {
+            latch.await(millis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
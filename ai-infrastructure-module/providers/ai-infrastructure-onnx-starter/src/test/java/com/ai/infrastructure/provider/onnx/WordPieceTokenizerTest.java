@@ -0,0 +1,103 @@
+package com.ai.infrastructure.provider.onnx;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expected ids were produced by the Hugging Face {@code tokenizers} library (Rust, through the DJL 0.26
+ * binding) from the bundled bert-base-uncased {@code tokenizer.json}, encoding with special tokens and
+ * truncation at the same maximum length, without padding.
+ */
+class WordPieceTokenizerTest {
+
+    private static WordPieceTokenizer tokenizer;
+
+    @BeforeAll
+    static void loadBundledTokenizer() throws Exception {
+        tokenizer = WordPieceTokenizer.load(
+            Path.of(WordPieceTokenizerTest.class.getResource("/models/embeddings/tokenizer.json").toURI()));
+        assertThat(tokenizer).isNotNull();
+    }
+
+    static Stream<Arguments> huggingFaceEncodings() {
+        return Stream.of(
+            Arguments.of("Hello, world!", new int[] {101, 7592, 1010, 2088, 999, 102}),
+            Arguments.of("The quick brown fox jumps over the lazy dog.",
+                new int[] {101, 1996, 4248, 2829, 4419, 14523, 2058, 1996, 13971, 3899, 1012, 102}),
+            Arguments.of("unaffable", new int[] {101, 14477, 20961, 3468, 102}),
+            Arguments.of("Tokenization isn't trivial: e-mail me @ foo@bar.com (ASAP)!!!",
+                new int[] {101, 19204, 3989, 3475, 1005, 1056, 20610, 1024, 1041, 1011, 5653, 2033, 1030, 29379, 1030,
+                    3347, 1012, 4012, 1006, 17306, 2361, 1007, 999, 999, 999, 102}),
+            // Accents are stripped
+            Arguments.of("Café naïve résumé façade Ångström",
+                new int[] {101, 7668, 15743, 13746, 8508, 17076, 15687, 102}),
+            Arguments.of("ÉCOLE Über STRASSE straße", new int[] {101, 12431, 19169, 2358, 8180, 3366, 2358, 27807, 102}),
+            // İ lower-cases to i + U+0307, and the combining dot is stripped
+            Arguments.of("İstanbul", new int[] {101, 9960, 102}),
+            // Per code point, so the final sigma stays σ
+            Arguments.of("ΣΊΣΥΦΟΣ", new int[] {101, 1173, 18199, 29733, 29735, 29736, 29730, 29733, 102}),
+            Arguments.of("中文字符 and 日本語のテキスト",
+                new int[] {101, 1746, 1861, 100, 100, 1998, 1864, 1876, 1950, 1671, 30239, 30227, 30233, 30240, 102}),
+            // Format characters (zero-width space, soft hyphen, joiner, BOM) are removed, not split on
+            Arguments.of("zero\u200bwidth soft\u00adhyphen joiner\u200d\ufeffbom",
+                new int[] {101, 5717, 9148, 11927, 2232, 3730, 10536, 8458, 2368, 3693, 2121, 5092, 2213, 102}),
+            // VT, FF, FS and NEL are control characters, removed before the whitespace check
+            Arguments.of("tab\there\nnew\rline\u000bvertical\u000cfeed\u001cfs\u0085nel end",
+                new int[] {101, 21628, 2182, 2047, 2240, 16874, 7476, 7959, 2098, 10343, 11877, 2203, 102}),
+            Arguments.of("non\u00a0breaking\u2003em\u3000ideographic\u2028ls",
+                new int[] {101, 2512, 4911, 7861, 8909, 8780, 14773, 1048, 2015, 102}),
+            Arguments.of("emoji \ud83d\ude00 rocket\ud83d\ude80 done",
+                new int[] {101, 7861, 29147, 2072, 100, 100, 2589, 102}),
+            // CJK extension B is isolated like the BMP ideographs
+            Arguments.of("ext-b \ud840\udc00 cjk", new int[] {101, 4654, 2102, 1011, 1038, 100, 1039, 15992, 102}),
+            // A supplementary punctuation character splits the word
+            Arguments.of("aegean\ud800\udd00separator", new int[] {101, 27198, 100, 19802, 25879, 2953, 102}),
+            Arguments.of("private\ue000use", new int[] {101, 2797, 8557, 102}),
+            // Added tokens are matched on the raw text, case-sensitively
+            Arguments.of("hello [MASK] world [SEP] again", new int[] {101, 7592, 103, 2088, 102, 2153, 102}),
+            Arguments.of("[CLS][cls] [UNK]", new int[] {101, 101, 1031, 18856, 2015, 1033, 100, 102}),
+            Arguments.of("price: $1,234.56 – 20% off… “quoted” ‘single’ «guillemets»",
+                new int[] {101, 3976, 1024, 1002, 1015, 1010, 22018, 1012, 5179, 1516, 2322, 1003, 2125, 1529, 1523,
+                    9339, 1524, 1520, 2309, 1521, 1077, 26458, 6216, 11368, 2015, 1090, 102}),
+            Arguments.of("supercalifragilisticexpialidocious antidisestablishmentarianism",
+                new int[] {101, 3565, 9289, 10128, 29181, 24411, 4588, 10288, 19312, 21273, 10085, 6313, 3424, 10521,
+                    4355, 7875, 13602, 3672, 12199, 2964, 102}),
+            // Longer than max_input_chars_per_word (100)
+            Arguments.of("x".repeat(104), new int[] {101, 100, 102}),
+            Arguments.of("   leading and trailing   ", new int[] {101, 2877, 1998, 12542, 102}),
+            Arguments.of("", new int[] {101, 102}));
+    }
+
+    @ParameterizedTest
+    @MethodSource("huggingFaceEncodings")
+    void matchesHuggingFaceTokenForToken(String text, int[] expected) {
+        assertThat(tokenizer.encode(text, 128)).containsExactly(expected);
+    }
+
+    @Test
+    void truncatesToMaxLengthKeepingSpecialTokens() {
+        assertThat(tokenizer.encode("The quick brown fox jumps over the lazy dog.", 6))
+            .containsExactly(101, 1996, 4248, 2829, 4419, 102);
+        assertThat(tokenizer.encode("hello [MASK] world", 4)).containsExactly(101, 7592, 103, 102);
+        assertThat(tokenizer.encode("supercalifragilisticexpialidocious", 4)).containsExactly(101, 3565, 9289, 102);
+        assertThat(tokenizer.encode(null, 8)).containsExactly(101, 102);
+    }
+
+    @Test
+    void otherModelTypesAreNotLoaded(@TempDir Path directory) throws Exception {
+        Path bpe = directory.resolve("tokenizer.json");
+        Files.writeString(bpe, "{\"model\":{\"type\":\"BPE\",\"vocab\":{}}}");
+
+        assertThat(WordPieceTokenizer.load(bpe)).isNull();
+    }
+}
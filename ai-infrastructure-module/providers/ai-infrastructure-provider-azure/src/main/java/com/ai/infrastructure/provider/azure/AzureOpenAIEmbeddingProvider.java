@@ -3,6 +3,7 @@ package com.ai.infrastructure.provider.azure;
 import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.exception.AIServiceException;
 import lombok.RequiredArgsConstructor;
@@ -121,7 +122,7 @@ public class AzureOpenAIEmbeddingProvider implements EmbeddingProvider {
             embeddingDimension = embedding.size();
 
             return AIEmbeddingResponse.builder()
-                .embedding(embedding)
+                .vector(Embedding.fromList(embedding))
                 .model(azure.getEmbeddingDeploymentName())
                 .dimensions(embeddingDimension)
                 .processingTimeMs(elapsed)
@@ -172,7 +173,7 @@ public class AzureOpenAIEmbeddingProvider implements EmbeddingProvider {
                     int dimension = values != null ? values.size() : 0;
                     embeddingDimension = dimension;
                     return AIEmbeddingResponse.builder()
-                        .embedding(values)
+                        .vector(Embedding.fromList(values))
                         .model(azure.getEmbeddingDeploymentName())
                         .dimensions(dimension)
                         .processingTimeMs(elapsed)
@@ -5,6 +5,7 @@ import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
 import com.ai.infrastructure.dto.AIGenerationRequest;
 import com.ai.infrastructure.dto.AIGenerationResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.provider.AIProvider;
 import com.ai.infrastructure.provider.ProviderConfig;
@@ -186,7 +187,7 @@ public class AzureOpenAIProvider implements AIProvider {
             }
 
             return AIEmbeddingResponse.builder()
-                .embedding(embedding)
+                .vector(Embedding.fromList(embedding))
                 .model(deployment)
                 .dimensions(embedding.size())
                 .processingTimeMs(processingTime)
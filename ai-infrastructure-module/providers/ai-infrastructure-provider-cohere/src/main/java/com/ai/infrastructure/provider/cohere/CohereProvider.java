@@ -7,6 +7,7 @@ import com.ai.infrastructure.provider.ProviderConfig;
 import com.ai.infrastructure.provider.ProviderStatus;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.client.RestTemplate;
@@ -159,7 +160,7 @@ public class CohereProvider implements AIProvider {
             log.debug("Cohere embedding generation completed in {}ms", responseTime);
             
             return AIEmbeddingResponse.builder()
-                .embedding(embedding)
+                .vector(Embedding.fromList(embedding))
                 .model((String) responseBody.get("model"))
                 .dimensions(embedding.size())
                 .processingTimeMs(responseTime)
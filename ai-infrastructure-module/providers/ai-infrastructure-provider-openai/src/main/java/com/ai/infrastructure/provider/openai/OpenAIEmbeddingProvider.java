@@ -3,6 +3,7 @@ package com.ai.infrastructure.provider.openai;
 import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.theokanning.openai.embedding.EmbeddingRequest;
@@ -117,7 +118,7 @@ public class OpenAIEmbeddingProvider implements EmbeddingProvider {
                      embedding.size(), processingTime);
             
             return AIEmbeddingResponse.builder()
-                .embedding(embedding)
+                .vector(Embedding.fromList(embedding))
                 .model(request.getModel() != null ? request.getModel() : config.getOpenai().getEmbeddingModel())
                 .dimensions(embedding.size())
                 .processingTimeMs(processingTime)
@@ -152,7 +153,7 @@ public class OpenAIEmbeddingProvider implements EmbeddingProvider {
             
             List<AIEmbeddingResponse> responses = result.getData().stream()
                 .map(data -> AIEmbeddingResponse.builder()
-                    .embedding(data.getEmbedding())
+                    .vector(Embedding.fromList(data.getEmbedding()))
                       .model(config.getOpenai().getEmbeddingModel())
                     .dimensions(data.getEmbedding().size())
                     .processingTimeMs(processingTime / texts.size())
@@ -7,6 +7,7 @@ import com.ai.infrastructure.provider.ProviderConfig;
 import com.ai.infrastructure.provider.ProviderStatus;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.client.RestTemplate;
@@ -213,7 +214,7 @@ public class OpenAIProvider implements AIProvider {
             log.debug("OpenAI embedding generation completed in {}ms", responseTime);
             
             return AIEmbeddingResponse.builder()
-                .embedding(embeddingValues)
+                .vector(Embedding.fromList(embeddingValues))
                 .model((String) responseBody.get("model"))
                 .dimensions(embeddingValues.size())
                 .processingTimeMs(responseTime)
@@ -3,6 +3,7 @@ package com.ai.infrastructure.provider.rest;
 import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AIEmbeddingRequest;
 import com.ai.infrastructure.dto.AIEmbeddingResponse;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.embedding.EmbeddingProvider;
 import com.ai.infrastructure.exception.AIServiceException;
 import lombok.RequiredArgsConstructor;
@@ -187,7 +188,7 @@ public class RestEmbeddingProvider implements EmbeddingProvider {
                      embedding.size(), processingTime);
             
             return AIEmbeddingResponse.builder()
-                .embedding(embedding)
+                .vector(Embedding.fromList(embedding))
                 .model("rest:" + model())
                 .dimensions(embedding.size())
                 .processingTimeMs(processingTime)
@@ -266,7 +267,7 @@ public class RestEmbeddingProvider implements EmbeddingProvider {
                             .collect(Collectors.toList());
                         
                         responses.add(AIEmbeddingResponse.builder()
-                            .embedding(embedding)
+                            .vector(Embedding.fromList(embedding))
                             .model("rest:" + model())
                             .dimensions(embedding.size())
                             .processingTimeMs((System.currentTimeMillis() - startTime) / texts.size())
@@ -0,0 +1,62 @@
+package com.ai.infrastructure.vector.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.util.BytesRef;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Stored representation of embeddings in the Lucene index: packed little-endian float32, 4 bytes per
+ * component, read back with a single bulk copy.
+ *
+ * Indexes written before this format stored the embedding as a tokenized, comma-joined text field;
+ * {@link #read(Document)} still understands it until {@link LuceneIndexMigrator} has rewritten the
+ * documents.
+ */
+final class EmbeddingCodec {
+
+    private EmbeddingCodec() {
+    }
+
+    static byte[] encode(float[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        return buffer.array();
+    }
+
+    static float[] decode(BytesRef bytes) {
+        if (bytes.length % Float.BYTES != 0) {
+            throw new IllegalArgumentException("Stored embedding length " + bytes.length + " is not a multiple of 4");
+        }
+        float[] values = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes.bytes, bytes.offset, bytes.length)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .asFloatBuffer()
+            .get(values);
+        return values;
+    }
+
+    /**
+     * @return the stored embedding of a document, or {@code null} when it has none
+     */
+    static float[] read(Document doc) {
+        BytesRef bytes = doc.getBinaryValue(LuceneVectorDatabaseService.EMBEDDING_FIELD);
+        if (bytes != null) {
+            return decode(bytes);
+        }
+        return parseLegacy(doc.get(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD));
+    }
+
+    static float[] parseLegacy(String embeddingText) {
+        if (embeddingText == null || embeddingText.trim().isEmpty()) {
+            return null;
+        }
+        String[] parts = embeddingText.split(",");
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i].trim());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,203 @@
+package com.ai.infrastructure.vector.lucene;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.FixedBitSet;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Rewrites documents written in an older index format to the current one.
+ *
+ * Documents are identified by the {@code docFormat} field; anything without the current version is
+ * rebuilt from its stored fields, keeping ids, content, metadata and timestamps, and the old copies are
+ * expunged. Formats handled so far:
+ * <ul>
+ *   <li>embedding stored as a tokenized text field ({@code "0.12,0.34,..."}) instead of packed binary,
+ *       which roughly tripled the stored size of every vector and added a postings entry per component</li>
+ *   <li>metadata not indexed as filter fields, so filtered k-NN searches would skip the document</li>
+ * </ul>
+ *
+ * {@link LuceneVectorDatabaseService} runs it on startup unless
+ * {@code ai.vector-db.lucene.migrate-legacy-documents=false}; it can also be run offline against an
+ * index that no service has open:
+ *
+ * <pre>
+ * java -cp ... com.ai.infrastructure.vector.lucene.LuceneIndexMigrator ./data/lucene-vector-index
+ * </pre>
+ */
+@Slf4j
+public final class LuceneIndexMigrator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Query CURRENT_DOCUMENTS = new TermQuery(
+        new Term(LuceneVectorDatabaseService.FORMAT_FIELD, LuceneVectorDatabaseService.FORMAT_VERSION));
+
+    private static final Query LEGACY_DOCUMENTS = new BooleanQuery.Builder()
+        .add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST)
+        .add(CURRENT_DOCUMENTS, BooleanClause.Occur.MUST_NOT)
+        .build();
+
+    private LuceneIndexMigrator() {
+    }
+
+    /**
+     * Migrate the index at {@code indexPath}, taking the index write lock for the duration.
+     *
+     * @param indexPath index directory
+     * @return number of documents rewritten
+     */
+    public static long migrateLegacyDocuments(Path indexPath) throws IOException {
+        try (Directory directory = FSDirectory.open(indexPath);
+             StandardAnalyzer analyzer = new StandardAnalyzer();
+             IndexWriter writer = new IndexWriter(directory,
+                 new IndexWriterConfig(analyzer).setOpenMode(IndexWriterConfig.OpenMode.APPEND))) {
+            return migrateLegacyDocuments(writer);
+        }
+    }
+
+    /**
+     * Migrate legacy documents through an open writer and commit. Returns immediately when the index
+     * holds no legacy documents.
+     *
+     * @param writer writer of the index to migrate
+     * @return number of documents rewritten
+     */
+    public static long migrateLegacyDocuments(IndexWriter writer) throws IOException {
+        long migrated = 0;
+        try (DirectoryReader reader = DirectoryReader.open(writer)) {
+            int legacyCount = new IndexSearcher(reader).count(LEGACY_DOCUMENTS);
+            if (legacyCount == 0) {
+                return 0;
+            }
+            log.info("Migrating {} Lucene documents to index format {}", legacyCount,
+                LuceneVectorDatabaseService.FORMAT_VERSION);
+
+            // Point-in-time reader: the updates below do not affect what it returns
+            for (LeafReaderContext leaf : reader.leaves()) {
+                LeafReader leafReader = leaf.reader();
+                Bits liveDocs = leafReader.getLiveDocs();
+                Bits currentDocs = currentFormatDocs(leaf);
+                StoredFields storedFields = leafReader.storedFields();
+                for (int docId = 0; docId < leafReader.maxDoc(); docId++) {
+                    if (liveDocs != null && !liveDocs.get(docId)) {
+                        continue;
+                    }
+                    if (currentDocs != null && currentDocs.get(docId)) {
+                        continue;
+                    }
+                    Document legacy = storedFields.document(docId);
+                    Document migratedDoc = rebuild(legacy);
+                    if (migratedDoc == null) {
+                        continue;
+                    }
+                    String vectorId = legacy.get(LuceneVectorDatabaseService.VECTOR_ID_FIELD);
+                    writer.updateDocument(new Term(LuceneVectorDatabaseService.VECTOR_ID_FIELD, vectorId), migratedDoc);
+                    migrated++;
+                }
+            }
+        }
+
+        writer.forceMergeDeletes();
+        writer.commit();
+        log.info("Migrated {} Lucene documents to index format {}", migrated, LuceneVectorDatabaseService.FORMAT_VERSION);
+        return migrated;
+    }
+
+    /**
+     * @return docs of the leaf already in the current format, or {@code null} when there are none
+     */
+    private static Bits currentFormatDocs(LeafReaderContext leaf) throws IOException {
+        PostingsEnum postings = leaf.reader().postings(
+            new Term(LuceneVectorDatabaseService.FORMAT_FIELD, LuceneVectorDatabaseService.FORMAT_VERSION));
+        if (postings == null) {
+            return null;
+        }
+        FixedBitSet docs = new FixedBitSet(leaf.reader().maxDoc());
+        for (int doc = postings.nextDoc(); doc != DocIdSetIterator.NO_MORE_DOCS; doc = postings.nextDoc()) {
+            docs.set(doc);
+        }
+        return docs;
+    }
+
+    private static Document rebuild(Document legacy) {
+        String vectorId = legacy.get(LuceneVectorDatabaseService.VECTOR_ID_FIELD);
+        float[] vector;
+        try {
+            vector = EmbeddingCodec.read(legacy);
+        } catch (RuntimeException e) {
+            log.warn("Skipping Lucene document {} with unreadable embedding", vectorId, e);
+            return null;
+        }
+        if (vectorId == null || vector == null) {
+            log.warn("Skipping Lucene document {} without vector id or embedding", vectorId);
+            return null;
+        }
+
+        String now = String.valueOf(System.currentTimeMillis());
+        String createdAt = valueOrDefault(legacy.get("createdAt"), now);
+        String metadataJson = legacy.get("metadata");
+        return LuceneVectorDatabaseService.buildDocument(
+            vectorId,
+            legacy.get(LuceneVectorDatabaseService.ENTITY_TYPE_FIELD),
+            legacy.get(LuceneVectorDatabaseService.ENTITY_ID_FIELD),
+            valueOrDefault(legacy.get("content"), ""),
+            vector,
+            parseMetadata(vectorId, metadataJson),
+            metadataJson,
+            valueOrDefault(legacy.get("storedAt"), createdAt),
+            createdAt,
+            valueOrDefault(legacy.get("updatedAt"), createdAt)
+        );
+    }
+
+    private static Map<String, Object> parseMetadata(String vectorId, String metadataJson) {
+        if (metadataJson == null || metadataJson.trim().isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(metadataJson, new TypeReference<Map<String, Object>>() {});
+        } catch (Exception e) {
+            log.warn("Metadata of Lucene document {} is not valid JSON; it will not be filterable", vectorId);
+            return Map.of();
+        }
+    }
+
+    private static String valueOrDefault(String value, String defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: LuceneIndexMigrator <index-path>");
+            System.exit(2);
+        }
+        long migrated = migrateLegacyDocuments(Paths.get(args[0]).toAbsolutePath().normalize());
+        System.out.println("Migrated " + migrated + " documents");
+    }
+}
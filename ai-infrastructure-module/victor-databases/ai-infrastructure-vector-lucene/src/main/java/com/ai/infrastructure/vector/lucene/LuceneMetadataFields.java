@@ -0,0 +1,161 @@
+package com.ai.infrastructure.vector.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Indexes metadata values as filterable fields and translates request filters into the pre-filter
+ * query handed to {@code KnnVectorQuery}.
+ *
+ * Every metadata value is indexed as a lower-cased keyword under {@code meta.<key>}; values that parse as
+ * numbers are also indexed as a {@link DoublePoint} under {@code metaNum.<key>}. Filter semantics match the
+ * in-memory check in {@code RAGService}: scalar values match case-insensitively, collections match any
+ * element, and maps with {@code min}/{@code max} are inclusive numeric ranges.
+ */
+final class LuceneMetadataFields {
+
+    static final String KEYWORD_PREFIX = "meta.";
+    static final String NUMERIC_PREFIX = "metaNum.";
+
+    /**
+     * Longer values (free text) are not keyword-indexed; filters on them are left to the caller's post-filter
+     */
+    static final int MAX_KEYWORD_LENGTH = 1024;
+
+    private LuceneMetadataFields() {
+    }
+
+    static void index(Document doc, Map<String, Object> metadata) {
+        if (metadata == null) {
+            return;
+        }
+        metadata.forEach((key, value) -> {
+            if (key == null || value == null) {
+                return;
+            }
+            if (value instanceof Collection<?> values) {
+                values.forEach(item -> indexValue(doc, key, item));
+            } else {
+                indexValue(doc, key, value);
+            }
+        });
+    }
+
+    /**
+     * Build the k-NN pre-filter for an entity type and metadata filters.
+     *
+     * @return filter query, or {@code null} when nothing restricts the search
+     */
+    static Query toFilter(String entityType, Map<String, Object> filters) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        int clauses = 0;
+
+        if (entityType != null && !entityType.trim().isEmpty()) {
+            builder.add(new TermQuery(new Term(LuceneVectorDatabaseService.ENTITY_TYPE_FIELD, entityType)),
+                BooleanClause.Occur.FILTER);
+            clauses++;
+        }
+
+        if (filters != null) {
+            for (Map.Entry<String, Object> entry : filters.entrySet()) {
+                Query clause = toClause(entry.getKey(), entry.getValue());
+                if (clause != null) {
+                    builder.add(clause, BooleanClause.Occur.FILTER);
+                    clauses++;
+                }
+            }
+        }
+
+        return clauses == 0 ? null : builder.build();
+    }
+
+    private static Query toClause(String key, Object expected) {
+        if (key == null || expected == null) {
+            return null;
+        }
+
+        if (expected instanceof Collection<?> options) {
+            BooleanQuery.Builder anyOf = new BooleanQuery.Builder();
+            int terms = 0;
+            for (Object option : options) {
+                if (option == null) {
+                    continue;
+                }
+                String keyword = keyword(option);
+                if (keyword == null) {
+                    // Not indexed as a keyword; cannot be pushed down without dropping matches
+                    return null;
+                }
+                anyOf.add(new TermQuery(new Term(KEYWORD_PREFIX + key, keyword)), BooleanClause.Occur.SHOULD);
+                terms++;
+            }
+            return terms == 0 ? new MatchNoDocsQuery("empty filter value list for " + key) : anyOf.build();
+        }
+
+        if (expected instanceof Map<?, ?> range) {
+            Double min = parseDouble(range.get("min"));
+            Double max = parseDouble(range.get("max"));
+            return DoublePoint.newRangeQuery(NUMERIC_PREFIX + key,
+                min != null ? min : Double.NEGATIVE_INFINITY,
+                max != null ? max : Double.POSITIVE_INFINITY);
+        }
+
+        String keyword = keyword(expected);
+        return keyword != null ? new TermQuery(new Term(KEYWORD_PREFIX + key, keyword)) : null;
+    }
+
+    private static void indexValue(Document doc, String key, Object value) {
+        String keyword = keyword(value);
+        if (keyword != null) {
+            doc.add(new StringField(KEYWORD_PREFIX + key, keyword, Field.Store.NO));
+        }
+        Double number = parseDouble(value);
+        if (number != null) {
+            doc.add(new DoublePoint(NUMERIC_PREFIX + key, number));
+        }
+    }
+
+    private static String keyword(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_KEYWORD_LENGTH) {
+            return null;
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Same lenient parsing as the in-memory filter: strips everything but digits, dots and minus signs.
+     */
+    private static Double parseDouble(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        String normalized = String.valueOf(value).replaceAll("[^0-9.\\-]", "");
+        if (normalized.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(normalized);
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+    }
+}
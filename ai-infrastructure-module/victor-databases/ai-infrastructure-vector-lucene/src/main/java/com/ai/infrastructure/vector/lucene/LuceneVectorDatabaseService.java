@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -14,39 +15,53 @@ import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
 import org.apache.lucene.document.KnnVectorField;
+import org.apache.lucene.document.StoredField;
 import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
-import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiBits;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.index.VectorSimilarityFunction;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.KnnVectorQuery;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.BooleanClause;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.Lock;
 import org.apache.lucene.store.LockObtainFailedException;
+import org.apache.lucene.util.Bits;
 import org.springframework.beans.factory.annotation.Value;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Lucene Vector Database Service
@@ -60,6 +75,23 @@ import java.util.stream.Collectors;
  * making it swappable with production vector databases (Pinecone, Qdrant, etc.) that also handle
  * similarity internally.
  * 
+ * Searches use near-real-time (NRT) readers from a {@link SearcherManager} over the shared
+ * {@link IndexWriter}. Every write, or every batch, is committed before it returns
+ * ({@code ai.vector-db.lucene.commit-on-write=true}, the default). With {@code commit-on-write=false}
+ * commits are grouped instead: every {@code commit-interval-ms} and whenever
+ * {@code commit-max-pending-writes} uncommitted writes accumulate, so a crash can lose the writes since
+ * the last group commit. The searcher is refreshed every {@code refresh-interval-ms}; with
+ * {@code wait-for-visibility=true} (the default) a write also blocks until a refreshed searcher covers
+ * it, and writers arriving within {@code min-refresh-interval-ms} of each other share one reopen.
+ * High-volume ingest can turn waiting off and call {@link #awaitVisibility()} or {@link #commit()}
+ * explicitly. Refreshes and group commits of every open index run on one shared pair of daemon threads.
+ * 
+ * With {@code ai.vector-db.lucene.index-per-entity-type=true} every entity type gets its own index
+ * (writer, searcher manager and commit schedule) under {@code <index-path>/entity-types}. Writes and
+ * type-scoped reads touch only that index, clearing a type drops its segments outright, and searches
+ * spanning types query every index in parallel and merge the hits by score. Lookups by vector id alone
+ * are routed through an in-memory vector id to entity type map, rebuilt from the indexes on startup.
+ * 
  * @author AI Infrastructure Team
  * @version 2.0.0
  */
@@ -81,21 +113,80 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     @Value("${ai.vector-db.lucene.vector-dimension:1536}")
     private int vectorDimension;
     
-    private static final String VECTOR_FIELD = "vector";
-    private static final String VECTOR_ID_FIELD = "vectorId";
-    private static final String ENTITY_ID_FIELD = "entityId";
-    private static final String ENTITY_TYPE_FIELD = "entityType";
+    @Value("${ai.vector-db.lucene.refresh-interval-ms:1000}")
+    private long refreshIntervalMs = 1000;
+    
+    @Value("${ai.vector-db.lucene.min-refresh-interval-ms:20}")
+    private long minRefreshIntervalMs = 20;
+    
+    @Value("${ai.vector-db.lucene.commit-on-write:true}")
+    private boolean commitOnWrite = true;
+    
+    @Value("${ai.vector-db.lucene.commit-interval-ms:5000}")
+    private long commitIntervalMs = 5000;
+    
+    @Value("${ai.vector-db.lucene.commit-max-pending-writes:1000}")
+    private int commitMaxPendingWrites = 1000;
+    
+    @Value("${ai.vector-db.lucene.wait-for-visibility:true}")
+    private boolean waitForVisibility = true;
+    
+    @Value("${ai.vector-db.lucene.migrate-legacy-documents:true}")
+    private boolean migrateLegacyDocuments = true;
+    
+    @Value("${ai.vector-db.lucene.index-per-entity-type:false}")
+    private boolean indexPerEntityType = false;
+    
+    static final String VECTOR_FIELD = "vector";
+    static final String VECTOR_ID_FIELD = "vectorId";
+    static final String ENTITY_ID_FIELD = "entityId";
+    static final String ENTITY_TYPE_FIELD = "entityType";
+    static final String EMBEDDING_FIELD = "embeddingBytes";
+    static final String LEGACY_EMBEDDING_FIELD = "embedding";
+    static final String FORMAT_FIELD = "docFormat";
+    
+    /**
+     * Bumped whenever the indexed fields change; older documents are rewritten by {@link LuceneIndexMigrator}
+     */
+    static final String FORMAT_VERSION = "2";
+    
+    /**
+     * Parent directory of the per-entity-type indexes; each index directory is named
+     * {@code type-<url-encoded entity type>}
+     */
+    static final String ENTITY_TYPE_INDEX_DIR = "entity-types";
+    private static final String ENTITY_TYPE_INDEX_PREFIX = "type-";
+    
+    /**
+     * Stored fields returned with search hits; the embedding is not needed there
+     */
+    private static final Set<String> SEARCH_RESULT_FIELDS = Set.of(
+        ENTITY_ID_FIELD, VECTOR_ID_FIELD, ENTITY_TYPE_FIELD, "content", "metadata");
+    private static final Set<String> VECTOR_ID_ONLY = Set.of(VECTOR_ID_FIELD);
     
     private static final Map<Path, SharedIndex> INDEX_CACHE = new ConcurrentHashMap<>();
+    
+    /**
+     * Runs searcher refreshes and group commits for every open index
+     */
+    private static final ScheduledExecutorService MAINTENANCE = createMaintenanceExecutor();
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
 
-    private Directory directory;
-    private IndexWriter indexWriter;
-    private IndexReader indexReader;
-    private IndexSearcher indexSearcher;
     private StandardAnalyzer analyzer;
     private SharedIndex sharedIndex;
     private Path resolvedIndexPath;
+    private Path entityTypeIndexRoot;
+    
+    /**
+     * Open per-entity-type indexes, keyed by entity type; empty unless {@code index-per-entity-type} is set
+     */
+    private final Map<String, SharedIndex> entityTypeIndexes = new ConcurrentHashMap<>();
+    
+    /**
+     * Entity type of every stored vector id, so lookups by id go straight to one index; only kept
+     * when {@code index-per-entity-type} is set
+     */
+    private final Map<String, String> vectorIdTypes = new ConcurrentHashMap<>();
     
     @PostConstruct
     public void initialize() {
@@ -109,34 +200,25 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
             }
 
             analyzer = new StandardAnalyzer();
-            sharedIndex = INDEX_CACHE.compute(resolvedIndexPath, (path, existing) -> {
-                if (existing != null) {
-                    existing.retain();
-                    return existing;
-                }
-
-                try {
-                    Directory newDirectory = FSDirectory.open(path);
-                    IndexWriterConfig config = new IndexWriterConfig(analyzer);
-                    config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
-                    IndexWriter writer;
-                    try {
-                        writer = new IndexWriter(newDirectory, config);
-                    } catch (LockObtainFailedException lockException) {
-                        log.warn("Existing Lucene lock detected at {}. Attempting recovery.", path, lockException);
-                        writer = recoverFromLock(newDirectory, config, path);
+            if (indexPerEntityType) {
+                entityTypeIndexRoot = resolvedIndexPath.resolve(ENTITY_TYPE_INDEX_DIR);
+                Files.createDirectories(entityTypeIndexRoot);
+                try (Stream<Path> typeDirectories = Files.list(entityTypeIndexRoot)) {
+                    for (Path typeDirectory : typeDirectories.filter(Files::isDirectory).collect(Collectors.toList())) {
+                        String entityType = entityTypeOf(typeDirectory);
+                        // Only directories named the way this service names them, so cleanup can find them again
+                        if (entityType != null && typeDirectory.equals(entityTypeIndexPath(entityType))) {
+                            SharedIndex index = openIndex(typeDirectory);
+                            entityTypeIndexes.put(entityType, index);
+                            loadVectorIds(entityType, index);
+                        }
                     }
-                    return new SharedIndex(newDirectory, writer);
-                } catch (IOException ioException) {
-                    throw new UncheckedIOException(ioException);
                 }
-            });
-
-            directory = sharedIndex.directory;
-            indexWriter = sharedIndex.writer;
-
-            // Initialize reader and searcher
-            refreshReader();
+                log.info("Opened {} per-entity-type Lucene indexes under {}", entityTypeIndexes.size(),
+                    entityTypeIndexRoot);
+            } else {
+                sharedIndex = openIndex(resolvedIndexPath);
+            }
             
             log.info("Lucene Vector Database initialized successfully");
             
@@ -151,33 +233,15 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Closing Lucene Vector Database");
             
-            if (indexWriter != null) {
-                if (indexReader != null) {
-                    indexReader.close();
-                }
-                if (resolvedIndexPath != null) {
-                    if (INDEX_CACHE.computeIfPresent(resolvedIndexPath, (path, shared) -> {
-                        if (shared.release()) {
-                            try {
-                                shared.writer.close();
-                            } catch (IOException e) {
-                                log.warn("Error closing IndexWriter for {}", path, e);
-                            }
-                            try {
-                                shared.directory.close();
-                            } catch (IOException e) {
-                                log.warn("Error closing Directory for {}", path, e);
-                            }
-                            return null;
-                        }
-                        return shared;
-                    }) == null) {
-                        directory = null;
-                    }
-                }
-            } else if (indexReader != null) {
-                indexReader.close();
+            if (sharedIndex != null) {
+                releaseIndex(resolvedIndexPath);
+                sharedIndex = null;
             }
+            for (String entityType : entityTypeIndexes.keySet()) {
+                releaseIndex(entityTypeIndexPath(entityType));
+            }
+            entityTypeIndexes.clear();
+            vectorIdTypes.clear();
             if (analyzer != null) {
                 analyzer.close();
             }
@@ -189,18 +253,155 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         }
     }
     
+    private static ScheduledExecutorService createMaintenanceExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2, runnable -> {
+            Thread thread = new Thread(runnable, "lucene-index-maintenance-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Closed indexes cancel their periodic tasks; drop them from the queue right away
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+    
+    /**
+     * Open the index at {@code indexDirectory}, or share the instance another service already opened
+     * there, and migrate legacy documents if enabled.
+     */
+    private SharedIndex openIndex(Path indexDirectory) throws IOException {
+        SharedIndex index = INDEX_CACHE.compute(indexDirectory, (path, existing) -> {
+            if (existing != null) {
+                existing.retain();
+                return existing;
+            }
+
+            try {
+                Directory newDirectory = FSDirectory.open(path);
+                IndexWriterConfig config = new IndexWriterConfig(analyzer);
+                config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+                IndexWriter writer;
+                try {
+                    writer = new IndexWriter(newDirectory, config);
+                } catch (LockObtainFailedException lockException) {
+                    log.warn("Existing Lucene lock detected at {}. Attempting recovery.", path, lockException);
+                    writer = recoverFromLock(newDirectory, config, path);
+                }
+                return new SharedIndex(newDirectory, writer, refreshIntervalMs, minRefreshIntervalMs,
+                    commitOnWrite ? 0 : commitIntervalMs, commitOnWrite ? 0 : commitMaxPendingWrites);
+            } catch (IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+        });
+
+        if (migrateLegacyDocuments) {
+            long migrated = LuceneIndexMigrator.migrateLegacyDocuments(index.writer);
+            if (migrated > 0) {
+                index.refresh();
+            }
+        }
+        return index;
+    }
+    
+    private void releaseIndex(Path indexDirectory) {
+        INDEX_CACHE.computeIfPresent(indexDirectory, (path, shared) -> {
+            if (shared.release()) {
+                shared.close(path);
+                return null;
+            }
+            return shared;
+        });
+    }
+    
+    /**
+     * Index that writes for {@code entityType} go to, opened on first use in per-entity-type mode.
+     */
+    private SharedIndex writeIndex(String entityType) {
+        if (!indexPerEntityType) {
+            return sharedIndex;
+        }
+        if (entityType == null || entityType.isEmpty()) {
+            throw new IllegalArgumentException("Entity type is required when Lucene indexes are kept per entity type");
+        }
+        return entityTypeIndexes.computeIfAbsent(entityType, type -> {
+            try {
+                return openIndex(entityTypeIndexPath(type));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    /**
+     * Index holding the documents of {@code entityType}, or {@code null} when nothing was stored for it.
+     */
+    private SharedIndex readIndex(String entityType) {
+        if (!indexPerEntityType) {
+            return sharedIndex;
+        }
+        return entityType != null ? entityTypeIndexes.get(entityType) : null;
+    }
+    
+    /**
+     * Every open index: the shared one, or one per entity type.
+     */
+    private Collection<SharedIndex> indexes() {
+        if (!indexPerEntityType) {
+            return sharedIndex != null ? List.of(sharedIndex) : List.of();
+        }
+        return List.copyOf(entityTypeIndexes.values());
+    }
+    
+    /**
+     * Index holding {@code vectorId}, or {@code null} when it is not stored.
+     */
+    private SharedIndex indexOfVector(String vectorId) {
+        if (!indexPerEntityType) {
+            return sharedIndex;
+        }
+        return readIndex(vectorIdTypes.get(vectorId));
+    }
+    
+    private void loadVectorIds(String entityType, SharedIndex index) throws IOException {
+        withSearcher(index, searcher -> {
+            IndexReader reader = searcher.getIndexReader();
+            Bits liveDocs = MultiBits.getLiveDocs(reader);
+            for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                if (liveDocs == null || liveDocs.get(doc)) {
+                    vectorIdTypes.put(reader.document(doc, VECTOR_ID_ONLY).get(VECTOR_ID_FIELD), entityType);
+                }
+            }
+            return null;
+        });
+    }
+    
+    private Path entityTypeIndexPath(String entityType) {
+        return entityTypeIndexRoot.resolve(
+            ENTITY_TYPE_INDEX_PREFIX + URLEncoder.encode(entityType, StandardCharsets.UTF_8));
+    }
+    
+    private static String entityTypeOf(Path typeDirectory) {
+        String name = typeDirectory.getFileName().toString();
+        if (!name.startsWith(ENTITY_TYPE_INDEX_PREFIX)) {
+            return null;
+        }
+        return URLDecoder.decode(name.substring(ENTITY_TYPE_INDEX_PREFIX.length()), StandardCharsets.UTF_8);
+    }
+    
     @Override
     public String storeVector(String entityType, String entityId, String content, 
-                             List<Double> embedding, Map<String, Object> metadata) {
+                             Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Storing vector in Lucene for entity {} of type {}", entityId, entityType);
 
             String vectorId = UUID.randomUUID().toString();
             Document document = buildDocument(vectorId, entityType, entityId, content, embedding, metadata);
 
-            indexWriter.addDocument(document);
-            indexWriter.commit();
-            refreshReader();
+            SharedIndex index = writeIndex(entityType);
+            afterWrite(index, index.writer.addDocument(document));
+            if (indexPerEntityType) {
+                vectorIdTypes.put(vectorId, entityType);
+            }
 
             log.debug("Successfully stored vector in Lucene for entity {} of type {} with vectorId {}",
                 entityId, entityType, vectorId);
@@ -214,71 +415,33 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         try {
             log.debug("Searching vectors in Lucene using native k-NN for query: {}", request.getQuery());
             
             long startTime = System.currentTimeMillis();
             
-            // Convert query vector to float[] for Lucene k-NN
-            float[] queryVectorArray = new float[queryVector.size()];
-            for (int i = 0; i < queryVector.size(); i++) {
-                queryVectorArray[i] = queryVector.get(i).floatValue();
-            }
-            
             // Use Lucene 9+ native k-NN search with KnnVectorQuery
             // This provides optimized approximate nearest neighbor search
             // The vector database handles similarity calculation internally
-            int k = Math.min(request.getLimit() * 2, maxResults * 2); // Get more candidates for threshold filtering
-            KnnVectorQuery vectorQuery = new KnnVectorQuery(VECTOR_FIELD, queryVectorArray, k);
-            
-            // Apply entity type filter if specified
-            Query filterQuery = null;
-            if (request.getEntityType() != null && !request.getEntityType().trim().isEmpty()) {
-                filterQuery = new TermQuery(new Term(ENTITY_TYPE_FIELD, request.getEntityType()));
-            }
-
-            // Perform k-NN search (Lucene handles similarity internally)
-            TopDocs topDocs;
-            if (filterQuery != null) {
-                BooleanQuery.Builder boolQueryBuilder = new BooleanQuery.Builder();
-                boolQueryBuilder.add(vectorQuery, BooleanClause.Occur.MUST);
-                boolQueryBuilder.add(filterQuery, BooleanClause.Occur.FILTER);
-                topDocs = indexSearcher.search(boolQueryBuilder.build(), k);
-            } else {
-                topDocs = indexSearcher.search(vectorQuery, k);
-            }
-            
-            ScoreDoc[] hits = topDocs.scoreDocs;
+            // Entity type and metadata filters are applied inside the graph search (pre-filter), so the
+            // k hits returned are the true top k among matching documents and no over-fetch is needed
+            int k = Math.min(request.getLimit(), maxResults);
+            boolean typeScoped = request.getEntityType() != null && !request.getEntityType().trim().isEmpty();
+            // A per-entity-type index only holds its own type, so the type clause would be redundant there
+            Query filterQuery = LuceneMetadataFields.toFilter(indexPerEntityType ? null : request.getEntityType(),
+                request.getMetadataFilters());
+            Query query = new KnnVectorQuery(VECTOR_FIELD, queryVector.values(), k, filterQuery);
             
             // Process results - Lucene has already calculated similarity scores
-            List<Map<String, Object>> results = new ArrayList<>();
-            for (ScoreDoc hit : hits) {
-                Document doc = indexSearcher.doc(hit.doc);
-                
-                // Lucene's k-NN search already provides similarity scores
-                // The score from Lucene is the cosine similarity
-                // Normalize to [0, 1] range if needed (Lucene scores are typically already normalized)
-                double similarity = hit.score;
-                
-                // Apply threshold filter
-                if (similarity >= request.getThreshold()) {
-                    Map<String, Object> result = new HashMap<>();
-                    result.put("id", doc.get(ENTITY_ID_FIELD));
-                    result.put("vectorId", doc.get(VECTOR_ID_FIELD));
-                    result.put("content", doc.get("content"));
-                    result.put("entityType", doc.get(ENTITY_TYPE_FIELD));
-                    result.put("metadata", doc.get("metadata"));
-                    result.put("score", similarity);
-                    result.put("similarity", similarity);
-                    
-                    results.add(result);
-                    
-                    // Stop once we have enough results
-                    if (results.size() >= request.getLimit()) {
-                        break;
-                    }
-                }
+            List<Map<String, Object>> results;
+            if (!indexPerEntityType || typeScoped) {
+                SharedIndex index = readIndex(request.getEntityType());
+                results = index != null
+                    ? withSearcher(index, searcher -> collectResults(searcher, query, k, request))
+                    : new ArrayList<>();
+            } else {
+                results = searchAllIndexes(query, k, request);
             }
             
             long processingTime = System.currentTimeMillis() - startTime;
@@ -301,6 +464,62 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         }
     }
     
+    private List<Map<String, Object>> collectResults(IndexSearcher searcher, Query query, int k,
+                                                     AISearchRequest request) throws IOException {
+        TopDocs topDocs = searcher.search(query, k);
+        ScoreDoc[] hits = topDocs.scoreDocs;
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (ScoreDoc hit : hits) {
+            Document doc = searcher.doc(hit.doc, SEARCH_RESULT_FIELDS);
+            
+            // Lucene's k-NN search already provides similarity scores
+            // The score from Lucene is the cosine similarity
+            // Normalize to [0, 1] range if needed (Lucene scores are typically already normalized)
+            double similarity = hit.score;
+            
+            // Apply threshold filter
+            if (similarity >= request.getThreshold()) {
+                Map<String, Object> result = new HashMap<>();
+                result.put("id", doc.get(ENTITY_ID_FIELD));
+                result.put("vectorId", doc.get(VECTOR_ID_FIELD));
+                result.put("content", doc.get("content"));
+                result.put("entityType", doc.get(ENTITY_TYPE_FIELD));
+                result.put("metadata", doc.get("metadata"));
+                result.put("score", similarity);
+                result.put("similarity", similarity);
+                
+                results.add(result);
+                
+                // Stop once we have enough results
+                if (results.size() >= request.getLimit()) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Run the query against every per-entity-type index in parallel and keep the best {@code limit}
+     * hits overall. Each index contributes at most {@code k} hits above the threshold.
+     */
+    private List<Map<String, Object>> searchAllIndexes(Query query, int k, AISearchRequest request) {
+        Comparator<Map<String, Object>> bySimilarity = Comparator.comparingDouble(
+            result -> (Double) result.get("similarity"));
+        return indexes().parallelStream()
+            .flatMap(index -> {
+                try {
+                    return withSearcher(index, searcher -> collectResults(searcher, query, k, request)).stream();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .sorted(bySimilarity.reversed())
+            .limit(request.getLimit())
+            .collect(Collectors.toList());
+    }
+    
     @Override
     public boolean removeVector(String entityType, String entityId) {
         try {
@@ -308,13 +527,22 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
             
             // Delete by entityId and entityType
             Term term = new Term(ENTITY_ID_FIELD, entityId);
-            long deletedCount = indexWriter.deleteDocuments(term);
-            indexWriter.commit();
-            
-            // Refresh reader
-            refreshReader();
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
+                return false;
+            }
+            boolean removed;
+            if (indexPerEntityType) {
+                // The removed vector ids are needed to keep the id map current
+                List<String> vectorIds = withSearcher(index, searcher -> vectorIdsOf(searcher, new TermQuery(term)));
+                removed = !vectorIds.isEmpty();
+                afterWrite(index, index.writer.deleteDocuments(term));
+                vectorIds.forEach(vectorIdTypes::remove);
+            } else {
+                removed = withSearcher(index, searcher -> searcher.count(new TermQuery(term)) > 0);
+                afterWrite(index, index.writer.deleteDocuments(term));
+            }
             
-            boolean removed = deletedCount > 0;
             log.debug("Successfully removed vector from Lucene for entity {} of type {}: {}", 
                      entityId, entityType, removed);
             
@@ -331,21 +559,45 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         try {
             Map<String, Object> stats = new HashMap<>();
             
-            if (indexReader != null) {
-                stats.put("totalVectors", indexReader.numDocs());
+            if (resolvedIndexPath != null) {
+                int totalVectors = 0;
+                long pendingCommitWrites = 0;
+                Map<String, Integer> entityTypeCounts = new HashMap<>();
+                if (indexPerEntityType) {
+                    for (Map.Entry<String, SharedIndex> entry : entityTypeIndexes.entrySet()) {
+                        int numDocs = withSearcher(entry.getValue(), searcher -> searcher.getIndexReader().numDocs());
+                        entityTypeCounts.put(entry.getKey(), numDocs);
+                        totalVectors += numDocs;
+                        pendingCommitWrites += entry.getValue().pendingWrites.get();
+                    }
+                } else {
+                    totalVectors = withSearcher(sharedIndex, searcher -> {
+                        IndexReader indexReader = searcher.getIndexReader();
+                
+                        // Get entity type counts
+                        for (int i = 0; i < indexReader.numDocs(); i++) {
+                            Document doc = indexReader.document(i);
+                            String entityType = doc.get("entityType");
+                            entityTypeCounts.merge(entityType, 1, Integer::sum);
+                        }
+                        return indexReader.numDocs();
+                    });
+                    pendingCommitWrites = sharedIndex.pendingWrites.get();
+                }
+                stats.put("totalVectors", totalVectors);
                 stats.put("indexPath", indexPath);
                 stats.put("similarityThreshold", similarityThreshold);
                 stats.put("maxResults", maxResults);
-                
-                // Get entity type counts
-                Map<String, Integer> entityTypeCounts = new HashMap<>();
-                for (int i = 0; i < indexReader.numDocs(); i++) {
-                    Document doc = indexReader.document(i);
-                    String entityType = doc.get("entityType");
-                    entityTypeCounts.merge(entityType, 1, Integer::sum);
-                }
                 stats.put("entityTypeCounts", entityTypeCounts);
                 stats.put("entityTypes", entityTypeCounts.keySet());
+                stats.put("indexPerEntityType", indexPerEntityType);
+                stats.put("indexCount", indexes().size());
+                stats.put("pendingCommitWrites", pendingCommitWrites);
+                stats.put("refreshIntervalMs", refreshIntervalMs);
+                stats.put("minRefreshIntervalMs", minRefreshIntervalMs);
+                stats.put("commitOnWrite", commitOnWrite);
+                stats.put("commitIntervalMs", commitIntervalMs);
+                stats.put("waitForVisibility", waitForVisibility);
             }
             
             return stats;
@@ -360,15 +612,18 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     public long clearVectors() {
         try {
             log.debug("Clearing all vectors from Lucene");
-            if (indexWriter == null) {
+            Collection<SharedIndex> indexes = indexes();
+            if (indexes.isEmpty()) {
                 log.debug("IndexWriter not initialized; nothing to clear");
                 return 0;
             }
             
-            long countBefore = indexReader != null ? indexReader.numDocs() : 0;
-            indexWriter.deleteAll();
-            indexWriter.commit();
-            refreshReader();
+            long countBefore = 0;
+            for (SharedIndex index : indexes) {
+                countBefore += withSearcher(index, searcher -> (long) searcher.getIndexReader().numDocs());
+                afterWrite(index, index.writer.deleteAll());
+            }
+            vectorIdTypes.clear();
             
             log.debug("Successfully cleared {} vectors from Lucene", countBefore);
             return countBefore;
@@ -381,23 +636,17 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId, 
-                               String content, List<Double> embedding, Map<String, Object> metadata) {
+                               String content, Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Updating vector {} in Lucene for entity {} of type {}", vectorId, entityId, entityType);
             
             Term term = new Term(VECTOR_ID_FIELD, vectorId);
-            long deletedCount = indexWriter.deleteDocuments(term);
-
-            if (deletedCount == 0) {
-                log.warn("Vector {} not found for update", vectorId);
-                return false;
-            }
-
             Document document = buildDocument(vectorId, entityType, entityId, content, embedding, metadata);
 
-            indexWriter.addDocument(document);
-            indexWriter.commit();
-            refreshReader();
+            // Atomic delete-then-add; like the previous delete + add it also inserts an unknown vectorId
+            SharedIndex index = writeIndex(entityType);
+            afterWrite(index, index.writer.updateDocument(term, document));
+            removeFromPreviousIndexes(entityType, List.of(vectorId));
 
             log.debug("Successfully updated vector {} in Lucene", vectorId);
             return true;
@@ -408,8 +657,70 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         }
     }
 
+    /**
+     * In per-entity-type mode, record that {@code vectorIds} now belong to {@code entityType} and delete
+     * them from the index of the type they were stored under before, so a vector whose entity type changed
+     * on update does not linger in its old type's index.
+     */
+    private void removeFromPreviousIndexes(String entityType, List<String> vectorIds) throws IOException {
+        if (!indexPerEntityType) {
+            return;
+        }
+        Map<String, List<Term>> movedByType = new HashMap<>();
+        for (String vectorId : vectorIds) {
+            String previousType = vectorIdTypes.put(vectorId, entityType);
+            if (previousType != null && !previousType.equals(entityType)) {
+                movedByType.computeIfAbsent(previousType, type -> new ArrayList<>())
+                    .add(new Term(VECTOR_ID_FIELD, vectorId));
+            }
+        }
+        for (Map.Entry<String, List<Term>> moved : movedByType.entrySet()) {
+            SharedIndex index = readIndex(moved.getKey());
+            if (index != null) {
+                Term[] terms = moved.getValue().toArray(new Term[0]);
+                afterWrite(index, index.writer.deleteDocuments(terms), terms.length);
+            }
+        }
+    }
+    
+    private static List<String> vectorIdsOf(IndexSearcher searcher, Query query) throws IOException {
+        List<String> vectorIds = new ArrayList<>();
+        for (ScoreDoc hit : searcher.search(query, Integer.MAX_VALUE).scoreDocs) {
+            vectorIds.add(searcher.doc(hit.doc, VECTOR_ID_ONLY).get(VECTOR_ID_FIELD));
+        }
+        return vectorIds;
+    }
+    
+    private static Query anyOf(Term[] terms) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (Term term : terms) {
+            builder.add(new TermQuery(term), BooleanClause.Occur.SHOULD);
+        }
+        return builder.build();
+    }
+
     private Document buildDocument(String vectorId, String entityType, String entityId, String content,
-                                   List<Double> embedding, Map<String, Object> metadata) {
+                                   Embedding embedding, Map<String, Object> metadata) {
+        String metadataJson = null;
+        if (metadata != null && !metadata.isEmpty()) {
+            metadataJson = metadata.entrySet().stream()
+                .map(entry -> "\"" + entry.getKey() + "\":\"" + entry.getValue() + "\"")
+                .collect(Collectors.joining(",", "{", "}"));
+        }
+
+        String currentTime = String.valueOf(System.currentTimeMillis());
+        return buildDocument(vectorId, entityType, entityId, content, embedding.values(), metadata, metadataJson,
+            currentTime, currentTime, currentTime);
+    }
+    
+    /**
+     * Build the indexed document. The embedding is indexed once as a k-NN vector and stored once as
+     * packed little-endian floats for {@link #getVector} and friends; it is never tokenized. Metadata
+     * values are indexed as filter fields (see {@link LuceneMetadataFields}).
+     */
+    static Document buildDocument(String vectorId, String entityType, String entityId, String content,
+                                  float[] vectorArray, Map<String, Object> metadata, String metadataJson,
+                                  String storedAt, String createdAt, String updatedAt) {
         Document doc = new Document();
 
         doc.add(new StringField(VECTOR_ID_FIELD, vectorId, Field.Store.YES));
@@ -417,47 +728,44 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         doc.add(new StringField(ENTITY_TYPE_FIELD, entityType, Field.Store.YES));
         doc.add(new TextField("content", content, Field.Store.YES));
 
-        float[] vectorArray = new float[embedding.size()];
-        for (int i = 0; i < embedding.size(); i++) {
-            vectorArray[i] = embedding.get(i).floatValue();
-        }
         doc.add(new KnnVectorField(VECTOR_FIELD, vectorArray, VectorSimilarityFunction.COSINE));
+        doc.add(new StoredField(EMBEDDING_FIELD, EmbeddingCodec.encode(vectorArray)));
 
-        String embeddingText = embedding.stream()
-            .map(String::valueOf)
-            .collect(Collectors.joining(","));
-        doc.add(new TextField("embedding", embeddingText, Field.Store.YES));
-
-        if (metadata != null && !metadata.isEmpty()) {
-            String metadataJson = metadata.entrySet().stream()
-                .map(entry -> "\"" + entry.getKey() + "\":\"" + entry.getValue() + "\"")
-                .collect(Collectors.joining(",", "{", "}"));
+        if (metadataJson != null) {
             doc.add(new TextField("metadata", metadataJson, Field.Store.YES));
         }
+        LuceneMetadataFields.index(doc, metadata);
+        doc.add(new StringField(FORMAT_FIELD, FORMAT_VERSION, Field.Store.NO));
 
-        long currentTime = System.currentTimeMillis();
-        doc.add(new StringField("storedAt", String.valueOf(currentTime), Field.Store.YES));
-        doc.add(new StringField("createdAt", String.valueOf(currentTime), Field.Store.YES));
-        doc.add(new StringField("updatedAt", String.valueOf(currentTime), Field.Store.YES));
+        doc.add(new StringField("storedAt", storedAt, Field.Store.YES));
+        doc.add(new StringField("createdAt", createdAt, Field.Store.YES));
+        doc.add(new StringField("updatedAt", updatedAt, Field.Store.YES));
 
         return doc;
     }
     
+    private List<Document> buildDocuments(List<VectorRecord> vectors, List<String> vectorIds) {
+        return IntStream.range(0, vectors.size())
+            .parallel()
+            .mapToObj(i -> {
+                VectorRecord vector = vectors.get(i);
+                return buildDocument(vectorIds.get(i), vector.getEntityType(), vector.getEntityId(),
+                    vector.getContent(), vector.getVector(), vector.getMetadata());
+            })
+            .collect(Collectors.toList());
+    }
+    
     @Override
     public Optional<VectorRecord> getVector(String vectorId) {
         try {
             log.debug("Getting vector {} from Lucene", vectorId);
             
-            Term term = new Term(VECTOR_ID_FIELD, vectorId);
-            Query query = new TermQuery(term);
-
-            TopDocs topDocs = indexSearcher.search(query, 1);
-            if (topDocs.totalHits.value > 0) {
-                Document doc = indexSearcher.doc(topDocs.scoreDocs[0].doc);
-                return Optional.of(convertDocumentToVectorRecord(doc));
+            Query query = new TermQuery(new Term(VECTOR_ID_FIELD, vectorId));
+            SharedIndex index = indexOfVector(vectorId);
+            if (index == null) {
+                return Optional.empty();
             }
-            
-            return Optional.empty();
+            return withSearcher(index, searcher -> findFirst(searcher, query));
             
         } catch (Exception e) {
             log.error("Error getting vector from Lucene", e);
@@ -474,13 +782,11 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
             builder.add(new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType)), BooleanClause.Occur.MUST);
             builder.add(new TermQuery(new Term(ENTITY_ID_FIELD, entityId)), BooleanClause.Occur.MUST);
 
-            TopDocs topDocs = indexSearcher.search(builder.build(), 1);
-            if (topDocs.totalHits.value > 0) {
-                Document doc = indexSearcher.doc(topDocs.scoreDocs[0].doc);
-                return Optional.of(convertDocumentToVectorRecord(doc));
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
+                return Optional.empty();
             }
-            
-            return Optional.empty();
+            return withSearcher(index, searcher -> findFirst(searcher, builder.build()));
             
         } catch (Exception e) {
             log.error("Error getting vector by entity from Lucene", e);
@@ -489,7 +795,7 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, 
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, 
                                               int limit, double threshold) {
         AISearchRequest request = AISearchRequest.builder()
             .query("")
@@ -507,13 +813,15 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
             log.debug("Removing vector {} from Lucene", vectorId);
             
             Term term = new Term(VECTOR_ID_FIELD, vectorId);
-            long deletedCount = indexWriter.deleteDocuments(term);
-            indexWriter.commit();
-            
-            // Refresh reader
-            refreshReader();
+            SharedIndex index = indexOfVector(vectorId);
+            boolean removed = index != null && withSearcher(index, searcher -> searcher.count(new TermQuery(term)) > 0);
+            if (removed) {
+                afterWrite(index, index.writer.deleteDocuments(term));
+            }
+            if (indexPerEntityType) {
+                vectorIdTypes.remove(vectorId);
+            }
             
-            boolean removed = deletedCount > 0;
             log.debug("Successfully removed vector {} from Lucene: {}", vectorId, removed);
             
             return removed;
@@ -529,17 +837,28 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Batch storing {} vectors in Lucene", vectors.size());
             
-            List<String> vectorIds = new ArrayList<>();
+            if (vectors.isEmpty()) {
+                return List.of();
+            }
             
-            for (VectorRecord vector : vectors) {
-                String vectorId = storeVector(
-                    vector.getEntityType(),
-                    vector.getEntityId(),
-                    vector.getContent(),
-                    vector.getEmbedding(),
-                    vector.getMetadata()
-                );
-                vectorIds.add(vectorId);
+            List<String> vectorIds = new ArrayList<>(vectors.size());
+            for (int i = 0; i < vectors.size(); i++) {
+                vectorIds.add(UUID.randomUUID().toString());
+            }
+            
+            // Build documents in parallel, then hand them to each target writer in one call
+            List<Document> documents = buildDocuments(vectors, vectorIds);
+            for (Map.Entry<SharedIndex, List<Integer>> group : groupByIndex(vectors).entrySet()) {
+                SharedIndex index = group.getKey();
+                List<Document> indexDocuments = group.getValue().stream()
+                    .map(documents::get)
+                    .collect(Collectors.toList());
+                afterWrite(index, index.writer.addDocuments(indexDocuments), indexDocuments.size());
+            }
+            if (indexPerEntityType) {
+                for (int i = 0; i < vectors.size(); i++) {
+                    vectorIdTypes.put(vectorIds.get(i), vectors.get(i).getEntityType());
+                }
             }
             
             log.debug("Successfully batch stored {} vectors in Lucene", vectorIds.size());
@@ -556,20 +875,33 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Batch updating {} vectors in Lucene", vectors.size());
             
-            int updatedCount = 0;
-            
-            for (VectorRecord vector : vectors) {
-                if (updateVector(
-                    vector.getVectorId(),
-                    vector.getEntityType(),
-                    vector.getEntityId(),
-                    vector.getContent(),
-                    vector.getEmbedding(),
-                    vector.getMetadata()
-                )) {
-                    updatedCount++;
+            if (vectors.isEmpty()) {
+                return 0;
+            }
+            
+            List<String> vectorIds = vectors.stream()
+                .map(VectorRecord::getVectorId)
+                .collect(Collectors.toList());
+            List<Document> documents = buildDocuments(vectors, vectorIds);
+            
+            // Each update needs its own delete term, so updates are issued per document; none of them
+            // commits or reopens, and visibility is awaited once per index for its highest sequence number
+            for (Map.Entry<SharedIndex, List<Integer>> group : groupByIndex(vectors).entrySet()) {
+                SharedIndex index = group.getKey();
+                Term[] terms = group.getValue().stream()
+                    .map(i -> new Term(VECTOR_ID_FIELD, vectorIds.get(i)))
+                    .toArray(Term[]::new);
+                long sequenceNumber = 0;
+                for (int j = 0; j < terms.length; j++) {
+                    Document document = documents.get(group.getValue().get(j));
+                    sequenceNumber = Math.max(sequenceNumber, index.writer.updateDocument(terms[j], document));
                 }
+                afterWrite(index, sequenceNumber, terms.length);
+                // In per-entity-type mode every vector of a group has the same type
+                removeFromPreviousIndexes(vectors.get(group.getValue().get(0)).getEntityType(),
+                    group.getValue().stream().map(vectorIds::get).collect(Collectors.toList()));
             }
+            int updatedCount = documents.size();
             
             log.debug("Successfully batch updated {} vectors in Lucene", updatedCount);
             return updatedCount;
@@ -580,18 +912,48 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         }
     }
     
+    /**
+     * Positions of {@code vectors} grouped by the index they are written to, in input order.
+     */
+    private Map<SharedIndex, List<Integer>> groupByIndex(List<VectorRecord> vectors) {
+        Map<SharedIndex, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < vectors.size(); i++) {
+            groups.computeIfAbsent(writeIndex(vectors.get(i).getEntityType()), index -> new ArrayList<>()).add(i);
+        }
+        return groups;
+    }
+    
     @Override
     public int batchRemoveVectors(List<String> vectorIds) {
         try {
             log.debug("Batch removing {} vectors from Lucene", vectorIds.size());
             
-            int removedCount = 0;
+            if (vectorIds.isEmpty()) {
+                return 0;
+            }
             
+            // Ids are grouped by the index holding them; unknown ids are dropped in per-entity-type mode
+            Map<SharedIndex, List<Term>> termsByIndex = new LinkedHashMap<>();
             for (String vectorId : vectorIds) {
-                if (removeVectorById(vectorId)) {
-                    removedCount++;
+                SharedIndex index = indexOfVector(vectorId);
+                if (index != null) {
+                    termsByIndex.computeIfAbsent(index, key -> new ArrayList<>()).add(new Term(VECTOR_ID_FIELD, vectorId));
                 }
             }
+            int removedCount = 0;
+            for (Map.Entry<SharedIndex, List<Term>> group : termsByIndex.entrySet()) {
+                SharedIndex index = group.getKey();
+                Term[] terms = group.getValue().toArray(new Term[0]);
+                Query query = anyOf(terms);
+                int indexCount = withSearcher(index, searcher -> searcher.count(query));
+                if (indexCount > 0) {
+                    afterWrite(index, index.writer.deleteDocuments(terms), terms.length);
+                    removedCount += indexCount;
+                }
+            }
+            if (indexPerEntityType) {
+                vectorIds.forEach(vectorIdTypes::remove);
+            }
             
             log.debug("Successfully batch removed {} vectors from Lucene", removedCount);
             return removedCount;
@@ -609,13 +971,19 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
             
             Query query = new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType));
 
-            TopDocs topDocs = indexSearcher.search(query, Integer.MAX_VALUE);
-            List<VectorRecord> vectors = new ArrayList<>();
-            
-            for (ScoreDoc hit : topDocs.scoreDocs) {
-                Document doc = indexSearcher.doc(hit.doc);
-                vectors.add(convertDocumentToVectorRecord(doc));
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
+                return new ArrayList<>();
             }
+            List<VectorRecord> vectors = withSearcher(index, searcher -> {
+                TopDocs topDocs = searcher.search(query, Integer.MAX_VALUE);
+                List<VectorRecord> records = new ArrayList<>();
+                for (ScoreDoc hit : topDocs.scoreDocs) {
+                    Document doc = searcher.doc(hit.doc);
+                    records.add(convertDocumentToVectorRecord(doc));
+                }
+                return records;
+            });
             
             log.debug("Found {} vectors for entity type {} in Lucene", vectors.size(), entityType);
             return vectors;
@@ -631,8 +999,11 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         try {
             Query query = new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType));
 
-            TopDocs topDocs = indexSearcher.search(query, 0); // Only count, don't retrieve
-            return topDocs.totalHits.value;
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
+                return 0;
+            }
+            return withSearcher(index, searcher -> (long) searcher.count(query)); // Only count, don't retrieve
             
         } catch (Exception e) {
             log.error("Error getting vector count by entity type from Lucene", e);
@@ -643,16 +1014,16 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     @Override
     public boolean vectorExists(String entityType, String entityId) {
         try {
-            if (indexSearcher == null) {
-                log.debug("IndexSearcher not initialized; vector for entity {} of type {} does not exist", entityId, entityType);
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
+                log.debug("SearcherManager not initialized; vector for entity {} of type {} does not exist", entityId, entityType);
                 return false;
             }
             BooleanQuery.Builder builder = new BooleanQuery.Builder();
             builder.add(new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType)), BooleanClause.Occur.MUST);
             builder.add(new TermQuery(new Term(ENTITY_ID_FIELD, entityId)), BooleanClause.Occur.MUST);
 
-            TopDocs topDocs = indexSearcher.search(builder.build(), 1);
-            return topDocs.totalHits.value > 0;
+            return withSearcher(index, searcher -> searcher.count(builder.build()) > 0);
             
         } catch (Exception e) {
             log.error("Error checking if vector exists in Lucene", e);
@@ -664,17 +1035,23 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
     public long clearVectorsByEntityType(String entityType) {
         try {
             log.debug("Clearing all vectors for entity type {} from Lucene", entityType);
-            if (indexWriter == null) {
+            SharedIndex index = readIndex(entityType);
+            if (index == null) {
                 log.debug("IndexWriter not initialized; nothing to clear for entity type {}", entityType);
                 return 0;
             }
             
-            Query query = new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType));
-
-            long countBefore = indexSearcher.count(query);
-            indexWriter.deleteDocuments(new Term(ENTITY_TYPE_FIELD, entityType));
-            indexWriter.commit();
-            refreshReader();
+            long countBefore;
+            if (indexPerEntityType) {
+                // The whole index belongs to the type: drop its segments instead of marking documents deleted
+                countBefore = withSearcher(index, searcher -> (long) searcher.getIndexReader().numDocs());
+                afterWrite(index, index.writer.deleteAll());
+                vectorIdTypes.values().removeIf(entityType::equals);
+            } else {
+                Query query = new TermQuery(new Term(ENTITY_TYPE_FIELD, entityType));
+                countBefore = withSearcher(index, searcher -> (long) searcher.count(query));
+                afterWrite(index, index.writer.deleteDocuments(new Term(ENTITY_TYPE_FIELD, entityType)));
+            }
             
             log.debug("Successfully cleared {} vectors for entity type {} from Lucene", countBefore, entityType);
             return countBefore;
@@ -690,14 +1067,8 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
      */
     private VectorRecord convertDocumentToVectorRecord(Document doc) {
         try {
-            String embeddingText = doc.get("embedding");
-            List<Double> embedding = null;
-            if (embeddingText != null && !embeddingText.trim().isEmpty()) {
-                embedding = Arrays.stream(embeddingText.split(","))
-                    .map(String::trim)
-                    .map(Double::parseDouble)
-                    .collect(Collectors.toList());
-            }
+            float[] values = EmbeddingCodec.read(doc);
+            Embedding embedding = values != null ? Embedding.wrap(values) : null;
             
             Map<String, Object> metadata = new HashMap<>();
             String metadataJson = doc.get("metadata");
@@ -716,7 +1087,7 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
                 .entityType(doc.get("entityType"))
                 .entityId(doc.get("entityId"))
                 .content(doc.get("content"))
-                .embedding(embedding)
+                .vector(embedding)
                 .metadata(metadata)
                 .createdAt(parseTimestamp(doc.get("createdAt")))
                 .updatedAt(parseTimestamp(doc.get("updatedAt")))
@@ -756,30 +1127,82 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
      */
     
     /**
-     * Refresh the index reader and searcher
+     * Block until every write issued so far is visible to searches. Needed for read-after-write
+     * when {@code wait-for-visibility} is disabled.
      */
-    private void refreshReader() {
+    public void awaitVisibility() {
         try {
-            if (indexReader != null) {
-                indexReader.close();
+            for (SharedIndex index : indexes()) {
+                index.refresh();
             }
+        } catch (IOException e) {
+            log.error("Error refreshing Lucene searcher", e);
+            throw new AIServiceException("Failed to refresh Lucene searcher", e);
+        }
+    }
             
-            // Check if index exists before trying to open it
-            if (DirectoryReader.indexExists(directory)) {
-                indexReader = DirectoryReader.open(directory);
-            } else if (indexWriter != null) {
-                indexWriter.commit();
-                indexReader = DirectoryReader.open(indexWriter);
-            } else {
-                indexReader = DirectoryReader.open(directory);
+    /**
+     * Commit pending writes to disk now instead of waiting for the next group commit.
+     */
+    public void commit() {
+        try {
+            for (SharedIndex index : indexes()) {
+                index.commitPending();
             }
-            indexSearcher = new IndexSearcher(indexReader);
+        } catch (IOException e) {
+            log.error("Error committing Lucene index", e);
+            throw new AIServiceException("Failed to commit Lucene index", e);
+        }
+    }
             
-        } catch (Exception e) {
-            log.error("Error refreshing Lucene reader", e);
-            throw new AIServiceException("Failed to refresh Lucene reader", e);
+    /**
+     * Commit a write (or record it for group commit) and, when configured, wait until a refreshed
+     * searcher covers it.
+     *
+     * @param sequenceNumber sequence number returned by the {@link IndexWriter} operation
+     */
+    private void afterWrite(SharedIndex index, long sequenceNumber) throws IOException {
+        afterWrite(index, sequenceNumber, 1);
+    }
+
+    /**
+     * Commit {@code writes} operations at once (or record them for group commit) and, when configured,
+     * wait until a refreshed searcher covers the given sequence number.
+     */
+    private void afterWrite(SharedIndex index, long sequenceNumber, int writes) throws IOException {
+        if (commitOnWrite) {
+            index.commitPending();
+        } else {
+            index.recordWrites(writes);
+        }
+        if (!waitForVisibility) {
+            return;
+        }
+        try {
+            index.awaitVisible(sequenceNumber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AIServiceException("Interrupted while waiting for Lucene write visibility", e);
+        }
+    }
+    
+    private <T> T withSearcher(SharedIndex index, SearcherCallback<T> callback) throws IOException {
+        IndexSearcher searcher = index.searcherManager.acquire();
+        try {
+            return callback.apply(searcher);
+        } finally {
+            index.searcherManager.release(searcher);
         }
     }
+    
+    private Optional<VectorRecord> findFirst(IndexSearcher searcher, Query query) throws IOException {
+        TopDocs topDocs = searcher.search(query, 1);
+        if (topDocs.totalHits.value > 0) {
+            Document doc = searcher.doc(topDocs.scoreDocs[0].doc);
+            return Optional.of(convertDocumentToVectorRecord(doc));
+        }
+        return Optional.empty();
+    }
 
     private IndexWriter recoverFromLock(Directory directory, IndexWriterConfig config, Path path) {
         final long timeoutMillis = 5000L;
@@ -824,14 +1247,159 @@ public class LuceneVectorDatabaseService implements VectorDatabaseService {
         }
     }
 
+    @FunctionalInterface
+    private interface SearcherCallback<T> {
+        T apply(IndexSearcher searcher) throws IOException;
+    }
+
+    /**
+     * Writer, NRT searcher and commit scheduling shared by every service instance on the same path.
+     * Periodic refreshes, requested refreshes and group commits of all indexes run on {@link #MAINTENANCE}.
+     */
     private static class SharedIndex {
         private final Directory directory;
         private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        private final long minRefreshIntervalNanos;
+        private final int commitMaxPendingWrites;
+        private final AtomicLong pendingWrites = new AtomicLong();
         private final AtomicInteger refCount = new AtomicInteger(1);
+        private final List<ScheduledFuture<?>> scheduledTasks = new ArrayList<>();
 
-        private SharedIndex(Directory directory, IndexWriter writer) {
+        private final Object visibilityLock = new Object();
+        /** Highest writer sequence number covered by the current searcher; guarded by visibilityLock */
+        private long visibleSequenceNumber;
+        /** Whether a refresh requested by a waiting writer is queued; guarded by visibilityLock */
+        private boolean refreshRequested;
+        /** Start of the last refresh; guarded by visibilityLock */
+        private long lastRefreshNanos;
+        private volatile boolean closed;
+
+        private SharedIndex(Directory directory, IndexWriter writer, long refreshIntervalMs,
+                            long minRefreshIntervalMs, long commitIntervalMs, int commitMaxPendingWrites)
+                throws IOException {
             this.directory = directory;
             this.writer = writer;
+            this.commitMaxPendingWrites = commitMaxPendingWrites;
+            this.minRefreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(minRefreshIntervalMs, 0));
+            this.searcherManager = new SearcherManager(writer, null);
+            this.lastRefreshNanos = System.nanoTime() - minRefreshIntervalNanos;
+
+            if (refreshIntervalMs > 0) {
+                scheduledTasks.add(MAINTENANCE.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs,
+                    refreshIntervalMs, TimeUnit.MILLISECONDS));
+            }
+            if (commitIntervalMs > 0) {
+                scheduledTasks.add(MAINTENANCE.scheduleWithFixedDelay(this::commitQuietly, commitIntervalMs,
+                    commitIntervalMs, TimeUnit.MILLISECONDS));
+            }
+        }
+
+        private void recordWrites(int writes) {
+            long pending = pendingWrites.addAndGet(writes);
+            if (commitMaxPendingWrites > 0 && pending >= commitMaxPendingWrites
+                && pending - writes < commitMaxPendingWrites) {
+                MAINTENANCE.execute(this::commitQuietly);
+            }
+        }
+
+        private synchronized void commitPending() throws IOException {
+            pendingWrites.set(0);
+            if (writer.isOpen() && writer.hasUncommittedChanges()) {
+                writer.commit();
+            }
+        }
+
+        private void commitQuietly() {
+            try {
+                commitPending();
+            } catch (AlreadyClosedException e) {
+                // Closed while the commit was queued; close() commits instead
+            } catch (Exception e) {
+                log.warn("Lucene group commit failed; pending writes will be retried on the next commit", e);
+            }
+        }
+
+        /**
+         * Block until a searcher covering {@code sequenceNumber} is current. Writers arriving within
+         * {@code min-refresh-interval-ms} of the last refresh share the next one instead of each reopening.
+         */
+        private void awaitVisible(long sequenceNumber) throws InterruptedException {
+            synchronized (visibilityLock) {
+                while (visibleSequenceNumber < sequenceNumber) {
+                    if (closed) {
+                        throw new AlreadyClosedException("Lucene index closed before the write became visible");
+                    }
+                    if (!refreshRequested) {
+                        refreshRequested = true;
+                        long delayNanos = lastRefreshNanos + minRefreshIntervalNanos - System.nanoTime();
+                        MAINTENANCE.schedule(this::refreshQuietly, Math.max(delayNanos, 0), TimeUnit.NANOSECONDS);
+                    }
+                    visibilityLock.wait();
+                }
+            }
+        }
+
+        /**
+         * Reopen the searcher so it covers every write completed so far.
+         */
+        private void refresh() throws IOException {
+            synchronized (visibilityLock) {
+                // Writers waiting from here on need a newer searcher than this refresh may produce
+                refreshRequested = false;
+                lastRefreshNanos = System.nanoTime();
+            }
+            long sequenceNumber = writer.getMaxCompletedSequenceNumber();
+            boolean refreshed = false;
+            try {
+                searcherManager.maybeRefreshBlocking();
+                refreshed = true;
+            } finally {
+                // On failure waiters are still woken, so they request another refresh
+                synchronized (visibilityLock) {
+                    if (refreshed) {
+                        visibleSequenceNumber = Math.max(visibleSequenceNumber, sequenceNumber);
+                    }
+                    visibilityLock.notifyAll();
+                }
+            }
+        }
+
+        private void refreshQuietly() {
+            if (closed) {
+                return;
+            }
+            try {
+                refresh();
+            } catch (AlreadyClosedException e) {
+                // Closed while the refresh was queued
+            } catch (Exception e) {
+                log.warn("Lucene searcher refresh failed", e);
+            }
+        }
+
+        private void close(Path path) {
+            closed = true;
+            scheduledTasks.forEach(task -> task.cancel(false));
+            synchronized (visibilityLock) {
+                visibilityLock.notifyAll();
+            }
+            try {
+                searcherManager.close();
+            } catch (IOException e) {
+                log.warn("Error closing SearcherManager for {}", path, e);
+            }
+            try {
+                // IndexWriter commits pending changes on close
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Error closing IndexWriter for {}", path, e);
+            }
+            try {
+                directory.close();
+            } catch (IOException e) {
+                log.warn("Error closing Directory for {}", path, e);
+            }
         }
 
         private void retain() {
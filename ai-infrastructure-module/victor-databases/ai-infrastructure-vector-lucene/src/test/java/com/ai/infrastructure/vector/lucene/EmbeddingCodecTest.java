@@ -0,0 +1,80 @@
+package com.ai.infrastructure.vector.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.util.BytesRef;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddingCodecTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 3, 7, 385, 1537})
+    void roundTripsEveryDimension(int dimension) {
+        Random random = new Random(dimension);
+        float[] values = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            values[i] = random.nextFloat() * 2 - 1;
+        }
+
+        byte[] encoded = EmbeddingCodec.encode(values);
+
+        assertThat(encoded).hasSize(dimension * Float.BYTES);
+        assertThat(EmbeddingCodec.decode(new BytesRef(encoded))).containsExactly(values);
+    }
+
+    @Test
+    void keepsSpecialValuesBitForBit() {
+        float[] values = {-0f, Float.MIN_VALUE, Float.MAX_VALUE, Float.NEGATIVE_INFINITY, Float.NaN};
+
+        float[] decoded = EmbeddingCodec.decode(new BytesRef(EmbeddingCodec.encode(values)));
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(Float.floatToRawIntBits(decoded[i])).isEqualTo(Float.floatToRawIntBits(values[i]));
+        }
+    }
+
+    @Test
+    void writesLittleEndianFloat32() {
+        // 1.0f is 0x3F800000 and -2.5f is 0xC0200000
+        assertThat(EmbeddingCodec.encode(new float[] {1f, -2.5f}))
+            .containsExactly(0x00, 0x00, 0x80, 0x3F, 0x00, 0x00, 0x20, 0xC0);
+    }
+
+    @Test
+    void decodesASliceOfALargerBuffer() {
+        byte[] encoded = EmbeddingCodec.encode(new float[] {0.5f, 0.25f, -4f});
+        byte[] padded = new byte[encoded.length + 5];
+        System.arraycopy(encoded, 0, padded, 3, encoded.length);
+
+        assertThat(EmbeddingCodec.decode(new BytesRef(padded, 3, encoded.length)))
+            .containsExactly(0.5f, 0.25f, -4f);
+    }
+
+    @Test
+    void rejectsLengthsThatAreNotWholeFloats() {
+        assertThatThrownBy(() -> EmbeddingCodec.decode(new BytesRef(new byte[7])))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsThePackedFieldBeforeTheLegacyText() {
+        Document current = new Document();
+        current.add(new StoredField(LuceneVectorDatabaseService.EMBEDDING_FIELD, EmbeddingCodec.encode(new float[] {1f, 2f})));
+        current.add(new TextField(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD, "9.0,9.0", Field.Store.YES));
+        Document legacy = new Document();
+        legacy.add(new TextField(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD, "0.125, -1.5,2.0E-5", Field.Store.YES));
+
+        assertThat(EmbeddingCodec.read(current)).containsExactly(1f, 2f);
+        assertThat(EmbeddingCodec.read(legacy)).containsExactly(0.125f, -1.5f, 2.0E-5f);
+        assertThat(EmbeddingCodec.read(new Document())).isNull();
+    }
+}
@@ -0,0 +1,211 @@
+package com.ai.infrastructure.vector.lucene;
+
+import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnVectorField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnVectorQuery;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuceneIndexMigratorTest {
+
+    /**
+     * Index written by the service before the packed embedding format (Lucene 9.10, three segments):
+     * product p1 [0.6, 0.8, 0.0] with metadata category=Books and price=12, product p2 [0.0, 0.6, 0.8]
+     * without metadata, and article a1 [1.0, 0.0, 0.0] with category=News.
+     */
+    private static final String LEGACY_INDEX = "/legacy-index/format-1.zip";
+    private static final String LEGACY_P1 = "73e8eb28-a8ef-416e-bff3-67853ce4b95b";
+    private static final String LEGACY_P2 = "ae773554-2e8c-4941-99ba-d85dc12e8aff";
+    private static final String LEGACY_A1 = "9adb5104-927e-49e8-b2df-5e10b3f7ef1a";
+
+    @TempDir
+    Path indexPath;
+
+    @Test
+    void rewritesTokenizedEmbeddingsAndKeepsStoredFields() throws IOException {
+        writeIndex(
+            legacyDocument("v1", "product", "p1", "0.6,0.8,0.0", "{\"category\":\"Books\",\"price\":\"12\"}", "1000"),
+            legacyDocument("v2", "product", "p2", "0.0,0.6,0.8", null, "2000"),
+            LuceneVectorDatabaseService.buildDocument("v3", "product", "p3", "current", new float[] {1f, 0f, 0f},
+                Map.of(), null, "3000", "3000", "3000"));
+
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isEqualTo(2);
+
+        try (Directory directory = FSDirectory.open(indexPath);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            assertThat(reader.numDocs()).isEqualTo(3);
+            assertThat(searcher.count(new TermQuery(new Term(LuceneVectorDatabaseService.FORMAT_FIELD,
+                LuceneVectorDatabaseService.FORMAT_VERSION)))).isEqualTo(3);
+
+            Document migrated = storedDocument(searcher, "v1");
+            assertThat(migrated.get(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD)).isNull();
+            assertThat(EmbeddingCodec.read(migrated)).containsExactly(0.6f, 0.8f, 0f);
+            assertThat(migrated.get("content")).isEqualTo("content p1");
+            assertThat(migrated.get("metadata")).isEqualTo("{\"category\":\"Books\",\"price\":\"12\"}");
+            assertThat(migrated.get("createdAt")).isEqualTo("1000");
+            assertThat(migrated.get("updatedAt")).isEqualTo("1000");
+            assertThat(storedDocument(searcher, "v3").get("content")).isEqualTo("current");
+
+            assertThat(searcher.count(LuceneMetadataFields.toFilter("product", Map.of("category", "books"))))
+                .isEqualTo(1);
+            ScoreDoc[] hits = searcher.search(new KnnVectorQuery(LuceneVectorDatabaseService.VECTOR_FIELD,
+                new float[] {0f, 0.6f, 0.8f}, 1), 1).scoreDocs;
+            assertThat(storedDocumentId(searcher, hits[0].doc)).isEqualTo("v2");
+        }
+
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isZero();
+    }
+
+    @Test
+    void serviceMigratesLegacyIndexOnStartup() throws IOException {
+        writeIndex(legacyDocument("v1", "product", "p1", "0.6,0.8,0.0", null, "1000"));
+
+        LuceneVectorDatabaseService service = new LuceneVectorDatabaseService(new AIProviderConfig());
+        ReflectionTestUtils.setField(service, "indexPath", indexPath.toString());
+        ReflectionTestUtils.setField(service, "maxResults", 100);
+        service.initialize();
+        try {
+            Optional<VectorRecord> vector = service.getVector("v1");
+
+            assertThat(vector).isPresent();
+            assertThat(vector.get().getVector().values()).containsExactly(0.6f, 0.8f, 0f);
+            assertThat(service.getVectorCountByEntityType("product")).isEqualTo(1);
+        } finally {
+            service.cleanup();
+        }
+
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isZero();
+    }
+
+    @Test
+    void migratesAnIndexWrittenByThePreviousFormat() throws IOException {
+        unzipLegacyIndex();
+
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isEqualTo(3);
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isZero();
+
+        try (Directory directory = FSDirectory.open(indexPath);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            IndexSearcher searcher = new IndexSearcher(reader);
+            assertThat(reader.numDocs()).isEqualTo(3);
+            Document p1 = storedDocument(searcher, LEGACY_P1);
+            assertThat(p1.get(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD)).isNull();
+            assertThat(EmbeddingCodec.read(p1)).containsExactly(0.6f, 0.8f, 0f);
+            assertThat(p1.get("content")).isEqualTo("Paperback novel");
+            assertThat(EmbeddingCodec.read(storedDocument(searcher, LEGACY_A1))).containsExactly(1f, 0f, 0f);
+        }
+    }
+
+    @Test
+    void serviceServesAnIndexWrittenByThePreviousFormat() throws IOException {
+        unzipLegacyIndex();
+
+        LuceneVectorDatabaseService service = new LuceneVectorDatabaseService(new AIProviderConfig());
+        ReflectionTestUtils.setField(service, "indexPath", indexPath.toString());
+        ReflectionTestUtils.setField(service, "maxResults", 100);
+        service.initialize();
+        try {
+            assertThat(service.getVector(LEGACY_P2)).get()
+                .satisfies(vector -> assertThat(vector.getVector().values()).containsExactly(0f, 0.6f, 0.8f))
+                .satisfies(vector -> assertThat(vector.getEntityId()).isEqualTo("p2"));
+            assertThat(service.getVectorByEntity("product", "p1")).get()
+                .satisfies(vector -> assertThat(vector.getVectorId()).isEqualTo(LEGACY_P1))
+                .satisfies(vector -> assertThat(vector.getMetadata()).containsEntry("category", "Books"));
+            assertThat(service.getVectorCountByEntityType("product")).isEqualTo(2);
+            assertThat(service.getVectorCountByEntityType("article")).isEqualTo(1);
+
+            assertThat(service.search(Embedding.wrap(new float[] {0f, 0.6f, 0.8f}),
+                LuceneVectorDatabaseServiceTest.request("product", 1, null)).getResults())
+                .extracting(result -> result.get("id")).containsExactly("p2");
+            assertThat(service.search(Embedding.wrap(new float[] {0f, 0.6f, 0.8f}),
+                LuceneVectorDatabaseServiceTest.request("product", 10, Map.of("category", "books"))).getResults())
+                .extracting(result -> result.get("id")).containsExactly("p1");
+            assertThat(service.search(Embedding.wrap(new float[] {0f, 0.6f, 0.8f}),
+                LuceneVectorDatabaseServiceTest.request(null, 10, Map.of("price", Map.of("min", 10, "max", 20))))
+                .getResults())
+                .extracting(result -> result.get("id")).containsExactly("p1");
+        } finally {
+            service.cleanup();
+        }
+
+        assertThat(LuceneIndexMigrator.migrateLegacyDocuments(indexPath)).isZero();
+    }
+
+    private void unzipLegacyIndex() throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(LuceneIndexMigratorTest.class.getResourceAsStream(LEGACY_INDEX))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                Files.copy(zip, indexPath.resolve(entry.getName()));
+            }
+        }
+    }
+
+    /**
+     * Document as written before the packed embedding format: embedding as tokenized comma-joined text,
+     * no format marker and no metadata filter fields.
+     */
+    private static Document legacyDocument(String vectorId, String entityType, String entityId, String embedding,
+                                           String metadataJson, String timestamp) {
+        Document doc = new Document();
+        doc.add(new StringField(LuceneVectorDatabaseService.VECTOR_ID_FIELD, vectorId, Field.Store.YES));
+        doc.add(new StringField(LuceneVectorDatabaseService.ENTITY_ID_FIELD, entityId, Field.Store.YES));
+        doc.add(new StringField(LuceneVectorDatabaseService.ENTITY_TYPE_FIELD, entityType, Field.Store.YES));
+        doc.add(new TextField("content", "content " + entityId, Field.Store.YES));
+        doc.add(new KnnVectorField(LuceneVectorDatabaseService.VECTOR_FIELD, EmbeddingCodec.parseLegacy(embedding),
+            VectorSimilarityFunction.COSINE));
+        doc.add(new TextField(LuceneVectorDatabaseService.LEGACY_EMBEDDING_FIELD, embedding, Field.Store.YES));
+        if (metadataJson != null) {
+            doc.add(new TextField("metadata", metadataJson, Field.Store.YES));
+        }
+        doc.add(new StringField("storedAt", timestamp, Field.Store.YES));
+        doc.add(new StringField("createdAt", timestamp, Field.Store.YES));
+        doc.add(new StringField("updatedAt", timestamp, Field.Store.YES));
+        return doc;
+    }
+
+    private void writeIndex(Document... documents) throws IOException {
+        try (Directory directory = FSDirectory.open(indexPath);
+             IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            writer.addDocuments(List.of(documents));
+        }
+    }
+
+    private static Document storedDocument(IndexSearcher searcher, String vectorId) throws IOException {
+        ScoreDoc[] hits = searcher.search(new TermQuery(new Term(LuceneVectorDatabaseService.VECTOR_ID_FIELD, vectorId)), 1)
+            .scoreDocs;
+        assertThat(hits).hasSize(1);
+        return searcher.storedFields().document(hits[0].doc);
+    }
+
+    private static String storedDocumentId(IndexSearcher searcher, int doc) throws IOException {
+        return searcher.storedFields().document(doc).get(LuceneVectorDatabaseService.VECTOR_ID_FIELD);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ai.infrastructure.vector.lucene;
+
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuceneMetadataFieldsTest {
+
+    @Test
+    void noTypeAndNoFiltersMeansNoFilter() {
+        assertThat(LuceneMetadataFields.toFilter(null, null)).isNull();
+        assertThat(LuceneMetadataFields.toFilter(" ", Map.of())).isNull();
+    }
+
+    @Test
+    void rangesAreAnsweredFromTheNumericPoints() throws IOException {
+        Document pointOnly = new Document();
+        pointOnly.add(new DoublePoint(LuceneMetadataFields.NUMERIC_PREFIX + "price", 12.5));
+
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("price", Map.of("min", 10, "max", 20))),
+            List.of(pointOnly))).isEqualTo(1);
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("price", Map.of("min", 13))),
+            List.of(pointOnly))).isZero();
+    }
+
+    @Test
+    void scalarsMatchCaseInsensitivelyAndListsMatchAnyElement() throws IOException {
+        List<Document> documents = List.of(
+            document(Map.of("category", "Books", "tags", List.of("new", "Sale"))),
+            document(Map.of("category", "toys", "tags", List.of("new"))),
+            document(Map.of("category", "garden")));
+
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("category", "BOOKS")), documents)).isEqualTo(1);
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("category", List.of("books", "toys"))),
+            documents)).isEqualTo(2);
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("tags", "sale")), documents)).isEqualTo(1);
+        assertThat(count(LuceneMetadataFields.toFilter(null, Map.of("category", List.of())), documents)).isZero();
+    }
+
+    private static Document document(Map<String, Object> metadata) {
+        Document document = new Document();
+        LuceneMetadataFields.index(document, metadata);
+        return document;
+    }
+
+    private static int count(Query filter, List<Document> documents) throws IOException {
+        try (Directory directory = new ByteBuffersDirectory()) {
+            try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+                writer.addDocuments(documents);
+            }
+            try (DirectoryReader reader = DirectoryReader.open(directory)) {
+                return new IndexSearcher(reader).count(filter);
+            }
+        }
+    }
+}
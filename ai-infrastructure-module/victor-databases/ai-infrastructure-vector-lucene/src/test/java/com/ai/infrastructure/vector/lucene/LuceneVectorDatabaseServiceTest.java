@@ -0,0 +1,300 @@
+package com.ai.infrastructure.vector.lucene;
+
+import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.dto.AISearchRequest;
+import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LuceneVectorDatabaseServiceTest {
+
+    @TempDir
+    Path indexPath;
+
+    private final List<LuceneVectorDatabaseService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        services.forEach(LuceneVectorDatabaseService::cleanup);
+    }
+
+    @Test
+    void writesAreSearchableAsSoonAsTheyReturn() {
+        LuceneVectorDatabaseService service = open(Map.of("refreshIntervalMs", 60_000L));
+
+        String vectorId = service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+
+        assertThat(service.getVector(vectorId)).isPresent();
+        assertThat(service.searchByEntityType(vector(1f, 0f, 0f), "product", 10, 0.5).getResults())
+            .extracting(result -> result.get("vectorId"))
+            .containsExactly(vectorId);
+    }
+
+    @Test
+    void concurrentWritersAllSeeTheirOwnWrites() throws Exception {
+        LuceneVectorDatabaseService service = open(Map.of("refreshIntervalMs", 60_000L));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> visible = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String entityId = "p" + i;
+                visible.add(executor.submit(() -> {
+                    String vectorId = service.storeVector("product", entityId, "content", vector(1f, 1f, 0f), Map.of());
+                    return service.getVector(vectorId).isPresent();
+                }));
+            }
+            for (Future<Boolean> future : visible) {
+                assertThat(future.get()).isTrue();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(service.getVectorCountByEntityType("product")).isEqualTo(64);
+    }
+
+    @Test
+    void commitOnWriteMakesEachWriteDurableBeforeItReturns() throws IOException {
+        LuceneVectorDatabaseService service = open(Map.of());
+
+        service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+        service.batchStoreVectors(List.of(
+            record("p2", vector(0f, 1f, 0f)),
+            record("p3", vector(0f, 0f, 1f))));
+
+        assertThat(committedDocs(indexPath)).isEqualTo(3);
+    }
+
+    @Test
+    void groupedWritesAreSearchableBeforeTheirCommitAndCommittedOnClose() throws IOException {
+        LuceneVectorDatabaseService service = open(Map.of(
+            "commitOnWrite", false,
+            "commitIntervalMs", 0L,
+            "commitMaxPendingWrites", 0));
+        service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+        service.commit();
+
+        service.storeVector("product", "p2", "content", vector(0f, 1f, 0f), Map.of());
+        service.storeVector("product", "p3", "content", vector(0f, 0f, 1f), Map.of());
+
+        assertThat(service.getVectorCountByEntityType("product")).isEqualTo(3);
+        assertThat(committedDocs(indexPath)).isEqualTo(1);
+
+        service.cleanup();
+        services.remove(service);
+
+        assertThat(committedDocs(indexPath)).isEqualTo(3);
+    }
+
+    @Test
+    void awaitVisibilityExposesWritesThatDidNotWait() {
+        LuceneVectorDatabaseService service = open(Map.of(
+            "waitForVisibility", false,
+            "refreshIntervalMs", 60_000L));
+        service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+
+        service.awaitVisibility();
+
+        assertThat(service.getVectorCountByEntityType("product")).isEqualTo(1);
+    }
+
+    @Test
+    void indexesShareTheMaintenanceThreads() {
+        LuceneVectorDatabaseService service = open(Map.of("indexPerEntityType", true));
+        for (int i = 0; i < 5; i++) {
+            service.storeVector("type" + i, "e" + i, "content", vector(1f, 0f, 0f), Map.of());
+        }
+
+        List<String> luceneThreads = Thread.getAllStackTraces().keySet().stream()
+            .map(Thread::getName)
+            .filter(name -> name.startsWith("lucene-"))
+            .toList();
+        assertThat(luceneThreads).hasSizeLessThanOrEqualTo(2).allMatch(name -> name.startsWith("lucene-index-maintenance-"));
+    }
+
+    @Test
+    void filteredSearchReturnsTheBestMatchingDocumentsEvenWhenOthersAreCloser() {
+        LuceneVectorDatabaseService service = open(Map.of());
+        List<VectorRecord> records = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            boolean book = i % 10 == 0;
+            // Toys sit right next to the query; books are further away
+            Embedding embedding = book ? vector(0.5f, 1f, i / 100f) : vector(1f, i / 100f, 0f);
+            records.add(record("p" + i, embedding, Map.of("category", book ? "Books" : "Toys")));
+        }
+        service.batchStoreVectors(records);
+
+        List<Map<String, Object>> results = service.search(vector(1f, 0f, 0f), request("product", 3,
+            Map.of("category", "books"))).getResults();
+
+        assertThat(results).extracting(result -> result.get("id")).containsExactly("p0", "p10", "p20");
+    }
+
+    @Test
+    void numericRangeFiltersMatchInclusively() {
+        LuceneVectorDatabaseService service = open(Map.of());
+        service.batchStoreVectors(List.of(
+            record("cheap", vector(1f, 0f, 0f), Map.of("price", 5)),
+            record("low", vector(1f, 0.1f, 0f), Map.of("price", 10)),
+            record("mid", vector(1f, 0.2f, 0f), Map.of("price", "$15.50")),
+            record("high", vector(1f, 0.3f, 0f), Map.of("price", 20.0)),
+            record("premium", vector(1f, 0.4f, 0f), Map.of("price", 99))));
+
+        List<Map<String, Object>> results = service.search(vector(1f, 0f, 0f), request("product", 10,
+            Map.of("price", Map.of("min", 10, "max", 20)))).getResults();
+
+        assertThat(results).extracting(result -> result.get("id")).containsExactly("low", "mid", "high");
+    }
+
+    @Test
+    void searchWithoutFiltersRanksEveryDocumentAsBefore() {
+        LuceneVectorDatabaseService service = open(Map.of());
+        service.batchStoreVectors(List.of(
+            record("far", vector(0f, 1f, 0f), Map.of("category", "toys")),
+            record("near", vector(1f, 0.1f, 0f), Map.of("category", "books")),
+            record("nearest", vector(1f, 0f, 0f), Map.of())));
+        service.storeVector("article", "other", "content", vector(1f, 0.05f, 0f), Map.of());
+
+        List<Map<String, Object>> unfiltered = service.search(vector(1f, 0f, 0f), request(null, 10, null))
+            .getResults();
+        List<Map<String, Object>> emptyFilters = service.search(vector(1f, 0f, 0f), request(null, 10, Map.of()))
+            .getResults();
+
+        assertThat(unfiltered).extracting(result -> result.get("id"))
+            .containsExactly("nearest", "other", "near", "far");
+        assertThat(emptyFilters).extracting(result -> result.get("id"))
+            .containsExactly("nearest", "other", "near", "far");
+        assertThat(service.search(vector(1f, 0f, 0f), request("product", 10, null)).getResults())
+            .extracting(result -> result.get("id"))
+            .containsExactly("nearest", "near", "far");
+    }
+
+    @Test
+    void eachEntityTypeGetsItsOwnIndexDirectory() throws IOException {
+        LuceneVectorDatabaseService service = open(Map.of("indexPerEntityType", true));
+
+        service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+        service.storeVector("blog/post", "b1", "content", vector(0f, 1f, 0f), Map.of());
+        service.storeVector("blog/post", "b2", "content", vector(0f, 0f, 1f), Map.of());
+
+        Path typeRoot = indexPath.resolve(LuceneVectorDatabaseService.ENTITY_TYPE_INDEX_DIR);
+        assertThat(committedDocs(typeRoot.resolve("type-product"))).isEqualTo(1);
+        assertThat(committedDocs(typeRoot.resolve("type-blog%2Fpost"))).isEqualTo(2);
+        try (Directory root = FSDirectory.open(indexPath)) {
+            assertThat(DirectoryReader.indexExists(root)).isFalse();
+        }
+        assertThat(service.getStatistics()).containsEntry("indexCount", 2);
+    }
+
+    @Test
+    void vectorIdLookupsFindTheirIndexAfterRestart() {
+        LuceneVectorDatabaseService first = open(Map.of("indexPerEntityType", true));
+        String product = first.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+        String article = first.storeVector("article", "a1", "content", vector(0f, 1f, 0f), Map.of());
+        String otherArticle = first.storeVector("article", "a2", "content", vector(0f, 0f, 1f), Map.of());
+        first.cleanup();
+        services.remove(first);
+
+        LuceneVectorDatabaseService service = open(Map.of("indexPerEntityType", true));
+
+        assertThat(service.getVector(product)).get().extracting(VectorRecord::getEntityType).isEqualTo("product");
+        assertThat(service.getVector(article)).get().extracting(VectorRecord::getEntityType).isEqualTo("article");
+        assertThat(service.getVector("unknown")).isEmpty();
+        assertThat(service.removeVectorById(article)).isTrue();
+        assertThat(service.removeVectorById(article)).isFalse();
+        assertThat(service.batchRemoveVectors(List.of(product, otherArticle, "unknown"))).isEqualTo(2);
+        assertThat(service.getVectorCountByEntityType("product")).isZero();
+        assertThat(service.getVectorCountByEntityType("article")).isZero();
+    }
+
+    @Test
+    void updateThatChangesTheEntityTypeMovesTheVector() {
+        LuceneVectorDatabaseService service = open(Map.of("indexPerEntityType", true));
+        String vectorId = service.storeVector("product", "p1", "content", vector(1f, 0f, 0f), Map.of());
+
+        service.updateVector(vectorId, "article", "p1", "updated", vector(0f, 1f, 0f), Map.of());
+
+        assertThat(service.getVectorCountByEntityType("product")).isZero();
+        assertThat(service.getVectorCountByEntityType("article")).isEqualTo(1);
+        assertThat(service.getVector(vectorId)).get().extracting(VectorRecord::getContent).isEqualTo("updated");
+    }
+
+    @Test
+    void searchAcrossEntityTypesMergesTheHitsBySimilarity() {
+        LuceneVectorDatabaseService service = open(Map.of("indexPerEntityType", true));
+        String[] types = {"a", "b", "c"};
+        for (int i = 0; i < 9; i++) {
+            service.storeVector(types[i % 3], "e" + i, "content", vector(1f, i / 10f, 0f), Map.of());
+        }
+
+        List<Map<String, Object>> results = service.search(vector(1f, 0f, 0f), request(null, 4, null)).getResults();
+
+        assertThat(results).extracting(result -> result.get("id")).containsExactly("e0", "e1", "e2", "e3");
+        assertThat(results).extracting(result -> result.get("entityType")).containsExactly("a", "b", "c", "a");
+        assertThat(results).extracting(result -> (Double) result.get("similarity"))
+            .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+    private LuceneVectorDatabaseService open(Map<String, Object> settings) {
+        LuceneVectorDatabaseService service = new LuceneVectorDatabaseService(new AIProviderConfig());
+        ReflectionTestUtils.setField(service, "indexPath", indexPath.toString());
+        ReflectionTestUtils.setField(service, "maxResults", 100);
+        ReflectionTestUtils.setField(service, "vectorDimension", 3);
+        settings.forEach((field, value) -> ReflectionTestUtils.setField(service, field, value));
+        service.initialize();
+        services.add(service);
+        return service;
+    }
+
+    private static int committedDocs(Path path) throws IOException {
+        try (Directory directory = FSDirectory.open(path);
+             DirectoryReader reader = DirectoryReader.open(directory)) {
+            return reader.numDocs();
+        }
+    }
+
+    static VectorRecord record(String entityId, Embedding vector) {
+        return record(entityId, vector, Map.of());
+    }
+
+    static VectorRecord record(String entityId, Embedding vector, Map<String, Object> metadata) {
+        return VectorRecord.builder()
+            .entityType("product")
+            .entityId(entityId)
+            .content("content " + entityId)
+            .vector(vector)
+            .metadata(metadata)
+            .build();
+    }
+
+    static AISearchRequest request(String entityType, int limit, Map<String, Object> metadataFilters) {
+        return AISearchRequest.builder()
+            .query("")
+            .entityType(entityType)
+            .limit(limit)
+            .threshold(0.0)
+            .metadataFilters(metadataFilters)
+            .build();
+    }
+
+    static Embedding vector(float... values) {
+        return Embedding.wrap(values);
+    }
+}
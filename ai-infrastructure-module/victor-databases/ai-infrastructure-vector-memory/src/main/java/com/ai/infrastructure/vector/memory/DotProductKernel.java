@@ -0,0 +1,31 @@
+package com.ai.infrastructure.vector.memory;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Batched dot product over a block of row-major vectors.
+ *
+ * The SIMD implementation uses the incubating JDK Vector API and is only selected when the
+ * {@code jdk.incubator.vector} module is resolved at startup
+ * ({@code --add-modules jdk.incubator.vector}); otherwise the scalar implementation is used.
+ */
+interface DotProductKernel {
+
+    /**
+     * Compute {@code scores[r] = rows[offset + r * dimension .. offset + (r + 1) * dimension) · query}
+     * for each row, reading the rows in place with absolute gets.
+     *
+     * @param rows buffer holding row-major vectors
+     * @param offset index of the first component of the first row
+     * @param rowCount number of rows to score
+     * @param dimension vector dimension
+     * @param query query vector
+     * @param scores output, at least {@code rowCount} long
+     */
+    void dotRows(FloatBuffer rows, int offset, int rowCount, int dimension, float[] query, float[] scores);
+
+    /**
+     * @return implementation name for statistics
+     */
+    String name();
+}
@@ -0,0 +1,38 @@
+package com.ai.infrastructure.vector.memory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Selects the {@link DotProductKernel} for this JVM once per class load.
+ */
+@Slf4j
+final class DotProductKernels {
+
+    private static final DotProductKernel BEST = select();
+
+    private DotProductKernels() {
+    }
+
+    /**
+     * @return the fastest kernel available in this JVM
+     */
+    static DotProductKernel best() {
+        return BEST;
+    }
+
+    private static DotProductKernel select() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                VectorApiDotProductKernel kernel = new VectorApiDotProductKernel();
+                // Narrow species (no SIMD hardware) are slower than the unrolled scalar loop
+                if (kernel.laneCount() >= 4) {
+                    log.info("Using {} dot product kernel for in-memory vector search", kernel.name());
+                    return kernel;
+                }
+            } catch (LinkageError e) {
+                log.debug("Vector API unavailable, using scalar dot product kernel", e);
+            }
+        }
+        return new ScalarDotProductKernel();
+    }
+}
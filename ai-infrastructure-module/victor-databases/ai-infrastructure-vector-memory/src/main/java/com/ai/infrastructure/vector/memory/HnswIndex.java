@@ -0,0 +1,566 @@
+package com.ai.infrastructure.vector.memory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Hierarchical Navigable Small World (HNSW) graph for approximate cosine nearest-neighbour search.
+ *
+ * Vectors are L2-normalized on insert so similarity is a plain dot product. Inserts and deletes are
+ * incremental: deletes only tombstone the node (it keeps routing traffic through the graph) and the
+ * graph is rebuilt from the live nodes once tombstones outnumber them.
+ *
+ * Searches run concurrently under a read lock; inserts and deletes take the write lock.
+ */
+public class HnswIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int dimension;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> nodesById = new HashMap<>();
+    private final ThreadLocal<VisitedSet> visitedSets = ThreadLocal.withInitial(VisitedSet::new);
+
+    private float[][] vectors = new float[INITIAL_CAPACITY][];
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[][][] links = new int[INITIAL_CAPACITY][][];
+    private final BitSet deleted = new BitSet();
+
+    private int nodeCount;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    /**
+     * @param dimension vector dimension
+     * @param m maximum number of links per node on upper layers (layer 0 allows {@code 2 * m})
+     * @param efConstruction candidate list size used while inserting
+     */
+    public HnswIndex(int dimension, int m, int efConstruction) {
+        this(dimension, m, efConstruction, System.nanoTime());
+    }
+
+    HnswIndex(int dimension, int m, int efConstruction, long seed) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("dimension must be positive");
+        }
+        if (m < 2) {
+            throw new IllegalArgumentException("m must be at least 2");
+        }
+        this.dimension = dimension;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new SplittableRandom(seed);
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return number of live (non-deleted) vectors
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nodeCount - deletedCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace the vector stored under {@code id}.
+     *
+     * @param id external identifier
+     * @param vector vector components; copied and normalized
+     */
+    public void add(String id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            Integer existing = nodesById.remove(id);
+            if (existing != null) {
+                markDeleted(existing);
+            }
+            insert(id, normalized);
+            rebuildIfMostlyDeleted();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the vector stored under {@code id}.
+     *
+     * @param id external identifier
+     * @return {@code true} when a vector was removed
+     */
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodesById.remove(id);
+            if (node == null) {
+                return false;
+            }
+            markDeleted(node);
+            rebuildIfMostlyDeleted();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset(INITIAL_CAPACITY);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Approximate top-k search by cosine similarity.
+     *
+     * @param query query vector (need not be normalized)
+     * @param k number of results
+     * @param efSearch candidate list size; larger values trade latency for recall
+     * @return hits ordered by descending similarity
+     */
+    public List<Hit> search(float[] query, int k, int efSearch) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + query.length);
+        }
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0 || nodeCount == deletedCount) {
+                return List.of();
+            }
+            int ep = entryPoint;
+            float epScore = dot(normalized, vectors[ep]);
+            for (int level = maxLevel; level > 0; level--) {
+                long best = greedyClosest(normalized, ep, epScore, level);
+                ep = (int) best;
+                epScore = Float.intBitsToFloat((int) (best >>> 32));
+            }
+            NodeHeap results = searchLayer(normalized, new int[]{ep}, new float[]{epScore}, 1,
+                Math.max(efSearch, k), 0, true);
+            while (results.size() > k) {
+                results.poll();
+            }
+            Hit[] hits = new Hit[results.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                float score = results.topScore();
+                int node = results.poll();
+                hits[i] = new Hit(ids[node], score);
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void insert(String id, float[] vector) {
+        int node = nodeCount++;
+        ensureCapacity(nodeCount);
+        int level = randomLevel();
+        vectors[node] = vector;
+        ids[node] = id;
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[(l == 0 ? maxM0 : m) + 1];
+        }
+        nodesById.put(id, node);
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+
+        int ep = entryPoint;
+        float epScore = dot(vector, vectors[ep]);
+        for (int l = maxLevel; l > level; l--) {
+            long best = greedyClosest(vector, ep, epScore, l);
+            ep = (int) best;
+            epScore = Float.intBitsToFloat((int) (best >>> 32));
+        }
+
+        int[] entryNodes = {ep};
+        float[] entryScores = {epScore};
+        int entryCount = 1;
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            NodeHeap candidates = searchLayer(vector, entryNodes, entryScores, entryCount, efConstruction, l, false);
+            entryCount = candidates.size();
+            entryNodes = new int[entryCount];
+            entryScores = new float[entryCount];
+            for (int i = entryCount - 1; i >= 0; i--) {
+                entryScores[i] = candidates.topScore();
+                entryNodes[i] = candidates.poll();
+            }
+            int maxLinks = l == 0 ? maxM0 : m;
+            int[] selected = selectNeighbors(entryNodes, entryScores, entryCount, m);
+            int[] own = links[node][l];
+            for (int neighbour : selected) {
+                own[++own[0]] = neighbour;
+                connect(neighbour, node, l, maxLinks);
+            }
+        }
+
+        if (level > maxLevel) {
+            maxLevel = level;
+            entryPoint = node;
+        }
+    }
+
+    /**
+     * Add {@code target} to the adjacency list of {@code node}, pruning with the neighbour-selection heuristic
+     * when the list is full.
+     */
+    private void connect(int node, int target, int level, int maxLinks) {
+        int[] adjacency = links[node][level];
+        if (adjacency[0] < maxLinks) {
+            adjacency[++adjacency[0]] = target;
+            return;
+        }
+        float[] base = vectors[node];
+        int count = adjacency[0] + 1;
+        int[] candidates = new int[count];
+        float[] scores = new float[count];
+        for (int i = 0; i < count - 1; i++) {
+            candidates[i] = adjacency[i + 1];
+            scores[i] = dot(base, vectors[candidates[i]]);
+        }
+        candidates[count - 1] = target;
+        scores[count - 1] = dot(base, vectors[target]);
+        sortDescending(candidates, scores, count);
+        int[] selected = selectNeighbors(candidates, scores, count, maxLinks);
+        adjacency[0] = selected.length;
+        System.arraycopy(selected, 0, adjacency, 1, selected.length);
+    }
+
+    /**
+     * HNSW neighbour-selection heuristic (Malkov &amp; Yashunin, algorithm 4): keep a candidate only if it is closer
+     * to the base vector than to every neighbour already kept. Candidates must be sorted by descending score.
+     */
+    private int[] selectNeighbors(int[] candidates, float[] scores, int count, int limit) {
+        if (count <= limit) {
+            return Arrays.copyOf(candidates, count);
+        }
+        int[] selected = new int[limit];
+        int selectedCount = 0;
+        for (int i = 0; i < count && selectedCount < limit; i++) {
+            int candidate = candidates[i];
+            float[] candidateVector = vectors[candidate];
+            boolean keep = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (dot(candidateVector, vectors[selected[j]]) > scores[i]) {
+                    keep = false;
+                    break;
+                }
+            }
+            if (keep) {
+                selected[selectedCount++] = candidate;
+            }
+        }
+        return selectedCount == limit ? selected : Arrays.copyOf(selected, selectedCount);
+    }
+
+    /**
+     * Greedy walk on one layer.
+     *
+     * @return packed (score bits &lt;&lt; 32 | node) of the closest node found
+     */
+    private long greedyClosest(float[] query, int start, float startScore, int level) {
+        int current = start;
+        float currentScore = startScore;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int[] adjacency = links[current][level];
+            for (int i = 1; i <= adjacency[0]; i++) {
+                int neighbour = adjacency[i];
+                float score = dot(query, vectors[neighbour]);
+                if (score > currentScore) {
+                    currentScore = score;
+                    current = neighbour;
+                    improved = true;
+                }
+            }
+        }
+        return ((long) Float.floatToRawIntBits(currentScore) << 32) | (current & 0xffffffffL);
+    }
+
+    /**
+     * Best-first search on one layer.
+     *
+     * @return min-heap holding up to {@code ef} best nodes (worst on top)
+     */
+    private NodeHeap searchLayer(float[] query, int[] entryNodes, float[] entryScores, int entryCount,
+                                 int ef, int level, boolean skipDeleted) {
+        VisitedSet visited = visitedSets.get();
+        visited.reset(nodeCount);
+        NodeHeap candidates = new NodeHeap(Math.max(ef, 16), true);
+        NodeHeap results = new NodeHeap(ef + 1, false);
+
+        for (int i = 0; i < entryCount; i++) {
+            int node = entryNodes[i];
+            visited.add(node);
+            candidates.push(node, entryScores[i]);
+            if (!skipDeleted || !deleted.get(node)) {
+                results.push(node, entryScores[i]);
+            }
+        }
+        while (results.size() > ef) {
+            results.poll();
+        }
+
+        while (candidates.size() > 0) {
+            float candidateScore = candidates.topScore();
+            if (results.size() >= ef && candidateScore < results.topScore()) {
+                break;
+            }
+            int candidate = candidates.poll();
+            int[] adjacency = links[candidate][level];
+            for (int i = 1; i <= adjacency[0]; i++) {
+                int neighbour = adjacency[i];
+                if (!visited.add(neighbour)) {
+                    continue;
+                }
+                float score = dot(query, vectors[neighbour]);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(neighbour, score);
+                    if (!skipDeleted || !deleted.get(neighbour)) {
+                        results.push(neighbour, score);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    private void markDeleted(int node) {
+        if (!deleted.get(node)) {
+            deleted.set(node);
+            deletedCount++;
+        }
+    }
+
+    private void rebuildIfMostlyDeleted() {
+        if (deletedCount < 64 || deletedCount * 2 < nodeCount) {
+            return;
+        }
+        int live = nodeCount - deletedCount;
+        String[] liveIds = new String[live];
+        float[][] liveVectors = new float[live][];
+        int index = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (!deleted.get(node)) {
+                liveIds[index] = ids[node];
+                liveVectors[index] = vectors[node];
+                index++;
+            }
+        }
+        reset(Math.max(INITIAL_CAPACITY, live));
+        for (int i = 0; i < live; i++) {
+            insert(liveIds[i], liveVectors[i]);
+        }
+    }
+
+    private void reset(int capacity) {
+        nodesById.clear();
+        deleted.clear();
+        vectors = new float[capacity][];
+        ids = new String[capacity];
+        links = new int[capacity][][];
+        nodeCount = 0;
+        deletedCount = 0;
+        entryPoint = -1;
+        maxLevel = -1;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= vectors.length) {
+            return;
+        }
+        int capacity = Math.max(required, vectors.length + (vectors.length >> 1));
+        vectors = Arrays.copyOf(vectors, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private int randomLevel() {
+        double u = 1.0 - random.nextDouble();
+        return (int) (-Math.log(u) * levelMultiplier);
+    }
+
+    private static void sortDescending(int[] nodes, float[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            int node = nodes[i];
+            float score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                nodes[j + 1] = nodes[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            scores[j + 1] = score;
+        }
+    }
+
+    static float[] normalize(float[] vector) {
+        double sum = 0.0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        float[] normalized = new float[vector.length];
+        if (sum == 0.0) {
+            return normalized;
+        }
+        float inverse = (float) (1.0 / Math.sqrt(sum));
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * inverse;
+        }
+        return normalized;
+    }
+
+    static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Search hit: external id and cosine similarity.
+     */
+    public record Hit(String id, float score) {
+    }
+
+    /**
+     * Binary heap over (node, score) pairs backed by primitive arrays.
+     */
+    private static final class NodeHeap {
+
+        private final boolean maxHeap;
+        private int[] nodes;
+        private float[] scores;
+        private int size;
+
+        NodeHeap(int capacity, boolean maxHeap) {
+            this.maxHeap = maxHeap;
+            this.nodes = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        float topScore() {
+            return scores[0];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!before(score, scores[parent])) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            scores[i] = score;
+        }
+
+        int poll() {
+            int top = nodes[0];
+            int lastNode = nodes[--size];
+            float lastScore = scores[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && before(scores[right], scores[child])) {
+                    child = right;
+                }
+                if (!before(scores[child], lastScore)) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                scores[i] = scores[child];
+                i = child;
+            }
+            nodes[i] = lastNode;
+            scores[i] = lastScore;
+            return top;
+        }
+
+        private boolean before(float a, float b) {
+            return maxHeap ? a > b : a < b;
+        }
+    }
+
+    /**
+     * Generation-stamped visited set reused per thread to avoid allocating a bitmap per search.
+     */
+    private static final class VisitedSet {
+
+        private int[] marks = new int[0];
+        private int generation;
+
+        void reset(int capacity) {
+            if (marks.length < capacity) {
+                marks = new int[Math.max(capacity, marks.length + (marks.length >> 1))];
+                generation = 0;
+            }
+            generation++;
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(marks, 0);
+                generation = 1;
+            }
+        }
+
+        boolean add(int node) {
+            if (marks[node] == generation) {
+                return false;
+            }
+            marks[node] = generation;
+            return true;
+        }
+    }
+}
@@ -4,14 +4,19 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.ai.infrastructure.exception.AIServiceException;
+import com.ai.infrastructure.util.TopKSelector;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * In-Memory Vector Database Service
@@ -19,6 +24,25 @@ import java.util.stream.Collectors;
  * This service provides vector database operations using an in-memory store.
  * It's designed for testing and development environments where persistence
  * is not required.
+ *
+ * Records are partitioned by entity type. Each partition keeps its records by
+ * vectorId plus an entityId to vectorId index, so entity lookups and removals are
+ * O(1) and searches only touch the requested entity type. All maps are concurrent:
+ * reads and searches take no locks, while writes to a partition are serialized on
+ * that partition so the record map, the entity index and the HNSW graph stay
+ * consistent. An update that changes the entity type holds both partitions, so the
+ * vector stays resolvable by id throughout the move. Each (entityType, entityId) pair holds at most one vector; storing
+ * it again replaces the previous vector, and the replaced vectorId no longer
+ * resolves. Searches are scoped to one entity type; a search without an entity
+ * type returns no results.
+ * 
+ * Search is exact (brute-force) by default. Setting
+ * {@code ai.vector-db.memory.index-type=hnsw} maintains an {@link HnswIndex}
+ * per entity type for approximate top-k search on large stores. Setting
+ * {@code ai.vector-db.memory.storage=off-heap} keeps the exact search but scans
+ * a contiguous {@link VectorArena} per entity type instead of the record objects.
+ * The arena then holds the only copy of each vector: stored records drop their
+ * {@link Embedding}, and reads rebuild it from the arena.
  * 
  * @author AI Infrastructure Team
  * @version 2.0.0
@@ -29,14 +53,34 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     
     private final AIProviderConfig config;
     
-    // In-memory vector store - using vectorId as key for efficient lookups
-    private final Map<String, VectorRecord> vectorStore = new HashMap<>();
+    // Partitions keyed by entity type
+    private final Map<String, EntityPartition> partitions = new ConcurrentHashMap<>();
+    
+    // Global vectorId lookup for id-based operations; records are shared with their partition
+    private final Map<String, VectorRecord> vectorsById = new ConcurrentHashMap<>();
+    
+    @Value("${ai.vector-db.memory.index-type:flat}")
+    private String indexType = "flat";
+    
+    @Value("${ai.vector-db.memory.storage:heap}")
+    private String storage = "heap";
+    
+    @Value("${ai.vector-db.memory.hnsw.m:16}")
+    private int hnswM = 16;
+    
+    @Value("${ai.vector-db.memory.hnsw.ef-construction:200}")
+    private int hnswEfConstruction = 200;
+    
+    @Value("${ai.vector-db.memory.hnsw.ef-search:64}")
+    private int hnswEfSearch = 64;
     
     @Override
     public String storeVector(String entityType, String entityId, String content, 
-                           List<Double> embedding, Map<String, Object> metadata) {
+                           Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Storing vector in memory for entity {} of type {}", entityId, entityType);
+            Objects.requireNonNull(entityType, "entityType must not be null");
+            Objects.requireNonNull(entityId, "entityId must not be null");
             
             String vectorId = UUID.randomUUID().toString();
             LocalDateTime now = LocalDateTime.now();
@@ -46,7 +90,7 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
                 .entityType(entityType)
                 .entityId(entityId)
                 .content(content)
-                .embedding(embedding)
+                .vector(embedding)
                 .metadata(metadata != null ? metadata : new HashMap<>())
                 .aiAnalysis(null)
                 .createdAt(now)
@@ -57,7 +101,10 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
                 .version(1)
                 .build();
             
-            vectorStore.put(vectorId, vectorRecord);
+            writePartition(entityType, partition -> {
+                putRecord(partition, vectorRecord);
+                return null;
+            });
             
             log.debug("Successfully stored vector in memory for entity {} of type {} with vectorId {}", entityId, entityType, vectorId);
             return vectorId;
@@ -70,34 +117,52 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId, String content, 
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         try {
             log.debug("Updating vector in memory with vectorId {}", vectorId);
-            
-            VectorRecord existingRecord = vectorStore.get(vectorId);
-            if (existingRecord == null) {
-                log.warn("Vector not found for vectorId: {}", vectorId);
-                return false;
+            Objects.requireNonNull(entityType, "entityType must not be null");
+            Objects.requireNonNull(entityId, "entityId must not be null");
+            
+            while (true) {
+                VectorRecord current = vectorsById.get(vectorId);
+                if (current == null) {
+                    log.warn("Vector not found for vectorId: {}", vectorId);
+                    return false;
+                }
+                String currentType = current.getEntityType();
+                // Read and replace the record under its partition lock, so concurrent updates never
+                // build on a stale copy
+                VectorRecord updatedRecord;
+                if (entityType.equals(currentType)) {
+                    updatedRecord = updatePartition(currentType, partition -> {
+                        VectorRecord existingRecord = partition.records.get(vectorId);
+                        if (existingRecord == null) {
+                            return null;
+                        }
+                        VectorRecord updated = updatedRecord(existingRecord, entityType, entityId, content, embedding, metadata);
+                        putRecord(partition, updated);
+                        return updated;
+                    });
+                } else {
+                    // A move holds both partitions, and adds before removing, so the vectorId resolves throughout
+                    updatedRecord = updatePartitions(currentType, entityType, (source, target) -> {
+                        VectorRecord existingRecord = source.records.get(vectorId);
+                        if (existingRecord == null) {
+                            return null;
+                        }
+                        VectorRecord updated = updatedRecord(existingRecord, entityType, entityId, content, embedding, metadata);
+                        putRecord(target, updated);
+                        removeRecord(source, vectorId);
+                        return updated;
+                    });
+                }
+                if (updatedRecord == null) {
+                    // Moved to another entity type or cleared since the lookup
+                    continue;
+                }
+                break;
             }
             
-            VectorRecord updatedRecord = VectorRecord.builder()
-                .vectorId(existingRecord.getVectorId())
-                .entityType(entityType)
-                .entityId(entityId)
-                .content(content)
-                .embedding(embedding)
-                .metadata(metadata != null ? metadata : new HashMap<>())
-                .aiAnalysis(existingRecord.getAiAnalysis())
-                .createdAt(existingRecord.getCreatedAt())
-                .updatedAt(LocalDateTime.now())
-                .vectorMetadata(existingRecord.getVectorMetadata())
-                .similarityScore(existingRecord.getSimilarityScore())
-                .active(existingRecord.getActive())
-                .version(existingRecord.getVersion() + 1)
-                .build();
-            
-            vectorStore.put(vectorId, updatedRecord);
-            
             log.debug("Successfully updated vector in memory with vectorId {}", vectorId);
             return true;
             
@@ -107,11 +172,30 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         }
     }
     
+    private static VectorRecord updatedRecord(VectorRecord existingRecord, String entityType, String entityId,
+                                              String content, Embedding embedding, Map<String, Object> metadata) {
+        return VectorRecord.builder()
+            .vectorId(existingRecord.getVectorId())
+            .entityType(entityType)
+            .entityId(entityId)
+            .content(content)
+            .vector(embedding)
+            .metadata(metadata != null ? metadata : new HashMap<>())
+            .aiAnalysis(existingRecord.getAiAnalysis())
+            .createdAt(existingRecord.getCreatedAt())
+            .updatedAt(LocalDateTime.now())
+            .vectorMetadata(existingRecord.getVectorMetadata())
+            .similarityScore(existingRecord.getSimilarityScore())
+            .active(existingRecord.getActive())
+            .version(existingRecord.getVersion() + 1)
+            .build();
+    }
+    
     @Override
     public Optional<VectorRecord> getVector(String vectorId) {
         try {
             log.debug("Getting vector from memory with vectorId {}", vectorId);
-            return Optional.ofNullable(vectorStore.get(vectorId));
+            return Optional.ofNullable(withStoredVector(vectorsById.get(vectorId)));
         } catch (Exception e) {
             log.error("Error getting vector from memory", e);
             throw new AIServiceException("Failed to get vector from memory", e);
@@ -122,9 +206,12 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     public Optional<VectorRecord> getVectorByEntity(String entityType, String entityId) {
         try {
             log.debug("Getting vector from memory for entity {} of type {}", entityId, entityType);
-            return vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()) && entityId.equals(record.getEntityId()))
-                .findFirst();
+            EntityPartition partition = partitions.get(entityType);
+            if (partition == null) {
+                return Optional.empty();
+            }
+            String vectorId = partition.vectorIdsByEntityId.get(entityId);
+            return vectorId != null ? Optional.ofNullable(withStoredVector(partition.records.get(vectorId))) : Optional.empty();
         } catch (Exception e) {
             log.error("Error getting vector from memory by entity", e);
             throw new AIServiceException("Failed to get vector from memory by entity", e);
@@ -132,49 +219,15 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         try {
             log.debug("Searching vectors in memory for query: {}", request.getQuery());
             
             long startTime = System.currentTimeMillis();
             
-            // Get entities to search
-            String entityType = request.getEntityType();
-            List<VectorRecord> entities = vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .collect(Collectors.toList());
-            
-            if (entities.isEmpty()) {
-                log.debug("No entities found for type: {}", entityType);
-                return AISearchResponse.builder()
-                    .results(new ArrayList<>())
-                    .totalResults(0)
-                    .maxScore(0.0)
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .requestId(UUID.randomUUID().toString())
-                    .query(request.getQuery())
-                    .model(config.resolveEmbeddingDefaults().model())
-                    .build();
-            }
-            
             // Calculate similarity scores
-            List<Map<String, Object>> scoredEntities = entities.stream()
-                .map(record -> {
-                    double similarity = calculateCosineSimilarity(queryVector, record.getEmbedding());
-                    
-                    Map<String, Object> scoredEntity = new HashMap<>();
-                    scoredEntity.put("vectorId", record.getVectorId());
-                    scoredEntity.put("entityId", record.getEntityId());
-                    scoredEntity.put("content", record.getContent());
-                    scoredEntity.put("metadata", record.getMetadata());
-                    scoredEntity.put("similarity", similarity);
-                    scoredEntity.put("score", similarity);
-                    return scoredEntity;
-                })
-                .filter(entity -> (Double) entity.get("similarity") >= request.getThreshold())
-                .sorted((a, b) -> Double.compare((Double) b.get("similarity"), (Double) a.get("similarity")))
-                .limit(request.getLimit())
-                .collect(Collectors.toList());
+            List<Map<String, Object>> scoredEntities = rankEntities(queryVector, request.getEntityType(),
+                request.getLimit(), request.getThreshold());
             
             long processingTime = System.currentTimeMillis() - startTime;
             
@@ -197,66 +250,15 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
-        try {
-            log.debug("Searching vectors in memory for entity type: {}", entityType);
-            
-            long startTime = System.currentTimeMillis();
-            
-            List<VectorRecord> entities = vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .collect(Collectors.toList());
-            
-            if (entities.isEmpty()) {
-                log.debug("No entities found for type: {}", entityType);
-                return AISearchResponse.builder()
-                    .results(new ArrayList<>())
-                    .totalResults(0)
-                    .maxScore(0.0)
-                    .processingTimeMs(System.currentTimeMillis() - startTime)
-                    .requestId(UUID.randomUUID().toString())
-                    .query("")
-                    .model(config.resolveEmbeddingDefaults().model())
-                    .build();
-            }
-            
-            // Calculate similarity scores
-            List<Map<String, Object>> scoredEntities = entities.stream()
-                .map(record -> {
-                    double similarity = calculateCosineSimilarity(queryVector, record.getEmbedding());
-                    
-                    Map<String, Object> scoredEntity = new HashMap<>();
-                    scoredEntity.put("vectorId", record.getVectorId());
-                    scoredEntity.put("entityId", record.getEntityId());
-                    scoredEntity.put("content", record.getContent());
-                    scoredEntity.put("metadata", record.getMetadata());
-                    scoredEntity.put("similarity", similarity);
-                    scoredEntity.put("score", similarity);
-                    return scoredEntity;
-                })
-                .filter(entity -> (Double) entity.get("similarity") >= threshold)
-                .sorted((a, b) -> Double.compare((Double) b.get("similarity"), (Double) a.get("similarity")))
-                .limit(limit)
-                .collect(Collectors.toList());
-            
-            long processingTime = System.currentTimeMillis() - startTime;
-            
-            log.debug("Found {} results in memory in {}ms", scoredEntities.size(), processingTime);
-            
-            return AISearchResponse.builder()
-                .results(scoredEntities)
-                .totalResults(scoredEntities.size())
-                .maxScore(scoredEntities.isEmpty() ? 0.0 : (Double) scoredEntities.get(0).get("similarity"))
-                .processingTimeMs(processingTime)
-                .requestId(UUID.randomUUID().toString())
-                .query("")
-                .model(config.resolveEmbeddingDefaults().model())
-                .build();
-                
-        } catch (Exception e) {
-            log.error("Error searching vectors in memory by entity type", e);
-            throw new AIServiceException("Failed to search vectors in memory by entity type", e);
-        }
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
+        log.debug("Searching vectors in memory for entity type: {}", entityType);
+        AISearchRequest request = AISearchRequest.builder()
+            .query("")
+            .entityType(entityType)
+            .limit(limit)
+            .threshold(threshold)
+            .build();
+        return search(queryVector, request);
     }
     
     @Override
@@ -264,12 +266,12 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Removing vector from memory for entity {} of type {}", entityId, entityType);
             
-            Optional<VectorRecord> recordToRemove = vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()) && entityId.equals(record.getEntityId()))
-                .findFirst();
+            Boolean removed = updatePartition(entityType, partition -> {
+                String vectorId = partition.vectorIdsByEntityId.get(entityId);
+                return vectorId != null && removeRecord(partition, vectorId);
+            });
             
-            if (recordToRemove.isPresent()) {
-                vectorStore.remove(recordToRemove.get().getVectorId());
+            if (Boolean.TRUE.equals(removed)) {
                 log.debug("Successfully removed vector from memory for entity {} of type {}", entityId, entityType);
                 return true;
             } else {
@@ -288,8 +290,11 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Removing vector from memory with vectorId {}", vectorId);
             
-            VectorRecord removed = vectorStore.remove(vectorId);
-            if (removed != null) {
+            VectorRecord existing = vectorsById.get(vectorId);
+            Boolean removed = existing != null
+                ? updatePartition(existing.getEntityType(), partition -> removeRecord(partition, vectorId))
+                : null;
+            if (Boolean.TRUE.equals(removed)) {
                 log.debug("Successfully removed vector from memory with vectorId {}", vectorId);
                 return true;
             } else {
@@ -314,7 +319,7 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
                     vector.getEntityType(),
                     vector.getEntityId(),
                     vector.getContent(),
-                    vector.getEmbedding(),
+                    vector.getVector(),
                     vector.getMetadata()
                 );
                 vectorIds.add(vectorId);
@@ -341,7 +346,7 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
                     vector.getEntityType(),
                     vector.getEntityId(),
                     vector.getContent(),
-                    vector.getEmbedding(),
+                    vector.getVector(),
                     vector.getMetadata()
                 )) {
                     updatedCount++;
@@ -383,9 +388,15 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Getting all vectors from memory for entity type {}", entityType);
             
-            return vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .collect(Collectors.toList());
+            EntityPartition partition = partitions.get(entityType);
+            if (partition == null) {
+                return new ArrayList<>();
+            }
+            List<VectorRecord> records = new ArrayList<>(partition.records.size());
+            for (VectorRecord record : partition.records.values()) {
+                records.add(withStoredVector(record));
+            }
+            return records;
                 
         } catch (Exception e) {
             log.error("Error getting vectors from memory by entity type", e);
@@ -398,9 +409,8 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Getting vector count from memory for entity type {}", entityType);
             
-            return vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .count();
+            EntityPartition partition = partitions.get(entityType);
+            return partition != null ? partition.records.size() : 0L;
                 
         } catch (Exception e) {
             log.error("Error getting vector count from memory by entity type", e);
@@ -413,8 +423,8 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Checking if vector exists in memory for entity {} of type {}", entityId, entityType);
             
-            return vectorStore.values().stream()
-                .anyMatch(record -> entityType.equals(record.getEntityType()) && entityId.equals(record.getEntityId()));
+            EntityPartition partition = partitions.get(entityType);
+            return partition != null && partition.vectorIdsByEntityId.containsKey(entityId);
                 
         } catch (Exception e) {
             log.error("Error checking if vector exists in memory", e);
@@ -427,8 +437,10 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Clearing all vectors from memory");
             
-            int count = vectorStore.size();
-            vectorStore.clear();
+            long count = 0;
+            for (String entityType : new ArrayList<>(partitions.keySet())) {
+                count += retirePartition(entityType);
+            }
             
             log.debug("Successfully cleared {} vectors from memory", count);
             return count;
@@ -444,17 +456,10 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
         try {
             log.debug("Clearing vectors from memory for entity type {}", entityType);
             
-            List<String> vectorIdsToRemove = vectorStore.values().stream()
-                .filter(record -> entityType.equals(record.getEntityType()))
-                .map(VectorRecord::getVectorId)
-                .collect(Collectors.toList());
+            long count = retirePartition(entityType);
             
-            for (String vectorId : vectorIdsToRemove) {
-                vectorStore.remove(vectorId);
-            }
-            
-            log.debug("Successfully cleared {} vectors from memory for entity type {}", vectorIdsToRemove.size(), entityType);
-            return vectorIdsToRemove.size();
+            log.debug("Successfully cleared {} vectors from memory for entity type {}", count, entityType);
+            return count;
             
         } catch (Exception e) {
             log.error("Error clearing vectors from memory by entity type", e);
@@ -466,40 +471,333 @@ public class InMemoryVectorDatabaseService implements VectorDatabaseService {
     public Map<String, Object> getStatistics() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("type", "memory");
-        stats.put("totalVectors", vectorStore.size());
+        stats.put("totalVectors", vectorsById.size());
         
-        Map<String, Long> entityTypeCounts = vectorStore.values().stream()
-            .collect(Collectors.groupingBy(VectorRecord::getEntityType, Collectors.counting()));
+        Map<String, Long> entityTypeCounts = new HashMap<>();
+        partitions.forEach((entityType, partition) -> {
+            int size = partition.records.size();
+            if (size > 0) {
+                entityTypeCounts.put(entityType, (long) size);
+            }
+        });
         
         stats.put("entityTypes", entityTypeCounts.keySet());
         stats.put("entityTypeCounts", entityTypeCounts);
+        stats.put("indexType", isHnswEnabled() ? "hnsw" : "flat");
+        stats.put("storage", isOffHeapStorage() ? "off-heap" : "heap");
+        if (isOffHeapStorage()) {
+            stats.put("dotProductKernel", DotProductKernels.best().name());
+            stats.put("offHeapBytes", partitions.values().stream()
+                .map(partition -> partition.arena)
+                .filter(Objects::nonNull)
+                .mapToLong(VectorArena::reservedBytes)
+                .sum());
+        }
         return stats;
     }
     
     /**
-     * Calculate cosine similarity between two vectors
+     * Score and rank the candidates of one entity type. Uses the HNSW graph when enabled and
+     * populated, then the off-heap arena, and otherwise falls back to an exact scan of the records.
      */
-    private double calculateCosineSimilarity(List<Double> vectorA, List<Double> vectorB) {
-        if (vectorA == null || vectorB == null || vectorA.size() != vectorB.size()) {
-            return 0.0;
+    private List<Map<String, Object>> rankEntities(Embedding queryVector, String entityType, int limit, double threshold) {
+        EntityPartition partition = entityType != null ? partitions.get(entityType) : null;
+        if (partition == null) {
+            return new ArrayList<>();
         }
         
-        double dotProduct = 0.0;
-        double normA = 0.0;
-        double normB = 0.0;
+        HnswIndex index = partition.hnswIndex;
+        if (index != null && queryVector != null && queryVector.dimension() == index.dimension()) {
+            List<Map<String, Object>> scoredEntities = new ArrayList<>();
+            int k = Math.min(limit, index.size());
+            for (HnswIndex.Hit hit : index.search(queryVector.values(), k, Math.max(hnswEfSearch, k))) {
+                if (hit.score() < threshold) {
+                    break;
+                }
+                VectorRecord record = partition.records.get(hit.id());
+                if (record != null) {
+                    scoredEntities.add(toScoredEntity(record, hit.score()));
+                }
+            }
+            return scoredEntities;
+        }
         
-        for (int i = 0; i < vectorA.size(); i++) {
-            double a = vectorA.get(i);
-            double b = vectorB.get(i);
-            dotProduct += a * b;
-            normA += a * a;
-            normB += b * b;
+        VectorArena arena = partition.arena;
+        if (arena != null && queryVector != null && queryVector.dimension() == arena.dimension()) {
+            List<Map<String, Object>> scoredEntities = new ArrayList<>();
+            for (VectorArena.Hit hit : arena.search(queryVector.values(), limit, threshold)) {
+                VectorRecord record = partition.records.get(hit.id());
+                if (record != null) {
+                    scoredEntities.add(toScoredEntity(record, hit.score()));
+                }
+            }
+            return scoredEntities;
         }
         
-        if (normA == 0.0 || normB == 0.0) {
+        VectorRecord[] candidates = partition.records.values().toArray(new VectorRecord[0]);
+        // The selector sizes its heap by k, so an "everything" limit must not allocate past the candidates
+        TopKSelector topK = TopKSelector.selectParallel(candidates.length, Math.min(limit, candidates.length), threshold,
+            TopKSelector.DEFAULT_MIN_PARTITION_SIZE, (from, to, sink) -> {
+                for (int i = from; i < to; i++) {
+                    sink.offer(calculateCosineSimilarity(queryVector, candidates[i].getVector()), i);
+                }
+            });
+        List<Map<String, Object>> scoredEntities = new ArrayList<>(topK.size());
+        for (int rank = 0; rank < topK.size(); rank++) {
+            scoredEntities.add(toScoredEntity(candidates[topK.index(rank)], topK.score(rank)));
+        }
+        return scoredEntities;
+    }
+    
+    private Map<String, Object> toScoredEntity(VectorRecord record, double similarity) {
+        Map<String, Object> scoredEntity = new HashMap<>();
+        scoredEntity.put("vectorId", record.getVectorId());
+        scoredEntity.put("entityId", record.getEntityId());
+        scoredEntity.put("content", record.getContent());
+        scoredEntity.put("metadata", record.getMetadata());
+        scoredEntity.put("similarity", similarity);
+        scoredEntity.put("score", similarity);
+        return scoredEntity;
+    }
+    
+    /**
+     * Run a write against the partition for the entity type, creating it when missing. Writes
+     * to one partition are serialized; a partition retired by a concurrent clear is replaced.
+     */
+    private <T> T writePartition(String entityType, Function<EntityPartition, T> action) {
+        while (true) {
+            EntityPartition partition = partitions.computeIfAbsent(entityType, type -> new EntityPartition());
+            synchronized (partition) {
+                if (!partition.retired) {
+                    return action.apply(partition);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Run a write against an existing partition.
+     *
+     * @return the action result, or {@code null} when the partition does not exist
+     */
+    private <T> T updatePartition(String entityType, Function<EntityPartition, T> action) {
+        EntityPartition partition = entityType != null ? partitions.get(entityType) : null;
+        if (partition == null) {
+            return null;
+        }
+        synchronized (partition) {
+            return partition.retired ? null : action.apply(partition);
+        }
+    }
+    
+    /**
+     * Run a write holding the locks of two partitions, taken in entity type order so that moves in
+     * opposite directions cannot deadlock. The target partition is created when missing.
+     *
+     * @return the action result, or {@code null} when the source partition does not exist
+     */
+    private <T> T updatePartitions(String sourceType, String targetType,
+                                   BiFunction<EntityPartition, EntityPartition, T> action) {
+        while (true) {
+            EntityPartition source = partitions.get(sourceType);
+            if (source == null) {
+                return null;
+            }
+            EntityPartition target = partitions.computeIfAbsent(targetType, type -> new EntityPartition());
+            boolean sourceFirst = sourceType.compareTo(targetType) < 0;
+            synchronized (sourceFirst ? source : target) {
+                synchronized (sourceFirst ? target : source) {
+                    if (source.retired) {
+                        return null;
+                    }
+                    if (!target.retired) {
+                        return action.apply(source, target);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Detach a partition and drop its records from the global lookup.
+     *
+     * @return number of records removed
+     */
+    private long retirePartition(String entityType) {
+        EntityPartition partition = partitions.remove(entityType);
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            partition.retired = true;
+            partition.records.forEach(vectorsById::remove);
+            return partition.records.size();
+        }
+    }
+    
+    /**
+     * Insert or replace a record in its partition. Any other vector held for the same entity is
+     * dropped so the entity index stays one-to-one. Caller holds the partition lock.
+     */
+    private void putRecord(EntityPartition partition, VectorRecord record) {
+        String vectorId = record.getVectorId();
+        VectorRecord previous = partition.records.put(vectorId, record);
+        if (previous != null && !previous.getEntityId().equals(record.getEntityId())) {
+            partition.vectorIdsByEntityId.remove(previous.getEntityId(), vectorId);
+        }
+        String displacedId = partition.vectorIdsByEntityId.put(record.getEntityId(), vectorId);
+        if (displacedId != null && !displacedId.equals(vectorId)) {
+            removeRecord(partition, displacedId);
+        }
+        vectorsById.put(vectorId, record);
+        indexVector(partition, record);
+    }
+    
+    /**
+     * Remove a record from its partition. Caller holds the partition lock.
+     *
+     * @return {@code true} when the record was present
+     */
+    private boolean removeRecord(EntityPartition partition, String vectorId) {
+        VectorRecord removed = partition.records.remove(vectorId);
+        if (removed == null) {
+            return false;
+        }
+        partition.vectorIdsByEntityId.remove(removed.getEntityId(), vectorId);
+        vectorsById.remove(vectorId, removed);
+        if (partition.hnswIndex != null) {
+            partition.hnswIndex.remove(vectorId);
+        }
+        if (partition.arena != null) {
+            partition.arena.remove(vectorId);
+        }
+        return true;
+    }
+    
+    private boolean isHnswEnabled() {
+        return "hnsw".equalsIgnoreCase(indexType);
+    }
+    
+    private boolean isOffHeapStorage() {
+        return "off-heap".equalsIgnoreCase(storage);
+    }
+    
+    /**
+     * Add the record's vector to the partition's graph and arena. A vector stored in the arena is
+     * dropped from the record, so it is held once. Caller holds the partition lock.
+     */
+    private void indexVector(EntityPartition partition, VectorRecord record) {
+        if (isHnswEnabled()) {
+            indexInGraph(partition, record);
+        }
+        if (isOffHeapStorage() && storeInArena(partition, record)) {
+            record.setVector(null);
+        }
+    }
+    
+    private void indexInGraph(EntityPartition partition, VectorRecord record) {
+        Embedding vector = record.getVector();
+        HnswIndex index = partition.hnswIndex;
+        if (vector == null || vector.isEmpty()) {
+            if (index != null) {
+                index.remove(record.getVectorId());
+            }
+            return;
+        }
+        if (index == null) {
+            index = new HnswIndex(vector.dimension(), hnswM, hnswEfConstruction);
+            partition.hnswIndex = index;
+        }
+        if (index.dimension() != vector.dimension()) {
+            log.warn("Skipping HNSW indexing for vector {}: dimension {} does not match index dimension {} for entity type {}",
+                record.getVectorId(), vector.dimension(), index.dimension(), record.getEntityType());
+            index.remove(record.getVectorId());
+            return;
+        }
+        index.add(record.getVectorId(), vector.values());
+    }
+    
+    /**
+     * @return {@code true} when the arena now holds the record's vector
+     */
+    private boolean storeInArena(EntityPartition partition, VectorRecord record) {
+        Embedding vector = record.getVector();
+        VectorArena arena = partition.arena;
+        if (vector == null || vector.isEmpty()) {
+            if (arena != null) {
+                arena.remove(record.getVectorId());
+            }
+            return false;
+        }
+        if (arena == null) {
+            arena = new VectorArena(vector.dimension());
+            partition.arena = arena;
+        }
+        if (arena.dimension() != vector.dimension()) {
+            log.warn("Skipping off-heap storage for vector {}: dimension {} does not match arena dimension {} for entity type {}",
+                record.getVectorId(), vector.dimension(), arena.dimension(), record.getEntityType());
+            arena.remove(record.getVectorId());
+            return false;
+        }
+        arena.add(record.getVectorId(), vector.values());
+        return true;
+    }
+    
+    /**
+     * Return the record with its vector, reading it back from the arena when the record was stored
+     * off-heap. Arena-backed records are copied so callers never see the stripped instance.
+     */
+    private VectorRecord withStoredVector(VectorRecord record) {
+        if (record == null || record.getVector() != null) {
+            return record;
+        }
+        EntityPartition partition = partitions.get(record.getEntityType());
+        VectorArena arena = partition != null ? partition.arena : null;
+        float[] vector = arena != null ? arena.get(record.getVectorId()) : null;
+        if (vector == null) {
+            return record;
+        }
+        return VectorRecord.builder()
+            .vectorId(record.getVectorId())
+            .entityType(record.getEntityType())
+            .entityId(record.getEntityId())
+            .content(record.getContent())
+            .vector(Embedding.wrap(vector))
+            .metadata(record.getMetadata())
+            .aiAnalysis(record.getAiAnalysis())
+            .createdAt(record.getCreatedAt())
+            .updatedAt(record.getUpdatedAt())
+            .vectorMetadata(record.getVectorMetadata())
+            .similarityScore(record.getSimilarityScore())
+            .active(record.getActive())
+            .version(record.getVersion())
+            .build();
+    }
+    
+    /**
+     * Calculate cosine similarity between two vectors
+     */
+    private double calculateCosineSimilarity(Embedding vectorA, Embedding vectorB) {
+        if (vectorA == null || vectorB == null) {
             return 0.0;
         }
+        return vectorA.cosineSimilarity(vectorB);
+    }
+    
+    /**
+     * Records of one entity type. The maps are read without locking; mutations happen while
+     * holding the partition monitor.
+     */
+    private static final class EntityPartition {
+        
+        private final Map<String, VectorRecord> records = new ConcurrentHashMap<>();
+        
+        private final Map<String, String> vectorIdsByEntityId = new ConcurrentHashMap<>();
+        
+        private volatile HnswIndex hnswIndex;
+        
+        private volatile VectorArena arena;
         
-        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+        private boolean retired;
     }
-}
\ No newline at end of file
+}
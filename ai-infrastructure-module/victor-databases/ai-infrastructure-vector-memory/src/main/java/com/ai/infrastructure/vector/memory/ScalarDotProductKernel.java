@@ -0,0 +1,38 @@
+package com.ai.infrastructure.vector.memory;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Portable dot product kernel. Four independent accumulators let the JIT pipeline the
+ * multiply-adds even when it does not auto-vectorize the reduction.
+ */
+final class ScalarDotProductKernel implements DotProductKernel {
+
+    @Override
+    public void dotRows(FloatBuffer rows, int offset, int rowCount, int dimension, float[] query, float[] scores) {
+        int upper = dimension & ~3;
+        for (int r = 0; r < rowCount; r++) {
+            int base = offset + r * dimension;
+            float s0 = 0f;
+            float s1 = 0f;
+            float s2 = 0f;
+            float s3 = 0f;
+            int i = 0;
+            for (; i < upper; i += 4) {
+                s0 += rows.get(base + i) * query[i];
+                s1 += rows.get(base + i + 1) * query[i + 1];
+                s2 += rows.get(base + i + 2) * query[i + 2];
+                s3 += rows.get(base + i + 3) * query[i + 3];
+            }
+            for (; i < dimension; i++) {
+                s0 += rows.get(base + i) * query[i];
+            }
+            scores[r] = (s0 + s1) + (s2 + s3);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
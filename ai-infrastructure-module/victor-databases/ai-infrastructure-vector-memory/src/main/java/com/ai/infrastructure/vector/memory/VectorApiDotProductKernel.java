@@ -0,0 +1,100 @@
+package com.ai.infrastructure.vector.memory;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.FloatBuffer;
+
+/**
+ * SIMD dot product kernel on the JDK Vector API. Only loaded through
+ * {@link DotProductKernels#best()} after the incubator module has been found.
+ *
+ * On JDK 21 the Vector API can load lanes from arrays, or from a {@code MemorySegment} only with
+ * {@code --enable-preview}. Rows in a direct buffer are therefore bulk-copied into a per-thread
+ * scratch array first; rows in a heap buffer are read from its backing array.
+ */
+final class VectorApiDotProductKernel implements DotProductKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    private final ThreadLocal<float[]> scratch = ThreadLocal.withInitial(() -> new float[0]);
+
+    @Override
+    public void dotRows(FloatBuffer rows, int offset, int rowCount, int dimension, float[] query, float[] scores) {
+        if (rows.hasArray()) {
+            dotRows(rows.array(), rows.arrayOffset() + offset, rowCount, dimension, query, scores);
+            return;
+        }
+        int length = rowCount * dimension;
+        float[] block = scratch.get();
+        if (block.length < length) {
+            block = new float[length];
+            scratch.set(block);
+        }
+        rows.get(offset, block, 0, length);
+        dotRows(block, 0, rowCount, dimension, query, scores);
+    }
+
+    private void dotRows(float[] rows, int offset, int rowCount, int dimension, float[] query, float[] scores) {
+        int upper = SPECIES.loopBound(dimension);
+        int lanes = SPECIES.length();
+        int r = 0;
+        // Four rows per pass share each query load and keep four independent FMA chains in flight
+        for (; r + 3 < rowCount; r += 4) {
+            int b0 = offset + r * dimension;
+            int b1 = b0 + dimension;
+            int b2 = b1 + dimension;
+            int b3 = b2 + dimension;
+            FloatVector acc0 = FloatVector.zero(SPECIES);
+            FloatVector acc1 = FloatVector.zero(SPECIES);
+            FloatVector acc2 = FloatVector.zero(SPECIES);
+            FloatVector acc3 = FloatVector.zero(SPECIES);
+            int i = 0;
+            for (; i < upper; i += lanes) {
+                FloatVector q = FloatVector.fromArray(SPECIES, query, i);
+                acc0 = FloatVector.fromArray(SPECIES, rows, b0 + i).fma(q, acc0);
+                acc1 = FloatVector.fromArray(SPECIES, rows, b1 + i).fma(q, acc1);
+                acc2 = FloatVector.fromArray(SPECIES, rows, b2 + i).fma(q, acc2);
+                acc3 = FloatVector.fromArray(SPECIES, rows, b3 + i).fma(q, acc3);
+            }
+            float s0 = acc0.reduceLanes(VectorOperators.ADD);
+            float s1 = acc1.reduceLanes(VectorOperators.ADD);
+            float s2 = acc2.reduceLanes(VectorOperators.ADD);
+            float s3 = acc3.reduceLanes(VectorOperators.ADD);
+            for (; i < dimension; i++) {
+                float q = query[i];
+                s0 += rows[b0 + i] * q;
+                s1 += rows[b1 + i] * q;
+                s2 += rows[b2 + i] * q;
+                s3 += rows[b3 + i] * q;
+            }
+            scores[r] = s0;
+            scores[r + 1] = s1;
+            scores[r + 2] = s2;
+            scores[r + 3] = s3;
+        }
+        for (; r < rowCount; r++) {
+            int base = offset + r * dimension;
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int i = 0;
+            for (; i < upper; i += lanes) {
+                acc = FloatVector.fromArray(SPECIES, rows, base + i).fma(FloatVector.fromArray(SPECIES, query, i), acc);
+            }
+            float sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < dimension; i++) {
+                sum += rows[base + i] * query[i];
+            }
+            scores[r] = sum;
+        }
+    }
+
+    @Override
+    public String name() {
+        return "vector-api-" + SPECIES.vectorBitSize();
+    }
+
+    int laneCount() {
+        return SPECIES.length();
+    }
+}
@@ -0,0 +1,313 @@
+package com.ai.infrastructure.vector.memory;
+
+import com.ai.infrastructure.util.TopKSelector;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contiguous off-heap storage for the vectors of one entity type, with an exact top-k scan.
+ *
+ * Vectors are packed row-major into direct buffers as given, next to the inverse of each row's L2
+ * norm, so cosine similarity is a dot product with the normalized query scaled by one multiply, and
+ * {@link #get} returns the exact stored components. The arena is the only copy of a vector: callers
+ * do not need to keep their own. A scan streams through memory sequentially instead of chasing one
+ * heap array per record. Storage grows in chunks that double from {@link #FIRST_CHUNK_ROWS} rows up
+ * to {@link #CHUNK_ROWS}, so a small entity type reserves little, growth never copies rows, and no
+ * buffer reaches the 2 GB limit. Removal moves the last row into the freed slot so the rows stay
+ * dense, and chunks left empty at the end are released, keeping one spare so that adding and removing
+ * around a chunk boundary does not reallocate.
+ *
+ * Direct buffers count against {@code -XX:MaxDirectMemorySize} (defaults to the max heap size).
+ *
+ * Searches run concurrently under a read lock; inserts and deletes take the write lock.
+ */
+public class VectorArena {
+
+    static final int FIRST_CHUNK_ROWS = 64;
+    static final int CHUNK_ROWS = 16384;
+
+    /** Number of chunks smaller than {@link #CHUNK_ROWS}, and the rows they hold together */
+    private static final int GROWING_CHUNKS = Integer.numberOfTrailingZeros(CHUNK_ROWS / FIRST_CHUNK_ROWS);
+    private static final int GROWING_ROWS = CHUNK_ROWS - FIRST_CHUNK_ROWS;
+
+    private static final int BLOCK_ROWS = 64;
+
+    private final int dimension;
+    private final DotProductKernel kernel;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final List<FloatBuffer> chunks = new ArrayList<>();
+
+    private String[] ids = new String[0];
+    private float[] inverseNorms = new float[0];
+    private int capacity;
+    private int size;
+
+    /**
+     * @param dimension vector dimension
+     */
+    public VectorArena(int dimension) {
+        this(dimension, DotProductKernels.best());
+    }
+
+    VectorArena(int dimension, DotProductKernel kernel) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("dimension must be positive");
+        }
+        this.dimension = dimension;
+        this.kernel = kernel;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return name of the dot product kernel used by {@link #search}
+     */
+    public String kernelName() {
+        return kernel.name();
+    }
+
+    /**
+     * @return bytes reserved off-heap
+     */
+    public long reservedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) capacity * dimension * Float.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or replace the vector stored under {@code id}.
+     *
+     * @param id external identifier
+     * @param vector vector components; copied into the arena
+     */
+    public void add(String id, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + vector.length);
+        }
+        double sum = 0.0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        // A zero vector scores 0 against every query, as Embedding#cosineSimilarity does
+        float inverseNorm = sum == 0.0 ? 0f : (float) (1.0 / Math.sqrt(sum));
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            if (slot == null) {
+                slot = size++;
+                ensureCapacity(size);
+                ids[slot] = id;
+                slotsById.put(id, slot);
+            }
+            chunk(slot).put(offset(slot), vector);
+            inverseNorms[slot] = inverseNorm;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id external identifier
+     * @return a copy of the vector stored under {@code id}, or {@code null} if absent
+     */
+    public float[] get(String id) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotsById.get(id);
+            if (slot == null) {
+                return null;
+            }
+            float[] vector = new float[dimension];
+            chunk(slot).get(offset(slot), vector);
+            return vector;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the vector stored under {@code id}.
+     *
+     * @param id external identifier
+     * @return {@code true} when a vector was removed
+     */
+    public boolean remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot == null) {
+                return false;
+            }
+            int last = --size;
+            if (slot != last) {
+                String movedId = ids[last];
+                FloatBuffer source = chunk(last);
+                FloatBuffer target = chunk(slot);
+                int sourceOffset = offset(last);
+                int targetOffset = offset(slot);
+                for (int i = 0; i < dimension; i++) {
+                    target.put(targetOffset + i, source.get(sourceOffset + i));
+                }
+                ids[slot] = movedId;
+                inverseNorms[slot] = inverseNorms[last];
+                slotsById.put(movedId, slot);
+            }
+            ids[last] = null;
+            releaseEmptyChunks();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            slotsById.clear();
+            chunks.clear();
+            ids = new String[0];
+            inverseNorms = new float[0];
+            capacity = 0;
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Exact top-k search by cosine similarity.
+     *
+     * @param query query vector (need not be normalized)
+     * @param k number of results
+     * @param threshold minimum similarity; lower scores are skipped
+     * @return hits ordered by descending similarity
+     */
+    public List<Hit> search(float[] query, int k, double threshold) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Expected dimension " + dimension + " but got " + query.length);
+        }
+        if (k <= 0) {
+            return List.of();
+        }
+        float[] normalized = HnswIndex.normalize(query);
+        lock.readLock().lock();
+        try {
+            TopKSelector topK = TopKSelector.selectParallel(size, Math.min(k, size), threshold,
+                TopKSelector.DEFAULT_MIN_PARTITION_SIZE, (from, to, sink) -> scan(normalized, from, to, sink));
+            Hit[] hits = new Hit[topK.size()];
+            for (int rank = 0; rank < hits.length; rank++) {
+                hits[rank] = new Hit(ids[topK.index(rank)], (float) topK.score(rank));
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Score rows {@code [from, to)} block by block, with the kernel reading the rows straight from
+     * their chunk. Each call has its own scores so disjoint ranges can be scanned concurrently. Caller
+     * holds the read lock.
+     */
+    private void scan(float[] query, int from, int to, TopKSelector sink) {
+        float[] scores = new float[BLOCK_ROWS];
+        int start = from;
+        while (start < to) {
+            // A block never straddles a chunk boundary
+            int index = chunkIndex(start);
+            int rows = Math.min(Math.min(BLOCK_ROWS, to - start), chunkStart(index) + chunkRows(index) - start);
+            kernel.dotRows(chunk(start), offset(start), rows, dimension, query, scores);
+            for (int r = 0; r < rows; r++) {
+                sink.offer(scores[r] * inverseNorms[start + r], start + r);
+            }
+            start += rows;
+        }
+    }
+
+    private FloatBuffer chunk(int slot) {
+        return chunks.get(chunkIndex(slot));
+    }
+
+    private int offset(int slot) {
+        return (slot - chunkStart(chunkIndex(slot))) * dimension;
+    }
+
+    static int chunkIndex(int slot) {
+        if (slot < GROWING_ROWS) {
+            return 31 - Integer.numberOfLeadingZeros(slot / FIRST_CHUNK_ROWS + 1);
+        }
+        return GROWING_CHUNKS + (slot - GROWING_ROWS) / CHUNK_ROWS;
+    }
+
+    static int chunkStart(int index) {
+        if (index < GROWING_CHUNKS) {
+            return FIRST_CHUNK_ROWS * ((1 << index) - 1);
+        }
+        return GROWING_ROWS + (index - GROWING_CHUNKS) * CHUNK_ROWS;
+    }
+
+    static int chunkRows(int index) {
+        return index < GROWING_CHUNKS ? FIRST_CHUNK_ROWS << index : CHUNK_ROWS;
+    }
+
+    private void ensureCapacity(int rows) {
+        while (capacity < rows) {
+            int chunkRows = chunkRows(chunks.size());
+            chunks.add(ByteBuffer.allocateDirect(chunkRows * dimension * Float.BYTES)
+                .order(ByteOrder.nativeOrder())
+                .asFloatBuffer());
+            capacity += chunkRows;
+        }
+        if (ids.length < capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            inverseNorms = Arrays.copyOf(inverseNorms, capacity);
+        }
+    }
+
+    /**
+     * Drop trailing chunks while the chunk before them is empty too, so at most one empty chunk is
+     * kept. The buffers are freed once collected. Caller holds the write lock.
+     */
+    private void releaseEmptyChunks() {
+        int count = chunks.size();
+        while (count > 1 && chunkStart(count - 2) >= size) {
+            chunks.remove(--count);
+            capacity -= chunkRows(count);
+        }
+        if (ids.length > capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            inverseNorms = Arrays.copyOf(inverseNorms, capacity);
+        }
+    }
+
+    /**
+     * Search hit: external id and cosine similarity.
+     */
+    public record Hit(String id, float score) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.ai.infrastructure.vector.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DotProductKernelTest {
+
+    private static final int ROWS = 13;
+
+    private final Random random = new Random(11);
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 7, 16, 33, 384})
+    void scalarKernelMatchesAPlainDotProduct(int dimension) {
+        float[] query = randomVector(dimension);
+        float[] rows = randomVector((ROWS + 2) * dimension);
+        FloatBuffer buffer = directBuffer(rows);
+
+        float[] scores = new float[ROWS];
+        new ScalarDotProductKernel().dotRows(buffer, 2 * dimension, ROWS, dimension, query, scores);
+
+        for (int r = 0; r < ROWS; r++) {
+            double expected = 0;
+            for (int i = 0; i < dimension; i++) {
+                expected += (double) rows[(r + 2) * dimension + i] * query[i];
+            }
+            assertThat((double) scores[r]).isCloseTo(expected, within(1e-3 * dimension));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 4, 7, 16, 33, 384})
+    void vectorApiKernelAgreesWithTheScalarKernel(int dimension) {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+            "requires --add-modules jdk.incubator.vector");
+        float[] query = randomVector(dimension);
+        float[] rows = randomVector((ROWS + 1) * dimension);
+        float[] expected = new float[ROWS];
+        new ScalarDotProductKernel().dotRows(directBuffer(rows), dimension, ROWS, dimension, query, expected);
+
+        VectorApiDotProductKernel kernel = new VectorApiDotProductKernel();
+        float[] direct = new float[ROWS];
+        kernel.dotRows(directBuffer(rows), dimension, ROWS, dimension, query, direct);
+        float[] heap = new float[ROWS];
+        kernel.dotRows(FloatBuffer.wrap(rows), dimension, ROWS, dimension, query, heap);
+
+        for (int r = 0; r < ROWS; r++) {
+            assertThat(direct[r]).isCloseTo(expected[r], within(1e-4f * dimension));
+            assertThat(heap[r]).isEqualTo(direct[r]);
+        }
+    }
+
+    @Test
+    void bestKernelIsAlwaysAvailable() {
+        assertThat(DotProductKernels.best()).isNotNull();
+        assertThat(DotProductKernels.best().name()).isNotBlank();
+    }
+
+    private float[] randomVector(int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    private static FloatBuffer directBuffer(float[] values) {
+        FloatBuffer buffer = ByteBuffer.allocateDirect(values.length * Float.BYTES)
+            .order(ByteOrder.nativeOrder())
+            .asFloatBuffer();
+        buffer.put(0, values);
+        return buffer;
+    }
+}
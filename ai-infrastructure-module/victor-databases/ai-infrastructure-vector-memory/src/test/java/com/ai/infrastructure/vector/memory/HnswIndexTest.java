@@ -0,0 +1,153 @@
+package com.ai.infrastructure.vector.memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+    private static final int K = 10;
+    private static final int EF_SEARCH = 64;
+
+    private final Random random = new Random(42);
+    private final float[][] centroids = randomCentroids(20);
+
+    @Test
+    void recallAgainstExactScanAfterInserts() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+        Map<String, float[]> vectors = insert(index, 0, 2_000);
+
+        assertThat(index.size()).isEqualTo(2_000);
+        assertThat(recall(index, vectors)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void deletedVectorsAreNeverReturnedAndRecallHolds() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+        Map<String, float[]> vectors = insert(index, 0, 2_000);
+        Set<String> deleted = new HashSet<>();
+        for (int i = 0; i < 2_000; i += 3) {
+            String id = "v" + i;
+            assertThat(index.remove(id)).isTrue();
+            vectors.remove(id);
+            deleted.add(id);
+        }
+
+        assertThat(index.remove("v0")).isFalse();
+        assertThat(index.size()).isEqualTo(vectors.size());
+        for (int q = 0; q < 50; q++) {
+            float[] query = sample();
+            assertThat(index.search(query, K, EF_SEARCH)).extracting(HnswIndex.Hit::id).doesNotContainAnyElementsOf(deleted);
+        }
+        assertThat(recall(index, vectors)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void rebuildAfterMostVectorsAreDeletedKeepsTheSurvivorsSearchable() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+        Map<String, float[]> vectors = insert(index, 0, 1_000);
+        for (int i = 0; i < 800; i++) {
+            index.remove("v" + i);
+            vectors.remove("v" + i);
+        }
+
+        assertThat(index.size()).isEqualTo(200);
+        assertThat(recall(index, vectors)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void updatesReplaceTheStoredVectorAndSearchesSeeTheNewOne() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+        Map<String, float[]> vectors = insert(index, 0, 1_500);
+        for (int i = 0; i < 1_500; i += 5) {
+            float[] replacement = sample();
+            index.add("v" + i, replacement);
+            vectors.put("v" + i, replacement);
+        }
+
+        assertThat(index.size()).isEqualTo(1_500);
+        for (int i = 0; i < 1_500; i += 75) {
+            List<HnswIndex.Hit> hits = index.search(vectors.get("v" + i), 1, EF_SEARCH);
+            assertThat(hits).extracting(HnswIndex.Hit::id).containsExactly("v" + i);
+            assertThat(hits.get(0).score()).isCloseTo(1f, within(1e-4f));
+        }
+        assertThat(recall(index, vectors)).isGreaterThanOrEqualTo(0.95);
+
+        insert(index, 1_500, 500).forEach(vectors::put);
+        assertThat(recall(index, vectors)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void searchOnAnEmptyIndexReturnsNothing() {
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100, 7L);
+
+        assertThat(index.search(sample(), K, EF_SEARCH)).isEmpty();
+        index.add("only", sample());
+        index.remove("only");
+        assertThat(index.search(sample(), K, EF_SEARCH)).isEmpty();
+    }
+
+    private Map<String, float[]> insert(HnswIndex index, int from, int count) {
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        for (int i = from; i < from + count; i++) {
+            float[] vector = sample();
+            index.add("v" + i, vector);
+            vectors.put("v" + i, vector);
+        }
+        return vectors;
+    }
+
+    /**
+     * Mean recall@K of the index against an exact cosine scan over {@code vectors}.
+     */
+    private double recall(HnswIndex index, Map<String, float[]> vectors) {
+        int queries = 100;
+        double total = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = sample();
+            Set<String> exact = new HashSet<>(exactTopK(query, vectors));
+            List<HnswIndex.Hit> hits = index.search(query, K, EF_SEARCH);
+            assertThat(hits).isSortedAccordingTo(Comparator.comparing(HnswIndex.Hit::score).reversed());
+            total += hits.stream().filter(hit -> exact.contains(hit.id())).count() / (double) exact.size();
+        }
+        return total / queries;
+    }
+
+    private static List<String> exactTopK(float[] query, Map<String, float[]> vectors) {
+        float[] normalized = HnswIndex.normalize(query);
+        List<Map.Entry<String, Float>> scored = new ArrayList<>();
+        vectors.forEach((id, vector) -> scored.add(Map.entry(id, HnswIndex.dot(normalized, HnswIndex.normalize(vector)))));
+        scored.sort(Map.Entry.<String, Float>comparingByValue().reversed());
+        return scored.stream().limit(K).map(Map.Entry::getKey).toList();
+    }
+
+    private float[][] randomCentroids(int count) {
+        float[][] result = new float[count][DIMENSION];
+        for (float[] centroid : result) {
+            for (int i = 0; i < DIMENSION; i++) {
+                centroid[i] = (float) random.nextGaussian();
+            }
+        }
+        return result;
+    }
+
+    private float[] sample() {
+        float[] centroid = centroids[random.nextInt(centroids.length)];
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = centroid[i] + (float) (random.nextGaussian() * 0.6);
+        }
+        return vector;
+    }
+}
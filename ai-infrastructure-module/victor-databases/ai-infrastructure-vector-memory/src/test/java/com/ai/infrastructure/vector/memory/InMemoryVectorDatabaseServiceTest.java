@@ -0,0 +1,206 @@
+package com.ai.infrastructure.vector.memory;
+
+import com.ai.infrastructure.config.AIProviderConfig;
+import com.ai.infrastructure.dto.AISearchResponse;
+import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryVectorDatabaseServiceTest {
+
+    private InMemoryVectorDatabaseService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new InMemoryVectorDatabaseService(new AIProviderConfig());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"flat, heap", "flat, off-heap", "hnsw, heap"})
+    void limitLargerThanTheStoreReturnsEveryMatch(String indexType, String storage) {
+        ReflectionTestUtils.setField(service, "indexType", indexType);
+        ReflectionTestUtils.setField(service, "storage", storage);
+        for (int i = 0; i < 5; i++) {
+            service.storeVector("product", "p" + i, "content " + i, vector(1f, i), Map.of());
+        }
+
+        AISearchResponse response = service.searchByEntityType(vector(1f, 0f), "product", Integer.MAX_VALUE, -1.0);
+
+        assertThat(response.getResults()).hasSize(5);
+        assertThat(response.getResults().get(0).get("entityId")).isEqualTo("p0");
+    }
+
+    @Test
+    void zeroLimitReturnsNothing() {
+        service.storeVector("product", "p1", "content", vector(1f, 0f), Map.of());
+
+        assertThat(service.searchByEntityType(vector(1f, 0f), "product", 0, -1.0).getResults()).isEmpty();
+    }
+
+    @Test
+    void offHeapStorageReturnsTheOriginalVectorsAndSearchesLikeTheHeapStore() {
+        InMemoryVectorDatabaseService heap = new InMemoryVectorDatabaseService(new AIProviderConfig());
+        ReflectionTestUtils.setField(service, "storage", "off-heap");
+        for (int i = 0; i < 20; i++) {
+            Embedding embedding = Embedding.of(new float[] {i, 20 - i, (i % 3) - 1f});
+            service.storeVector("product", "p" + i, "content " + i, embedding, Map.of());
+            heap.storeVector("product", "p" + i, "content " + i, embedding, Map.of());
+        }
+
+        String vectorId = service.getVectorByEntity("product", "p4").orElseThrow().getVectorId();
+        assertThat(service.getVector(vectorId).orElseThrow().getVector().values()).containsExactly(4f, 16f, 0f);
+        assertThat(service.getVectorsByEntityType("product"))
+            .allSatisfy(record -> assertThat(record.getVector().dimension()).isEqualTo(3));
+        assertThat(service.getStatistics()).containsEntry("storage", "off-heap");
+
+        Embedding query = Embedding.of(new float[] {1f, 2f, 0.5f});
+        assertThat(service.searchByEntityType(query, "product", 5, 0.0).getResults())
+            .extracting(result -> result.get("entityId"))
+            .containsExactlyElementsOf(heap.searchByEntityType(query, "product", 5, 0.0).getResults().stream()
+                .map(result -> result.get("entityId")).toList());
+    }
+
+    @Test
+    void keepsOneVectorPerEntityAndScopesSearchesToTheirPartition() {
+        String first = service.storeVector("product", "p1", "old", vector(1f, 0f), Map.of());
+        String second = service.storeVector("product", "p1", "new", vector(0f, 1f), Map.of());
+        service.storeVector("order", "p1", "order", vector(1f, 0f), Map.of());
+
+        assertThat(service.getVector(first)).isEmpty();
+        assertThat(service.getVectorByEntity("product", "p1").orElseThrow().getVectorId()).isEqualTo(second);
+        assertThat(service.getVectorCountByEntityType("product")).isEqualTo(1);
+        assertThat(service.searchByEntityType(vector(1f, 0f), "product", 10, -1.0).getResults())
+            .extracting(result -> result.get("content")).containsExactly("new");
+        assertThat(service.searchByEntityType(vector(1f, 0f), "order", 10, -1.0).getResults())
+            .extracting(result -> result.get("content")).containsExactly("order");
+        assertThat(service.searchByEntityType(vector(1f, 0f), null, 10, -1.0).getResults()).isEmpty();
+
+        assertThat(service.clearVectorsByEntityType("product")).isEqualTo(1);
+        assertThat(service.getVector(second)).isEmpty();
+        assertThat(service.vectorExists("order", "p1")).isTrue();
+    }
+
+    @Test
+    void updateMovesARecordBetweenPartitionsAndKeepsItsIdentity() {
+        String vectorId = service.storeVector("product", "p1", "content", vector(1f, 0f), Map.of());
+
+        assertThat(service.updateVector(vectorId, "archive", "a1", "moved", vector(0f, 1f), Map.of())).isTrue();
+
+        VectorRecord moved = service.getVector(vectorId).orElseThrow();
+        assertThat(moved.getEntityType()).isEqualTo("archive");
+        assertThat(moved.getVersion()).isEqualTo(2);
+        assertThat(service.vectorExists("product", "p1")).isFalse();
+        assertThat(service.getVectorByEntity("archive", "a1").orElseThrow().getVectorId()).isEqualTo(vectorId);
+        assertThat(service.updateVector("missing", "archive", "a1", "x", vector(1f, 1f), Map.of())).isFalse();
+    }
+
+    @Test
+    void concurrentUpdatesOfOneRecordAreNeverLost() throws Exception {
+        String vectorId = service.storeVector("product", "p1", "content", vector(1f, 0f), Map.of());
+        int threads = 8;
+        int updatesPerThread = 200;
+
+        runConcurrently(threads, thread -> {
+            for (int i = 0; i < updatesPerThread; i++) {
+                String type = (thread + i) % 2 == 0 ? "product" : "archive";
+                assertThat(service.updateVector(vectorId, type, "p1", "t" + thread, vector(1f, i), Map.of())).isTrue();
+            }
+        });
+
+        VectorRecord record = service.getVector(vectorId).orElseThrow();
+        assertThat(record.getVersion()).isEqualTo(1 + threads * updatesPerThread);
+        assertThat(service.getStatistics()).containsEntry("totalVectors", 1);
+        assertThat(service.getVectorCountByEntityType("product") + service.getVectorCountByEntityType("archive"))
+            .isEqualTo(1);
+    }
+
+    @Test
+    void vectorStaysResolvableWhileItMovesBetweenEntityTypes() throws Exception {
+        String vectorId = service.storeVector("product", "p1", "content", vector(1f, 0f), Map.of());
+
+        runConcurrently(8, thread -> {
+            for (int i = 0; i < 500; i++) {
+                if (thread % 2 == 0) {
+                    String type = i % 2 == 0 ? "archive" : "product";
+                    assertThat(service.updateVector(vectorId, type, "p1", "c", vector(1f, i), Map.of())).isTrue();
+                } else {
+                    assertThat(service.getVector(vectorId)).isPresent();
+                }
+            }
+        });
+
+        assertThat(service.getStatistics()).containsEntry("totalVectors", 1);
+    }
+
+    @Test
+    void concurrentWritesAcrossPartitionsKeepIndexesConsistent() throws Exception {
+        int threads = 8;
+        runConcurrently(threads, thread -> {
+            String type = "type" + (thread % 4);
+            for (int i = 0; i < 300; i++) {
+                String entityId = "e" + (i % 50);
+                service.storeVector(type, entityId, "c", vector(thread, i), Map.of());
+                if (i % 7 == 0) {
+                    service.removeVector(type, "e" + ((i + 3) % 50));
+                }
+                service.searchByEntityType(vector(1f, 1f), type, 5, -1.0);
+            }
+        });
+
+        long total = 0;
+        for (int t = 0; t < 4; t++) {
+            String type = "type" + t;
+            List<VectorRecord> records = service.getVectorsByEntityType(type);
+            assertThat(records).extracting(VectorRecord::getEntityId).doesNotHaveDuplicates();
+            for (VectorRecord record : records) {
+                assertThat(service.getVector(record.getVectorId())).isPresent();
+                assertThat(service.getVectorByEntity(type, record.getEntityId()).orElseThrow().getVectorId())
+                    .isEqualTo(record.getVectorId());
+            }
+            total += records.size();
+        }
+        assertThat(service.getStatistics()).containsEntry("totalVectors", (int) total);
+    }
+
+    private static void runConcurrently(int threads, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.accept(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static Embedding vector(float x, float y) {
+        return Embedding.of(new float[] {x, y});
+    }
+}
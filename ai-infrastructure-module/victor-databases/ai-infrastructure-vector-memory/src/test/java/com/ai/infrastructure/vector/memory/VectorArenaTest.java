@@ -0,0 +1,165 @@
+package com.ai.infrastructure.vector.memory;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VectorArenaTest {
+
+    private static final int DIMENSION = 24;
+
+    private final Random random = new Random(3);
+
+    static Stream<DotProductKernel> kernels() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            ? Stream.of(new ScalarDotProductKernel(), new VectorApiDotProductKernel())
+            : Stream.of(new ScalarDotProductKernel());
+    }
+
+    @ParameterizedTest
+    @MethodSource("kernels")
+    void searchMatchesAnExactScan(DotProductKernel kernel) {
+        VectorArena arena = new VectorArena(DIMENSION, kernel);
+        Map<String, float[]> vectors = new LinkedHashMap<>();
+        // Spans the growing chunks and two full ones so blocks are cut at every kind of boundary
+        for (int i = 0; i < VectorArena.chunkStart(10) + 500; i++) {
+            float[] vector = randomVector();
+            arena.add("v" + i, vector);
+            vectors.put("v" + i, vector);
+        }
+        for (int i = 0; i < 2_000; i += 2) {
+            arena.remove("v" + i);
+            vectors.remove("v" + i);
+        }
+
+        assertThat(arena.size()).isEqualTo(vectors.size());
+        for (int q = 0; q < 10; q++) {
+            float[] query = randomVector();
+            List<VectorArena.Hit> hits = arena.search(query, 10, -1.0);
+            List<Map.Entry<String, Double>> exact = exactTopK(query, vectors, 10);
+            assertThat(hits).extracting(VectorArena.Hit::id)
+                .containsExactlyElementsOf(exact.stream().map(Map.Entry::getKey).toList());
+            for (int rank = 0; rank < hits.size(); rank++) {
+                assertThat((double) hits.get(rank).score()).isCloseTo(exact.get(rank).getValue(), within(1e-5));
+            }
+        }
+    }
+
+    @Test
+    void returnsTheStoredComponentsAndFollowsMovedRows() {
+        VectorArena arena = new VectorArena(3, new ScalarDotProductKernel());
+        arena.add("a", new float[] {3f, 0f, 4f});
+        arena.add("b", new float[] {0f, -2f, 0f});
+        arena.add("c", new float[] {1f, 1f, 1f});
+
+        assertThat(arena.remove("a")).isTrue();
+        arena.add("b", new float[] {0f, 5f, 0f});
+
+        assertThat(arena.get("a")).isNull();
+        assertThat(arena.get("b")).containsExactly(0f, 5f, 0f);
+        assertThat(arena.get("c")).containsExactly(1f, 1f, 1f);
+        List<VectorArena.Hit> hits = arena.search(new float[] {0f, 1f, 0f}, 5, -1.0);
+        assertThat(hits).extracting(VectorArena.Hit::id).containsExactly("b", "c");
+        assertThat(hits.get(0).score()).isCloseTo(1f, within(1e-6f));
+    }
+
+    @Test
+    void chunksMapSlotsContiguously() {
+        int slot = 0;
+        for (int index = 0; index < 12; index++) {
+            assertThat(VectorArena.chunkStart(index)).isEqualTo(slot);
+            assertThat(VectorArena.chunkIndex(slot)).isEqualTo(index);
+            slot += VectorArena.chunkRows(index);
+            assertThat(VectorArena.chunkIndex(slot - 1)).isEqualTo(index);
+        }
+        assertThat(VectorArena.chunkRows(0)).isEqualTo(VectorArena.FIRST_CHUNK_ROWS);
+        assertThat(VectorArena.chunkRows(11)).isEqualTo(VectorArena.CHUNK_ROWS);
+    }
+
+    @Test
+    void reservesLittleForFewVectorsAndReleasesEmptyChunks() {
+        VectorArena arena = new VectorArena(DIMENSION, new ScalarDotProductKernel());
+        long rowBytes = (long) DIMENSION * Float.BYTES;
+        assertThat(arena.reservedBytes()).isZero();
+
+        arena.add("v0", randomVector());
+        assertThat(arena.reservedBytes()).isEqualTo(VectorArena.FIRST_CHUNK_ROWS * rowBytes);
+
+        int rows = VectorArena.chunkStart(10) + 1;
+        for (int i = 1; i < rows; i++) {
+            arena.add("v" + i, randomVector());
+        }
+        assertThat(arena.reservedBytes()).isEqualTo(VectorArena.chunkStart(11) * rowBytes);
+
+        // Emptying the last chunk keeps it as the spare
+        arena.remove("v" + (rows - 1));
+        assertThat(arena.reservedBytes()).isEqualTo(VectorArena.chunkStart(11) * rowBytes);
+
+        float[] kept = randomVector();
+        arena.add("v0", kept);
+        for (int i = 1; i < rows - 1; i++) {
+            arena.remove("v" + i);
+        }
+        // The first chunk and one empty spare are kept
+        assertThat(arena.size()).isEqualTo(1);
+        assertThat(arena.reservedBytes()).isEqualTo(VectorArena.chunkStart(2) * rowBytes);
+        assertThat(arena.get("v0")).containsExactly(kept);
+
+        arena.add("v1", randomVector());
+        arena.clear();
+        assertThat(arena.reservedBytes()).isZero();
+        arena.add("v2", kept);
+        assertThat(arena.get("v2")).containsExactly(kept);
+        assertThat(arena.reservedBytes()).isEqualTo(VectorArena.FIRST_CHUNK_ROWS * rowBytes);
+    }
+
+    @Test
+    void zeroVectorsScoreZeroAndThresholdFilters() {
+        VectorArena arena = new VectorArena(2, new ScalarDotProductKernel());
+        arena.add("zero", new float[] {0f, 0f});
+        arena.add("x", new float[] {2f, 0f});
+        arena.add("y", new float[] {0f, 2f});
+
+        assertThat(arena.search(new float[] {1f, 0f}, 10, -1.0))
+            .extracting(VectorArena.Hit::id).containsExactly("x", "zero", "y");
+        assertThat(arena.search(new float[] {1f, 0f}, 10, 0.5))
+            .extracting(VectorArena.Hit::id).containsExactly("x");
+    }
+
+    private List<Map.Entry<String, Double>> exactTopK(float[] query, Map<String, float[]> vectors, int k) {
+        List<Map.Entry<String, Double>> scored = new ArrayList<>();
+        vectors.forEach((id, vector) -> scored.add(Map.entry(id, cosine(query, vector))));
+        scored.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        return scored.subList(0, k);
+    }
+
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        double normA = 0;
+        double normB = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += (double) a[i] * b[i];
+            normA += (double) a[i] * a[i];
+            normB += (double) b[i] * b[i];
+        }
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private float[] randomVector() {
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
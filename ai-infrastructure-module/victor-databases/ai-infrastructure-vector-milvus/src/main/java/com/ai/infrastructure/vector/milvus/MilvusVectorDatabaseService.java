@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -105,7 +106,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
 
     @Override
     public String storeVector(String entityType, String entityId, String content,
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         Objects.requireNonNull(entityType, "entityType must not be null");
         Objects.requireNonNull(entityId, "entityId must not be null");
         if (embedding == null || embedding.isEmpty()) {
@@ -113,7 +114,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
         }
 
         String collection = entityType.toLowerCase();
-        ensureCollection(collection, embedding.size());
+        ensureCollection(collection, embedding.dimension());
 
         String vectorId = buildVectorId(entityType, entityId);
         removeVectorById(vectorId);
@@ -137,7 +138,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
 
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId,
-                                String content, List<Double> embedding, Map<String, Object> metadata) {
+                                String content, Embedding embedding, Map<String, Object> metadata) {
         storeVector(entityType, entityId, content, embedding, metadata);
         return true;
     }
@@ -194,7 +195,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
     }
 
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         if (request == null || request.getEntityType() == null) {
             throw new AIServiceException("Milvus search requires request.entityType to be specified");
         }
@@ -203,7 +204,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
         }
 
         String collection = request.getEntityType().toLowerCase();
-        ensureCollection(collection, queryVector.size());
+        ensureCollection(collection, queryVector.dimension());
         ensureCollectionLoaded(collection);
 
         int topK = Optional.ofNullable(request.getLimit()).orElse(10);
@@ -269,7 +270,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
     }
 
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
         AISearchRequest request = AISearchRequest.builder()
             .entityType(entityType)
             .limit(limit)
@@ -318,7 +319,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
         List<String> ids = new ArrayList<>(vectors.size());
         for (VectorRecord record : vectors) {
             ids.add(storeVector(record.getEntityType(), record.getEntityId(), record.getContent(),
-                record.getEmbedding(), record.getMetadata()));
+                record.getVector(), record.getMetadata()));
         }
         return ids;
     }
@@ -584,9 +585,9 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
             if (!(vectorValue instanceof List<?> floatsRaw)) {
                 throw new AIServiceException("Unexpected Milvus embedding payload type: " + vectorValue);
             }
-            List<Double> embedding = new ArrayList<>(floatsRaw.size());
-            for (Object entry : floatsRaw) {
-                embedding.add(((Number) entry).doubleValue());
+            float[] embedding = new float[floatsRaw.size()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = ((Number) floatsRaw.get(i)).floatValue();
             }
 
             return VectorRecord.builder()
@@ -594,7 +595,7 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
                 .entityType(collection)
                 .entityId(entityId)
                 .content(content)
-                .embedding(embedding)
+                .vector(Embedding.wrap(embedding))
                 .metadata(metadata)
                 .build();
         } catch (ParamException | IllegalResponseException ex) {
@@ -602,10 +603,11 @@ public class MilvusVectorDatabaseService implements VectorDatabaseService, AutoC
         }
     }
 
-    private List<Float> toFloatList(List<Double> values) {
-        List<Float> floats = new ArrayList<>(values.size());
-        for (Double value : values) {
-            floats.add(value.floatValue());
+    private List<Float> toFloatList(Embedding values) {
+        float[] array = values.values();
+        List<Float> floats = new ArrayList<>(array.length);
+        for (float value : array) {
+            floats.add(value);
         }
         return floats;
     }
@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -11,7 +12,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
-import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -52,13 +52,13 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     
     @Override
     public String storeVector(String entityType, String entityId, String content, 
-                           List<Double> embedding, Map<String, Object> metadata) {
+                           Embedding embedding, Map<String, Object> metadata) {
         return upsertSingleVector(entityType, entityId, content, embedding, metadata);
     }
     
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId, String content, 
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         String resolvedId = upsertSingleVector(entityType, entityId, content, embedding, metadata, vectorId);
         return Objects.equals(resolvedId, vectorId);
     }
@@ -94,8 +94,8 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
-        if (CollectionUtils.isEmpty(queryVector)) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
+        if (queryVector == null || queryVector.isEmpty()) {
             throw new AIServiceException("Query vector is required for Pinecone search");
         }
 
@@ -104,7 +104,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
         try {
             Map<String, Object> payload = new LinkedHashMap<>();
             payload.put("namespace", namespace(request.getEntityType()));
-            payload.put("vector", queryVector);
+            payload.put("vector", queryVector.values());
             payload.put("topK", request.getLimit() != null ? request.getLimit() : 10);
             payload.put("includeMetadata", true);
             payload.put("includeValues", false);
@@ -144,7 +144,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     }
     
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
         AISearchRequest request = AISearchRequest.builder()
             .entityType(entityType)
             .limit(limit)
@@ -219,7 +219,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     @Override
     public List<VectorRecord> getVectorsByEntityType(String entityType) {
         // Best effort: query with zero vector to retrieve metadata-rich matches.
-        List<Double> zeroVector = Collections.nCopies(config.getPinecone().getDimensions(), 0.0);
+        Embedding zeroVector = Embedding.wrap(new float[config.getPinecone().getDimensions()]);
         AISearchRequest request = AISearchRequest.builder()
             .entityType(entityType)
             .limit(100)
@@ -281,7 +281,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     private String upsertSingleVector(String entityType,
                                       String entityId,
                                       String content,
-                                      List<Double> embedding,
+                                      Embedding embedding,
                                       Map<String, Object> metadata) {
         return upsertSingleVector(entityType, entityId, content, embedding, metadata, null);
     }
@@ -289,7 +289,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     private String upsertSingleVector(String entityType,
                                       String entityId,
                                       String content,
-                                      List<Double> embedding,
+                                      Embedding embedding,
                                       Map<String, Object> metadata,
                                       String existingVectorId) {
         try {
@@ -319,7 +319,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
             String vectorId = Optional.ofNullable(record.getVectorId())
                 .orElseGet(() -> buildVectorId(entityType, record.getEntityId()));
             ids.add(vectorId);
-            vectors.add(buildVectorPayload(vectorId, entityType, record.getEntityId(), record.getContent(), record.getEmbedding(), record.getMetadata()));
+            vectors.add(buildVectorPayload(vectorId, entityType, record.getEntityId(), record.getContent(), record.getVector(), record.getMetadata()));
         }
 
         Map<String, Object> payload = new LinkedHashMap<>();
@@ -334,7 +334,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
                                                    String entityType,
                                                    String entityId,
                                                    String content,
-                                                   List<Double> embedding,
+                                                   Embedding embedding,
                                                    Map<String, Object> metadata) {
         Map<String, Object> meta = new LinkedHashMap<>();
         if (metadata != null) {
@@ -350,7 +350,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
         vector.put("id", vectorId);
         vector.put("metadata", meta);
         if (embedding != null) {
-            vector.put("values", embedding);
+            vector.put("values", embedding.values());
         }
         return vector;
     }
@@ -368,7 +368,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
     private VectorRecord mapToVectorRecord(Map<String, Object> vectorPayload, String namespace) {
         String vectorId = (String) vectorPayload.get("id");
         Map<String, Object> metadata = (Map<String, Object>) vectorPayload.getOrDefault("metadata", Map.of());
-        List<Double> values = convertValues(vectorPayload.get("values"));
+        Embedding values = convertValues(vectorPayload.get("values"));
         String entityType = (String) metadata.getOrDefault("entityType", namespace);
         String entityId = (String) metadata.get("entityId");
         String content = (String) metadata.get("content");
@@ -378,7 +378,7 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
             .entityType(entityType)
             .entityId(entityId)
             .content(content)
-            .embedding(values)
+            .vector(values)
             .metadata(metadata)
             .createdAt(LocalDateTime.now())
             .updatedAt(LocalDateTime.now())
@@ -404,22 +404,23 @@ public class PineconeVectorDatabaseService implements VectorDatabaseService {
             .build();
     }
 
-    private List<Double> convertValues(Object values) {
+    private Embedding convertValues(Object values) {
         if (values == null) {
-            return List.of();
+            return Embedding.empty();
         }
         if (values instanceof List<?>) {
             List<?> raw = (List<?>) values;
-            List<Double> converted = new ArrayList<>(raw.size());
+            float[] converted = new float[raw.size()];
+            int size = 0;
             for (Object o : raw) {
                 Double v = toDouble(o);
                 if (v != null) {
-                    converted.add(v);
+                    converted[size++] = v.floatValue();
                 }
             }
-            return converted;
+            return Embedding.wrap(size == converted.length ? converted : Arrays.copyOf(converted, size));
         }
-        return List.of();
+        return Embedding.empty();
     }
 
     private Map<String, Object> post(String path, Object payload) {
@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -53,9 +54,9 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
     }
 
     @Override
-    public String storeVector(String entityType, String entityId, String content, List<Double> embedding, Map<String, Object> metadata) {
+    public String storeVector(String entityType, String entityId, String content, Embedding embedding, Map<String, Object> metadata) {
         ensureEnabled();
-        ensureCollection(entityType, embedding.size());
+        ensureCollection(entityType, embedding.dimension());
         String vectorId = buildVectorId(entityType, entityId);
 
         ObjectNode payload = MAPPER.createObjectNode();
@@ -64,7 +65,9 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
         point.put("id", vectorId);
 
         ArrayNode vectorArray = point.putArray("vector");
-        embedding.forEach(vectorArray::add);
+        for (float value : embedding.values()) {
+            vectorArray.add(value);
+        }
 
         ObjectNode payloadNode = point.putObject("payload");
         payloadNode.put("entityId", entityId);
@@ -80,9 +83,9 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
     }
 
     @Override
-    public boolean updateVector(String vectorId, String entityType, String entityId, String content, List<Double> embedding, Map<String, Object> metadata) {
+    public boolean updateVector(String vectorId, String entityType, String entityId, String content, Embedding embedding, Map<String, Object> metadata) {
         ensureEnabled();
-        ensureCollection(entityType, embedding.size());
+        ensureCollection(entityType, embedding.dimension());
         return storeVector(entityType, entityId, content, embedding, metadata) != null;
     }
 
@@ -109,11 +112,11 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
     }
 
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         ensureEnabled();
         String entityType = Optional.ofNullable(request.getEntityType()).orElseThrow(() ->
             new AIServiceException("Qdrant search requires request.entityType"));
-        ensureCollection(entityType, queryVector.size());
+        ensureCollection(entityType, queryVector.dimension());
 
         int limit = Optional.ofNullable(request.getLimit()).orElse(10);
         double threshold = Optional.ofNullable(request.getThreshold()).orElse(0.0);
@@ -121,7 +124,9 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
         ObjectNode payload = MAPPER.createObjectNode();
         payload.put("limit", limit);
         ArrayNode vectorArray = payload.putArray("vector");
-        queryVector.forEach(vectorArray::add);
+        for (float value : queryVector.values()) {
+            vectorArray.add(value);
+        }
 
         JsonNode filterNode = buildFilterNode(request.getFilters(), request.getMetadata());
         if (filterNode != null) {
@@ -151,7 +156,7 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
     }
 
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
         AISearchRequest request = AISearchRequest.builder()
             .entityType(entityType)
             .limit(limit)
@@ -185,7 +190,7 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
             return Collections.emptyList();
         }
         vectors.forEach(record -> storeVector(record.getEntityType(), record.getEntityId(), record.getContent(),
-            record.getEmbedding(), record.getMetadata()));
+            record.getVector(), record.getMetadata()));
         return vectors.stream()
             .map(record -> buildVectorId(record.getEntityType(), record.getEntityId()))
             .collect(Collectors.toList());
@@ -346,10 +351,13 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
         JsonNode payload = node.path("payload");
         String entityId = payload.path("entityId").asText(null);
         String content = payload.path("content").asText(null);
-        List<Double> vector = new ArrayList<>();
+        float[] vector = new float[0];
         JsonNode vectorNode = node.path("vector");
         if (vectorNode.isArray()) {
-            vectorNode.forEach(v -> vector.add(v.asDouble()));
+            vector = new float[vectorNode.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = (float) vectorNode.get(i).asDouble();
+            }
         }
         Map<String, Object> metadata = new LinkedHashMap<>();
         payload.fields().forEachRemaining(entry -> {
@@ -362,7 +370,7 @@ public class QdrantVectorDatabaseService implements VectorDatabaseService {
             .entityType(entityType)
             .entityId(entityId)
             .content(content)
-            .embedding(vector)
+            .vector(Embedding.wrap(vector))
             .metadata(metadata)
             .similarityScore(node.path("score").asDouble(0.0))
             .build();
@@ -4,6 +4,7 @@ import com.ai.infrastructure.config.AIProviderConfig;
 import com.ai.infrastructure.dto.AISearchRequest;
 import com.ai.infrastructure.dto.AISearchResponse;
 import com.ai.infrastructure.dto.VectorRecord;
+import com.ai.infrastructure.embedding.Embedding;
 import com.ai.infrastructure.exception.AIServiceException;
 import com.ai.infrastructure.rag.VectorDatabaseService;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -62,7 +63,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
 
     @Override
     public String storeVector(String entityType, String entityId, String content,
-                              List<Double> embedding, Map<String, Object> metadata) {
+                              Embedding embedding, Map<String, Object> metadata) {
         ensureEnabled();
         ensureClassExists(entityType);
         String vectorId = buildVectorId(entityType, entityId);
@@ -81,9 +82,11 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         }
         payload.set("properties", properties);
 
-        if (!CollectionUtils.isEmpty(embedding)) {
+        if (embedding != null && !embedding.isEmpty()) {
             ArrayNode vector = payload.putArray("vector");
-            embedding.forEach(vector::add);
+            for (float value : embedding.values()) {
+                vector.add(value);
+            }
         }
 
         execute(HttpMethod.POST, "/v1/objects", payload, JsonNode.class);
@@ -92,7 +95,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
 
     @Override
     public boolean updateVector(String vectorId, String entityType, String entityId, String content,
-                                List<Double> embedding, Map<String, Object> metadata) {
+                                Embedding embedding, Map<String, Object> metadata) {
         ensureEnabled();
         ensureClassExists(entityType);
 
@@ -110,9 +113,11 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         }
         payload.set("properties", properties);
 
-        if (!CollectionUtils.isEmpty(embedding)) {
+        if (embedding != null && !embedding.isEmpty()) {
             ArrayNode vector = payload.putArray("vector");
-            embedding.forEach(vector::add);
+            for (float value : embedding.values()) {
+                vector.add(value);
+            }
         }
 
         try {
@@ -145,12 +150,12 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
     }
 
     @Override
-    public AISearchResponse search(List<Double> queryVector, AISearchRequest request) {
+    public AISearchResponse search(Embedding queryVector, AISearchRequest request) {
         return executeSearch(queryVector, request, null);
     }
 
     @Override
-    public AISearchResponse searchByEntityType(List<Double> queryVector, String entityType, int limit, double threshold) {
+    public AISearchResponse searchByEntityType(Embedding queryVector, String entityType, int limit, double threshold) {
         AISearchRequest searchRequest = AISearchRequest.builder()
             .entityType(entityType)
             .limit(limit)
@@ -187,7 +192,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         List<String> ids = new ArrayList<>(vectors.size());
         for (VectorRecord record : vectors) {
             ids.add(storeVector(record.getEntityType(), record.getEntityId(), record.getContent(),
-                record.getEmbedding(), record.getMetadata()));
+                record.getVector(), record.getMetadata()));
         }
         return ids;
     }
@@ -201,7 +206,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         for (VectorRecord record : vectors) {
             String vectorId = buildVectorId(record.getEntityType(), record.getEntityId());
             if (updateVector(vectorId, record.getEntityType(), record.getEntityId(), record.getContent(),
-                record.getEmbedding(), record.getMetadata())) {
+                record.getVector(), record.getMetadata())) {
                 updated++;
             }
         }
@@ -267,7 +272,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         return records.size();
     }
 
-    private AISearchResponse executeSearch(List<Double> queryVector, AISearchRequest request, String explicitClass) {
+    private AISearchResponse executeSearch(Embedding queryVector, AISearchRequest request, String explicitClass) {
         ensureEnabled();
         String entityType = explicitClass != null ? explicitClass : request.getEntityType();
         ensureClassExists(entityType);
@@ -325,11 +330,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
                 continue;
             }
 
-            JsonNode vectorNode = additional.path("vector");
-            List<Double> vector = new ArrayList<>();
-            if (vectorNode.isArray()) {
-                vectorNode.forEach(v -> vector.add(v.asDouble()));
-            }
+            Embedding vector = toEmbedding(additional.path("vector"));
 
             String entityId = row.path("entityId").asText(null);
             String content = row.path("content").asText(null);
@@ -346,7 +347,7 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
                 .entityType(entityType)
                 .entityId(entityId)
                 .content(content)
-                .embedding(vector)
+                .vector(vector)
                 .metadata(metadata)
                 .similarityScore(score)
                 .build());
@@ -435,13 +436,15 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
         return value != null && !value.trim().isEmpty();
     }
 
-    private String buildNearVectorQuery(String entityType, List<Double> vector, int limit, String filterExpression) {
+    private String buildNearVectorQuery(String entityType, Embedding vector, int limit, String filterExpression) {
         StringBuilder builder = new StringBuilder();
         builder.append("{ Get { ").append(entityType).append("(");
         builder.append("limit: ").append(limit);
         builder.append(", nearVector: { vector: [");
         StringJoiner joiner = new StringJoiner(", ");
-        vector.forEach(v -> joiner.add(Double.toString(v)));
+        for (float value : vector.values()) {
+            joiner.add(Float.toString(value));
+        }
         builder.append(joiner.toString()).append("] }");
 
         if (hasText(filterExpression)) {
@@ -470,19 +473,24 @@ public class WeaviateVectorDatabaseService implements VectorDatabaseService {
             }
         });
 
-        JsonNode vectorNode = node.path("vector");
-        List<Double> embedding = new ArrayList<>();
-        if (vectorNode.isArray()) {
-            vectorNode.forEach(v -> embedding.add(v.asDouble()));
-        }
-
         return VectorRecord.builder()
             .vectorId(id)
             .entityType(entityType)
             .entityId(entityId)
             .content(content)
-            .embedding(embedding)
+            .vector(toEmbedding(node.path("vector")))
             .metadata(metadata)
             .build();
     }
+
+    private Embedding toEmbedding(JsonNode vectorNode) {
+        if (!vectorNode.isArray()) {
+            return Embedding.empty();
+        }
+        float[] values = new float[vectorNode.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) vectorNode.get(i).asDouble();
+        }
+        return Embedding.wrap(values);
+    }
 }